@@ -0,0 +1,104 @@
+package com.cs_25_2_team2.RestaurantManagementApp.benchmarks;
+
+import com.cs_25_2_team2.RestaurantManagementApp.auth.AuthTokenService;
+import com.cs_25_2_team2.RestaurantManagementApp.auth.RequiredRole;
+import com.cs_25_2_team2.RestaurantManagementApp.auth.Role;
+import com.cs_25_2_team2.RestaurantManagementApp.auth.RouteAuthorizationTable;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.web.method.HandlerMethod;
+
+/**
+ * Per-request authentication cost of a protected endpoint: verifying a signed token versus the
+ * in-memory session path (session id lookup in a store of {@code sessions} live sessions, then
+ * attribute reads and the role string comparison AuthInterceptor does). The session path has to
+ * keep every session on one JVM's heap; the token path keeps nothing. {@code sessionPrecompiled}
+ * is the session path with the role check AuthInterceptor now does, one AND against a
+ * {@link RouteAuthorizationTable} rule.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AuthBenchmark {
+  private static final String[] ALLOWED = {"CHEF", "DELIVERY", "ADMIN"};
+  private static final int ALLOWED_MASK = Role.maskOf(ALLOWED);
+
+  @Param({"1000", "100000"})
+  private int sessions;
+
+  private AuthTokenService tokens;
+  private String token;
+  private Map<String, Map<String, Object>> sessionStore;
+  private String sessionId;
+  private RouteAuthorizationTable.Rule rule;
+
+  public static class Handlers {
+    @RequiredRole({"CHEF", "DELIVERY", "ADMIN"})
+    public void handle() {}
+  }
+
+  @Setup
+  public void setUp() {
+    byte[] secret = new byte[32];
+    Arrays.fill(secret, (byte) 7);
+    tokens = new AuthTokenService("1:" + Base64.getEncoder().encodeToString(secret), 28800);
+    token = tokens.issue(42L, Role.CHEF);
+
+    // Same shape as a servlet container's session manager: id -> concurrent attribute map
+    sessionStore = new ConcurrentHashMap<>();
+    for (int i = 0; i < sessions; i++) {
+      Map<String, Object> attributes = new ConcurrentHashMap<>();
+      attributes.put("userId", (long) i);
+      attributes.put("username", "user" + i);
+      attributes.put("userType", i % 2 == 0 ? "CHEF" : "CUSTOMER");
+      attributes.put("fullName", "User " + i);
+      sessionStore.put(Integer.toHexString(i * 0x9E3779B9) + "A1B2C3D4E5F6", attributes);
+    }
+    sessionId = Integer.toHexString(42 * 0x9E3779B9) + "A1B2C3D4E5F6";
+
+    try {
+      rule = new RouteAuthorizationTable()
+          .lookup(new HandlerMethod(new Handlers(), Handlers.class.getMethod("handle")));
+    } catch (NoSuchMethodException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Benchmark
+  public boolean token() {
+    AuthTokenService.Claims claims = tokens.verify(token);
+    return claims != null && claims.hasAnyRole(ALLOWED_MASK);
+  }
+
+  @Benchmark
+  public boolean session() {
+    Map<String, Object> session = sessionStore.get(sessionId);
+    if (session == null || session.get("username") == null) {
+      return false;
+    }
+    String userRole = (String) session.get("userType");
+    return userRole != null && Arrays.stream(ALLOWED).anyMatch(role -> role.equalsIgnoreCase(userRole));
+  }
+
+  @Benchmark
+  public boolean sessionPrecompiled() {
+    Map<String, Object> session = sessionStore.get(sessionId);
+    if (session == null || session.get("username") == null) {
+      return false;
+    }
+    return rule.permits((String) session.get("userType"));
+  }
+}
@@ -0,0 +1,65 @@
+package com.cs_25_2_team2.RestaurantManagementApp.benchmarks;
+
+import com.cs_25_2_team2.RestaurantManagementApp.Cart;
+import com.cs_25_2_team2.RestaurantManagementApp.MenuItem;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** {@link Cart} updates and totals for carts with different numbers of distinct lines. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CartBenchmark {
+  @Param({"1", "10", "50"})
+  private int lines;
+
+  private MenuItem[] items;
+  private Cart cart;
+  private int next;
+
+  @Setup(Level.Trial)
+  public void createItems() {
+    items = new MenuItem[lines];
+    for (int i = 0; i < lines; i++) {
+      items[i] =
+          new MenuItem(
+              i + 1,
+              "Dish " + (i + 1),
+              4.99,
+              MenuItem.CookedType.Baked,
+              MenuItem.PotatoType.Russet,
+              true);
+    }
+  }
+
+  @Setup(Level.Iteration)
+  public void fillCart() {
+    cart = new Cart(1L);
+    for (MenuItem item : items) {
+      cart.addItem(item, 1);
+    }
+  }
+
+  /** Adds one more unit of an item already in the cart (the line count stays fixed). */
+  @Benchmark
+  public Cart addItem() {
+    cart.addItem(items[next], 1);
+    next = (next + 1) % lines;
+    return cart;
+  }
+
+  @Benchmark
+  public double calculateTotal() {
+    return cart.calculateTotal();
+  }
+}
@@ -0,0 +1,59 @@
+package com.cs_25_2_team2.RestaurantManagementApp.benchmarks;
+
+import com.cs_25_2_team2.RestaurantManagementApp.Menu;
+import com.cs_25_2_team2.RestaurantManagementApp.MenuItem;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** {@link Menu} lookups over menus of different sizes, a quarter of the items unavailable. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MenuBenchmark {
+  @Param({"10", "100", "1000"})
+  private int size;
+
+  private Menu menu;
+
+  @Setup
+  public void setUp() {
+    MenuItem.CookedType[] cookedTypes = MenuItem.CookedType.values();
+    MenuItem.PotatoType[] potatoTypes = MenuItem.PotatoType.values();
+    menu = new Menu();
+    for (int id = 1; id <= size; id++) {
+      menu.addMenuItem(
+          new MenuItem(
+              id,
+              "Dish " + id,
+              5.0 + id % 10,
+              cookedTypes[id % cookedTypes.length],
+              potatoTypes[id % potatoTypes.length],
+              id % 4 != 0));
+    }
+  }
+
+  @Benchmark
+  public List<MenuItem> getAvailableItems() {
+    return menu.getAvailableItems();
+  }
+
+  @Benchmark
+  public List<MenuItem> getItemsByCookingType() {
+    return menu.getItemsByCookingType(MenuItem.CookedType.Fried);
+  }
+
+  @Benchmark
+  public String getDisplayText() {
+    return menu.getDisplayText();
+  }
+}
@@ -0,0 +1,61 @@
+package com.cs_25_2_team2.RestaurantManagementApp.benchmarks;
+
+import com.cs_25_2_team2.RestaurantManagementApp.TrigramIndex;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * {@link TrigramIndex} searches over generated menus, sampled so the percentiles (p99) of a
+ * search-box keystroke are reported.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MenuSearchBenchmark {
+  private static final String[] STYLES = {
+    "Loaded", "Classic", "Crispy", "Texas", "Garlic", "Herb", "Smoky", "Cheesy", "Spicy", "Sweet"
+  };
+  private static final String[] DISHES = {
+    "Baked Potato", "Fries", "Wedges", "Mash", "Hash Browns", "Potato Soup", "Skins", "Gratin"
+  };
+  private static final String[] INGREDIENTS = {
+    "Cheddar", "Bacon", "Chives", "Sour Cream", "Butter", "Garlic", "Paprika", "Rosemary",
+    "Jalapeno", "Cinnamon", "Parmesan", "Onion"
+  };
+
+  @Param({"1000", "50000"})
+  private int size;
+
+  private TrigramIndex<Integer> index;
+
+  @Setup
+  public void setUp() {
+    index = new TrigramIndex<>(3, 2, 1);
+    for (int id = 0; id < size; id++) {
+      String name = STYLES[id % STYLES.length] + " " + DISHES[id / STYLES.length % DISHES.length] + " " + id;
+      String ingredients =
+          INGREDIENTS[id % INGREDIENTS.length] + " " + INGREDIENTS[(id / 7) % INGREDIENTS.length];
+      index.put(id, name, ingredients, "House favourite number " + id);
+    }
+  }
+
+  @Benchmark
+  public List<TrigramIndex.Hit<Integer>> prefix() {
+    return index.search("texas ba", 20, null);
+  }
+
+  @Benchmark
+  public List<TrigramIndex.Hit<Integer>> typo() {
+    return index.search("chedar bacn", 20, null);
+  }
+}
@@ -0,0 +1,84 @@
+package com.cs_25_2_team2.RestaurantManagementApp.benchmarks;
+
+import com.cs_25_2_team2.RestaurantManagementApp.CartItem;
+import com.cs_25_2_team2.RestaurantManagementApp.Customer;
+import com.cs_25_2_team2.RestaurantManagementApp.MenuItem;
+import com.cs_25_2_team2.RestaurantManagementApp.Order;
+import com.cs_25_2_team2.RestaurantManagementApp.OrderQueue;
+
+import java.sql.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * {@link OrderQueue} operations at different queue sizes. Each benchmark leaves the queue at the
+ * same size it started with, so the measured cost is that of a queue holding {@code size} orders.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderQueueBenchmark {
+  @Param({"10", "1000", "100000"})
+  private int size;
+
+  private OrderQueue queue;
+  private int nextId;
+
+  @Setup
+  public void setUp() {
+    Customer customer = new Customer(1L, "Bench Customer", "1 Bench St", "555-0000");
+    List<CartItem> items =
+        List.of(
+            new CartItem(
+                new MenuItem(
+                    1, "Fries", 3.99, MenuItem.CookedType.Fried, MenuItem.PotatoType.Russet, true),
+                1));
+    Date createdAt = new Date(System.currentTimeMillis());
+
+    queue = new OrderQueue();
+    for (int id = 0; id < size; id++) {
+      queue.add(new Order(id, customer, items, createdAt), 1 + id % 5);
+    }
+  }
+
+  /** Takes the next order and puts it back at the end of its priority level. */
+  @Benchmark
+  public Order removeThenAdd() {
+    Order order = queue.remove();
+    queue.add(order, 1 + order.getId() % 5);
+    return order;
+  }
+
+  /** Removes an order from the middle of the queue by ID and re-adds it. */
+  @Benchmark
+  public Order removeByIdThenAdd() {
+    int id = nextId();
+    Order order = queue.remove(id);
+    queue.add(order, 1 + id % 5);
+    return order;
+  }
+
+  /** Moves an order to another priority level. */
+  @Benchmark
+  public int updatePriority() {
+    int id = nextId();
+    int priority = 1 + (queue.getPriority(id) % 5);
+    queue.updatePriority(id, priority);
+    return priority;
+  }
+
+  private int nextId() {
+    int id = nextId;
+    nextId = (nextId + 7919) % size; // Stride through the queue instead of hitting one node
+    return id;
+  }
+}
@@ -0,0 +1,66 @@
+package com.cs_25_2_team2.RestaurantManagementApp.benchmarks;
+
+import com.cs_25_2_team2.RestaurantManagementApp.auth.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Cost of hashing and verifying a password, i.e. the per-login CPU budget, per PBKDF2 cost.
+ *
+ * <p>{@code logins} drives the shared hashing pool from as many threads as there are CPUs and
+ * reports verified logins per second. Pick restaurant.auth.password.iterations as the highest cost
+ * whose {@code logins} score still covers the peak login rate (a shift change is about 50/s) with
+ * headroom, on hardware like production's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PasswordEncoderBenchmark {
+  private static final String PASSWORD = "Spud1234";
+
+  @Param({"10000", "100000", "210000"})
+  private int iterations;
+
+  private PasswordEncoder encoder;
+  private String encoded;
+
+  @Setup
+  public void setUp() {
+    encoder = new PasswordEncoder(iterations, 0, 1024, 60_000);
+    encoded = encoder.encode(PASSWORD);
+  }
+
+  @TearDown
+  public void tearDown() {
+    encoder.shutdown();
+  }
+
+  @Benchmark
+  public String encode() {
+    return encoder.encode(PASSWORD);
+  }
+
+  @Benchmark
+  public boolean matches() {
+    return encoder.matches(PASSWORD, encoded);
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public boolean logins() {
+    return encoder.matches(PASSWORD, encoded);
+  }
+}
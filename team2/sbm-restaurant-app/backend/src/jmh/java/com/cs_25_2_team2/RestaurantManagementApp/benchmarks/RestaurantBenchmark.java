@@ -0,0 +1,89 @@
+package com.cs_25_2_team2.RestaurantManagementApp.benchmarks;
+
+import com.cs_25_2_team2.RestaurantManagementApp.Chef;
+import com.cs_25_2_team2.RestaurantManagementApp.Customer;
+import com.cs_25_2_team2.RestaurantManagementApp.Delivery;
+import com.cs_25_2_team2.RestaurantManagementApp.MenuItem;
+import com.cs_25_2_team2.RestaurantManagementApp.Order;
+import com.cs_25_2_team2.RestaurantManagementApp.Restaurant;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end {@link Restaurant#processCustomerOrder(Customer)}: checkout, stats, queueing and chef
+ * assignment. The restaurant's console logging is discarded while measuring.
+ *
+ * <p>Checkout empties the cart, so every call needs a filled one. Rather than a per-call setup
+ * (whose timer overhead dwarfs a microsecond-scale call), each iteration pre-fills {@link #BATCH}
+ * customers' carts and the score is the single-shot time for processing all of them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(batchSize = RestaurantBenchmark.BATCH)
+@Measurement(batchSize = RestaurantBenchmark.BATCH)
+public class RestaurantBenchmark {
+  static final int BATCH = 1000;
+
+  private PrintStream originalOut;
+  private Restaurant restaurant;
+  private Customer[] customers;
+  private int next;
+
+  @Setup(Level.Trial)
+  public void silenceConsole() {
+    originalOut = System.out;
+    System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+  }
+
+  /**
+   * A fresh restaurant per iteration keeps the queue and chef backlog bounded by the batch, and
+   * every customer in the batch starts with a filled cart.
+   */
+  @Setup(Level.Iteration)
+  public void openRestaurant() {
+    restaurant = new Restaurant("Bench Spuds", "1 Bench St");
+    restaurant.addChef(new Chef("Chef One", "1 Bench St", "555-0001", 1L));
+    restaurant.addChef(new Chef("Chef Two", "1 Bench St", "555-0002", 2L));
+    restaurant.addDeliveryStaff(new Delivery("Driver", "1 Bench St", "555-0003", 3L));
+    MenuItem fries =
+        new MenuItem(1, "Fries", 3.99, MenuItem.CookedType.Fried, MenuItem.PotatoType.Russet, true);
+    MenuItem mash =
+        new MenuItem(2, "Mash", 4.50, MenuItem.CookedType.Mashed, MenuItem.PotatoType.Russet, true);
+    restaurant.addMenuItem(fries);
+    restaurant.addMenuItem(mash);
+    customers = new Customer[BATCH];
+    for (int i = 0; i < BATCH; i++) {
+      customers[i] = new Customer(i + 1L, "Bench Customer " + (i + 1), "1 Bench St", "555-0000");
+      customers[i].getCart().addItem(fries, 2);
+      customers[i].getCart().addItem(mash, 1);
+      restaurant.registerCustomer(customers[i]);
+    }
+    next = 0;
+    restaurant.openRestaurant();
+  }
+
+  @Benchmark
+  public Order processCustomerOrder() {
+    return restaurant.processCustomerOrder(customers[next++]);
+  }
+
+  @TearDown(Level.Trial)
+  public void restoreConsole() {
+    System.setOut(originalOut);
+  }
+}
@@ -0,0 +1,431 @@
+package com.cs_25_2_team2.RestaurantManagementApp.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.cs_25_2_team2.RestaurantManagementApp.RestaurantManagementAppApplication;
+import com.cs_25_2_team2.RestaurantManagementApp.entities.OrderEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.repositories.OrderRepository;
+import com.cs_25_2_team2.RestaurantManagementApp.services.OrderStateMachine;
+
+/**
+ * End-to-end load generator for the REST API.
+ *
+ * Boots the application in-process on the H2 "test" profile (random port), registers and logs in
+ * one customer per client, then drives a weighted mix of requests from virtual-thread clients
+ * through the real request path (AuthInterceptor -> controller -> service -> JPA). Latency per
+ * endpoint is recorded in HdrHistogram and reported as p50/p99/p99.9 together with throughput.
+ *
+ * Run with: ./gradlew loadTest -Dload.clients=64 -Dload.duration=30 -Dload.warmup=10
+ *           -Dload.mix=menu=50,checkout=20,start=15,complete=15
+ * Extra arguments after --args are passed to Spring (e.g. --spring.threads.virtual.enabled=true).
+ *
+ * Every client registers and logs in from 127.0.0.1 at the same moment, so the per-address login
+ * throttle and the password hashing queue (one hash per registration and per login) are raised to
+ * fit the configured clients, with a longer hashing timeout; the PBKDF2 cost is left as configured.
+ * Pass the restaurant.auth.login-throttle.* or restaurant.auth.password.* keys explicitly to test
+ * those limits themselves.
+ *
+ * Kitchen calls need orders in the Placed/Preparing states. START uses load.seedOrders Placed
+ * orders saved directly before the run starts; once those are used up it takes an order created by
+ * a checkout call (which starts out Pending) and places it through OrderStateMachine in-process,
+ * before the measured request is sent, so START never times a 409 for an order it cannot start.
+ *
+ * @author Team 2
+ * @version 1.0
+ */
+public class LoadTestRunner {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.SECONDS.toNanos(60);
+    private static final Pattern ORDER_ID = Pattern.compile("\"orderId\"\\s*:\\s*(\\d+)");
+    private static final String PASSWORD = "LoadTest1";
+
+    /**
+     * Request types in the mix
+     */
+    enum Operation {
+        MENU("menu", "GET  /api/menu"),
+        CHECKOUT("checkout", "POST /api/orders"),
+        START("start", "PUT  /api/kitchen/orders/{id}/start"),
+        COMPLETE("complete", "PUT  /api/kitchen/orders/{id}/complete");
+
+        final String key;
+        final String label;
+
+        Operation(String key, String label) {
+            this.key = key;
+            this.label = label;
+        }
+    }
+
+    /**
+     * Run settings, read from load.* system properties
+     */
+    record Config(int clients, Duration duration, Duration warmup, int seedOrders,
+            Map<Operation, Integer> mix) {
+
+        static Config fromSystemProperties() {
+            Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+            String spec = System.getProperty("load.mix", "menu=50,checkout=20,start=15,complete=15");
+            for (String part : spec.split(",")) {
+                String[] keyValue = part.trim().split("=");
+                Operation operation = null;
+                for (Operation candidate : Operation.values()) {
+                    if (candidate.key.equalsIgnoreCase(keyValue[0].trim())) {
+                        operation = candidate;
+                    }
+                }
+                if (operation == null || keyValue.length != 2) {
+                    throw new IllegalArgumentException("Invalid load.mix entry: " + part);
+                }
+                mix.put(operation, Integer.parseInt(keyValue[1].trim()));
+            }
+            return new Config(
+                    Integer.getInteger("load.clients", 64),
+                    Duration.ofSeconds(Long.getLong("load.duration", 30L)),
+                    Duration.ofSeconds(Long.getLong("load.warmup", 10L)),
+                    Integer.getInteger("load.seedOrders", 1000),
+                    mix);
+        }
+    }
+
+    /**
+     * Latency histogram and counters for one endpoint
+     */
+    static class EndpointStats {
+        final ConcurrentHistogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+        final LongAdder errors = new LongAdder();
+
+        void record(long nanos, int status) {
+            latency.recordValue(Math.min(nanos, HIGHEST_TRACKABLE_NANOS));
+            if (status < 200 || status >= 300) {
+                errors.increment();
+            }
+        }
+    }
+
+    private final Config config;
+    private final URI baseUri;
+    private final HttpClient http;
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+    private final OrderStateMachine orderStateMachine;
+    private final Queue<Long> pendingOrders = new ConcurrentLinkedQueue<>();
+    private final Queue<Long> placedOrders = new ConcurrentLinkedQueue<>();
+    private final Queue<Long> preparingOrders = new ConcurrentLinkedQueue<>();
+    private final Operation[] weightedOperations;
+
+    LoadTestRunner(Config config, URI baseUri, HttpClient http, OrderStateMachine orderStateMachine) {
+        this.config = config;
+        this.baseUri = baseUri;
+        this.http = http;
+        this.orderStateMachine = orderStateMachine;
+        List<Operation> weighted = new ArrayList<>();
+        config.mix().forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(operation);
+            }
+        });
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("load.mix must contain at least one positive weight");
+        }
+        this.weightedOperations = weighted.toArray(new Operation[0]);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Config config = Config.fromSystemProperties();
+
+        List<String> springArgs = new ArrayList<>(List.of(
+                "--spring.profiles.active=test",
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--spring.h2.console.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.web=WARN",
+                "--logging.level.com.cs_25_2_team2.RestaurantManagementApp=WARN"));
+        int addressLogins = Math.max(30, config.clients() * 2);
+        defaultArg(springArgs, args, "restaurant.auth.login-throttle.per-address.capacity", addressLogins);
+        defaultArg(springArgs, args, "restaurant.auth.login-throttle.per-address.refill-per-minute", addressLogins);
+        defaultArg(springArgs, args, "restaurant.auth.password.queue-capacity", Math.max(64, config.clients() * 2));
+        defaultArg(springArgs, args, "restaurant.auth.password.timeout-ms", 60000);
+        springArgs.addAll(List.of(args));
+
+        ConfigurableApplicationContext context = SpringApplication.run(
+                RestaurantManagementAppApplication.class, springArgs.toArray(new String[0]));
+        try (ExecutorService httpExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(httpExecutor)
+                    .build();
+            LoadTestRunner runner = new LoadTestRunner(config, URI.create("http://localhost:" + port), http,
+                    context.getBean(OrderStateMachine.class));
+            runner.seedOrders(context.getBean(OrderRepository.class));
+            runner.run();
+            runner.printReport(System.out);
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * Add a Spring property unless the caller passed it (a repeated key would be bound as a list)
+     */
+    private static void defaultArg(List<String> springArgs, String[] args, String key, Object value) {
+        for (String arg : args) {
+            if (arg.startsWith("--" + key + "=")) {
+                return;
+            }
+        }
+        springArgs.add("--" + key + "=" + value);
+    }
+
+    /**
+     * Save Placed orders directly so kitchen calls have work from the first second
+     */
+    void seedOrders(OrderRepository orderRepository) {
+        List<OrderEntity> orders = new ArrayList<>(config.seedOrders());
+        for (int i = 0; i < config.seedOrders(); i++) {
+            OrderEntity order = new OrderEntity();
+            order.setTotalPrice(new BigDecimal("12.97"));
+            order.setStatus(OrderEntity.OrderStatus.Placed);
+            order.setCreditCardLastFour("4242");
+            order.setCreditCardToken("load_" + i);
+            order.setCardExpiryMonth(12);
+            order.setCardExpiryYear(2030);
+            order.setCardholderName("Load Test");
+            orders.add(order);
+        }
+        orderRepository.saveAll(orders).forEach(order -> placedOrders.add(order.getOrderId()));
+    }
+
+    /**
+     * Drive the configured mix from one virtual thread per client until the run ends
+     *
+     * @throws IllegalStateException if any client failed (e.g. could not log in), since the
+     *         figures would then describe fewer clients than configured
+     */
+    void run() throws InterruptedException {
+        long startNanos = System.nanoTime();
+        long measureFrom = startNanos + config.warmup().toNanos();
+        long endNanos = measureFrom + config.duration().toNanos();
+
+        System.out.printf("Load test: %d clients, %ds warmup, %ds measured, mix %s%n",
+                config.clients(), config.warmup().toSeconds(), config.duration().toSeconds(), config.mix());
+        List<Future<?>> results = new ArrayList<>(config.clients());
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int client = 0; client < config.clients(); client++) {
+                int clientId = client;
+                results.add(clients.submit(() -> {
+                    runClient(clientId, measureFrom, endNanos);
+                    return null;
+                }));
+            }
+        }
+
+        List<Throwable> failures = new ArrayList<>();
+        for (Future<?> result : results) {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                failures.add(e.getCause());
+            }
+        }
+        if (!failures.isEmpty()) {
+            IllegalStateException failed = new IllegalStateException(failures.size() + " of " + config.clients()
+                    + " clients failed; first: " + failures.get(0).getMessage(), failures.get(0));
+            failures.stream().skip(1).forEach(failed::addSuppressed);
+            throw failed;
+        }
+    }
+
+    private void runClient(int clientId, long measureFrom, long endNanos) throws Exception {
+        String sessionCookie = login(clientId);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        while (System.nanoTime() < endNanos) {
+            Operation operation = weightedOperations[random.nextInt(weightedOperations.length)];
+            HttpRequest request = buildRequest(operation, sessionCookie);
+            if (request == null) {
+                Thread.onSpinWait(); // No order in the right state yet; pick another operation
+                continue;
+            }
+
+            long sent = System.nanoTime();
+            int status;
+            try {
+                HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+                status = response.statusCode();
+                onResponse(operation, request, response);
+            } catch (IOException e) {
+                status = 0; // Connection failure or timeout, counted as an error
+            }
+            long elapsed = System.nanoTime() - sent;
+
+            if (sent >= measureFrom) {
+                stats.get(operation).record(elapsed, status);
+            }
+        }
+    }
+
+    private HttpRequest buildRequest(Operation operation, String sessionCookie) {
+        switch (operation) {
+            case MENU:
+                return request("/api/menu", sessionCookie).GET().build();
+            case CHECKOUT:
+                return request("/api/orders", sessionCookie)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"totalPrice\": \"12.97\"}"))
+                        .build();
+            case START: {
+                Long orderId = placedOrders.poll();
+                if (orderId == null) {
+                    orderId = placePendingOrder();
+                }
+                return orderId == null ? null : request("/api/kitchen/orders/" + orderId + "/start", sessionCookie)
+                        .PUT(HttpRequest.BodyPublishers.noBody())
+                        .build();
+            }
+            case COMPLETE: {
+                Long orderId = preparingOrders.poll();
+                return orderId == null ? null : request("/api/kitchen/orders/" + orderId + "/complete", sessionCookie)
+                        .PUT(HttpRequest.BodyPublishers.noBody())
+                        .build();
+            }
+            default:
+                throw new IllegalStateException("Unknown operation " + operation);
+        }
+    }
+
+    /**
+     * Move one checkout-created order from Pending to Placed so START can use it
+     *
+     * @return The placed order's ID, or null if there is no pending order to place
+     */
+    private Long placePendingOrder() {
+        Long orderId;
+        while ((orderId = pendingOrders.poll()) != null) {
+            try {
+                orderStateMachine.transition(orderId, OrderEntity.OrderStatus.Placed);
+                return orderId;
+            } catch (RuntimeException e) {
+                System.err.println("Could not place order #" + orderId + " for START: " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private void onResponse(Operation operation, HttpRequest request, HttpResponse<String> response) {
+        if (response.statusCode() / 100 != 2) {
+            return;
+        }
+        if (operation == Operation.CHECKOUT) {
+            Matcher matcher = ORDER_ID.matcher(response.body());
+            if (matcher.find()) {
+                pendingOrders.add(Long.parseLong(matcher.group(1)));
+            }
+        } else if (operation == Operation.START) {
+            String path = request.uri().getPath();
+            String orderId = path.substring("/api/kitchen/orders/".length(), path.lastIndexOf('/'));
+            preparingOrders.add(Long.parseLong(orderId));
+        }
+    }
+
+    /**
+     * Register a customer for this client and return its session cookie
+     */
+    private String login(int clientId) throws Exception {
+        String username = "load-user-" + clientId;
+        String register = String.format(
+                "{\"username\": \"%s\", \"password\": \"%s\", \"email\": \"%s@example.com\", "
+                        + "\"firstName\": \"Load\", \"lastName\": \"User %d\", \"phone\": \"555-0000\"}",
+                username, PASSWORD, username, clientId);
+        HttpResponse<String> registered = http.send(request("/api/auth/register", null)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(register))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (registered.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Registration failed for " + username + ": " + registered.body());
+        }
+
+        String login = String.format(
+                "{\"username\": \"%s\", \"password\": \"%s\", \"userType\": \"customer\"}", username, PASSWORD);
+        HttpResponse<String> response = http.send(request("/api/auth/login", null)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(login))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed for " + username + ": " + response.body());
+        }
+        return response.headers().allValues("Set-Cookie").stream()
+                .filter(cookie -> cookie.startsWith("JSESSIONID="))
+                .map(cookie -> cookie.split(";", 2)[0])
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No session cookie for " + username));
+    }
+
+    private HttpRequest.Builder request(String path, String sessionCookie) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path)).timeout(Duration.ofSeconds(30));
+        if (sessionCookie != null) {
+            builder.header("Cookie", sessionCookie);
+        }
+        return builder;
+    }
+
+    void printReport(PrintStream out) {
+        double seconds = config.duration().toNanos() / 1e9;
+        long totalRequests = 0;
+
+        out.println();
+        out.printf("%-42s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Operation operation : Operation.values()) {
+            Histogram latency = stats.get(operation).latency.copy();
+            long count = latency.getTotalCount();
+            totalRequests += count;
+            out.printf("%-42s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    operation.label,
+                    count,
+                    stats.get(operation).errors.sum(),
+                    count / seconds,
+                    millis(latency.getValueAtPercentile(50)),
+                    millis(latency.getValueAtPercentile(99)),
+                    millis(latency.getValueAtPercentile(99.9)),
+                    millis(latency.getMaxValue()));
+        }
+        out.printf("%-42s %9d %7s %9.1f%n", "total", totalRequests, "", totalRequests / seconds);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
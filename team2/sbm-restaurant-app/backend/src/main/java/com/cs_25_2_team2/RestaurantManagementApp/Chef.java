@@ -1,10 +1,10 @@
 package com.cs_25_2_team2.RestaurantManagementApp;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.cs_25_2_team2.RestaurantManagementApp.exceptions.InvalidOrderStateException;
 import com.cs_25_2_team2.RestaurantManagementApp.exceptions.OrderNotFoundException;
@@ -12,6 +12,11 @@ import com.cs_25_2_team2.RestaurantManagementApp.exceptions.OrderNotFoundExcepti
 /**
  * Chef class that manages kitchen operations and order processing. Extends Staff and handles all
  * order management responsibilities.
+ *
+ * <p>A chef's orders may be changed by a kitchen worker thread and by request threads at the same
+ * time, so they are kept in concurrent maps. An order is dropped once it leaves the chef's hands
+ * ({@link #sendToDelivery}, {@link #releaseOrder}), so a long-running kitchen does not accumulate
+ * finished orders.
  */
 public class Chef extends Staff {
   @Override
@@ -29,8 +34,8 @@ public class Chef extends Staff {
 
   public Chef(String name, String address, String phoneNumber, Long id) {
     super(name, address, phoneNumber, id, "Chef");
-    this.orders = new HashMap<>();
-    this.activeOrders = new HashMap<>();
+    this.orders = new ConcurrentHashMap<>();
+    this.activeOrders = new ConcurrentHashMap<>();
   }
 
   // ========== STAFF INTERFACE IMPLEMENTATIONS ==========
@@ -123,6 +128,18 @@ public class Chef extends Staff {
         "Chef " + getName() + " completed order #" + orderId + " - Ready for delivery!");
   }
 
+  /**
+   * Stops tracking an order that has left this chef's hands (e.g. finished with no delivery staff
+   * to send it to, or claimed elsewhere).
+   *
+   * @param orderId The ID of the order to drop
+   * @return The order that was tracked, or null if none was
+   */
+  public Order releaseOrder(int orderId) {
+    activeOrders.remove(orderId);
+    return orders.remove(orderId);
+  }
+
   /**
    * Updates the status of an order.
    *
@@ -252,6 +269,7 @@ public class Chef extends Staff {
     // Assign order to delivery staff and update status
     deliveryStaff.assignOrder(order);
     order.updateStatus(Order.Status.OutForDelivery);
+    orders.remove(orderId);
     System.out.println(
         "Chef "
             + getName()
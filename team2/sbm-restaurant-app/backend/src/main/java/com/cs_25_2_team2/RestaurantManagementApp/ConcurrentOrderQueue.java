@@ -0,0 +1,441 @@
+package com.cs_25_2_team2.RestaurantManagementApp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.cs_25_2_team2.RestaurantManagementApp.exceptions.OrderNotFoundException;
+
+/**
+ * Thread-safe variant of {@link OrderQueue} for kitchens where several request threads or chef
+ * workers share one queue. Ordering is the same as {@link OrderQueue}: priority first (1 =
+ * highest), then FIFO within a priority level.
+ *
+ * <p>Orders are held in a {@link ConcurrentSkipListMap} keyed by (priority, sequence) with a
+ * {@link ConcurrentHashMap} from order ID to key, so reads ({@link #peek()}, {@link #get(int)},
+ * {@link #contains(int)}, {@link #size()} and iteration) never take a lock. Mutations are
+ * serialized by a single short lock that also backs the blocking {@link #take()} and {@link
+ * #poll(long, TimeUnit)} operations. Iterators are weakly consistent: they never throw {@link
+ * java.util.ConcurrentModificationException} and reflect some state of the queue at or after their
+ * creation.
+ *
+ * <p>{@link #updatePriority} and {@link #update} publish an order's new position before retiring
+ * the old one, so {@link #contains(int)}, {@link #get(int)} and {@link #size()} never miss an order
+ * that stays queued. For the same reason a lock-free scan ({@link #peek()}, iteration, {@link
+ * #getAll()}, {@link #getByPriority(int)}) running at that moment may see the order at both
+ * positions. Removals ({@link #poll()}, {@link #take()}) hold the lock, so they never see it twice.
+ */
+public class ConcurrentOrderQueue implements Iterable<Order> {
+  private final ConcurrentSkipListMap<QueueKey, Order> queue = new ConcurrentSkipListMap<>();
+  private final Map<Integer, QueueKey> index = new ConcurrentHashMap<>();
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notEmpty = lock.newCondition();
+  private long nextSequence;
+
+  /** Position of an order in the queue: priority first, then arrival sequence. */
+  private record QueueKey(int priority, long sequence) implements Comparable<QueueKey> {
+    @Override
+    public int compareTo(QueueKey other) {
+      int byPriority = Integer.compare(priority, other.priority);
+      return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+    }
+  }
+
+  /**
+   * Adds an order to the queue with default priority (3 - normal).
+   *
+   * @param order The order to add
+   * @throws IllegalArgumentException if order is null or already queued
+   */
+  public void add(Order order) {
+    add(order, OrderQueue.DEFAULT_PRIORITY);
+  }
+
+  /**
+   * Adds an order to the queue with specified priority and wakes one waiting consumer.
+   *
+   * @param order The order to add
+   * @param priority Priority level (1=highest, 5=lowest)
+   * @throws IllegalArgumentException if order is null, priority is invalid, or an order with the
+   *     same ID is already queued
+   */
+  public void add(Order order, int priority) {
+    if (order == null) {
+      throw new IllegalArgumentException("Order cannot be null");
+    }
+    validatePriority(priority);
+
+    lock.lock();
+    try {
+      if (index.containsKey(order.getId())) {
+        throw new IllegalArgumentException("Order #" + order.getId() + " is already in the queue");
+      }
+      insert(order, priority);
+      notEmpty.signal();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Removes and returns the highest priority order (FIFO within priority).
+   *
+   * @return The next order to process
+   * @throws NoSuchElementException if the queue is empty
+   */
+  public Order remove() {
+    Order order = poll();
+    if (order == null) {
+      throw new NoSuchElementException("Queue is empty");
+    }
+    return order;
+  }
+
+  /**
+   * Removes and returns the highest priority order without waiting.
+   *
+   * @return The next order to process, or null if the queue is empty
+   */
+  public Order poll() {
+    lock.lock();
+    try {
+      return pollFirst();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Removes and returns the highest priority order, waiting until one is available.
+   *
+   * @return The next order to process
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public Order take() throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      while (queue.isEmpty()) {
+        notEmpty.await();
+      }
+      return pollFirst();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Removes and returns the highest priority order, waiting up to the given time for one to become
+   * available.
+   *
+   * @param timeout How long to wait before giving up
+   * @param unit The unit of the timeout
+   * @return The next order to process, or null if the timeout elapsed first
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public Order poll(long timeout, TimeUnit unit) throws InterruptedException {
+    long nanos = unit.toNanos(timeout);
+    lock.lockInterruptibly();
+    try {
+      while (queue.isEmpty()) {
+        if (nanos <= 0L) {
+          return null;
+        }
+        nanos = notEmpty.awaitNanos(nanos);
+      }
+      return pollFirst();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Removes a specific order by ID.
+   *
+   * @param orderId The ID of the order to remove
+   * @return The removed order
+   * @throws OrderNotFoundException if the order is not in the queue
+   */
+  public Order remove(int orderId) {
+    lock.lock();
+    try {
+      QueueKey key = index.remove(orderId);
+      if (key == null) {
+        throw new OrderNotFoundException(orderId);
+      }
+      return queue.remove(key);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Peeks at the next order without removing it.
+   *
+   * @return The next order to be processed, or null if queue is empty
+   */
+  public Order peek() {
+    Map.Entry<QueueKey, Order> first = queue.firstEntry();
+    return first == null ? null : first.getValue();
+  }
+
+  /**
+   * Updates the priority of an order in the queue. The order moves to the back of its new
+   * priority level. A concurrent lock-free scan may briefly see it at both its old and new
+   * position.
+   *
+   * @param orderId The ID of the order to update
+   * @param newPriority The new priority level
+   * @throws OrderNotFoundException if the order is not in the queue
+   * @throws IllegalArgumentException if priority is invalid
+   */
+  public void updatePriority(int orderId, int newPriority) {
+    validatePriority(newPriority);
+
+    lock.lock();
+    try {
+      QueueKey key = requireKey(orderId);
+      move(key, queue.get(key), newPriority);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Replaces a queued order with an updated copy, preserving its priority. Like {@link
+   * #updatePriority}, the order moves to the back of its level, and a concurrent lock-free scan may
+   * briefly see both copies.
+   *
+   * @param orderId The ID of the order to update
+   * @param updatedOrder The updated order object
+   * @throws OrderNotFoundException if the order is not in the queue
+   */
+  public void update(int orderId, Order updatedOrder) {
+    if (updatedOrder == null) {
+      throw new IllegalArgumentException("Updated order cannot be null");
+    }
+
+    lock.lock();
+    try {
+      QueueKey key = requireKey(orderId);
+      if (updatedOrder.getId() != orderId && index.containsKey(updatedOrder.getId())) {
+        throw new IllegalArgumentException(
+            "Order #" + updatedOrder.getId() + " is already in the queue");
+      }
+      move(key, updatedOrder, key.priority());
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Checks if the queue contains an order with the given ID.
+   *
+   * @param orderId The ID to search for
+   * @return True if the order exists in the queue
+   */
+  public boolean contains(int orderId) {
+    return index.containsKey(orderId);
+  }
+
+  /**
+   * Gets an order by ID without removing it.
+   *
+   * @param orderId The ID of the order to find
+   * @return The order if found
+   * @throws OrderNotFoundException if the order is not in the queue
+   */
+  public Order get(int orderId) {
+    while (true) {
+      QueueKey key = index.get(orderId);
+      if (key == null) {
+        throw new OrderNotFoundException(orderId);
+      }
+      Order order = queue.get(key);
+      if (order != null) {
+        return order;
+      }
+      // The entry moved (priority update) or is being removed; re-read the index
+      if (key.equals(index.get(orderId))) {
+        throw new OrderNotFoundException(orderId);
+      }
+    }
+  }
+
+  /**
+   * Gets the priority an order is currently queued with.
+   *
+   * @param orderId The ID of the order to find
+   * @return The priority level (1=highest, 5=lowest)
+   * @throws OrderNotFoundException if the order is not in the queue
+   */
+  public int getPriority(int orderId) {
+    QueueKey key = index.get(orderId);
+    if (key == null) {
+      throw new OrderNotFoundException(orderId);
+    }
+    return key.priority();
+  }
+
+  /**
+   * Gets a snapshot of all orders in the queue (in priority order).
+   *
+   * @return A copy of all orders in the queue
+   */
+  public List<Order> getAll() {
+    return Collections.unmodifiableList(new ArrayList<>(queue.values()));
+  }
+
+  /**
+   * Gets a snapshot of the orders queued at one priority level.
+   *
+   * @param priority The priority level to filter by
+   * @return List of orders with the specified priority
+   */
+  public List<Order> getByPriority(int priority) {
+    if (priority < OrderQueue.HIGHEST_PRIORITY || priority > OrderQueue.LOWEST_PRIORITY) {
+      return List.of();
+    }
+    ConcurrentNavigableMap<QueueKey, Order> level =
+        queue.subMap(
+            new QueueKey(priority, Long.MIN_VALUE), new QueueKey(priority + 1, Long.MIN_VALUE));
+    return Collections.unmodifiableList(new ArrayList<>(level.values()));
+  }
+
+  /** Clears all orders from the queue. */
+  public void clear() {
+    lock.lock();
+    try {
+      queue.clear();
+      index.clear();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Checks if the queue is empty.
+   *
+   * @return True if the queue has no orders
+   */
+  public boolean isEmpty() {
+    return index.isEmpty();
+  }
+
+  /**
+   * Gets the number of orders in the queue.
+   *
+   * @return The size of the queue
+   */
+  public int size() {
+    return index.size();
+  }
+
+  private void insert(Order order, int priority) {
+    QueueKey key = new QueueKey(priority, nextSequence++);
+    queue.put(key, order);
+    index.put(order.getId(), key);
+  }
+
+  /**
+   * Queues an order at a new position, then retires the old one. The index entry is overwritten
+   * rather than removed, so lock-free lookups never find the order missing. Callers hold the lock.
+   */
+  private void move(QueueKey oldKey, Order order, int priority) {
+    insert(order, priority);
+    Order old = queue.remove(oldKey);
+    // A no-op unless the replacement carries a different ID; the new entry is never touched
+    index.remove(old.getId(), oldKey);
+  }
+
+  /** Removes the first order. Callers hold the lock. */
+  private Order pollFirst() {
+    Map.Entry<QueueKey, Order> first = queue.pollFirstEntry();
+    if (first == null) {
+      return null;
+    }
+    // Only drop the index entry that points at the polled position
+    index.remove(first.getValue().getId(), first.getKey());
+    return first.getValue();
+  }
+
+  private QueueKey requireKey(int orderId) {
+    QueueKey key = index.get(orderId);
+    if (key == null) {
+      throw new OrderNotFoundException(orderId);
+    }
+    return key;
+  }
+
+  private static void validatePriority(int priority) {
+    if (priority < OrderQueue.HIGHEST_PRIORITY || priority > OrderQueue.LOWEST_PRIORITY) {
+      throw new IllegalArgumentException("Priority must be between 1 (highest) and 5 (lowest)");
+    }
+  }
+
+  /**
+   * Returns a weakly consistent iterator over the orders in priority order. Removing through the
+   * iterator removes the last returned order from the queue if it is still queued.
+   */
+  @Override
+  public Iterator<Order> iterator() {
+    return new ConcurrentOrderQueueIterator();
+  }
+
+  /** Weakly consistent iterator backed by the skip list's own iterator. */
+  private class ConcurrentOrderQueueIterator implements Iterator<Order> {
+    private final Iterator<Order> delegate = queue.values().iterator();
+    private Order lastReturned;
+
+    @Override
+    public boolean hasNext() {
+      return delegate.hasNext();
+    }
+
+    @Override
+    public Order next() {
+      lastReturned = delegate.next();
+      return lastReturned;
+    }
+
+    @Override
+    public void remove() {
+      if (lastReturned == null) {
+        throw new IllegalStateException("Cannot remove before calling next()");
+      }
+      lock.lock();
+      try {
+        QueueKey key = index.get(lastReturned.getId());
+        if (key != null && queue.get(key) == lastReturned) {
+          index.remove(lastReturned.getId());
+          queue.remove(key);
+        }
+      } finally {
+        lock.unlock();
+      }
+      lastReturned = null;
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("ConcurrentOrderQueue [");
+    boolean first = true;
+    for (Map.Entry<QueueKey, Order> entry : queue.entrySet()) {
+      if (!first) sb.append(", ");
+      sb.append(
+          String.format("Order#%d(P%d)", entry.getValue().getId(), entry.getKey().priority()));
+      first = false;
+    }
+    sb.append("]");
+    return sb.toString();
+  }
+}
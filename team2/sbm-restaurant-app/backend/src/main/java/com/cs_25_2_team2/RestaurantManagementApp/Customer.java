@@ -1,7 +1,5 @@
 package com.cs_25_2_team2.RestaurantManagementApp;
 
-import java.util.List;
-
 public class Customer extends Person {
   private Long customerId;
   private final Cart cart;
@@ -61,33 +59,6 @@ public class Customer extends Person {
    * @return A formatted string of the menu items or a message if no items are available
    */
   public String viewMenu(Menu menu) {
-    StringBuilder displayMenu = new StringBuilder();
-
-    if (!menu.isAvailable()) {
-      return "Menu is currently unavailable.";
-    }
-
-    List<MenuItem> availableItems = menu.getAvailableItems();
-
-    if (availableItems.isEmpty()) {
-      return "No items available";
-    }
-
-    displayMenu.append("Menu Items:\n");
-    for (MenuItem item : availableItems) {
-      displayMenu
-          .append(item.getDishId())
-          .append(". ")
-          .append(item.getDishName())
-          .append(" (")
-          .append(item.getCookedType())
-          .append(", ")
-          .append(item.getPotatoType())
-          .append(") - $")
-          .append(item.getPrice())
-          .append("\n");
-    }
-
-    return displayMenu.toString();
+    return menu.getDisplayText();
   }
 }
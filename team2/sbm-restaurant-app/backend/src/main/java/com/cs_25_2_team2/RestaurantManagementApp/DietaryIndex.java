@@ -0,0 +1,159 @@
+package com.cs_25_2_team2.RestaurantManagementApp;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable bitmap index for dietary and ingredient filtering over a fixed list of menu items.
+ *
+ * <p>Every distinct ingredient name (case-insensitive) gets a small integer ID in a dictionary, and
+ * every ingredient ID and dietary flag gets a bit set over item positions. A filter such as
+ * "vegetarian, no bacon, contains cheese" is then a handful of bitwise AND / ANDNOT operations over
+ * those sets, independent of how many ingredients each item has. Ingredient terms are resolved
+ * against the dictionary, not the items: a term selects every ingredient whose name starts with it
+ * or contains a word starting with it, so "onion" covers "Green Onions".
+ *
+ * <p>The index reflects the items' ingredients, vegetarian status and availability when it was
+ * built; {@link Menu} rebuilds it on every change it observes.
+ */
+public final class DietaryIndex {
+  private final List<MenuItem> items;
+  private final Map<String, Integer> ingredientIds;
+  private final List<BitSet> itemsByIngredient;
+  private final BitSet vegetarianItems;
+  private final BitSet availableItems;
+
+  private DietaryIndex(
+      List<MenuItem> items,
+      Map<String, Integer> ingredientIds,
+      List<BitSet> itemsByIngredient,
+      BitSet vegetarianItems,
+      BitSet availableItems) {
+    this.items = items;
+    this.ingredientIds = ingredientIds;
+    this.itemsByIngredient = itemsByIngredient;
+    this.vegetarianItems = vegetarianItems;
+    this.availableItems = availableItems;
+  }
+
+  /**
+   * Builds an index over the given items.
+   *
+   * @param items The items, in the order results should be returned
+   * @return The index
+   * @throws IllegalArgumentException if items is null
+   */
+  public static DietaryIndex of(List<MenuItem> items) {
+    if (items == null) {
+      throw new IllegalArgumentException("Items cannot be null");
+    }
+    List<MenuItem> positions = List.copyOf(items);
+    Map<String, Integer> ingredientIds = new LinkedHashMap<>();
+    List<BitSet> itemsByIngredient = new ArrayList<>();
+    BitSet vegetarian = new BitSet(positions.size());
+    BitSet available = new BitSet(positions.size());
+
+    for (int position = 0; position < positions.size(); position++) {
+      MenuItem item = positions.get(position);
+      boolean itemVegetarian = true;
+      for (Ingredient ingredient : item.getIngredients()) {
+        String name = normalize(ingredient.getIngredientName());
+        Integer id = ingredientIds.get(name);
+        if (id == null) {
+          id = ingredientIds.size();
+          ingredientIds.put(name, id);
+          itemsByIngredient.add(new BitSet(positions.size()));
+        }
+        itemsByIngredient.get(id).set(position);
+        itemVegetarian &= ingredient.isVegetarian();
+      }
+      vegetarian.set(position, itemVegetarian);
+      available.set(position, item.isAvailable());
+    }
+    return new DietaryIndex(
+        positions,
+        Collections.unmodifiableMap(ingredientIds),
+        itemsByIngredient,
+        vegetarian,
+        available);
+  }
+
+  /**
+   * Finds the available items matching a dietary filter.
+   *
+   * @param vegetarianOnly If true, only vegetarian items are returned
+   * @param withIngredients Terms that must each match at least one of an item's ingredients; may
+   *     be null or empty
+   * @param withoutIngredients Terms none of an item's ingredients may match; may be null or empty
+   * @return The matching items in index order
+   */
+  public List<MenuItem> filter(
+      boolean vegetarianOnly,
+      Collection<String> withIngredients,
+      Collection<String> withoutIngredients) {
+    BitSet result = (BitSet) availableItems.clone();
+    if (vegetarianOnly) {
+      result.and(vegetarianItems);
+    }
+    if (withIngredients != null) {
+      for (String term : withIngredients) {
+        if (isBlank(term)) {
+          continue;
+        }
+        result.and(itemsContaining(term));
+        if (result.isEmpty()) {
+          return List.of();
+        }
+      }
+    }
+    if (withoutIngredients != null) {
+      for (String term : withoutIngredients) {
+        if (!isBlank(term)) {
+          result.andNot(itemsContaining(term));
+        }
+      }
+    }
+
+    List<MenuItem> matches = new ArrayList<>(result.cardinality());
+    for (int position = result.nextSetBit(0); position >= 0; position = result.nextSetBit(position + 1)) {
+      matches.add(items.get(position));
+    }
+    return Collections.unmodifiableList(matches);
+  }
+
+  /**
+   * Gets the distinct ingredient names in the dictionary, lowercased.
+   *
+   * @return The ingredient names in ID order
+   */
+  public Set<String> getIngredientNames() {
+    return ingredientIds.keySet();
+  }
+
+  private BitSet itemsContaining(String term) {
+    String normalized = normalize(term);
+    BitSet matches = new BitSet(items.size());
+    for (Map.Entry<String, Integer> entry : ingredientIds.entrySet()) {
+      String name = entry.getKey();
+      if (name.startsWith(normalized) || name.contains(" " + normalized)) {
+        matches.or(itemsByIngredient.get(entry.getValue()));
+      }
+    }
+    return matches;
+  }
+
+  private static String normalize(String name) {
+    return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+  }
+
+  private static boolean isBlank(String term) {
+    return term == null || term.isBlank();
+  }
+}
@@ -0,0 +1,383 @@
+package com.cs_25_2_team2.RestaurantManagementApp;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import com.cs_25_2_team2.RestaurantManagementApp.exceptions.OrderNotFoundException;
+
+/**
+ * Kitchen scheduler that drains a {@link ConcurrentOrderQueue} automatically. Every chef on shift
+ * gets its own virtual thread that blocks on {@link ConcurrentOrderQueue#take()}, claims the next
+ * order by priority, prepares it through {@link Chef#startPreparingOrder(int)} and {@link
+ * Chef#completeOrder(int)} with a simulated preparation time, and hands it to the least loaded
+ * {@link Delivery} staff member.
+ *
+ * <p>A chef drops each order once it is handed off (or, with no delivery staff, once it is
+ * ready), and an order taken out with {@link #withdraw(int)} is never picked up by a chef.
+ *
+ * <p>The pool records how long orders waited in the queue (for orders added through {@link
+ * #submit(Order, int)}), how long each preparation took, and what fraction of its shift each chef
+ * spent preparing. Ending a shift lets a chef finish the order in hand; an idle chef leaves
+ * immediately.
+ */
+public class KitchenWorkerPool {
+  private final ConcurrentOrderQueue queue;
+  private final List<Delivery> deliveryStaff;
+  private final Function<Order, Duration> prepTime;
+  private final ThreadFactory threadFactory;
+
+  private final Map<Long, Worker> workers = new ConcurrentHashMap<>();
+  private final Map<Integer, Long> enqueuedAt = new ConcurrentHashMap<>();
+  private final Object handoffLock = new Object();
+
+  private final LongAdder ordersCompleted = new LongAdder();
+  private final LongAdder ordersFailed = new LongAdder();
+  private final LongAdder ordersAwaitingDelivery = new LongAdder();
+  private final LongAdder waitSamples = new LongAdder();
+  private final LongAdder totalWaitNanos = new LongAdder();
+  private final AtomicLong maxWaitNanos = new AtomicLong();
+  private final LongAdder totalPrepNanos = new LongAdder();
+  private final AtomicLong maxPrepNanos = new AtomicLong();
+
+  /**
+   * Kitchen throughput and latency figures.
+   *
+   * @param ordersCompleted Orders prepared and marked ready for delivery
+   * @param ordersFailed Orders a chef could not prepare (e.g. cancelled while queued)
+   * @param ordersAwaitingDelivery Completed orders that had no delivery staff to hand off to
+   * @param meanQueueWait Average time from {@link #submit(Order, int)} to a chef claiming the order
+   * @param maxQueueWait Longest such wait
+   * @param meanPrepTime Average preparation time
+   * @param maxPrepTime Longest preparation time
+   * @param utilizationByChef Fraction of its shift each chef (by raw ID) spent preparing, 0 to 1
+   */
+  public record Metrics(
+      long ordersCompleted,
+      long ordersFailed,
+      long ordersAwaitingDelivery,
+      Duration meanQueueWait,
+      Duration maxQueueWait,
+      Duration meanPrepTime,
+      Duration maxPrepTime,
+      Map<Long, Double> utilizationByChef) {}
+
+  /**
+   * Creates a pool where every order takes the same simulated preparation time.
+   *
+   * @param queue Queue the chefs take orders from
+   * @param deliveryStaff Staff that completed orders are handed to; may be empty
+   * @param prepTime Simulated preparation time per order
+   * @throws IllegalArgumentException if any argument is null or prepTime is negative
+   */
+  public KitchenWorkerPool(
+      ConcurrentOrderQueue queue, List<Delivery> deliveryStaff, Duration prepTime) {
+    this(queue, deliveryStaff, constant(prepTime));
+  }
+
+  /**
+   * Creates a pool that runs each chef on a virtual thread.
+   *
+   * @param queue Queue the chefs take orders from
+   * @param deliveryStaff Staff that completed orders are handed to; may be empty
+   * @param prepTime Simulated preparation time of an order
+   * @throws IllegalArgumentException if any argument is null
+   */
+  public KitchenWorkerPool(
+      ConcurrentOrderQueue queue, List<Delivery> deliveryStaff, Function<Order, Duration> prepTime) {
+    this(queue, deliveryStaff, prepTime, Thread.ofVirtual().name("chef-", 0).factory());
+  }
+
+  /**
+   * Creates a pool.
+   *
+   * @param queue Queue the chefs take orders from
+   * @param deliveryStaff Staff that completed orders are handed to; may be empty
+   * @param prepTime Simulated preparation time of an order
+   * @param threadFactory Factory for the chef threads
+   * @throws IllegalArgumentException if any argument is null
+   */
+  public KitchenWorkerPool(
+      ConcurrentOrderQueue queue,
+      List<Delivery> deliveryStaff,
+      Function<Order, Duration> prepTime,
+      ThreadFactory threadFactory) {
+    if (queue == null || deliveryStaff == null || prepTime == null || threadFactory == null) {
+      throw new IllegalArgumentException("Queue, delivery staff, prep time and thread factory are required");
+    }
+    this.queue = queue;
+    this.deliveryStaff = new ArrayList<>(deliveryStaff);
+    this.prepTime = prepTime;
+    this.threadFactory = threadFactory;
+  }
+
+  /**
+   * Queues an order with default priority (3 - normal) and starts its queue-wait clock.
+   *
+   * @param order The order to queue
+   * @throws IllegalArgumentException if order is null or already queued
+   */
+  public void submit(Order order) {
+    submit(order, OrderQueue.DEFAULT_PRIORITY);
+  }
+
+  /**
+   * Queues an order and starts its queue-wait clock.
+   *
+   * @param order The order to queue
+   * @param priority Priority level (1=highest, 5=lowest)
+   * @throws IllegalArgumentException if order is null, priority is invalid, or the order is
+   *     already queued
+   */
+  public void submit(Order order, int priority) {
+    if (order == null) {
+      throw new IllegalArgumentException("Order cannot be null");
+    }
+    enqueuedAt.put(order.getId(), System.nanoTime());
+    try {
+      queue.add(order, priority);
+    } catch (IllegalArgumentException e) {
+      enqueuedAt.remove(order.getId());
+      throw e;
+    }
+  }
+
+  /**
+   * Takes a queued order out of the queue before any chef claims it, e.g. because a request
+   * thread is preparing it instead.
+   *
+   * @param orderId The ID of the order to withdraw
+   * @return The withdrawn order, or null if it is not queued (a chef may already have claimed it)
+   */
+  public Order withdraw(int orderId) {
+    try {
+      Order order = queue.remove(orderId);
+      enqueuedAt.remove(orderId);
+      return order;
+    } catch (OrderNotFoundException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Puts a chef on shift; the chef starts taking orders immediately.
+   *
+   * @param chef The chef to start
+   * @throws IllegalArgumentException if chef is null or already on shift
+   */
+  public void startShift(Chef chef) {
+    if (chef == null) {
+      throw new IllegalArgumentException("Chef cannot be null");
+    }
+    Worker worker = new Worker(chef);
+    worker.thread = threadFactory.newThread(worker::run);
+    Worker current =
+        workers.compute(
+            chef.getRawId(),
+            (id, previous) -> previous != null && previous.thread.isAlive() ? previous : worker);
+    if (current != worker) {
+      throw new IllegalArgumentException("Chef " + chef.getName() + " is already on shift");
+    }
+    worker.thread.start();
+  }
+
+  /**
+   * Takes a chef off shift once the order in hand (if any) is finished.
+   *
+   * @param chef The chef to stop
+   * @return True if the chef was on shift
+   */
+  public boolean endShift(Chef chef) {
+    Worker worker = chef == null ? null : workers.get(chef.getRawId());
+    if (worker == null) {
+      return false;
+    }
+    worker.stop();
+    return true;
+  }
+
+  /**
+   * Ends every shift and waits for the chefs to finish the orders in hand.
+   *
+   * @param timeout Longest time to wait
+   * @return True if every chef thread finished within the timeout
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public boolean shutdown(Duration timeout) throws InterruptedException {
+    workers.values().forEach(Worker::stop);
+    long deadline = System.nanoTime() + timeout.toNanos();
+    for (Worker worker : workers.values()) {
+      long remaining = deadline - System.nanoTime();
+      if (remaining <= 0 || !worker.thread.join(Duration.ofNanos(remaining))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Gets the number of chefs whose thread is still running.
+   *
+   * @return The number of chefs on shift
+   */
+  public int getChefsOnShift() {
+    return (int) workers.values().stream().filter(worker -> worker.thread.isAlive()).count();
+  }
+
+  /**
+   * Gets a snapshot of the kitchen metrics.
+   *
+   * @return The current metrics
+   */
+  public Metrics getMetrics() {
+    long now = System.nanoTime();
+    Map<Long, Double> utilization = new LinkedHashMap<>();
+    for (Map.Entry<Long, Worker> entry : workers.entrySet()) {
+      utilization.put(entry.getKey(), entry.getValue().utilization(now));
+    }
+    long completed = ordersCompleted.sum();
+    long waits = waitSamples.sum();
+    return new Metrics(
+        completed,
+        ordersFailed.sum(),
+        ordersAwaitingDelivery.sum(),
+        Duration.ofNanos(waits == 0 ? 0 : totalWaitNanos.sum() / waits),
+        Duration.ofNanos(maxWaitNanos.get()),
+        Duration.ofNanos(completed == 0 ? 0 : totalPrepNanos.sum() / completed),
+        Duration.ofNanos(maxPrepNanos.get()),
+        Collections.unmodifiableMap(utilization));
+  }
+
+  private void prepare(Chef chef, Order order) throws InterruptedException {
+    Long queuedAt = enqueuedAt.remove(order.getId());
+    if (queuedAt != null) {
+      long wait = System.nanoTime() - queuedAt;
+      waitSamples.increment();
+      totalWaitNanos.add(wait);
+      maxWaitNanos.accumulateAndGet(wait, Math::max);
+    }
+
+    chef.receiveOrder(order);
+    try {
+      if (order.getStatus() == Order.Status.Pending) {
+        order.updateStatus(Order.Status.Placed);
+      }
+      chef.startPreparingOrder(order.getId());
+      Duration simulated = prepTime.apply(order);
+      if (simulated != null && !simulated.isZero() && !simulated.isNegative()) {
+        TimeUnit.NANOSECONDS.sleep(simulated.toNanos());
+      }
+      chef.completeOrder(order.getId());
+      handOff(chef, order);
+    } catch (RuntimeException | InterruptedException e) {
+      chef.releaseOrder(order.getId());
+      throw e;
+    }
+  }
+
+  private void handOff(Chef chef, Order order) {
+    // Delivery tracks assignments in shared, unsynchronized collections
+    synchronized (handoffLock) {
+      Delivery leastLoaded = null;
+      for (Delivery delivery : deliveryStaff) {
+        if (leastLoaded == null
+            || delivery.getAssignedOrderCount() < leastLoaded.getAssignedOrderCount()) {
+          leastLoaded = delivery;
+        }
+      }
+      if (leastLoaded == null) {
+        ordersAwaitingDelivery.increment();
+        chef.releaseOrder(order.getId()); // Stays ReadyForDelivery for the delivery workflow
+      } else {
+        chef.sendToDelivery(order.getId(), leastLoaded);
+      }
+    }
+  }
+
+  private static Function<Order, Duration> constant(Duration prepTime) {
+    if (prepTime == null || prepTime.isNegative()) {
+      throw new IllegalArgumentException("Prep time cannot be null or negative");
+    }
+    return order -> prepTime;
+  }
+
+  /** One chef's shift. */
+  private final class Worker {
+    final Chef chef;
+    final long shiftStart = System.nanoTime();
+    final AtomicLong busyNanos = new AtomicLong();
+    Thread thread;
+    boolean onShift = true; // Guarded by this, together with idle
+    boolean idle;
+    volatile long shiftEnd;
+    volatile long busySince;
+
+    Worker(Chef chef) {
+      this.chef = chef;
+    }
+
+    void run() {
+      try {
+        while (true) {
+          synchronized (this) {
+            idle = true;
+            if (!onShift) {
+              break;
+            }
+          }
+          Order order = queue.take();
+          synchronized (this) {
+            idle = false;
+            Thread.interrupted(); // A stop() that raced with take() must not abort this order
+          }
+
+          long start = System.nanoTime();
+          busySince = start;
+          try {
+            prepare(chef, order);
+            long elapsed = System.nanoTime() - start;
+            ordersCompleted.increment();
+            totalPrepNanos.add(elapsed);
+            maxPrepNanos.accumulateAndGet(elapsed, Math::max);
+          } catch (RuntimeException e) {
+            ordersFailed.increment();
+          } finally {
+            busyNanos.addAndGet(System.nanoTime() - start);
+            busySince = 0;
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        shiftEnd = System.nanoTime();
+      }
+    }
+
+    synchronized void stop() {
+      onShift = false;
+      if (idle) {
+        thread.interrupt(); // Only wakes a chef blocked on the queue, never one mid-order
+      }
+    }
+
+    double utilization(long now) {
+      long end = shiftEnd != 0 ? shiftEnd : now;
+      long busy = busyNanos.get();
+      long since = busySince;
+      if (since != 0 && shiftEnd == 0) {
+        busy += now - since;
+      }
+      long shift = end - shiftStart;
+      return shift <= 0 ? 0.0 : Math.min(1.0, (double) busy / shift);
+    }
+  }
+}
@@ -1,23 +1,63 @@
 package com.cs_25_2_team2.RestaurantManagementApp;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import com.cs_25_2_team2.RestaurantManagementApp.exceptions.MenuItemUnavailableException;
 
-/** Represents a menu containing a collection of menu items. */
+/**
+ * Represents a menu containing a collection of menu items.
+ *
+ * <p>Reads are served from an immutable {@link Snapshot} that every mutation (adding or removing
+ * an item, changing the menu's availability, or an item reporting a change to its availability or
+ * ingredients) rebuilds and publishes through a volatile field. The lists returned by the getters
+ * are therefore unmodifiable, shared between callers, and safe to read from any thread without
+ * allocating. Mutations are serialized on the menu.
+ */
 public class Menu {
-  private final Map<Integer, MenuItem> items;
+  private static final String UNAVAILABLE_TEXT = "Menu is currently unavailable.";
+  private static final String NO_ITEMS_TEXT = "No items available";
+
+  private final Map<Integer, MenuItem> items; // Guarded by this
   private final Date lastUpdated;
-  private boolean itemAvailability = true;
+  private final MenuItem.ChangeListener itemListener = item -> itemChanged();
+  private boolean itemAvailability = true; // Guarded by this
+  private volatile Snapshot snapshot;
+
+  /**
+   * Immutable view of the menu; items are ordered by dish ID.
+   *
+   * @param menuAvailable Whether the menu as a whole is available
+   * @param byId Every item by dish ID
+   * @param all Every item
+   * @param available Items that are currently available
+   * @param byCookedType Every item by cooking type; types without items are absent
+   * @param byPotatoType Every item by potato type; types without items are absent
+   * @param dietary Ingredient and dietary bitmaps over every item
+   * @param text The menu as shown to customers
+   */
+  private record Snapshot(
+      boolean menuAvailable,
+      Map<Integer, MenuItem> byId,
+      List<MenuItem> all,
+      List<MenuItem> available,
+      Map<MenuItem.CookedType, List<MenuItem>> byCookedType,
+      Map<MenuItem.PotatoType, List<MenuItem>> byPotatoType,
+      DietaryIndex dietary,
+      String text) {}
 
   /** Creates a new menu. */
   public Menu() {
     this.items = new HashMap<>();
     this.lastUpdated = new Date();
+    this.snapshot = buildSnapshot();
   }
 
   /**
@@ -26,11 +66,18 @@ public class Menu {
    * @param item The menu item to add.
    * @throws IllegalArgumentException if the item is null
    */
-  public void addMenuItem(MenuItem item) {
+  public synchronized void addMenuItem(MenuItem item) {
     if (item == null) {
       throw new IllegalArgumentException("MenuItem cannot be null");
     }
-    items.put(item.getDishId(), item);
+    MenuItem replaced = items.put(item.getDishId(), item);
+    if (replaced != item) {
+      if (replaced != null) {
+        replaced.removeChangeListener(itemListener);
+      }
+      item.addChangeListener(itemListener);
+    }
+    snapshot = buildSnapshot();
   }
 
   /**
@@ -39,11 +86,23 @@ public class Menu {
    * @param dishId The ID of the dish to remove.
    * @throws IllegalArgumentException if dishId is negative
    */
-  public void removeMenuItem(int dishId) {
+  public synchronized void removeMenuItem(int dishId) {
     if (dishId < 0) {
       throw new IllegalArgumentException("Dish ID cannot be negative");
     }
-    items.remove(dishId);
+    MenuItem removed = items.remove(dishId);
+    if (removed != null) {
+      removed.removeChangeListener(itemListener);
+      snapshot = buildSnapshot();
+    }
+  }
+
+  /**
+   * Rebuilds the cached views, e.g. after an ingredient's extra cost or vegetarian status was
+   * edited in place (menu items do not observe their ingredients).
+   */
+  public synchronized void refresh() {
+    snapshot = buildSnapshot();
   }
 
   /**
@@ -59,7 +118,7 @@ public class Menu {
       throw new IllegalArgumentException("Dish ID cannot be negative");
     }
 
-    MenuItem item = items.get(dishId);
+    MenuItem item = snapshot.byId().get(dishId);
     if (item != null && !item.isAvailable()) {
       throw new MenuItemUnavailableException(item.getDishId(), item.getDishName());
     }
@@ -70,10 +129,10 @@ public class Menu {
   /**
    * Gets all menu items.
    *
-   * @return The list of menu items.
+   * @return An unmodifiable list of the menu items, ordered by dish ID.
    */
   public List<MenuItem> getItems() {
-    return new ArrayList<>(items.values());
+    return snapshot.all();
   }
 
   /**
@@ -91,7 +150,7 @@ public class Menu {
    * @return True if the menu is available, false otherwise.
    */
   public boolean isAvailable() {
-    return itemAvailability; // Fixed variable name
+    return snapshot.menuAvailable();
   }
 
   /**
@@ -99,8 +158,11 @@ public class Menu {
    *
    * @param availability The availability to set.
    */
-  public void setAvailability(boolean availability) {
-    this.itemAvailability = availability;
+  public synchronized void setAvailability(boolean availability) {
+    if (this.itemAvailability != availability) {
+      this.itemAvailability = availability;
+      snapshot = buildSnapshot();
+    }
   }
 
   /**
@@ -110,54 +172,58 @@ public class Menu {
    * @return The menu item with the given ID, or null if not found.
    */
   public MenuItem getItemById(int dishId) {
-    return items.get(dishId);
+    return snapshot.byId().get(dishId);
   }
 
   /**
    * Gets all available menu items.
    *
-   * @return A list of available menu items.
+   * @return An unmodifiable list of available menu items, ordered by dish ID.
    */
   public List<MenuItem> getAvailableItems() {
-    List<MenuItem> availableItems = new ArrayList<>();
-    for (MenuItem item : items.values()) {
-      if (item.isAvailable()) {
-        availableItems.add(item);
-      }
-    }
-    return availableItems;
+    return snapshot.available();
   }
 
   /**
    * Gets menu items by cooking type.
    *
    * @param cookingType The cooking type to filter by.
-   * @return A list of menu items with the specified cooking type.
+   * @return An unmodifiable list of menu items with the specified cooking type.
    */
   public List<MenuItem> getItemsByCookingType(MenuItem.CookedType cookingType) {
-    List<MenuItem> filteredItems = new ArrayList<>();
-    for (MenuItem item : items.values()) {
-      if (item.getCookedType() == cookingType) {
-        filteredItems.add(item);
-      }
+    if (cookingType == null) {
+      return List.of();
     }
-    return filteredItems;
+    return snapshot.byCookedType().getOrDefault(cookingType, List.of());
   }
 
   /**
    * Gets menu items by potato type.
    *
    * @param potatoType The potato type to filter by.
-   * @return A list of menu items with the specified potato type.
+   * @return An unmodifiable list of menu items with the specified potato type.
    */
   public List<MenuItem> getItemsByPotatoType(MenuItem.PotatoType potatoType) {
-    List<MenuItem> filteredItems = new ArrayList<>();
-    for (MenuItem item : items.values()) {
-      if (item.getPotatoType() == potatoType) {
-        filteredItems.add(item);
-      }
+    if (potatoType == null) {
+      return List.of();
     }
-    return filteredItems;
+    return snapshot.byPotatoType().getOrDefault(potatoType, List.of());
+  }
+
+  /**
+   * Finds the available items matching a dietary filter, e.g. "vegetarian, no bacon, contains
+   * cheese". Ingredient terms match case-insensitively by name or word prefix.
+   *
+   * @param vegetarianOnly If true, only vegetarian items are returned.
+   * @param withIngredients Terms that must each match one of an item's ingredients; may be null.
+   * @param withoutIngredients Terms none of an item's ingredients may match; may be null.
+   * @return An unmodifiable list of the matching items, ordered by dish ID.
+   */
+  public List<MenuItem> filterItems(
+      boolean vegetarianOnly,
+      Collection<String> withIngredients,
+      Collection<String> withoutIngredients) {
+    return snapshot.dietary().filter(vegetarianOnly, withIngredients, withoutIngredients);
   }
 
   /**
@@ -166,6 +232,76 @@ public class Menu {
    * @return The number of items in the menu.
    */
   public int getItemCount() {
-    return items.size();
+    return snapshot.all().size();
+  }
+
+  /**
+   * Gets the menu as shown to customers: one line per available item, or a message if the menu is
+   * unavailable or has no available items.
+   *
+   * @return The rendered menu.
+   */
+  public String getDisplayText() {
+    return snapshot.text();
+  }
+
+  private synchronized void itemChanged() {
+    snapshot = buildSnapshot();
+  }
+
+  private Snapshot buildSnapshot() {
+    List<MenuItem> all = new ArrayList<>(items.values());
+    all.sort(Comparator.comparingInt(MenuItem::getDishId));
+
+    List<MenuItem> available = new ArrayList<>();
+    Map<MenuItem.CookedType, List<MenuItem>> byCookedType = new EnumMap<>(MenuItem.CookedType.class);
+    Map<MenuItem.PotatoType, List<MenuItem>> byPotatoType = new EnumMap<>(MenuItem.PotatoType.class);
+    for (MenuItem item : all) {
+      if (item.isAvailable()) {
+        available.add(item);
+      }
+      if (item.getCookedType() != null) {
+        byCookedType.computeIfAbsent(item.getCookedType(), type -> new ArrayList<>()).add(item);
+      }
+      if (item.getPotatoType() != null) {
+        byPotatoType.computeIfAbsent(item.getPotatoType(), type -> new ArrayList<>()).add(item);
+      }
+    }
+    byCookedType.replaceAll((type, list) -> List.copyOf(list));
+    byPotatoType.replaceAll((type, list) -> List.copyOf(list));
+
+    return new Snapshot(
+        itemAvailability,
+        Map.copyOf(items),
+        List.copyOf(all),
+        List.copyOf(available),
+        Collections.unmodifiableMap(byCookedType),
+        Collections.unmodifiableMap(byPotatoType),
+        DietaryIndex.of(all),
+        render(available));
+  }
+
+  private String render(List<MenuItem> available) {
+    if (!itemAvailability) {
+      return UNAVAILABLE_TEXT;
+    }
+    if (available.isEmpty()) {
+      return NO_ITEMS_TEXT;
+    }
+    StringBuilder displayMenu = new StringBuilder("Menu Items:\n");
+    for (MenuItem item : available) {
+      displayMenu
+          .append(item.getDishId())
+          .append(". ")
+          .append(item.getDishName())
+          .append(" (")
+          .append(item.getCookedType())
+          .append(", ")
+          .append(item.getPotatoType())
+          .append(") - $")
+          .append(item.getPrice())
+          .append("\n");
+    }
+    return displayMenu.toString();
   }
 }
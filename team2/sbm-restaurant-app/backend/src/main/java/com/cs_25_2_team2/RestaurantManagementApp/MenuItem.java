@@ -2,6 +2,7 @@ package com.cs_25_2_team2.RestaurantManagementApp;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class MenuItem {
   private final int dishId; // unique identifier for each dish
@@ -10,7 +11,8 @@ public class MenuItem {
   private final double price; // cost of item
   private final CookedType cookedType; // e.g., "Fried", "Baked", "Soupped"
   private final PotatoType potatoType; // e.g., "Russet", "Yukon Gold", "Sweet"
-  private boolean availability;
+  private volatile boolean availability;
+  private final List<ChangeListener> changeListeners = new CopyOnWriteArrayList<>();
 
   public enum CookedType {
     Fried,
@@ -42,6 +44,12 @@ public class MenuItem {
     JewelYams
   }
 
+  /** Callback for components that index or render this item, e.g. a {@link Menu}. */
+  @FunctionalInterface
+  public interface ChangeListener {
+    void onChange(MenuItem item);
+  }
+
   /**
    * Creates a new menu item.
    *
@@ -80,9 +88,38 @@ public class MenuItem {
     return ingredients;
   }
 
+  /**
+   * Registers a listener that is called after every change to this item's availability or
+   * ingredients.
+   *
+   * @param listener The listener to register
+   */
+  public void addChangeListener(ChangeListener listener) {
+    if (listener == null) {
+      throw new IllegalArgumentException("Listener cannot be null");
+    }
+    changeListeners.add(listener);
+  }
+
+  /**
+   * Removes a previously registered change listener.
+   *
+   * @param listener The listener to remove
+   */
+  public void removeChangeListener(ChangeListener listener) {
+    changeListeners.remove(listener);
+  }
+
+  private void fireChangeListeners() {
+    for (ChangeListener listener : changeListeners) {
+      listener.onChange(this);
+    }
+  }
+
   /** Add an ingredient to this menu item without enforcing vegetarian status. */
   public void addIngredient(Ingredient ingredient) {
     ingredients.add(ingredient);
+    fireChangeListeners();
   }
 
   /**
@@ -100,10 +137,13 @@ public class MenuItem {
       throw new Ingredient.NonVegetarianIngredientException(ingredient.getIngredientName());
     }
     ingredients.add(ingredient);
+    fireChangeListeners();
   }
 
   public void removeIngredient(Ingredient ingredient) {
-    ingredients.remove(ingredient);
+    if (ingredients.remove(ingredient)) {
+      fireChangeListeners();
+    }
   }
 
   // Calculate final price with toppings
@@ -128,7 +168,10 @@ public class MenuItem {
   }
 
   public void setAvailability(boolean availability) {
-    this.availability = availability;
+    if (this.availability != availability) {
+      this.availability = availability;
+      fireChangeListeners();
+    }
   }
 
   /**
@@ -2,6 +2,7 @@ package com.cs_25_2_team2.RestaurantManagementApp;
 
 import java.sql.Date;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import com.cs_25_2_team2.RestaurantManagementApp.exceptions.InvalidOrderStateException;
 
@@ -13,7 +14,8 @@ public class Order {
 
   private final double totalPrice; // Total price of the order
   private final Date createdAt; // Timestamp when the order was created
-  private Status status; // Order status
+  private volatile Status status; // Order status; read by status listeners on other threads
+  private final List<StatusChangeListener> statusListeners = new CopyOnWriteArrayList<>();
 
   public enum Status {
     Pending,
@@ -24,6 +26,12 @@ public class Order {
     Delivered
   }
 
+  /** Callback for components that index or react to order status transitions. */
+  @FunctionalInterface
+  public interface StatusChangeListener {
+    void onStatusChange(Order order, Status oldStatus, Status newStatus);
+  }
+
   /** Constructor for creating a new order with auto-generated ID. */
   public Order(Customer customer, List<CartItem> items, Date createdAt) {
     if (customer == null) {
@@ -88,8 +96,29 @@ public class Order {
     return status;
   }
 
-  // Order status updates
-  public void updateStatus(Status newStatus) {
+  /**
+   * Registers a listener that is called after every status change of this order.
+   *
+   * @param listener The listener to register
+   */
+  public void addStatusListener(StatusChangeListener listener) {
+    if (listener == null) {
+      throw new IllegalArgumentException("Listener cannot be null");
+    }
+    statusListeners.add(listener);
+  }
+
+  /**
+   * Removes a previously registered status listener.
+   *
+   * @param listener The listener to remove
+   */
+  public void removeStatusListener(StatusChangeListener listener) {
+    statusListeners.remove(listener);
+  }
+
+  // Order status updates; synchronized so two threads cannot both make the same transition
+  public synchronized void updateStatus(Status newStatus) {
     if (newStatus == null) {
       throw new IllegalArgumentException("Status cannot be null");
     }
@@ -97,9 +126,17 @@ public class Order {
     // Validate state transitions
     validateStatusTransition(newStatus);
 
+    Status oldStatus = this.status;
     this.status = newStatus;
     notifyStatusChange();
     logStatusChange();
+    fireStatusListeners(oldStatus);
+  }
+
+  private void fireStatusListeners(Status oldStatus) {
+    for (StatusChangeListener listener : statusListeners) {
+      listener.onStatusChange(this, oldStatus, status);
+    }
   }
 
   /**
@@ -183,12 +220,14 @@ public class Order {
    *
    * @throws InvalidOrderStateException if the order cannot be cancelled in its current state
    */
-  public void cancelOrder() {
+  public synchronized void cancelOrder() {
     if (status == Status.OutForDelivery || status == Status.Delivered) {
       throw new InvalidOrderStateException(id, status.toString(), "cancel");
     }
+    Status oldStatus = this.status;
     this.status = Status.Delivered; // Using Delivered as "cancelled" for simplicity
     System.out.println("Order #" + id + " has been cancelled");
+    fireStatusListeners(oldStatus);
   }
 
   /**
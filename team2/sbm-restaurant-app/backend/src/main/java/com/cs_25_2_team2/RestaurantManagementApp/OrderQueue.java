@@ -1,8 +1,11 @@
 package com.cs_25_2_team2.RestaurantManagementApp;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 import com.cs_25_2_team2.RestaurantManagementApp.exceptions.OrderNotFoundException;
@@ -11,27 +14,73 @@ import com.cs_25_2_team2.RestaurantManagementApp.exceptions.OrderNotFoundExcepti
  * Custom data structure for managing orders in a restaurant kitchen. Implements FIFO (First In,
  * First Out) principle with priority handling. This is a custom collection that provides adding,
  * removing, updating items, and custom iteration functionality.
+ *
+ * <p>Orders are kept in one FIFO bucket per priority level, each bucket being a doubly linked list
+ * of nodes, plus an index from order ID to node. Adding, removing (from the front or by ID),
+ * peeking, priority updates and lookups by ID are therefore all constant time.
  */
 public class OrderQueue implements Iterable<Order> {
-  private final List<OrderNode> queue;
+  static final int HIGHEST_PRIORITY = 1;
+  static final int LOWEST_PRIORITY = 5;
+  static final int DEFAULT_PRIORITY = 3;
+
+  // Index 0 is unused so that buckets can be addressed directly by priority
+  private final Bucket[] buckets;
+  private final Map<Integer, OrderNode> index;
   private int size;
 
   /** Internal node class to store orders with priority information. */
   private static class OrderNode {
     Order order;
     int priority; // Lower number = higher priority (1 = highest, 5 = lowest)
-    long addedTime; // For FIFO within same priority
+    OrderNode prev;
+    OrderNode next;
 
     OrderNode(Order order, int priority) {
       this.order = order;
       this.priority = priority;
-      this.addedTime = System.currentTimeMillis();
+    }
+  }
+
+  /** FIFO list of the nodes sharing one priority level. */
+  private static class Bucket {
+    OrderNode head;
+    OrderNode tail;
+
+    void append(OrderNode node) {
+      node.prev = tail;
+      node.next = null;
+      if (tail == null) {
+        head = node;
+      } else {
+        tail.next = node;
+      }
+      tail = node;
+    }
+
+    void unlink(OrderNode node) {
+      if (node.prev == null) {
+        head = node.next;
+      } else {
+        node.prev.next = node.next;
+      }
+      if (node.next == null) {
+        tail = node.prev;
+      } else {
+        node.next.prev = node.prev;
+      }
+      node.prev = null;
+      node.next = null;
     }
   }
 
   /** Creates a new empty OrderQueue. */
   public OrderQueue() {
-    this.queue = new ArrayList<>();
+    this.buckets = new Bucket[LOWEST_PRIORITY + 1];
+    for (int p = HIGHEST_PRIORITY; p <= LOWEST_PRIORITY; p++) {
+      buckets[p] = new Bucket();
+    }
+    this.index = new HashMap<>();
     this.size = 0;
   }
 
@@ -42,7 +91,7 @@ public class OrderQueue implements Iterable<Order> {
    * @throws IllegalArgumentException if order is null
    */
   public void add(Order order) {
-    add(order, 3); // Default priority
+    add(order, DEFAULT_PRIORITY);
   }
 
   /**
@@ -51,40 +100,24 @@ public class OrderQueue implements Iterable<Order> {
    *
    * @param order The order to add
    * @param priority Priority level (1=highest, 5=lowest)
-   * @throws IllegalArgumentException if order is null or priority is invalid
+   * @throws IllegalArgumentException if order is null, priority is invalid, or an order with the
+   *     same ID is already queued
    */
   public void add(Order order, int priority) {
     if (order == null) {
       throw new IllegalArgumentException("Order cannot be null");
     }
-    if (priority < 1 || priority > 5) {
-      throw new IllegalArgumentException("Priority must be between 1 (highest) and 5 (lowest)");
+    validatePriority(priority);
+    if (index.containsKey(order.getId())) {
+      throw new IllegalArgumentException("Order #" + order.getId() + " is already in the queue");
     }
 
     OrderNode newNode = new OrderNode(order, priority);
-
-    // Find the correct position to insert (priority first, then FIFO)
-    int insertPosition = findInsertPosition(priority, newNode.addedTime);
-    queue.add(insertPosition, newNode);
+    buckets[priority].append(newNode);
+    index.put(order.getId(), newNode);
     size++;
   }
 
-  /** Finds the correct position to insert a new order based on priority and time. */
-  private int findInsertPosition(int priority, long addedTime) {
-    for (int i = 0; i < queue.size(); i++) {
-      OrderNode current = queue.get(i);
-      // If current has lower priority (higher number), insert here
-      if (current.priority > priority) {
-        return i;
-      }
-      // If same priority, check time for FIFO
-      if (current.priority == priority && current.addedTime > addedTime) {
-        return i;
-      }
-    }
-    return queue.size(); // Insert at end
-  }
-
   /**
    * Removes and returns the highest priority order (FIFO within priority).
    *
@@ -92,12 +125,11 @@ public class OrderQueue implements Iterable<Order> {
    * @throws NoSuchElementException if the queue is empty
    */
   public Order remove() {
-    if (isEmpty()) {
+    OrderNode node = firstNode();
+    if (node == null) {
       throw new NoSuchElementException("Queue is empty");
     }
-
-    OrderNode node = queue.remove(0); // Always remove from front (highest priority)
-    size--;
+    unlink(node);
     return node.order;
   }
 
@@ -109,14 +141,9 @@ public class OrderQueue implements Iterable<Order> {
    * @throws OrderNotFoundException if the order is not in the queue
    */
   public Order remove(int orderId) {
-    for (int i = 0; i < queue.size(); i++) {
-      if (queue.get(i).order.getId() == orderId) {
-        OrderNode node = queue.remove(i);
-        size--;
-        return node.order;
-      }
-    }
-    throw new OrderNotFoundException(orderId);
+    OrderNode node = requireNode(orderId);
+    unlink(node);
+    return node.order;
   }
 
   /**
@@ -125,14 +152,13 @@ public class OrderQueue implements Iterable<Order> {
    * @return The next order to be processed, or null if queue is empty
    */
   public Order peek() {
-    if (isEmpty()) {
-      return null;
-    }
-    return queue.get(0).order;
+    OrderNode node = firstNode();
+    return node == null ? null : node.order;
   }
 
   /**
-   * Updates the priority of an order in the queue.
+   * Updates the priority of an order in the queue. The order moves to the back of its new
+   * priority level.
    *
    * @param orderId The ID of the order to update
    * @param newPriority The new priority level
@@ -140,15 +166,12 @@ public class OrderQueue implements Iterable<Order> {
    * @throws IllegalArgumentException if priority is invalid
    */
   public void updatePriority(int orderId, int newPriority) {
-    if (newPriority < 1 || newPriority > 5) {
-      throw new IllegalArgumentException("Priority must be between 1 (highest) and 5 (lowest)");
-    }
-
-    // Find and remove the order
-    Order order = remove(orderId);
+    validatePriority(newPriority);
+    OrderNode node = requireNode(orderId);
 
-    // Re-add with new priority
-    add(order, newPriority);
+    buckets[node.priority].unlink(node);
+    node.priority = newPriority;
+    buckets[newPriority].append(node);
   }
 
   /**
@@ -163,18 +186,15 @@ public class OrderQueue implements Iterable<Order> {
       throw new IllegalArgumentException("Updated order cannot be null");
     }
 
-    // Find the order and preserve its priority
-    int priority = 3; // default
-    for (OrderNode node : queue) {
-      if (node.order.getId() == orderId) {
-        priority = node.priority;
-        break;
-      }
+    OrderNode node = requireNode(orderId);
+    if (updatedOrder.getId() != orderId && index.containsKey(updatedOrder.getId())) {
+      throw new IllegalArgumentException(
+          "Order #" + updatedOrder.getId() + " is already in the queue");
     }
 
-    // Remove old order and add updated one
-    remove(orderId);
-    add(updatedOrder, priority);
+    // Remove old order and add updated one, preserving its priority
+    unlink(node);
+    add(updatedOrder, node.priority);
   }
 
   /**
@@ -184,7 +204,7 @@ public class OrderQueue implements Iterable<Order> {
    * @return True if the order exists in the queue
    */
   public boolean contains(int orderId) {
-    return queue.stream().anyMatch(node -> node.order.getId() == orderId);
+    return index.containsKey(orderId);
   }
 
   /**
@@ -195,11 +215,18 @@ public class OrderQueue implements Iterable<Order> {
    * @throws OrderNotFoundException if the order is not in the queue
    */
   public Order get(int orderId) {
-    return queue.stream()
-        .filter(node -> node.order.getId() == orderId)
-        .findFirst()
-        .map(node -> node.order)
-        .orElseThrow(() -> new OrderNotFoundException(orderId));
+    return requireNode(orderId).order;
+  }
+
+  /**
+   * Gets the priority an order is currently queued with.
+   *
+   * @param orderId The ID of the order to find
+   * @return The priority level (1=highest, 5=lowest)
+   * @throws OrderNotFoundException if the order is not in the queue
+   */
+  public int getPriority(int orderId) {
+    return requireNode(orderId).priority;
   }
 
   /**
@@ -208,7 +235,11 @@ public class OrderQueue implements Iterable<Order> {
    * @return A copy of all orders in the queue
    */
   public List<Order> getAll() {
-    return queue.stream().map(node -> node.order).toList();
+    List<Order> orders = new ArrayList<>(size);
+    for (Order order : this) {
+      orders.add(order);
+    }
+    return Collections.unmodifiableList(orders);
   }
 
   /**
@@ -218,15 +249,22 @@ public class OrderQueue implements Iterable<Order> {
    * @return List of orders with the specified priority
    */
   public List<Order> getByPriority(int priority) {
-    return queue.stream()
-        .filter(node -> node.priority == priority)
-        .map(node -> node.order)
-        .toList();
+    if (priority < HIGHEST_PRIORITY || priority > LOWEST_PRIORITY) {
+      return List.of();
+    }
+    List<Order> orders = new ArrayList<>();
+    for (OrderNode node = buckets[priority].head; node != null; node = node.next) {
+      orders.add(node.order);
+    }
+    return Collections.unmodifiableList(orders);
   }
 
   /** Clears all orders from the queue. */
   public void clear() {
-    queue.clear();
+    for (int p = HIGHEST_PRIORITY; p <= LOWEST_PRIORITY; p++) {
+      buckets[p] = new Bucket();
+    }
+    index.clear();
     size = 0;
   }
 
@@ -248,6 +286,36 @@ public class OrderQueue implements Iterable<Order> {
     return size;
   }
 
+  /** Returns the head of the highest non-empty priority bucket, or null if the queue is empty. */
+  private OrderNode firstNode() {
+    for (int p = HIGHEST_PRIORITY; p <= LOWEST_PRIORITY; p++) {
+      if (buckets[p].head != null) {
+        return buckets[p].head;
+      }
+    }
+    return null;
+  }
+
+  private OrderNode requireNode(int orderId) {
+    OrderNode node = index.get(orderId);
+    if (node == null) {
+      throw new OrderNotFoundException(orderId);
+    }
+    return node;
+  }
+
+  private void unlink(OrderNode node) {
+    buckets[node.priority].unlink(node);
+    index.remove(node.order.getId());
+    size--;
+  }
+
+  private static void validatePriority(int priority) {
+    if (priority < HIGHEST_PRIORITY || priority > LOWEST_PRIORITY) {
+      throw new IllegalArgumentException("Priority must be between 1 (highest) and 5 (lowest)");
+    }
+  }
+
   /**
    * Returns an iterator over the orders in the queue. Iteration is in priority order (highest
    * priority first, FIFO within priority).
@@ -259,11 +327,16 @@ public class OrderQueue implements Iterable<Order> {
 
   /** Custom iterator for the OrderQueue. */
   private class OrderQueueIterator implements Iterator<Order> {
-    private int currentIndex = 0;
+    private int currentPriority = HIGHEST_PRIORITY;
+    private OrderNode nextNode = buckets[HIGHEST_PRIORITY].head;
+    private OrderNode lastReturned;
 
     @Override
     public boolean hasNext() {
-      return currentIndex < queue.size();
+      while (nextNode == null && currentPriority < LOWEST_PRIORITY) {
+        nextNode = buckets[++currentPriority].head;
+      }
+      return nextNode != null;
     }
 
     @Override
@@ -271,26 +344,31 @@ public class OrderQueue implements Iterable<Order> {
       if (!hasNext()) {
         throw new NoSuchElementException();
       }
-      return queue.get(currentIndex++).order;
+      lastReturned = nextNode;
+      nextNode = nextNode.next;
+      return lastReturned.order;
     }
 
     @Override
     public void remove() {
-      if (currentIndex <= 0) {
+      if (lastReturned == null) {
         throw new IllegalStateException("Cannot remove before calling next()");
       }
-      queue.remove(--currentIndex);
-      size--;
+      unlink(lastReturned);
+      lastReturned = null;
     }
   }
 
   @Override
   public String toString() {
     StringBuilder sb = new StringBuilder("OrderQueue [");
-    for (int i = 0; i < queue.size(); i++) {
-      OrderNode node = queue.get(i);
-      if (i > 0) sb.append(", ");
-      sb.append(String.format("Order#%d(P%d)", node.order.getId(), node.priority));
+    boolean first = true;
+    for (int p = HIGHEST_PRIORITY; p <= LOWEST_PRIORITY; p++) {
+      for (OrderNode node = buckets[p].head; node != null; node = node.next) {
+        if (!first) sb.append(", ");
+        sb.append(String.format("Order#%d(P%d)", node.order.getId(), node.priority));
+        first = false;
+      }
     }
     sb.append("]");
     return sb.toString();
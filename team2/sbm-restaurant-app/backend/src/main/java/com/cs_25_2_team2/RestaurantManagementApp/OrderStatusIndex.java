@@ -0,0 +1,131 @@
+package com.cs_25_2_team2.RestaurantManagementApp;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of orders partitioned by {@link Order.Status}. Each tracked order is registered as a
+ * {@link Order.StatusChangeListener}, so the index moves it between partitions as its status
+ * changes instead of callers filtering a whole queue by status. An order that reaches Delivered
+ * (including a cancelled one) is dropped, so the index only holds orders still in progress.
+ *
+ * <p>Lookups by ID and per-status counts are constant time; listing a status copies only that
+ * partition, in the order orders entered it. All methods are thread-safe.
+ */
+public class OrderStatusIndex implements Order.StatusChangeListener {
+  private final Map<Integer, Order> byId = new HashMap<>();
+  private final Map<Order.Status, Map<Integer, Order>> byStatus = new EnumMap<>(Order.Status.class);
+
+  /** Creates an empty index. */
+  public OrderStatusIndex() {
+    for (Order.Status status : Order.Status.values()) {
+      byStatus.put(status, new LinkedHashMap<>());
+    }
+  }
+
+  /**
+   * Starts tracking an order under its current status; a delivered order is not tracked.
+   *
+   * @param order The order to track
+   * @throws IllegalArgumentException if order is null
+   */
+  public synchronized void track(Order order) {
+    if (order == null) {
+      throw new IllegalArgumentException("Order cannot be null");
+    }
+    Order previous = byId.remove(order.getId());
+    if (previous != null) {
+      byStatus.get(previous.getStatus()).remove(previous.getId());
+      previous.removeStatusListener(this);
+    }
+    // Listen before reading the status: a change made after the read is delivered to
+    // onStatusChange, which waits for this lock
+    order.addStatusListener(this);
+    Order.Status status = order.getStatus();
+    if (status == Order.Status.Delivered) {
+      order.removeStatusListener(this);
+      return;
+    }
+    byId.put(order.getId(), order);
+    byStatus.get(status).put(order.getId(), order);
+  }
+
+  /**
+   * Stops tracking an order.
+   *
+   * @param orderId The ID of the order to forget
+   * @return The order that was tracked, or null if none was
+   */
+  public Order untrack(int orderId) {
+    Order removed;
+    synchronized (this) {
+      removed = byId.remove(orderId);
+      if (removed == null) {
+        return null;
+      }
+      byStatus.get(removed.getStatus()).remove(orderId);
+    }
+    removed.removeStatusListener(this);
+    return removed;
+  }
+
+  /**
+   * Finds a tracked order by ID.
+   *
+   * @param orderId The ID of the order
+   * @return The order, or null if it is not tracked
+   */
+  public synchronized Order find(int orderId) {
+    return byId.get(orderId);
+  }
+
+  /**
+   * Gets the tracked orders in one status, in the order they entered it.
+   *
+   * @param status The status to list
+   * @return A copy of the orders in that status
+   */
+  public synchronized List<Order> getByStatus(Order.Status status) {
+    return new ArrayList<>(byStatus.get(status).values());
+  }
+
+  /**
+   * Counts the tracked orders in one status.
+   *
+   * @param status The status to count
+   * @return The number of orders in that status
+   */
+  public synchronized int count(Order.Status status) {
+    return byStatus.get(status).size();
+  }
+
+  /**
+   * Gets the number of tracked orders.
+   *
+   * @return The number of orders in the index
+   */
+  public synchronized int size() {
+    return byId.size();
+  }
+
+  @Override
+  public synchronized void onStatusChange(
+      Order order, Order.Status oldStatus, Order.Status newStatus) {
+    if (byId.get(order.getId()) != order) {
+      return; // Stale listener for an order that has been replaced or untracked
+    }
+    // track() may already have filed the order under newStatus
+    byStatus.get(oldStatus).remove(order.getId());
+    byStatus.get(newStatus).remove(order.getId());
+    if (newStatus == Order.Status.Delivered) {
+      byId.remove(order.getId());
+      order.removeStatusListener(this);
+      return;
+    }
+    byStatus.get(newStatus).put(order.getId(), order);
+  }
+}
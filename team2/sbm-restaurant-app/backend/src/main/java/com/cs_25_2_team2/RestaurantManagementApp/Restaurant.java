@@ -1,11 +1,13 @@
 package com.cs_25_2_team2.RestaurantManagementApp;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.cs_25_2_team2.RestaurantManagementApp.exceptions.OrderNotFoundException;
 
@@ -32,52 +34,88 @@ public class Restaurant {
   private final LocalDateTime openedAt;
   private final List<Staff> staff;
 
-  /** Restaurant statistics tracker. */
+  /**
+   * Restaurant statistics tracker. Sales are kept in a {@link SalesRollup}, so totals and recent
+   * windows (last 15 minutes / hour / day) can be read while orders are being recorded
+   * concurrently.
+   */
   public static class RestaurantStats {
-    private int totalOrdersProcessed = 0;
-    private double totalRevenue = 0.0;
-    private int ordersDelivered = 0;
-    private final Map<String, Integer> popularItems = new HashMap<>();
+    private final SalesRollup sales;
+    private final AtomicInteger ordersDelivered = new AtomicInteger();
     private final LocalDateTime startTime = LocalDateTime.now();
 
-    public void recordOrder(Order order) {
-      totalOrdersProcessed++;
-      totalRevenue += order.getTotalPrice();
+    public RestaurantStats() {
+      this(new SalesRollup());
+    }
 
-      // Track popular items
-      order
-          .getItems()
-          .forEach(
-              item -> {
-                String itemName = item.getMenuItem().getDishName();
-                popularItems.merge(itemName, item.getQuantity(), Integer::sum);
-              });
+    public RestaurantStats(SalesRollup sales) {
+      this.sales = sales;
+    }
+
+    public void recordOrder(Order order) {
+      sales.record(order);
     }
 
     public void recordDelivery() {
-      ordersDelivered++;
+      ordersDelivered.incrementAndGet();
+    }
+
+    /**
+     * Gets sales totals for a recent window.
+     *
+     * @param window How far back to look, at most one day
+     * @return Orders, revenue and units sold per dish in that window
+     */
+    public SalesRollup.Summary getSales(Duration window) {
+      return sales.summarize(window);
+    }
+
+    /**
+     * Gets the best selling dishes in a recent window by name.
+     *
+     * @param window How far back to look, at most one day
+     * @param n Maximum number of dishes to return
+     * @return Up to n (dish name, units sold) entries, most units first
+     */
+    public List<Map.Entry<String, Long>> getTopItems(Duration window, int n) {
+      return sales.summarize(window).topDishes(n).stream()
+          .map(entry -> Map.entry(dishName(entry.getKey()), entry.getValue()))
+          .toList();
     }
 
     // Getters
     public int getTotalOrdersProcessed() {
-      return totalOrdersProcessed;
+      return (int) sales.getTotalOrders();
     }
 
     public double getTotalRevenue() {
-      return totalRevenue;
+      return sales.getTotalRevenueCents() / 100.0;
     }
 
     public int getOrdersDelivered() {
-      return ordersDelivered;
+      return ordersDelivered.get();
     }
 
+    /** Units sold per dish name since the restaurant was created. */
     public Map<String, Integer> getPopularItems() {
-      return new HashMap<>(popularItems);
+      Map<String, Integer> popularItems = new HashMap<>();
+      sales
+          .summarizeAllTime()
+          .unitsByDish()
+          .forEach(
+              (dishId, units) ->
+                  popularItems.merge(dishName(dishId), units.intValue(), Integer::sum));
+      return popularItems;
     }
 
     public LocalDateTime getStartTime() {
       return startTime;
     }
+
+    private String dishName(int dishId) {
+      String name = sales.getDishName(dishId);
+      return name != null ? name : "Dish #" + dishId;
+    }
   }
 
   /** Creates a new Restaurant. */
@@ -356,6 +394,7 @@ public class Restaurant {
 
   /** Gets current restaurant status. */
   public RestaurantStatus getStatus() {
+    SalesRollup.Summary lastHour = stats.getSales(Duration.ofHours(1));
     return new RestaurantStatus(
         isOpen,
         orderQueue.size(),
@@ -364,7 +403,9 @@ public class Restaurant {
         deliveryStaff.size(),
         (int) deliveryStaff.stream().filter(delivery -> !delivery.isBusy()).count(),
         stats.getTotalRevenue(),
-        stats.getTotalOrdersProcessed());
+        stats.getTotalOrdersProcessed(),
+        (int) lastHour.orders(),
+        lastHour.revenue());
   }
 
   /** Restaurant status data class. */
@@ -376,22 +417,27 @@ public class Restaurant {
       int totalDeliveryStaff,
       int availableDeliveryStaff,
       double totalRevenue,
-      int totalOrdersProcessed) {}
+      int totalOrdersProcessed,
+      int ordersLastHour,
+      double revenueLastHour) {}
 
-  /** Prints daily report. */
+  /**
+   * Prints daily report. Sales figures cover the last 24 hours; deliveries are not timestamped, so
+   * that line is the all-time count and is labelled as such.
+   */
   private void printDailyReport() {
+    SalesRollup.Summary today = stats.getSales(SalesRollup.MAX_WINDOW);
     System.out.println(
         "\n📊 DAILY REPORT - "
             + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")));
     System.out.println("=".repeat(50));
-    System.out.println("📦 Orders Processed: " + stats.getTotalOrdersProcessed());
-    System.out.println("🚚 Orders Delivered: " + stats.getOrdersDelivered());
-    System.out.println("💰 Total Revenue: $" + String.format("%.2f", stats.getTotalRevenue()));
-    System.out.println("⭐ Popular Items:");
-
-    stats.getPopularItems().entrySet().stream()
-        .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-        .limit(3)
+    System.out.println("📦 Orders Processed (last 24h): " + today.orders());
+    System.out.println("🚚 Orders Delivered (all time): " + stats.getOrdersDelivered());
+    System.out.println("💰 Total Revenue (last 24h): $" + String.format("%.2f", today.revenue()));
+    System.out.println("⭐ Popular Items (last 24h):");
+
+    stats
+        .getTopItems(SalesRollup.MAX_WINDOW, 3)
         .forEach(
             entry ->
                 System.out.println("   " + entry.getKey() + ": " + entry.getValue() + " sold"));
@@ -3,9 +3,11 @@ package com.cs_25_2_team2.RestaurantManagementApp;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableJpaRepositories(basePackages = "com.cs_25_2_team2.RestaurantManagementApp.repositories")
+@EnableScheduling
 public class RestaurantManagementAppApplication {
 
   public static void main(String[] args) {
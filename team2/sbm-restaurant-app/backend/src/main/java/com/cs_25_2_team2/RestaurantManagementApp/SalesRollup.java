@@ -0,0 +1,221 @@
+package com.cs_25_2_team2.RestaurantManagementApp;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Time-bucketed sales rollup. Every recorded order is added to all-time totals and to the bucket
+ * of the minute it was recorded in; buckets form a ring covering the last 24 hours, so "last 15
+ * minutes / hour / day" questions are answered by summing at most {@link #MAX_WINDOW} minutes of
+ * buckets, independent of how many orders were recorded.
+ *
+ * <p>Counters are {@link LongAdder}s and revenue is kept in whole cents, so concurrent calls to
+ * {@link #record(Order)} never block each other and never lose updates. A bucket is replaced
+ * (rather than reset in place) when its slot is reused a day later, which keeps readers and
+ * writers of different minutes from interfering.
+ */
+public class SalesRollup {
+  /** Longest window that can be summarized. */
+  public static final Duration MAX_WINDOW = Duration.ofDays(1);
+
+  private static final int BUCKET_COUNT = (int) MAX_WINDOW.toMinutes();
+
+  private final Clock clock;
+  private final AtomicReferenceArray<Bucket> buckets = new AtomicReferenceArray<>(BUCKET_COUNT);
+  private final Bucket allTime = new Bucket(-1);
+  private final Map<Integer, String> dishNames = new ConcurrentHashMap<>();
+
+  /** Counters for one minute (or for all time). */
+  private static class Bucket {
+    final long minute;
+    final LongAdder orders = new LongAdder();
+    final LongAdder revenueCents = new LongAdder();
+    final Map<Integer, LongAdder> unitsByDish = new ConcurrentHashMap<>();
+
+    Bucket(long minute) {
+      this.minute = minute;
+    }
+
+    void add(Order order, long cents) {
+      orders.increment();
+      revenueCents.add(cents);
+      for (CartItem item : order.getItems()) {
+        unitsByDish
+            .computeIfAbsent(item.getMenuItem().getDishId(), id -> new LongAdder())
+            .add(item.getQuantity());
+      }
+    }
+  }
+
+  /**
+   * Sales totals over a window.
+   *
+   * @param orders Number of orders recorded
+   * @param revenueCents Revenue in cents
+   * @param unitsByDish Units sold per dish ID
+   */
+  public record Summary(long orders, long revenueCents, Map<Integer, Long> unitsByDish) {
+    /**
+     * Gets the revenue in dollars.
+     *
+     * @return The revenue
+     */
+    public double revenue() {
+      return revenueCents / 100.0;
+    }
+
+    /**
+     * Gets the best selling dishes.
+     *
+     * @param n Maximum number of dishes to return
+     * @return Up to n (dish ID, units sold) entries, most units first
+     */
+    public List<Map.Entry<Integer, Long>> topDishes(int n) {
+      List<Map.Entry<Integer, Long>> entries = new ArrayList<>(unitsByDish.entrySet());
+      entries.sort(Map.Entry.<Integer, Long>comparingByValue().reversed());
+      return entries.subList(0, Math.min(Math.max(n, 0), entries.size()));
+    }
+  }
+
+  /** Creates an empty rollup using the system clock. */
+  public SalesRollup() {
+    this(Clock.systemDefaultZone());
+  }
+
+  /**
+   * Creates an empty rollup.
+   *
+   * @param clock Clock deciding which minute an order falls into
+   */
+  public SalesRollup(Clock clock) {
+    if (clock == null) {
+      throw new IllegalArgumentException("Clock cannot be null");
+    }
+    this.clock = clock;
+  }
+
+  /**
+   * Records an order in the current minute and in the all-time totals. Safe to call concurrently.
+   *
+   * @param order The order to record
+   * @throws IllegalArgumentException if order is null
+   */
+  public void record(Order order) {
+    if (order == null) {
+      throw new IllegalArgumentException("Order cannot be null");
+    }
+    long cents = Math.round(order.getTotalPrice() * 100);
+    for (CartItem item : order.getItems()) {
+      dishNames.putIfAbsent(item.getMenuItem().getDishId(), item.getMenuItem().getDishName());
+    }
+    currentBucket().add(order, cents);
+    allTime.add(order, cents);
+  }
+
+  /**
+   * Summarizes the orders recorded within a recent window, including the current minute.
+   *
+   * @param window How far back to look, at most {@link #MAX_WINDOW}
+   * @return The totals for that window
+   * @throws IllegalArgumentException if window is not positive or longer than a day
+   */
+  public Summary summarize(Duration window) {
+    if (window == null
+        || window.isNegative()
+        || window.isZero()
+        || window.compareTo(MAX_WINDOW) > 0) {
+      throw new IllegalArgumentException("Window must be positive and at most " + MAX_WINDOW);
+    }
+    long now = currentMinute();
+    long minutes = Math.max(1, (window.toSeconds() + 59) / 60);
+
+    long orders = 0;
+    long revenueCents = 0;
+    Map<Integer, Long> unitsByDish = new HashMap<>();
+    for (long minute = now - minutes + 1; minute <= now; minute++) {
+      Bucket bucket = buckets.get(slot(minute));
+      if (bucket == null || bucket.minute != minute) {
+        continue;
+      }
+      orders += bucket.orders.sum();
+      revenueCents += bucket.revenueCents.sum();
+      bucket.unitsByDish.forEach(
+          (dishId, units) -> unitsByDish.merge(dishId, units.sum(), Long::sum));
+    }
+    return new Summary(orders, revenueCents, Collections.unmodifiableMap(unitsByDish));
+  }
+
+  /**
+   * Summarizes every order recorded since the rollup was created.
+   *
+   * @return The all-time totals
+   */
+  public Summary summarizeAllTime() {
+    Map<Integer, Long> unitsByDish = new HashMap<>();
+    allTime.unitsByDish.forEach((dishId, units) -> unitsByDish.put(dishId, units.sum()));
+    return new Summary(
+        allTime.orders.sum(), allTime.revenueCents.sum(), Collections.unmodifiableMap(unitsByDish));
+  }
+
+  /**
+   * Gets the number of orders recorded since the rollup was created.
+   *
+   * @return The all-time order count
+   */
+  public long getTotalOrders() {
+    return allTime.orders.sum();
+  }
+
+  /**
+   * Gets the revenue recorded since the rollup was created.
+   *
+   * @return The all-time revenue in cents
+   */
+  public long getTotalRevenueCents() {
+    return allTime.revenueCents.sum();
+  }
+
+  /**
+   * Gets the name a dish was recorded under.
+   *
+   * @param dishId The dish ID
+   * @return The dish name, or null if no order contained the dish
+   */
+  public String getDishName(int dishId) {
+    return dishNames.get(dishId);
+  }
+
+  private Bucket currentBucket() {
+    long minute = currentMinute();
+    int slot = slot(minute);
+    while (true) {
+      Bucket bucket = buckets.get(slot);
+      if (bucket != null && bucket.minute == minute) {
+        return bucket;
+      }
+      if (bucket != null && bucket.minute > minute) {
+        return bucket; // Clock went backwards across a day boundary; count it in the newer minute
+      }
+      Bucket fresh = new Bucket(minute);
+      if (buckets.compareAndSet(slot, bucket, fresh)) {
+        return fresh;
+      }
+    }
+  }
+
+  private long currentMinute() {
+    return Math.floorDiv(clock.millis(), 60_000L);
+  }
+
+  private static int slot(long minute) {
+    return (int) Math.floorMod(minute, (long) BUCKET_COUNT);
+  }
+}
@@ -0,0 +1,179 @@
+package com.cs_25_2_team2.RestaurantManagementApp;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Space-Saving heavy-hitters sketch: approximate top-K counting over a stream using a fixed
+ * number of counters.
+ *
+ * <p>Each monitored key has a count and an error bound. When a new key arrives and all counters
+ * are in use, the key with the smallest count is evicted and the new key inherits that count (plus
+ * its own weight) as an over-estimate, remembering the inherited amount as its error. Every key
+ * whose true count exceeds {@code totalWeight / capacity} is guaranteed to be monitored, and no
+ * estimate undercounts.
+ *
+ * <p>Counters are kept ordered by count, so offering a key is O(log capacity). This class is not
+ * thread-safe.
+ *
+ * @param <K> The type of the counted keys
+ */
+public class SpaceSavingSketch<K> {
+  private static final Comparator<Counter<?>> BY_COUNT =
+      Comparator.<Counter<?>>comparingLong(c -> c.count).thenComparingLong(c -> c.sequence);
+
+  private final int capacity;
+  private final Map<K, Counter<K>> counters;
+  private final TreeSet<Counter<K>> byCount;
+  private long totalWeight;
+  private long nextSequence;
+
+  /** A monitored key with its estimated count and the maximum overestimate in that count. */
+  public record Entry<K>(K key, long count, long error) {}
+
+  private static class Counter<K> {
+    final K key;
+    long count;
+    long error;
+    long sequence;
+
+    Counter(K key) {
+      this.key = key;
+    }
+  }
+
+  /**
+   * Creates an empty sketch.
+   *
+   * @param capacity Maximum number of keys monitored at once
+   * @throws IllegalArgumentException if capacity is not positive
+   */
+  public SpaceSavingSketch(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive");
+    }
+    this.capacity = capacity;
+    this.counters = new HashMap<>();
+    this.byCount = new TreeSet<>(BY_COUNT);
+  }
+
+  /**
+   * Counts one occurrence of a key.
+   *
+   * @param key The key to count
+   * @throws IllegalArgumentException if key is null
+   */
+  public void offer(K key) {
+    offer(key, 1);
+  }
+
+  /**
+   * Counts a weighted occurrence of a key.
+   *
+   * @param key The key to count
+   * @param weight How many occurrences to add
+   * @throws IllegalArgumentException if key is null or weight is not positive
+   */
+  public void offer(K key, long weight) {
+    offer(key, weight, 0);
+  }
+
+  /**
+   * Adds every counter of another sketch to this one. The result over-estimates no less than
+   * either input, so merged top-K answers keep the Space-Saving guarantees with the errors added.
+   *
+   * @param other The sketch to merge in
+   */
+  public void merge(SpaceSavingSketch<K> other) {
+    for (Counter<K> counter : other.counters.values()) {
+      offer(counter.key, counter.count, counter.error);
+    }
+  }
+
+  /**
+   * Gets the monitored keys with the highest estimated counts.
+   *
+   * @param n Maximum number of entries to return
+   * @return Up to n entries, highest count first
+   */
+  public List<Entry<K>> top(int n) {
+    List<Entry<K>> top = new ArrayList<>(Math.min(Math.max(n, 0), counters.size()));
+    Iterator<Counter<K>> descending = byCount.descendingIterator();
+    while (top.size() < n && descending.hasNext()) {
+      Counter<K> counter = descending.next();
+      top.add(new Entry<>(counter.key, counter.count, counter.error));
+    }
+    return top;
+  }
+
+  /**
+   * Gets the estimated count of a key.
+   *
+   * @param key The key to look up
+   * @return The estimated count, or 0 if the key is not monitored
+   */
+  public long estimate(K key) {
+    Counter<K> counter = counters.get(key);
+    return counter == null ? 0 : counter.count;
+  }
+
+  /**
+   * Gets the total weight offered to the sketch.
+   *
+   * @return The sum of all offered weights
+   */
+  public long getTotalWeight() {
+    return totalWeight;
+  }
+
+  /**
+   * Gets the number of keys currently monitored.
+   *
+   * @return The number of counters in use
+   */
+  public int size() {
+    return counters.size();
+  }
+
+  /** Removes every counter. */
+  public void clear() {
+    counters.clear();
+    byCount.clear();
+    totalWeight = 0;
+  }
+
+  private void offer(K key, long weight, long error) {
+    if (key == null) {
+      throw new IllegalArgumentException("Key cannot be null");
+    }
+    if (weight <= 0) {
+      throw new IllegalArgumentException("Weight must be positive");
+    }
+    totalWeight += weight;
+
+    Counter<K> counter = counters.get(key);
+    if (counter != null) {
+      byCount.remove(counter);
+    } else if (counters.size() < capacity) {
+      counter = new Counter<>(key);
+      counters.put(key, counter);
+    } else {
+      // Replace the smallest counter; the newcomer inherits its count as error
+      Counter<K> evicted = byCount.pollFirst();
+      counters.remove(evicted.key);
+      counter = new Counter<>(key);
+      counter.count = evicted.count;
+      counter.error = evicted.count;
+      counters.put(key, counter);
+    }
+    counter.count += weight;
+    counter.error += error;
+    counter.sequence = nextSequence++;
+    byCount.add(counter);
+  }
+}
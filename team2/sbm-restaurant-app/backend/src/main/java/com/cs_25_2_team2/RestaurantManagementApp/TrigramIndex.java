@@ -0,0 +1,386 @@
+package com.cs_25_2_team2.RestaurantManagementApp;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * In-memory inverted index for ranked, typo-tolerant search over short text fields.
+ *
+ * <p>Every document is a key with a fixed number of text fields (e.g. name, ingredients,
+ * description), each with its own weight. Text is lowercased and split into words, and every word
+ * is indexed by its character trigrams, padded so that the first letters of a word form their own
+ * trigrams. A query is split the same way, except that its last word is treated as a prefix (the
+ * user may still be typing). A document matches when it contains at least half of the query's
+ * trigrams in any field, so prefixes and misspelled words still find it; matches are ranked by the
+ * summed weight of the fields each query trigram was found in, then by the length of the first
+ * field (shorter names first).
+ *
+ * <p>Postings are bit sets over document slots, so adding, replacing and removing a document only
+ * touches that document's trigrams, and a search costs one pass over the posting lists of the
+ * query's trigrams. Searches do not modify the index and may run concurrently with each other, but
+ * not with {@link #put} or {@link #remove}; this class is otherwise not thread-safe.
+ *
+ * @param <K> The type of the document keys
+ */
+public class TrigramIndex<K> {
+  /** Queries are cut to this many characters, bounding the trigrams per query. */
+  public static final int MAX_QUERY_LENGTH = 64;
+
+  private static final int HITS_BITS = 8;
+  private static final int HITS_MASK = (1 << HITS_BITS) - 1;
+  private static final int MAX_SCORE = Integer.MAX_VALUE >> HITS_BITS;
+  private static final int MAX_SLOTS = 1 << 24;
+  private static final int MAX_NAME_LENGTH = (1 << 16) - 1;
+
+  private final int[] fieldWeights;
+  private final List<Map<String, Postings>> postings;
+  private final Map<String, Postings> anyField = new HashMap<>();
+  private final Map<K, Integer> slots = new HashMap<>();
+  private final List<K> keys = new ArrayList<>();
+  private final List<String[]> texts = new ArrayList<>();
+  private final Deque<Integer> freeSlots = new ArrayDeque<>();
+  private int[] nameLengths = new int[16];
+  private final ThreadLocal<int[]> scoreScratch = new ThreadLocal<>();
+
+  /**
+   * A search result.
+   *
+   * @param key The matching document
+   * @param score Summed field weight of the query trigrams found in the document
+   */
+  public record Hit<K>(K key, int score) {}
+
+  /**
+   * Creates an empty index.
+   *
+   * @param fieldWeights Weight of each field, in the order fields are passed to {@link #put}
+   * @throws IllegalArgumentException if no field is given or a weight is not positive
+   */
+  public TrigramIndex(int... fieldWeights) {
+    if (fieldWeights == null || fieldWeights.length == 0) {
+      throw new IllegalArgumentException("At least one field is required");
+    }
+    int total = 0;
+    for (int weight : fieldWeights) {
+      if (weight <= 0) {
+        throw new IllegalArgumentException("Field weights must be positive");
+      }
+      total += weight;
+    }
+    if ((long) total * MAX_QUERY_LENGTH * 2 > MAX_SCORE) {
+      throw new IllegalArgumentException("Field weights are too large");
+    }
+    this.fieldWeights = fieldWeights.clone();
+    this.postings = new ArrayList<>(fieldWeights.length);
+    for (int i = 0; i < fieldWeights.length; i++) {
+      postings.add(new HashMap<>());
+    }
+  }
+
+  /**
+   * Indexes a document, replacing any previous version with the same key.
+   *
+   * @param key The document key
+   * @param fields The document's text fields in constructor order; null fields are empty
+   * @throws IllegalArgumentException if key is null or the number of fields is wrong
+   */
+  public void put(K key, String... fields) {
+    if (key == null) {
+      throw new IllegalArgumentException("Key cannot be null");
+    }
+    if (fields == null || fields.length != fieldWeights.length) {
+      throw new IllegalArgumentException("Expected " + fieldWeights.length + " fields");
+    }
+    remove(key);
+    int slot;
+    if (freeSlots.isEmpty()) {
+      if (keys.size() == MAX_SLOTS) {
+        throw new IllegalStateException("Index is full");
+      }
+      slot = keys.size();
+      keys.add(key);
+      texts.add(fields.clone());
+    } else {
+      slot = freeSlots.pop();
+      keys.set(slot, key);
+      texts.set(slot, fields.clone());
+    }
+    slots.put(key, slot);
+    if (slot == nameLengths.length) {
+      nameLengths = Arrays.copyOf(nameLengths, slot * 2);
+    }
+    nameLengths[slot] = fields[0] == null ? 0 : Math.min(fields[0].length(), MAX_NAME_LENGTH);
+    for (int field = 0; field < fields.length; field++) {
+      Map<String, Postings> fieldPostings = postings.get(field);
+      for (String gram : documentTrigrams(fields[field])) {
+        fieldPostings.computeIfAbsent(gram, g -> new Postings()).set(slot);
+        anyField.computeIfAbsent(gram, g -> new Postings()).set(slot);
+      }
+    }
+  }
+
+  /**
+   * Removes a document.
+   *
+   * @param key The document key
+   * @return True if the document was indexed
+   */
+  public boolean remove(K key) {
+    Integer slot = slots.remove(key);
+    if (slot == null) {
+      return false;
+    }
+    String[] fields = texts.get(slot);
+    for (int field = 0; field < fields.length; field++) {
+      Map<String, Postings> fieldPostings = postings.get(field);
+      for (String gram : documentTrigrams(fields[field])) {
+        clear(fieldPostings, gram, slot);
+        clear(anyField, gram, slot);
+      }
+    }
+    keys.set(slot, null);
+    texts.set(slot, null);
+    freeSlots.push(slot);
+    return true;
+  }
+
+  /**
+   * Finds the best matching documents.
+   *
+   * @param query The search text
+   * @param limit Maximum number of results
+   * @param filter Only documents whose key passes are returned; null accepts all
+   * @return Matches ordered best first; empty if the query has no letters or digits
+   * @throws IllegalArgumentException if limit is not positive
+   */
+  public List<Hit<K>> search(String query, int limit, Predicate<K> filter) {
+    if (limit <= 0) {
+      throw new IllegalArgumentException("Limit must be positive");
+    }
+    Set<String> grams = queryTrigrams(query);
+    if (grams.isEmpty() || slots.isEmpty()) {
+      return List.of();
+    }
+
+    // Per slot: summed weight in the high bits, number of query trigrams found in the low bits.
+    // Reused per thread, as allocating it on every keystroke dominates garbage collection.
+    int slotCount = keys.size();
+    int[] scores = scoreScratch.get();
+    if (scores == null || scores.length < slotCount) {
+      scores = new int[Math.max(slotCount, 16)];
+      scoreScratch.set(scores);
+    } else {
+      Arrays.fill(scores, 0, slotCount, 0);
+    }
+    for (String gram : grams) {
+      Postings found = anyField.get(gram);
+      if (found == null) {
+        continue;
+      }
+      found.addTo(scores, 1);
+      for (int field = 0; field < fieldWeights.length; field++) {
+        Postings docs = postings.get(field).get(gram);
+        if (docs != null) {
+          docs.addTo(scores, fieldWeights[field] << HITS_BITS);
+        }
+      }
+    }
+
+    // Keep the best matches in a min-heap of packed (score, shorter name, earlier slot) ranks
+    int required = (grams.size() + 1) / 2;
+    long[] heap = new long[Math.min(limit, slotCount)];
+    int size = 0;
+    for (int slot = 0; slot < slotCount; slot++) {
+      if ((scores[slot] & HITS_MASK) < required) {
+        continue;
+      }
+      long rank = rank(scores[slot] >>> HITS_BITS, slot);
+      if (size == heap.length && rank <= heap[0]) {
+        continue;
+      }
+      if (filter != null && !filter.test(keys.get(slot))) {
+        continue;
+      }
+      if (size < heap.length) {
+        heap[size] = rank;
+        siftUp(heap, size++);
+      } else {
+        heap[0] = rank;
+        siftDown(heap, size);
+      }
+    }
+
+    Arrays.sort(heap, 0, size);
+    List<Hit<K>> hits = new ArrayList<>(size);
+    for (int i = size - 1; i >= 0; i--) {
+      int slot = MAX_SLOTS - 1 - (int) (heap[i] & (MAX_SLOTS - 1));
+      hits.add(new Hit<>(keys.get(slot), scores[slot] >>> HITS_BITS));
+    }
+    return hits;
+  }
+
+  /**
+   * Gets the number of indexed documents.
+   *
+   * @return The number of documents
+   */
+  public int size() {
+    return slots.size();
+  }
+
+  /**
+   * Gets the trigrams a query is matched by, with its last word treated as a prefix.
+   *
+   * @param query The search text
+   * @return The distinct trigrams in query order
+   */
+  static Set<String> queryTrigrams(String query) {
+    Set<String> grams = new LinkedHashSet<>();
+    if (query == null) {
+      return grams;
+    }
+    String text = query.length() > MAX_QUERY_LENGTH ? query.substring(0, MAX_QUERY_LENGTH) : query;
+    List<String> words = words(text);
+    boolean lastIsPrefix = !text.isEmpty() && Character.isLetterOrDigit(text.charAt(text.length() - 1));
+    for (int i = 0; i < words.size(); i++) {
+      addTrigrams(words.get(i), lastIsPrefix && i == words.size() - 1, grams);
+    }
+    return grams;
+  }
+
+  private static Set<String> documentTrigrams(String text) {
+    Set<String> grams = new LinkedHashSet<>();
+    if (text != null) {
+      for (String word : words(text)) {
+        addTrigrams(word, false, grams);
+      }
+    }
+    return grams;
+  }
+
+  private static void addTrigrams(String word, boolean prefix, Set<String> grams) {
+    String padded = prefix ? "  " + word : "  " + word + " ";
+    for (int i = 0; i + 3 <= padded.length(); i++) {
+      grams.add(padded.substring(i, i + 3));
+    }
+  }
+
+  private static List<String> words(String text) {
+    List<String> words = new ArrayList<>();
+    StringBuilder word = new StringBuilder();
+    String lower = text.toLowerCase(Locale.ROOT);
+    for (int i = 0; i < lower.length(); i++) {
+      char c = lower.charAt(i);
+      if (Character.isLetterOrDigit(c)) {
+        word.append(c);
+      } else if (word.length() > 0) {
+        words.add(word.toString());
+        word.setLength(0);
+      }
+    }
+    if (word.length() > 0) {
+      words.add(word.toString());
+    }
+    return words;
+  }
+
+  private long rank(int score, int slot) {
+    return (long) score << 40
+        | (long) (MAX_NAME_LENGTH - nameLengths[slot]) << 24
+        | (MAX_SLOTS - 1 - slot);
+  }
+
+  private static void siftUp(long[] heap, int i) {
+    while (i > 0) {
+      int parent = (i - 1) / 2;
+      if (heap[parent] <= heap[i]) {
+        return;
+      }
+      long swap = heap[parent];
+      heap[parent] = heap[i];
+      heap[i] = swap;
+      i = parent;
+    }
+  }
+
+  private static void siftDown(long[] heap, int size) {
+    int i = 0;
+    while (true) {
+      int smallest = i;
+      int left = 2 * i + 1;
+      if (left < size && heap[left] < heap[smallest]) {
+        smallest = left;
+      }
+      if (left + 1 < size && heap[left + 1] < heap[smallest]) {
+        smallest = left + 1;
+      }
+      if (smallest == i) {
+        return;
+      }
+      long swap = heap[smallest];
+      heap[smallest] = heap[i];
+      heap[i] = swap;
+      i = smallest;
+    }
+  }
+
+  private static void clear(Map<String, Postings> gramPostings, String gram, int slot) {
+    Postings docs = gramPostings.get(gram);
+    if (docs != null) {
+      docs.clear(slot);
+      if (docs.isEmpty()) {
+        gramPostings.remove(gram);
+      }
+    }
+  }
+
+  /** Document slots containing one trigram, as a bit set over raw words. */
+  private static final class Postings {
+    long[] words = new long[1];
+    int count;
+
+    void set(int slot) {
+      int word = slot >>> 6;
+      if (word >= words.length) {
+        words = Arrays.copyOf(words, Math.max(word + 1, words.length * 2));
+      }
+      long bit = 1L << slot;
+      if ((words[word] & bit) == 0) {
+        words[word] |= bit;
+        count++;
+      }
+    }
+
+    void clear(int slot) {
+      int word = slot >>> 6;
+      long bit = 1L << slot;
+      if (word < words.length && (words[word] & bit) != 0) {
+        words[word] &= ~bit;
+        count--;
+      }
+    }
+
+    boolean isEmpty() {
+      return count == 0;
+    }
+
+    void addTo(int[] scores, int amount) {
+      for (int word = 0; word < words.length; word++) {
+        long bits = words[word];
+        while (bits != 0) {
+          scores[(word << 6) + Long.numberOfTrailingZeros(bits)] += amount;
+          bits &= bits - 1;
+        }
+      }
+    }
+  }
+}
@@ -1,11 +1,16 @@
 package com.cs_25_2_team2.RestaurantManagementApp.api;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/chatbot")
@@ -18,6 +23,8 @@ import java.util.Map;
  * - POST /api/chatbot accepts a JSON body { "message": "...", "simulate": true|false }.
  *   - If "simulate" is true (or the message looks like an order query) the reply is generated
  *     locally; otherwise the backend will call the OpenAI API (requires OPENAI_API_KEY).
+ *   - The request thread is released while OpenAI is answering.
+ * - POST /api/chatbot/stream takes the same body and streams the reply as Server-Sent Events.
  * - GET /api/chatbot returns a list of stored conversations (in-memory).
  * - DELETE /api/chatbot/{id} removes a stored conversation.
  *
@@ -69,31 +76,46 @@ public class OpenAiChatController {
      * Errors:
      * <ul>
      *   <li>400 if message is missing
-     *   <li>502 if upstream (OpenAI) request failed
+     *   <li>429 if too many chatbot requests are already waiting on OpenAI
      * </ul>
+     * If the OpenAI key is missing or the upstream request fails, a simulated reply is returned.
      */
     @PostMapping
-    public ResponseEntity<?> postMessage(@RequestBody Map<String, Object> body) {
+    public CompletableFuture<ResponseEntity<?>> postMessage(@RequestBody Map<String, Object> body) {
         String message = body.getOrDefault("message", "").toString();
-        boolean simulate = false;
-        Object simObj = body.get("simulate");
-        if (simObj instanceof Boolean) simulate = (Boolean) simObj;
-        else if (simObj != null) simulate = Boolean.parseBoolean(simObj.toString());
         if (message == null || message.isBlank()) {
-            return ResponseEntity.badRequest().body(Map.of("error", "message is required"));
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body(Map.of("error", "message is required")));
         }
-        try {
-            Map<String, Object> result = service.sendMessage(message, simulate);
-            return ResponseEntity.ok(result);
-        } catch (IllegalStateException e) {
-            // Fall back to a simulated response if OpenAI API key is missing
-            String fallbackReply = service.simulateOrderReply(message);
-            return ResponseEntity.ok(Map.of("reply", fallbackReply, "simulated", true));
-        } catch (IOException | InterruptedException e) {
-            // Fall back to a simulated response if OpenAI API call fails
-            String fallbackReply = service.simulateOrderReply(message);
-            return ResponseEntity.ok(Map.of("reply", fallbackReply, "simulated", true));
+        return service.sendMessageAsync(message, isSimulate(body))
+                .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof OpenAiService.ChatbotBusyException) {
+                        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                                .body(Map.of("error", "chatbot is busy, try again shortly"));
+                    }
+                    // Fall back to a simulated response if the OpenAI API key is missing or the call failed
+                    String fallbackReply = service.simulateOrderReply(message);
+                    return ResponseEntity.ok(Map.of("reply", fallbackReply, "simulated", true));
+                });
+    }
+
+    /**
+     * Stream the reply to a message.
+     *
+     * <p>Same request body as POST /api/chatbot. Events: "token" (a text fragment of the reply, in
+     * order), then "done" with {"id", "reply", "simulated"}; or a single "error" event with
+     * {"error": "..."} if the chatbot is busy or the upstream stream broke off. 400 if message is
+     * missing.
+     */
+    @PostMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMessage(@RequestBody Map<String, Object> body) {
+        String message = body.getOrDefault("message", "").toString();
+        if (message == null || message.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "message is required");
         }
+        return service.streamMessage(message, isSimulate(body));
     }
 
     /**
@@ -108,4 +130,10 @@ public class OpenAiChatController {
         if (removed == null) return ResponseEntity.notFound().build();
         return ResponseEntity.ok(Map.of("deleted", removed));
     }
+
+    private static boolean isSimulate(Map<String, Object> body) {
+        Object simObj = body.get("simulate");
+        if (simObj instanceof Boolean) return (Boolean) simObj;
+        return simObj != null && Boolean.parseBoolean(simObj.toString());
+    }
 }
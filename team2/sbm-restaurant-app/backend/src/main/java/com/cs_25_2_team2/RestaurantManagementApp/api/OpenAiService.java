@@ -1,16 +1,17 @@
 package com.cs_25_2_team2.RestaurantManagementApp.api;
-import com.cs_25_2_team2.RestaurantManagementApp.api.Chatbot;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.springframework.http.HttpStatus;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.util.ArrayList;
@@ -18,22 +19,78 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * OpenAI chat completions behind the chatbot endpoints.
+ *
+ * <p>Calls go through one shared, connection-pooling {@link HttpClient} and never block the
+ * caller: {@link #sendMessageAsync} completes a future when the reply arrives, and
+ * {@link #streamMessage} forwards tokens to an SSE emitter as OpenAI streams them. At most
+ * {@code restaurant.chatbot.max-concurrent} calls are in flight; beyond that a call fails at once
+ * with {@link ChatbotBusyException} instead of queueing.
+ *
+ * <p>The menu system prompt is built once and rebuilt only when {@link Chatbot#getMenuItems()}
+ * returns a different menu.
+ */
 @Service
 public class OpenAiService {
 
+    static final String DEFAULT_BASE_URL = "https://api.openai.com";
+    private static final String COMPLETIONS_PATH = "/v1/chat/completions";
+    private static final String MODEL = "gpt-4o-mini";
+    private static final long STREAM_TIMEOUT_MILLIS = 120_000;
+
+    /**
+     * Thrown when the concurrent OpenAI call limit is reached
+     */
+    public static class ChatbotBusyException extends RuntimeException {
+        public ChatbotBusyException(String message) {
+            super(message);
+        }
+    }
+
+    /** Menu system prompt and the menu it was built from */
+    private record MenuPrompt(List<Map<String, Object>> menu, String text) {}
+
     private final OpenAiConfig config;
-    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final URI completionsUri;
+    private final Duration timeout;
+    private final Semaphore permits;
+    private final HttpClient httpClient;
     private final ObjectMapper mapper = new ObjectMapper();
+    private volatile MenuPrompt menuPrompt;
 
     // simple in-memory store of conversation messages
     private final Map<Long, String> conversations = new ConcurrentHashMap<>();
     private final AtomicLong idSeq = new AtomicLong(1);
 
     public OpenAiService(OpenAiConfig config) {
+        this(config, DEFAULT_BASE_URL, 30_000, 8);
+    }
+
+    @Autowired
+    public OpenAiService(OpenAiConfig config,
+            @Value("${restaurant.chatbot.base-url:" + DEFAULT_BASE_URL + "}") String baseUrl,
+            @Value("${restaurant.chatbot.timeout-ms:30000}") long timeoutMillis,
+            @Value("${restaurant.chatbot.max-concurrent:8}") int maxConcurrent) {
+        if (timeoutMillis <= 0 || maxConcurrent < 1) {
+            throw new IllegalArgumentException("Timeout and concurrency limit must be positive");
+        }
         this.config = config;
+        this.completionsUri = URI.create(baseUrl + COMPLETIONS_PATH);
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.permits = new Semaphore(maxConcurrent);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .build();
     }
 
     public List<Map<String, Object>> listConversations() {
@@ -49,20 +106,14 @@ public class OpenAiService {
 
 
     public String generateChatbotResponse(String userInput) {
-        StringBuilder prompt = new StringBuilder("Based on the following menu items, provide a response to the user query:\n\n");
-        for (Map<String, Object> item : Chatbot.getMenuItems()) {
-            prompt.append("- ").append(item.get("name"))
-                  .append(" (Category: ").append(item.get("category"))
-                  .append(", Price: $").append(item.get("price"))
-                  .append(", Calories: ").append(item.get("calories"))
-                  .append(")\n");
+        if (looksLikeOrderQuery(userInput)) {
+            return simulatedResult(userInput).get("reply").toString();
         }
-        prompt.append("\nUser Query: ").append(userInput);
-
         try {
-            return sendMessage(prompt.toString()).get("reply").toString();
+            return complete(userInput, menuSystemPrompt()).join().get("reply").toString();
         } catch (Exception e) {
-            return "Error generating response: " + e.getMessage();
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            return "Error generating response: " + cause.getMessage();
         }
     }
 
@@ -70,41 +121,177 @@ public class OpenAiService {
         return sendMessage(message, false);
     }
 
+    /**
+     * Blocking form of {@link #sendMessageAsync}
+     */
     public Map<String, Object> sendMessage(String message, boolean simulate) throws IOException, InterruptedException {
+        try {
+            return sendMessageAsync(message, simulate).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) throw io;
+            if (cause instanceof RuntimeException runtime) throw runtime;
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Send a message without blocking the caller.
+     *
+     * @return a future of {"id", "reply", "simulated"}; it fails with IllegalStateException if no API
+     *     key is configured, ChatbotBusyException if the concurrency limit is reached, or
+     *     IOException if the upstream request failed
+     */
+    public CompletableFuture<Map<String, Object>> sendMessageAsync(String message, boolean simulate) {
         // If simulation requested or message looks like an order query, handle locally
         if (simulate || looksLikeOrderQuery(message)) {
-            String reply = simulateOrderReply(message);
-            Long id = idSeq.getAndIncrement();
-            conversations.put(id, "user: " + message + "\nassistant: " + reply);
-            return Map.of("id", id, "reply", reply, "simulated", true);
+            return CompletableFuture.completedFuture(simulatedResult(message));
+        }
+        return complete(message, null);
+    }
+
+    /**
+     * Open an SSE stream for one message
+     */
+    public SseEmitter streamMessage(String message, boolean simulate) {
+        return streamMessage(message, simulate, new SseEmitter(STREAM_TIMEOUT_MILLIS));
+    }
+
+    /**
+     * Stream a reply as "token" events (text fragments), followed by one "done" event with
+     * {"id", "reply", "simulated"}. If OpenAI is unavailable before the first token, the simulated
+     * reply is streamed instead; a failure mid-stream sends an "error" event. If the concurrency
+     * limit is reached the stream is a single "error" event.
+     */
+    SseEmitter streamMessage(String message, boolean simulate, SseEmitter emitter) {
+        String apiKey = config.getApiKey();
+        if (simulate || looksLikeOrderQuery(message) || apiKey == null || apiKey.isEmpty()) {
+            streamSimulated(message, emitter);
+            return emitter;
+        }
+        if (!permits.tryAcquire()) {
+            sendError(emitter, "chatbot is busy, try again shortly");
+            return emitter;
+        }
+
+        TokenSubscriber tokens = new TokenSubscriber(emitter);
+        emitter.onTimeout(tokens::cancel);
+        emitter.onError(e -> tokens.cancel());
+        HttpRequest request;
+        try {
+            request = completionRequest(apiKey, message, null, true);
+        } catch (IOException e) {
+            tokens.releasePermit();
+            streamSimulated(message, emitter);
+            return emitter;
+        }
+        httpClient.sendAsync(request, info -> info.statusCode() < 400
+                        ? HttpResponse.BodySubscribers.fromLineSubscriber(tokens)
+                        : HttpResponse.BodySubscribers.discarding())
+                .whenComplete((response, error) -> {
+                    tokens.releasePermit();
+                    if (tokens.cancelled) {
+                        return; // The browser went away
+                    }
+                    boolean failed = error != null || response.statusCode() >= 400;
+                    String reply = tokens.reply.toString();
+                    if (failed && reply.isEmpty()) {
+                        streamSimulated(message, emitter);
+                    } else if (failed) {
+                        sendError(emitter, "upstream stream interrupted");
+                    } else {
+                        Long id = storeConversation(message, reply);
+                        sendAndComplete(emitter, Map.of("id", id, "reply", reply, "simulated", false));
+                    }
+                });
+        return emitter;
+    }
+
+    /* package-private for test access */
+    int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * Menu description sent as the system message, rebuilt only when the menu changes
+     */
+    String menuSystemPrompt() {
+        List<Map<String, Object>> menu = Chatbot.getMenuItems();
+        MenuPrompt current = menuPrompt;
+        if (current == null || current.menu() != menu) {
+            StringBuilder prompt = new StringBuilder("Based on the following menu items, provide a response to the user query:\n\n");
+            for (Map<String, Object> item : menu) {
+                prompt.append("- ").append(item.get("name"))
+                      .append(" (Category: ").append(item.get("category"))
+                      .append(", Price: $").append(item.get("price"))
+                      .append(", Calories: ").append(item.get("calories"))
+                      .append(")\n");
+            }
+            current = new MenuPrompt(menu, prompt.toString());
+            menuPrompt = current;
         }
+        return current.text();
+    }
 
+    /**
+     * One non-streaming completion, holding a permit until the response arrives
+     */
+    private CompletableFuture<Map<String, Object>> complete(String message, String systemPrompt) {
         String apiKey = config.getApiKey();
         if (apiKey == null || apiKey.isEmpty()) {
-            throw new IllegalStateException("OpenAI API key not configured (set OPENAI_API_KEY or openai.api.key)");
+            return CompletableFuture.failedFuture(new IllegalStateException("OpenAI API key not configured (set OPENAI_API_KEY or openai.api.key)"));
+        }
+        if (!permits.tryAcquire()) {
+            return CompletableFuture.failedFuture(new ChatbotBusyException("Too many chatbot requests in flight"));
+        }
+        CompletableFuture<HttpResponse<String>> response;
+        try {
+            response = httpClient.sendAsync(completionRequest(apiKey, message, systemPrompt, false),
+                    HttpResponse.BodyHandlers.ofString());
+        } catch (IOException | RuntimeException e) {
+            permits.release();
+            return CompletableFuture.failedFuture(e);
         }
+        return response
+                .whenComplete((r, e) -> permits.release())
+                .thenApply(r -> {
+                    try {
+                        return parseReply(message, r);
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                });
+    }
 
+    private HttpRequest completionRequest(String apiKey, String message, String systemPrompt, boolean stream) throws IOException {
         // Build request body for Chat Completions (gpt-4o or gpt-4o-mini depending on availability).
         // Use model 'gpt-4o-mini' as a safe default for API compatibility.
         var body = mapper.createObjectNode();
-        body.put("model", "gpt-4o-mini");
+        body.put("model", MODEL);
         var messages = mapper.createArrayNode();
-        var userMsg = mapper.createObjectNode();
+        if (systemPrompt != null) {
+            ObjectNode systemMsg = messages.addObject();
+            systemMsg.put("role", "system");
+            systemMsg.put("content", systemPrompt);
+        }
+        ObjectNode userMsg = messages.addObject();
         userMsg.put("role", "user");
         userMsg.put("content", message);
-        messages.add(userMsg);
         body.set("messages", messages);
+        if (stream) {
+            body.put("stream", true);
+        }
 
-        var request = HttpRequest.newBuilder()
-                .uri(URI.create("https://api.openai.com/v1/chat/completions"))
-                .timeout(Duration.ofSeconds(30))
+        return HttpRequest.newBuilder()
+                .uri(completionsUri)
+                .timeout(timeout)
                 .header("Content-Type", "application/json")
                 .header("Authorization", "Bearer " + apiKey)
                 .POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)))
                 .build();
+    }
 
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
+    private Map<String, Object> parseReply(String message, HttpResponse<String> response) throws IOException {
         if (response.statusCode() >= 400) {
             throw new IOException("OpenAI API returned status " + response.statusCode() + ": " + response.body());
         }
@@ -121,10 +308,124 @@ public class OpenAiService {
         }
 
         String assistantReply = sb.toString();
+        Long id = storeConversation(message, assistantReply);
+        return Map.of("id", id, "reply", assistantReply, "simulated", false);
+    }
+
+    private Map<String, Object> simulatedResult(String message) {
+        String reply = simulateOrderReply(message);
+        Long id = storeConversation(message, reply);
+        return Map.of("id", id, "reply", reply, "simulated", true);
+    }
+
+    private Long storeConversation(String message, String reply) {
         Long id = idSeq.getAndIncrement();
-        conversations.put(id, "user: " + message + "\nassistant: " + assistantReply);
+        conversations.put(id, "user: " + message + "\nassistant: " + reply);
+        return id;
+    }
 
-        return Map.of("id", id, "reply", assistantReply, "simulated", false);
+    private void streamSimulated(String message, SseEmitter emitter) {
+        Map<String, Object> result = simulatedResult(message);
+        try {
+            emitter.send(SseEmitter.event().name("token").data(result.get("reply")));
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+            return;
+        }
+        sendAndComplete(emitter, result);
+    }
+
+    private static void sendAndComplete(SseEmitter emitter, Map<String, Object> result) {
+        try {
+            emitter.send(SseEmitter.event().name("done").data(result));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    private static void sendError(SseEmitter emitter, String error) {
+        try {
+            emitter.send(SseEmitter.event().name("error").data(Map.of("error", error)));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    /**
+     * Reads OpenAI's "data: {...}" stream line by line and forwards each content delta as a
+     * "token" event; stops reading if the browser goes away.
+     *
+     * Owns the stream's concurrency permit. A cancelled body subscription may never complete the
+     * response future, so the permit is released by whichever comes first, cancellation or
+     * completion, and only once.
+     */
+    private final class TokenSubscriber implements Flow.Subscriber<String> {
+        private final SseEmitter emitter;
+        private final StringBuilder reply = new StringBuilder();
+        private final AtomicBoolean permitReleased = new AtomicBoolean();
+        private volatile Flow.Subscription subscription;
+        private volatile boolean cancelled;
+
+        TokenSubscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (cancelled) {
+                subscription.cancel();
+            } else {
+                subscription.request(Long.MAX_VALUE);
+            }
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (cancelled || !line.startsWith("data:")) {
+                return;
+            }
+            String data = line.substring("data:".length()).trim();
+            if (data.isEmpty() || data.equals("[DONE]")) {
+                return;
+            }
+            try {
+                String token = mapper.readTree(data).path("choices").path(0).path("delta").path("content").asText("");
+                if (!token.isEmpty()) {
+                    reply.append(token);
+                    emitter.send(SseEmitter.event().name("token").data(token));
+                }
+            } catch (IOException | IllegalStateException e) {
+                cancel();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            // Reported through the response future
+        }
+
+        @Override
+        public void onComplete() {
+            // Reported through the response future
+        }
+
+        void cancel() {
+            cancelled = true;
+            releasePermit();
+            Flow.Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+
+        void releasePermit() {
+            if (permitReleased.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
     }
 
     /* package-private for test access */
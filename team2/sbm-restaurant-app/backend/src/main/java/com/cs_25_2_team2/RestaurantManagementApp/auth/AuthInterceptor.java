@@ -1,5 +1,6 @@
 package com.cs_25_2_team2.RestaurantManagementApp.auth;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
@@ -7,71 +8,121 @@ import org.springframework.web.servlet.HandlerInterceptor;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
-import java.lang.reflect.Method;
-import java.util.Arrays;
 
 /**
  * Interceptor for role-based access control.
  * Checks if user has required roles to access protected endpoints.
- * 
+ *
+ * A request carrying "Authorization: Bearer &lt;token&gt;" is authenticated from the signed token
+ * alone (see {@link AuthTokenService}); otherwise the servlet session is used. Either way the
+ * caller's identity is exposed to the handler as request attributes ({@link #USER_ID_ATTRIBUTE},
+ * {@link #USER_TYPE_ATTRIBUTE} and, for sessions, {@link #USERNAME_ATTRIBUTE}).
+ *
+ * Role requirements come from {@link RouteAuthorizationTable}, so an allowed request costs a
+ * table lookup and a bitmask check.
+ *
  * @author Team 2 - Phase 3 Authentication
  * @version 3.1
  */
 @Component
 public class AuthInterceptor implements HandlerInterceptor {
 
+    public static final String USER_ID_ATTRIBUTE = "userId";
+    public static final String USER_TYPE_ATTRIBUTE = "userType";
+    public static final String USERNAME_ATTRIBUTE = "username";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final AuthTokenService tokenService;
+    private final RouteAuthorizationTable routeTable;
+
+    @Autowired
+    public AuthInterceptor(AuthTokenService tokenService, RouteAuthorizationTable routeTable) {
+        this.tokenService = tokenService;
+        this.routeTable = routeTable;
+    }
+
     @Override
     public boolean preHandle(@org.springframework.lang.NonNull HttpServletRequest request, @org.springframework.lang.NonNull HttpServletResponse response, @org.springframework.lang.NonNull Object handler) throws Exception {
-        
+
         // Skip auth check for non-controller methods
         if (!(handler instanceof HandlerMethod)) {
             return true;
         }
 
-        HandlerMethod handlerMethod = (HandlerMethod) handler;
-        Method method = handlerMethod.getMethod();
-        
-        // Check if method has @RequiredRole annotation
-        RequiredRole requiredRole = method.getAnnotation(RequiredRole.class);
-        if (requiredRole == null) {
+        // Role requirement precompiled at startup from the method or class @RequiredRole
+        RouteAuthorizationTable.Rule rule = routeTable.lookup((HandlerMethod) handler);
+        if (rule == null) {
             // No role requirement, allow access
             return true;
         }
 
+        long start = System.nanoTime();
+        String authorization = request.getHeader("Authorization");
+        if (authorization != null && authorization.startsWith(BEARER_PREFIX)) {
+            return checkToken(authorization.substring(BEARER_PREFIX.length()).trim(), rule, start, request, response);
+        }
+
         HttpSession session = request.getSession(false);
-        
+
         // Check if authentication is required and user is authenticated
-        if (requiredRole.requireAuth()) {
+        if (rule.requiresAuth()) {
             if (session == null || session.getAttribute("username") == null) {
-                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-                response.setContentType("application/json");
-                response.getWriter().write("{\"error\": \"Authentication required\"}");
+                rule.recordUnauthenticated(System.nanoTime() - start);
+                writeError(response, HttpServletResponse.SC_UNAUTHORIZED, "{\"error\": \"Authentication required\"}");
                 return false;
             }
         }
 
         // Get user's role from session
-        String userRole = (String) session.getAttribute("userType");
+        String userRole = session == null ? null : (String) session.getAttribute("userType");
         if (userRole == null) {
-            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            response.setContentType("application/json");
-            response.getWriter().write("{\"error\": \"No user role found\"}");
+            rule.recordUnauthenticated(System.nanoTime() - start);
+            writeError(response, HttpServletResponse.SC_UNAUTHORIZED, "{\"error\": \"No user role found\"}");
             return false;
         }
 
         // Check if user has one of the required roles
-        String[] allowedRoles = requiredRole.value();
-        boolean hasRequiredRole = Arrays.stream(allowedRoles)
-                .anyMatch(role -> role.equalsIgnoreCase(userRole));
-
-        if (!hasRequiredRole) {
-            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
-            response.setContentType("application/json");
-            response.getWriter().write("{\"error\": \"Access denied. Required roles: " + 
-                Arrays.toString(allowedRoles) + ", your role: " + userRole + "\"}");
+        if (!rule.permits(userRole)) {
+            rule.recordForbidden(System.nanoTime() - start);
+            writeError(response, HttpServletResponse.SC_FORBIDDEN, rule.deniedMessage(userRole));
+            return false;
+        }
+
+        request.setAttribute(USER_ID_ATTRIBUTE, session.getAttribute("userId"));
+        request.setAttribute(USER_TYPE_ATTRIBUTE, userRole);
+        request.setAttribute(USERNAME_ATTRIBUTE, session.getAttribute("username"));
+        rule.recordAllowed(System.nanoTime() - start);
+        return true;
+    }
+
+    /**
+     * Stateless path: verify the token and check its role bits, without touching the session
+     */
+    private boolean checkToken(String token, RouteAuthorizationTable.Rule rule, long start, HttpServletRequest request,
+            HttpServletResponse response) throws Exception {
+        AuthTokenService.Claims claims = tokenService.verify(token);
+        if (claims == null) {
+            rule.recordUnauthenticated(System.nanoTime() - start);
+            writeError(response, HttpServletResponse.SC_UNAUTHORIZED, "{\"error\": \"Invalid or expired token\"}");
             return false;
         }
 
+        if (!rule.permits(claims.roles())) {
+            rule.recordForbidden(System.nanoTime() - start);
+            writeError(response, HttpServletResponse.SC_FORBIDDEN, rule.deniedMessage(claims.role()));
+            return false;
+        }
+
+        request.setAttribute(USER_ID_ATTRIBUTE, claims.userId());
+        request.setAttribute(USER_TYPE_ATTRIBUTE, claims.role().name());
+        rule.recordAllowed(System.nanoTime() - start);
         return true;
     }
+
+    private static void writeError(HttpServletResponse response, int status, String body) throws Exception {
+        response.setStatus(status);
+        response.setContentType("application/json");
+        response.getWriter().write(body);
+    }
 }
@@ -0,0 +1,47 @@
+package com.cs_25_2_team2.RestaurantManagementApp.auth;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Authorization metrics for administrators: per-route allowed, unauthenticated and forbidden
+ * counts and the average time spent checking a request, and login throttling counts.
+ *
+ * @author Team 2 - Phase 3 Authentication
+ * @version 3.1
+ */
+@RestController
+@RequestMapping("/api/admin/auth")
+@CrossOrigin(origins = "http://localhost:3000")
+@RequiredRole({"ADMIN"})
+public class AuthMetricsController {
+
+    private final RouteAuthorizationTable routeTable;
+    private final LoginThrottle loginThrottle;
+
+    public AuthMetricsController(RouteAuthorizationTable routeTable, LoginThrottle loginThrottle) {
+        this.routeTable = routeTable;
+        this.loginThrottle = loginThrottle;
+    }
+
+    /**
+     * Counters of every @RequiredRole route, busiest first
+     */
+    @GetMapping("/routes")
+    public List<Map<String, Object>> getRouteMetrics() {
+        return routeTable.snapshot();
+    }
+
+    /**
+     * Allowed and rejected login attempts, by username and by client address
+     */
+    @GetMapping("/login-throttle")
+    public Map<String, Object> getLoginThrottleMetrics() {
+        return loginThrottle.snapshot();
+    }
+}
@@ -0,0 +1,242 @@
+package com.cs_25_2_team2.RestaurantManagementApp.auth;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Issues and verifies stateless, HMAC-signed auth tokens.
+ *
+ * A token is 36 bytes, base64url-encoded to 48 characters: a version byte, the id of the key that
+ * signed it, the user id, the user's roles as a {@link Role} bitmask, the expiry (epoch seconds)
+ * and the first 16 bytes of an HMAC-SHA256 over all of that. Verifying one needs no session,
+ * database or cache, so any node holding the key ring can authenticate any request.
+ *
+ * Keys come from restaurant.auth.token.keys as a comma-separated ring of id:base64-secret entries
+ * (ids 0-255, secrets of at least 32 bytes). The first key signs new tokens; every key in the ring
+ * verifies, so a key is rotated by putting its replacement first and dropping it once the tokens
+ * it signed have expired. Without configured keys a random key is generated at startup, which is
+ * only good for a single node and does not survive restarts.
+ *
+ * @author Team 2 - Phase 3 Authentication
+ * @version 3.1
+ */
+@Component
+public class AuthTokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final byte VERSION = 1;
+    private static final int PAYLOAD_LENGTH = 20; // version, key id, user id, roles, expiry
+    private static final int TAG_LENGTH = 16;
+    private static final int TOKEN_LENGTH = PAYLOAD_LENGTH + TAG_LENGTH;
+    private static final int ENCODED_LENGTH = TOKEN_LENGTH / 3 * 4;
+    private static final int MIN_SECRET_LENGTH = 32;
+
+    /**
+     * Verified contents of a token
+     *
+     * @param userId Customer or staff id
+     * @param roles {@link Role} bitmask
+     * @param expiresAt Expiry in epoch seconds
+     */
+    public record Claims(long userId, int roles, long expiresAt) {
+
+        public boolean hasAnyRole(int mask) {
+            return (roles & mask) != 0;
+        }
+
+        /** Role the user logged in as */
+        public Role role() {
+            return Role.first(roles);
+        }
+    }
+
+    /** One key of the ring, with a MAC per thread since Mac instances are not thread-safe */
+    private static final class SigningKey {
+        final int id;
+        final ThreadLocal<Mac> mac;
+
+        SigningKey(int id, byte[] secret) {
+            this.id = id;
+            SecretKeySpec spec = new SecretKeySpec(secret, ALGORITHM);
+            newMac(spec); // Fail at startup, not on the first request
+            this.mac = ThreadLocal.withInitial(() -> newMac(spec));
+        }
+
+        private static Mac newMac(SecretKeySpec spec) {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(spec);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HMAC-SHA256 is not available", e);
+            }
+        }
+    }
+
+    private final SigningKey[] keysById = new SigningKey[256];
+    private final SigningKey signingKey;
+    private final Duration ttl;
+    private final Clock clock;
+
+    @Autowired
+    public AuthTokenService(@Value("${restaurant.auth.token.keys:}") String keyRing,
+            @Value("${restaurant.auth.token.ttl-seconds:28800}") long ttlSeconds) {
+        this(keyRing, Duration.ofSeconds(ttlSeconds), Clock.systemUTC());
+    }
+
+    AuthTokenService(String keyRing, Duration ttl, Clock clock) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Token TTL must be positive");
+        }
+        this.ttl = ttl;
+        this.clock = clock;
+
+        SigningKey first = null;
+        if (keyRing == null || keyRing.isBlank()) {
+            byte[] secret = new byte[MIN_SECRET_LENGTH];
+            new SecureRandom().nextBytes(secret);
+            first = new SigningKey(0, secret);
+            keysById[0] = first;
+        } else {
+            for (String entry : keyRing.split(",")) {
+                SigningKey key = parseKey(entry.trim());
+                if (keysById[key.id] != null) {
+                    throw new IllegalArgumentException("Duplicate token key id " + key.id);
+                }
+                keysById[key.id] = key;
+                if (first == null) {
+                    first = key;
+                }
+            }
+        }
+        this.signingKey = first;
+    }
+
+    /**
+     * Issue a token for a user with a single role
+     */
+    public String issue(long userId, Role role) {
+        return issue(userId, role.bit());
+    }
+
+    /**
+     * Issue a token for a user with the given role mask, valid for the configured TTL
+     */
+    public String issue(long userId, int roles) {
+        if (roles <= 0 || roles > 0xFFFF) {
+            throw new IllegalArgumentException("Role mask must be a non-empty 16-bit mask");
+        }
+        long expiresAt = clock.instant().plus(ttl).getEpochSecond();
+        byte[] token = new byte[TOKEN_LENGTH];
+        token[0] = VERSION;
+        token[1] = (byte) signingKey.id;
+        putLong(token, 2, userId);
+        token[10] = (byte) (roles >>> 8);
+        token[11] = (byte) roles;
+        putLong(token, 12, expiresAt);
+
+        Mac mac = signingKey.mac.get();
+        mac.update(token, 0, PAYLOAD_LENGTH);
+        byte[] tag = mac.doFinal();
+        System.arraycopy(tag, 0, token, PAYLOAD_LENGTH, TAG_LENGTH);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+    }
+
+    /**
+     * Verify a token
+     *
+     * @return its claims, or null if the token is malformed, signed with an unknown key, forged or
+     *     expired
+     */
+    public Claims verify(String encoded) {
+        if (encoded == null || encoded.length() != ENCODED_LENGTH) {
+            return null;
+        }
+        byte[] token;
+        try {
+            token = Base64.getUrlDecoder().decode(encoded.getBytes(StandardCharsets.ISO_8859_1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (token.length != TOKEN_LENGTH || token[0] != VERSION) {
+            return null;
+        }
+        SigningKey key = keysById[token[1] & 0xFF];
+        if (key == null) {
+            return null;
+        }
+
+        Mac mac = key.mac.get();
+        mac.update(token, 0, PAYLOAD_LENGTH);
+        byte[] tag = mac.doFinal();
+        int difference = 0;
+        for (int i = 0; i < TAG_LENGTH; i++) {
+            difference |= tag[i] ^ token[PAYLOAD_LENGTH + i];
+        }
+        if (difference != 0) {
+            return null;
+        }
+
+        long expiresAt = getLong(token, 12);
+        if (expiresAt <= clock.instant().getEpochSecond()) {
+            return null;
+        }
+        int roles = (token[10] & 0xFF) << 8 | (token[11] & 0xFF);
+        return new Claims(getLong(token, 2), roles, expiresAt);
+    }
+
+    /**
+     * How long a newly issued token is valid
+     */
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    private static SigningKey parseKey(String entry) {
+        int colon = entry.indexOf(':');
+        if (colon <= 0) {
+            throw new IllegalArgumentException("Token keys must be id:base64-secret entries");
+        }
+        int id;
+        byte[] secret;
+        try {
+            id = Integer.parseInt(entry.substring(0, colon).trim());
+            secret = Base64.getDecoder().decode(entry.substring(colon + 1).trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed token key entry", e);
+        }
+        if (id < 0 || id > 255) {
+            throw new IllegalArgumentException("Token key ids must be between 0 and 255");
+        }
+        if (secret.length < MIN_SECRET_LENGTH) {
+            throw new IllegalArgumentException("Token key " + id + " must be at least " + MIN_SECRET_LENGTH + " bytes");
+        }
+        return new SigningKey(id, secret);
+    }
+
+    private static void putLong(byte[] bytes, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            bytes[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static long getLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = value << 8 | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+}
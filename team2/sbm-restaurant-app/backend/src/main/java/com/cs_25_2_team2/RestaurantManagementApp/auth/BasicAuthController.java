@@ -1,6 +1,9 @@
 package com.cs_25_2_team2.RestaurantManagementApp.auth;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -8,13 +11,21 @@ import com.cs_25_2_team2.RestaurantManagementApp.services.UserService;
 import com.cs_25_2_team2.RestaurantManagementApp.entities.CustomerEntity;
 import com.cs_25_2_team2.RestaurantManagementApp.entities.StaffEntity;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 /**
  * Basic Authentication Controller for restaurant management system.
  * Provides simple session-based authentication without complex JWT dependencies.
+ *
+ * With restaurant.auth.mode=token, login stores nothing on the server: it returns a signed token
+ * (see {@link AuthTokenService}) that the client sends as "Authorization: Bearer &lt;token&gt;",
+ * and profile/status read the caller from that token.
  * 
  * Features:
  * - User login/logout with session management
@@ -36,6 +47,25 @@ public class BasicAuthController {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private AuthTokenService tokenService;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    // Saves rehashed passwords, keeping database writes off the hashing pool
+    @Autowired(required = false)
+    @Qualifier("applicationTaskExecutor")
+    private Executor rehashStoreExecutor;
+
+    @Value("${restaurant.auth.mode:session}")
+    private String authMode;
+
+    /**
+     * Caller identity; username and fullName are only known for sessions
+     */
+    private record Identity(Object userId, String userType, String username, Object fullName) {}
+
     /**
      * Login request data class
      */
@@ -85,41 +115,78 @@ public class BasicAuthController {
      * User login endpoint
      */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest request, HttpSession session) {
+    public ResponseEntity<?> login(@RequestBody LoginRequest request, HttpServletRequest httpRequest) {
         try {
+            // Throttle before any lookup or hashing
+            long retryAfter = loginThrottle.tryAcquire(request.getUsername(), httpRequest.getRemoteAddr());
+            if (retryAfter > 0) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(LoginThrottle.retryAfterSeconds(retryAfter)))
+                    .body(Map.of("error", "Too many login attempts, try again later"));
+            }
+
             if ("customer".equalsIgnoreCase(request.getUserType())) {
                 CustomerEntity customer = userService.getCustomerByUsername(request.getUsername());
                 if (customer != null && passwordEncoder.matches(request.getPassword(), customer.getPasswordHash())) {
-                    // Set session attributes
-                    session.setAttribute("userId", customer.getCustomerId());
-                    session.setAttribute("username", customer.getUsername());
-                    session.setAttribute("userType", "CUSTOMER");
-                    session.setAttribute("fullName", customer.getName());
-                    
+                    if (passwordEncoder.needsRehash(customer.getPasswordHash())) {
+                        Long customerId = customer.getCustomerId();
+                        rehash(request.getPassword(), hash -> {
+                            CustomerEntity current = userService.getCustomerById(customerId);
+                            current.setPasswordHash(hash);
+                            userService.saveCustomer(current);
+                        });
+                    }
                     Map<String, Object> response = new HashMap<>();
+                    if (isTokenMode()) {
+                        putToken(response, customer.getCustomerId(), Role.CUSTOMER);
+                    } else {
+                        // Set session attributes
+                        HttpSession session = httpRequest.getSession();
+                        session.setAttribute("userId", customer.getCustomerId());
+                        session.setAttribute("username", customer.getUsername());
+                        session.setAttribute("userType", "CUSTOMER");
+                        session.setAttribute("fullName", customer.getName());
+                    }
+                    
+
                     response.put("message", "Login successful");
                     response.put("userType", "CUSTOMER");
                     response.put("username", customer.getUsername());
                     response.put("fullName", customer.getName());
                     
+                    loginThrottle.recordSuccess(request.getUsername());
                     return ResponseEntity.ok(response);
                 }
             } else if ("staff".equalsIgnoreCase(request.getUserType())) {
                 StaffEntity staff = userService.getStaffByUsername(request.getUsername());
                 if (staff != null && passwordEncoder.matches(request.getPassword(), staff.getPasswordHash())) {
-                    // Set session attributes
-                    session.setAttribute("userId", staff.getStaffId());
-                    session.setAttribute("username", staff.getUsername());
-                    session.setAttribute("userType", staff.getRole().name().toUpperCase());
-                    session.setAttribute("fullName", staff.getName());
-                    
+                    if (passwordEncoder.needsRehash(staff.getPasswordHash())) {
+                        Long staffId = staff.getStaffId();
+                        rehash(request.getPassword(), hash -> {
+                            StaffEntity current = userService.getStaffById(staffId);
+                            current.setPasswordHash(hash);
+                            userService.saveStaff(current);
+                        });
+                    }
                     Map<String, Object> response = new HashMap<>();
+                    if (isTokenMode()) {
+                        putToken(response, staff.getStaffId(), Role.fromName(staff.getRole().name()));
+                    } else {
+                        // Set session attributes
+                        HttpSession session = httpRequest.getSession();
+                        session.setAttribute("userId", staff.getStaffId());
+                        session.setAttribute("username", staff.getUsername());
+                        session.setAttribute("userType", staff.getRole().name().toUpperCase());
+                        session.setAttribute("fullName", staff.getName());
+                    }
+                    
                     response.put("message", "Login successful");
                     response.put("userType", staff.getRole().name().toUpperCase());
                     response.put("username", staff.getUsername());
                     response.put("fullName", staff.getName());
                     response.put("role", staff.getRole());
                     
+                    loginThrottle.recordSuccess(request.getUsername());
                     return ResponseEntity.ok(response);
                 }
             }
@@ -127,6 +194,8 @@ public class BasicAuthController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                 .body(Map.of("error", "Invalid username, password, or user type"));
             
+        } catch (PasswordEncoder.HashingBusyException e) {
+            return busy(e);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(Map.of("error", "Login failed: " + e.getMessage()));
@@ -177,6 +246,8 @@ public class BasicAuthController {
             
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
             
+        } catch (PasswordEncoder.HashingBusyException e) {
+            return busy(e);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(Map.of("error", "Registration failed: " + e.getMessage()));
@@ -187,9 +258,13 @@ public class BasicAuthController {
      * User logout endpoint
      */
     @PostMapping("/logout")
-    public ResponseEntity<?> logout(HttpSession session) {
+    public ResponseEntity<?> logout(HttpServletRequest request) {
         try {
-            session.invalidate();
+            // Tokens are stateless; the client logs out by discarding its token
+            HttpSession session = request.getSession(false);
+            if (session != null) {
+                session.invalidate();
+            }
             return ResponseEntity.ok(Map.of("message", "Logout successful"));
         } catch (Exception e) {
             return ResponseEntity.ok(Map.of("message", "Logout completed"));
@@ -200,31 +275,39 @@ public class BasicAuthController {
      * Get current user profile
      */
     @GetMapping("/profile")
-    public ResponseEntity<?> getProfile(HttpSession session) {
+    public ResponseEntity<?> getProfile(HttpServletRequest request) {
         try {
-            String username = (String) session.getAttribute("username");
-            String userType = (String) session.getAttribute("userType");
+            Identity identity = currentUser(request);
             
-            if (username == null || userType == null) {
+            if (identity == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Not authenticated"));
             }
             
             Map<String, Object> profile = new HashMap<>();
-            profile.put("username", username);
-            profile.put("userType", userType);
-            profile.put("fullName", session.getAttribute("fullName"));
-            profile.put("userId", session.getAttribute("userId"));
+            profile.put("username", identity.username());
+            profile.put("userType", identity.userType());
+            profile.put("fullName", identity.fullName());
+            profile.put("userId", identity.userId());
             
-            if ("CUSTOMER".equals(userType)) {
-                CustomerEntity customer = userService.getCustomerByUsername(username);
+            // Token callers are looked up by id; their username and name come from the database
+            if ("CUSTOMER".equals(identity.userType())) {
+                CustomerEntity customer = identity.username() != null
+                    ? userService.getCustomerByUsername(identity.username())
+                    : userService.getCustomerById((Long) identity.userId());
                 if (customer != null) {
+                    profile.put("username", customer.getUsername());
+                    profile.put("fullName", customer.getName());
                     profile.put("email", customer.getEmail());
                     profile.put("phone", customer.getPhoneNumber());
                 }
             } else {
-                StaffEntity staff = userService.getStaffByUsername(username);
+                StaffEntity staff = identity.username() != null
+                    ? userService.getStaffByUsername(identity.username())
+                    : userService.getStaffById((Long) identity.userId());
                 if (staff != null) {
+                    profile.put("username", staff.getUsername());
+                    profile.put("fullName", staff.getName());
                     profile.put("role", staff.getRole());
                     profile.put("phone", staff.getPhoneNumber());
                 }
@@ -242,19 +325,79 @@ public class BasicAuthController {
      * Check authentication status
      */
     @GetMapping("/status")
-    public ResponseEntity<?> getAuthStatus(HttpSession session) {
-        String username = (String) session.getAttribute("username");
-        String userType = (String) session.getAttribute("userType");
+    public ResponseEntity<?> getAuthStatus(HttpServletRequest request) {
+        Identity identity = currentUser(request);
         
-        if (username != null && userType != null) {
+        if (identity != null) {
             Map<String, Object> status = new HashMap<>();
             status.put("authenticated", true);
-            status.put("username", username);
-            status.put("userType", userType);
-            status.put("fullName", session.getAttribute("fullName"));
+            status.put("userId", identity.userId());
+            status.put("username", identity.username());
+            status.put("userType", identity.userType());
+            status.put("fullName", identity.fullName());
             return ResponseEntity.ok(status);
         } else {
             return ResponseEntity.ok(Map.of("authenticated", false));
         }
     }
+
+    private boolean isTokenMode() {
+        return "token".equalsIgnoreCase(authMode);
+    }
+
+    private void putToken(Map<String, Object> response, Long userId, Role role) {
+        response.put("token", tokenService.issue(userId, role));
+        response.put("expiresIn", tokenService.getTtl().getSeconds());
+    }
+
+    /**
+     * Caller from a bearer token if one is sent, otherwise from an existing session
+     */
+    private Identity currentUser(HttpServletRequest request) {
+        String authorization = request.getHeader("Authorization");
+        if (authorization != null && authorization.startsWith("Bearer ") && tokenService != null) {
+            AuthTokenService.Claims claims = tokenService.verify(authorization.substring("Bearer ".length()).trim());
+            return claims == null ? null : new Identity(claims.userId(), claims.role().name(), null, null);
+        }
+        HttpSession session = request.getSession(false);
+        if (session == null) {
+            return null;
+        }
+        String username = (String) session.getAttribute("username");
+        String userType = (String) session.getAttribute("userType");
+        if (username == null || userType == null) {
+            return null;
+        }
+        return new Identity(session.getAttribute("userId"), userType, username, session.getAttribute("fullName"));
+    }
+
+    /**
+     * Store a fresh hash after a successful login with an outdated one. The hash is computed on the
+     * hashing pool and saved on the application executor. Skipped while logins are queued for
+     * hashing, so a login storm (e.g. after raising the cost) does not double the hashing work; the
+     * next login tries again.
+     */
+    private void rehash(String rawPassword, Consumer<String> store) {
+        if (passwordEncoder.isBusy()) {
+            return; // Keep the old hash for now
+        }
+        try {
+            CompletableFuture<String> hash = passwordEncoder.encodeAsync(rawPassword);
+            CompletableFuture<Void> stored = rehashStoreExecutor != null
+                ? hash.thenAcceptAsync(store, rehashStoreExecutor)
+                : hash.thenAccept(store);
+            stored.exceptionally(e -> {
+                System.err.println("Error storing rehashed password: " + e.getMessage());
+                return null;
+            });
+        } catch (PasswordEncoder.HashingBusyException e) {
+            // Keep the old hash for now
+        }
+    }
+
+    private static ResponseEntity<?> busy(PasswordEncoder.HashingBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(Map.of("error", e.getMessage()));
+    }
 }
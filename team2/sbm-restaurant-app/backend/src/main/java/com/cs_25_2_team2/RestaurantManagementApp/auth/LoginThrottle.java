@@ -0,0 +1,210 @@
+package com.cs_25_2_team2.RestaurantManagementApp.auth;
+
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rate limiter for login attempts, keyed by username and by client address.
+ *
+ * Each key has a token bucket holding up to capacity attempts and refilling at refill-per-minute.
+ * A bucket is a single AtomicLong (the time at which it will be full again, as in GCRA), so taking
+ * a token is one compare-and-set with no locks. Login endpoints call {@link #tryAcquire} before
+ * looking the user up or hashing anything, so a credential-stuffing burst costs a map lookup per
+ * attempt rather than a PBKDF2 hash.
+ *
+ * Buckets that have refilled completely carry no state and are swept out periodically, or
+ * immediately when a map reaches max-entries. A sweep retires a bucket with a compare-and-set
+ * before unmapping it, so an attempt that looked the bucket up just before cannot take a token
+ * from it afterwards; it sees the bucket retired and starts over with a fresh one. If a map is
+ * still full after a sweep, new keys go untracked (and are counted) rather than locking out users
+ * nobody has seen yet.
+ *
+ * @author Team 2 - Phase 3 Authentication
+ * @version 3.1
+ */
+@Component
+public class LoginThrottle {
+
+    private static final int MAX_USERNAME_KEY_LENGTH = 128;
+
+    // Value of a bucket the sweep has retired
+    private static final long SWEPT = Long.MIN_VALUE;
+
+    /**
+     * Token buckets for one kind of key
+     */
+    static final class Buckets {
+        private final long intervalMillis;
+        private final long limitMillis;
+        private final int maxEntries;
+        private final Map<String, AtomicLong> fullAt = new ConcurrentHashMap<>();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder untracked = new LongAdder();
+
+        Buckets(int capacity, int refillPerMinute, int maxEntries) {
+            if (capacity < 1 || refillPerMinute < 1 || maxEntries < 1) {
+                throw new IllegalArgumentException("Login throttle capacity, refill rate and max entries must be positive");
+            }
+            this.intervalMillis = Math.max(1, 60_000L / refillPerMinute);
+            this.limitMillis = intervalMillis * capacity;
+            this.maxEntries = maxEntries;
+        }
+
+        /**
+         * Take a token for a key
+         *
+         * @return 0 if one was available, otherwise milliseconds until one will be
+         */
+        long tryAcquire(String key, long now) {
+            while (true) {
+                AtomicLong bucket = fullAt.get(key);
+                if (bucket == null) {
+                    if (fullAt.size() >= maxEntries) {
+                        sweep(now);
+                        if (fullAt.size() >= maxEntries) {
+                            untracked.increment();
+                            return 0;
+                        }
+                    }
+                    bucket = fullAt.computeIfAbsent(key, k -> new AtomicLong(now));
+                }
+                while (true) {
+                    long current = bucket.get();
+                    if (current == SWEPT) {
+                        // Retired after the lookup; finish unmapping it and start over
+                        fullAt.remove(key, bucket);
+                        break;
+                    }
+                    long next = Math.max(current, now) + intervalMillis;
+                    long wait = next - now - limitMillis;
+                    if (wait > 0) {
+                        rejected.increment();
+                        return wait;
+                    }
+                    if (bucket.compareAndSet(current, next)) {
+                        return 0;
+                    }
+                }
+            }
+        }
+
+        void forget(String key) {
+            fullAt.remove(key);
+        }
+
+        /**
+         * Drop buckets that have refilled completely
+         */
+        void sweep(long now) {
+            fullAt.forEach((key, bucket) -> {
+                long current = bucket.get();
+                // Retire before unmapping; fails if an attempt took a token since the read
+                if (current <= now && bucket.compareAndSet(current, SWEPT)) {
+                    fullAt.remove(key, bucket);
+                }
+            });
+        }
+
+        Map<String, Object> snapshot() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("tracked", fullAt.size());
+            stats.put("rejected", rejected.sum());
+            stats.put("untracked", untracked.sum());
+            return stats;
+        }
+    }
+
+    private final Buckets byUsername;
+    private final Buckets byAddress;
+    private final Clock clock;
+    private final LongAdder allowed = new LongAdder();
+
+    @Autowired
+    public LoginThrottle(@Value("${restaurant.auth.login-throttle.per-username.capacity:5}") int usernameCapacity,
+                         @Value("${restaurant.auth.login-throttle.per-username.refill-per-minute:5}") int usernameRefillPerMinute,
+                         @Value("${restaurant.auth.login-throttle.per-address.capacity:30}") int addressCapacity,
+                         @Value("${restaurant.auth.login-throttle.per-address.refill-per-minute:30}") int addressRefillPerMinute,
+                         @Value("${restaurant.auth.login-throttle.max-entries:100000}") int maxEntries) {
+        this(usernameCapacity, usernameRefillPerMinute, addressCapacity, addressRefillPerMinute, maxEntries,
+                Clock.systemUTC());
+    }
+
+    LoginThrottle(int usernameCapacity, int usernameRefillPerMinute, int addressCapacity, int addressRefillPerMinute,
+            int maxEntries, Clock clock) {
+        this.byUsername = new Buckets(usernameCapacity, usernameRefillPerMinute, maxEntries);
+        this.byAddress = new Buckets(addressCapacity, addressRefillPerMinute, maxEntries);
+        this.clock = clock;
+    }
+
+    /**
+     * Take a login attempt for a username from a client address. The address is charged first, so a
+     * client spraying many usernames is stopped by its own bucket.
+     *
+     * @return 0 if the attempt may go ahead, otherwise milliseconds until it may be retried
+     */
+    public long tryAcquire(String username, String clientAddress) {
+        long now = clock.millis();
+        long wait = byAddress.tryAcquire(clientAddress == null ? "unknown" : clientAddress, now);
+        if (wait == 0) {
+            wait = byUsername.tryAcquire(usernameKey(username), now);
+        }
+        if (wait == 0) {
+            allowed.increment();
+        }
+        return wait;
+    }
+
+    /**
+     * Clear a username's bucket after a successful login, so earlier typos do not count against
+     * the user's next session
+     */
+    public void recordSuccess(String username) {
+        byUsername.forget(usernameKey(username));
+    }
+
+    /**
+     * Drop refilled buckets
+     */
+    @Scheduled(fixedDelayString = "${restaurant.auth.login-throttle.sweep-interval-ms:60000}")
+    public void sweep() {
+        long now = clock.millis();
+        byUsername.sweep(now);
+        byAddress.sweep(now);
+    }
+
+    /**
+     * Allowed and rejected attempts and bucket counts, per key kind
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("allowed", allowed.sum());
+        stats.put("byUsername", byUsername.snapshot());
+        stats.put("byAddress", byAddress.snapshot());
+        return stats;
+    }
+
+    /**
+     * Whole seconds for a Retry-After header, rounded up
+     */
+    public static long retryAfterSeconds(long waitMillis) {
+        return Math.max(1, (waitMillis + 999) / 1000);
+    }
+
+    private static String usernameKey(String username) {
+        if (username == null) {
+            return "";
+        }
+        String key = username.trim().toLowerCase(Locale.ROOT);
+        return key.length() > MAX_USERNAME_KEY_LENGTH ? key.substring(0, MAX_USERNAME_KEY_LENGTH) : key;
+    }
+}
@@ -1,93 +1,290 @@
 package com.cs_25_2_team2.RestaurantManagementApp.auth;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
 import java.security.MessageDigest;
 import java.security.SecureRandom;
+import java.time.Duration;
 import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
 
 /**
  * Simple password encoder for authentication without Spring Security dependency.
- * Provides BCrypt-style password hashing and validation.
- * 
+ * Hashes passwords with PBKDF2-HMAC-SHA256 from javax.crypto.
+ *
+ * Hashes are stored as $pbkdf2-sha256$&lt;iterations&gt;$&lt;salt&gt;$&lt;hash&gt;, so the cost
+ * (restaurant.auth.password.iterations) can be raised without invalidating existing passwords;
+ * {@link #needsRehash(String)} tells a caller that just verified a password to store a fresh hash.
+ * Hashes in the original unversioned format (base64 salt and 10,000 rounds of SHA-256) are still
+ * verified and always need a rehash.
+ *
+ * Hashing runs on a small dedicated pool rather than on request threads, with a bounded queue: when
+ * a login storm fills it, further calls fail fast with {@link HashingBusyException} instead of
+ * tying up every request worker.
+ *
  * @author Team 2 - Phase 3 Authentication
  * @version 3.1
  */
 @Component
 public class PasswordEncoder {
-    
+
+    static final String PBKDF2_PREFIX = "$pbkdf2-sha256$";
+    static final int DEFAULT_ITERATIONS = 100000;
+    private static final String PBKDF2_ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int MAX_ITERATIONS = 10000000;
+
     private final SecureRandom random = new SecureRandom();
     private final int SALT_LENGTH = 16;
-    private final int HASH_ITERATIONS = 10000;
+    private final int HASH_LENGTH = 32;
+    private final int LEGACY_HASH_ITERATIONS = 10000;
+
+    private final int iterations;
+    private final ThreadPoolExecutor hashingExecutor;
+    private final Duration timeout;
+
+    /**
+     * Thrown when the hashing pool is saturated (or a hash took longer than the configured timeout);
+     * callers should answer 503 and let the client retry
+     */
+    public static class HashingBusyException extends RuntimeException {
+        public HashingBusyException(String message) {
+            super(message);
+        }
+    }
+
+    public PasswordEncoder() {
+        this(DEFAULT_ITERATIONS, 0, 64, 10000);
+    }
+
+    @Autowired
+    public PasswordEncoder(@Value("${restaurant.auth.password.iterations:100000}") int iterations,
+                           @Value("${restaurant.auth.password.threads:0}") int threads,
+                           @Value("${restaurant.auth.password.queue-capacity:64}") int queueCapacity,
+                           @Value("${restaurant.auth.password.timeout-ms:10000}") long timeoutMs) {
+        this(iterations, newHashingExecutor(threads > 0 ? threads : Runtime.getRuntime().availableProcessors(), queueCapacity),
+                Duration.ofMillis(timeoutMs));
+    }
+
+    PasswordEncoder(int iterations, ThreadPoolExecutor hashingExecutor, Duration timeout) {
+        if (iterations < 1 || iterations > MAX_ITERATIONS) {
+            throw new IllegalArgumentException("Password hash iterations must be between 1 and " + MAX_ITERATIONS);
+        }
+        this.iterations = iterations;
+        this.hashingExecutor = hashingExecutor;
+        this.timeout = timeout;
+    }
+
+    private static ThreadPoolExecutor newHashingExecutor(int threads, int queueCapacity) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingExecutor.shutdown();
+    }
 
     /**
      * Encode a raw password with salt and hashing
+     *
+     * @throws HashingBusyException if the hashing pool is saturated
      */
     public String encode(String rawPassword) {
+        return await(encodeAsync(rawPassword));
+    }
+
+    /**
+     * Encode a raw password on the hashing pool
+     *
+     * @throws HashingBusyException if the hashing pool is saturated
+     */
+    public CompletableFuture<String> encodeAsync(String rawPassword) {
+        return submit(() -> encodeNow(rawPassword));
+    }
+
+    /**
+     * Check if raw password matches encoded password
+     *
+     * @throws HashingBusyException if the hashing pool is saturated
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return await(matchesAsync(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Check a raw password on the hashing pool
+     *
+     * @throws HashingBusyException if the hashing pool is saturated
+     */
+    public CompletableFuture<Boolean> matchesAsync(String rawPassword, String encodedPassword) {
+        return submit(() -> matchesNow(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Whether an encoded password uses an older format or a different cost than the current one
+     * and should be replaced (after the password has been verified)
+     */
+    public boolean needsRehash(String encodedPassword) {
+        if (encodedPassword == null || !encodedPassword.startsWith(PBKDF2_PREFIX)) {
+            return true;
+        }
+        String[] parts = encodedPassword.substring(PBKDF2_PREFIX.length()).split("\\$");
+        try {
+            return parts.length != 3 || Integer.parseInt(parts[0]) != iterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Whether hashes are waiting for a free hashing thread; optional work such as rehashing an
+     * outdated password should wait for a quieter moment
+     */
+    public boolean isBusy() {
+        return !hashingExecutor.getQueue().isEmpty();
+    }
+
+    /**
+     * PBKDF2 iterations used for new hashes
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, hashingExecutor);
+        } catch (RejectedExecutionException e) {
+            throw new HashingBusyException("Password hashing is at capacity, try again shortly");
+        }
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw new HashingBusyException("Password hashing timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HashingBusyException("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new RuntimeException("Failed to hash password", e.getCause());
+        }
+    }
+
+    private String encodeNow(String rawPassword) {
         try {
             // Generate salt
             byte[] salt = new byte[SALT_LENGTH];
             random.nextBytes(salt);
-            
+
             // Hash password with salt
-            byte[] hash = hashPassword(rawPassword.getBytes(), salt);
-            
-            // Combine salt and hash
-            byte[] combined = new byte[SALT_LENGTH + hash.length];
-            System.arraycopy(salt, 0, combined, 0, SALT_LENGTH);
-            System.arraycopy(hash, 0, combined, SALT_LENGTH, hash.length);
-            
-            // Encode to Base64
-            return Base64.getEncoder().encodeToString(combined);
-            
+            byte[] hash = pbkdf2(rawPassword, salt, iterations, HASH_LENGTH);
+
+            Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+            return PBKDF2_PREFIX + iterations + "$" + base64.encodeToString(salt) + "$" + base64.encodeToString(hash);
+
         } catch (Exception e) {
             throw new RuntimeException("Failed to encode password", e);
         }
     }
 
-    /**
-     * Check if raw password matches encoded password
-     */
-    public boolean matches(String rawPassword, String encodedPassword) {
+    private boolean matchesNow(String rawPassword, String encodedPassword) {
         try {
-            // Decode from Base64
-            byte[] combined = Base64.getDecoder().decode(encodedPassword);
-            
-            // Extract salt
-            byte[] salt = new byte[SALT_LENGTH];
-            System.arraycopy(combined, 0, salt, 0, SALT_LENGTH);
-            
-            // Extract stored hash
-            byte[] storedHash = new byte[combined.length - SALT_LENGTH];
-            System.arraycopy(combined, SALT_LENGTH, storedHash, 0, storedHash.length);
-            
-            // Hash the raw password with the same salt
-            byte[] testHash = hashPassword(rawPassword.getBytes(), salt);
-            
-            // Compare hashes
-            return MessageDigest.isEqual(storedHash, testHash);
-            
+            if (encodedPassword.startsWith(PBKDF2_PREFIX)) {
+                String[] parts = encodedPassword.substring(PBKDF2_PREFIX.length()).split("\\$");
+                if (parts.length != 3) {
+                    return false;
+                }
+                int storedIterations = Integer.parseInt(parts[0]);
+                if (storedIterations < 1 || storedIterations > MAX_ITERATIONS) {
+                    return false;
+                }
+                byte[] salt = Base64.getDecoder().decode(parts[1]);
+                byte[] storedHash = Base64.getDecoder().decode(parts[2]);
+                byte[] testHash = pbkdf2(rawPassword, salt, storedIterations, storedHash.length);
+                return MessageDigest.isEqual(storedHash, testHash);
+            }
+            return matchesLegacy(rawPassword, encodedPassword);
+
         } catch (Exception e) {
             return false;
         }
     }
 
+    private static byte[] pbkdf2(String rawPassword, byte[] salt, int iterations, int length) throws Exception {
+        PBEKeySpec spec = new PBEKeySpec(rawPassword.toCharArray(), salt, iterations, length * 8);
+        try {
+            return SecretKeyFactory.getInstance(PBKDF2_ALGORITHM).generateSecret(spec).getEncoded();
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
     /**
-     * Hash password with salt using PBKDF2
+     * Check a password against the original unversioned format
      */
-    private byte[] hashPassword(byte[] password, byte[] salt) throws Exception {
+    private boolean matchesLegacy(String rawPassword, String encodedPassword) throws Exception {
+        // Decode from Base64
+        byte[] combined = Base64.getDecoder().decode(encodedPassword);
+
+        // Extract salt
+        byte[] salt = new byte[SALT_LENGTH];
+        System.arraycopy(combined, 0, salt, 0, SALT_LENGTH);
+
+        // Extract stored hash
+        byte[] storedHash = new byte[combined.length - SALT_LENGTH];
+        System.arraycopy(combined, SALT_LENGTH, storedHash, 0, storedHash.length);
+
+        // Hash the raw password with the same salt
+        byte[] testHash = hashLegacy(rawPassword.getBytes(), salt);
+
+        // Compare hashes
+        return MessageDigest.isEqual(storedHash, testHash);
+    }
+
+    /**
+     * Hash password with salt using iterated SHA-256 (original format)
+     */
+    private byte[] hashLegacy(byte[] password, byte[] salt) throws Exception {
         MessageDigest md = MessageDigest.getInstance("SHA-256");
-        
+
         // Initial hash
         md.update(salt);
         byte[] hash = md.digest(password);
-        
+
         // Iterate for strength
-        for (int i = 0; i < HASH_ITERATIONS; i++) {
+        for (int i = 0; i < LEGACY_HASH_ITERATIONS; i++) {
             md.reset();
             md.update(salt);
             hash = md.digest(hash);
         }
-        
+
         return hash;
     }
 
@@ -8,11 +8,14 @@ import java.lang.annotation.Target;
 /**
  * Annotation to specify required roles for accessing controller methods.
  * Used for role-based access control in the authentication system.
+ *
+ * On a controller class it applies to every handler method in it; an annotation on the method
+ * itself takes precedence.
  * 
  * @author Team 2 - Phase 3 Authentication
  * @version 3.1
  */
-@Target(ElementType.METHOD)
+@Target({ElementType.METHOD, ElementType.TYPE})
 @Retention(RetentionPolicy.RUNTIME)
 public @interface RequiredRole {
     /**
@@ -0,0 +1,69 @@
+package com.cs_25_2_team2.RestaurantManagementApp.auth;
+
+/**
+ * User roles as bits, so a set of roles is a single int and a role check is one bitwise AND.
+ * Names match the userType strings used by the session and by {@link RequiredRole}.
+ *
+ * @author Team 2 - Phase 3 Authentication
+ * @version 3.1
+ */
+public enum Role {
+    CUSTOMER, CHEF, DELIVERY, MANAGER, ADMIN;
+
+    private static final Role[] VALUES = values();
+
+    /**
+     * Bit of this role in a role mask
+     */
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Role with the given name, ignoring case
+     *
+     * @return the role, or null if the name is null or unknown
+     */
+    public static Role fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        for (Role role : VALUES) {
+            if (role.name().equalsIgnoreCase(name)) {
+                return role;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Bit of the named role, ignoring case, or 0 if the name is null or unknown. Allocation-free,
+     * so it is safe on the per-request path.
+     */
+    public static int bitOf(String name) {
+        Role role = fromName(name);
+        return role == null ? 0 : role.bit();
+    }
+
+    /**
+     * Mask of the named roles; unknown names add nothing
+     */
+    public static int maskOf(String... names) {
+        int mask = 0;
+        for (String name : names) {
+            Role role = fromName(name);
+            if (role != null) {
+                mask |= role.bit();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Lowest role in a mask, or null if the mask is empty
+     */
+    public static Role first(int mask) {
+        int known = mask & ((1 << VALUES.length) - 1);
+        return known == 0 ? null : VALUES[Integer.numberOfTrailingZeros(known)];
+    }
+}
@@ -0,0 +1,223 @@
+package com.cs_25_2_team2.RestaurantManagementApp.auth;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+/**
+ * Immutable handler method to {@link RequiredRole} rule table, compiled once from every request
+ * mapping when the context starts.
+ *
+ * Each rule carries the allowed roles as a {@link Role} bitmask, so checking a caller is one
+ * bitwise AND instead of reflecting on the annotation and comparing role strings per request.
+ * Rules also count their allowed, unauthenticated and forbidden outcomes and the time spent
+ * checking them, which {@link #snapshot()} reports per route.
+ *
+ * @author Team 2 - Phase 3 Authentication
+ * @version 3.1
+ */
+@Component
+public class RouteAuthorizationTable {
+
+    /** Marks handlers compiled without a role requirement */
+    private static final Rule UNRESTRICTED = new Rule("", new String[0], false);
+
+    /**
+     * Compiled @RequiredRole for one route, with its counters
+     */
+    public static final class Rule {
+        private final String route;
+        private final String[] roles;
+        private final int mask;
+        private final String[] unmappedRoles;
+        private final boolean requireAuth;
+        private final String deniedPrefix;
+
+        private final LongAdder allowed = new LongAdder();
+        private final LongAdder unauthenticated = new LongAdder();
+        private final LongAdder forbidden = new LongAdder();
+        private final LongAdder checkNanos = new LongAdder();
+
+        Rule(String route, String[] roles, boolean requireAuth) {
+            this.route = route;
+            this.roles = roles.clone();
+            this.mask = Role.maskOf(roles);
+            this.unmappedRoles = Arrays.stream(roles).filter(role -> Role.fromName(role) == null).toArray(String[]::new);
+            this.requireAuth = requireAuth;
+            this.deniedPrefix = "{\"error\": \"Access denied. Required roles: " + Arrays.toString(roles) + ", your role: ";
+        }
+
+        public String getRoute() {
+            return route;
+        }
+
+        public int getMask() {
+            return mask;
+        }
+
+        public boolean requiresAuth() {
+            return requireAuth;
+        }
+
+        /**
+         * Whether any of the caller's role bits is allowed
+         */
+        public boolean permits(int roleMask) {
+            return (mask & roleMask) != 0;
+        }
+
+        /**
+         * Whether a session userType is allowed. Names outside {@link Role} are still honoured by
+         * comparing strings, but only after the bitmask check has failed.
+         */
+        public boolean permits(String userRole) {
+            if (permits(Role.bitOf(userRole))) {
+                return true;
+            }
+            for (String role : unmappedRoles) {
+                if (role.equalsIgnoreCase(userRole)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * JSON body of a 403 for the given caller role
+         */
+        public String deniedMessage(Object userRole) {
+            return deniedPrefix + userRole + "\"}";
+        }
+
+        public void recordAllowed(long nanos) {
+            allowed.increment();
+            checkNanos.add(nanos);
+        }
+
+        public void recordUnauthenticated(long nanos) {
+            unauthenticated.increment();
+            checkNanos.add(nanos);
+        }
+
+        public void recordForbidden(long nanos) {
+            forbidden.increment();
+            checkNanos.add(nanos);
+        }
+
+        public long getAllowed() {
+            return allowed.sum();
+        }
+
+        public long getUnauthenticated() {
+            return unauthenticated.sum();
+        }
+
+        public long getForbidden() {
+            return forbidden.sum();
+        }
+    }
+
+    private volatile Map<Method, Rule> rules = Map.of();
+
+    /** Handlers that were not registered when the table was compiled, compiled on first use */
+    private final Map<Method, Rule> lateRules = new ConcurrentHashMap<>();
+
+    /**
+     * Compile the table from every request mapping once the handler mappings are ready
+     */
+    @EventListener
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        Map<Object, HandlerMethod> handlerMethods = new HashMap<>();
+        for (RequestMappingHandlerMapping mapping
+                : event.getApplicationContext().getBeansOfType(RequestMappingHandlerMapping.class).values()) {
+            handlerMethods.putAll(mapping.getHandlerMethods());
+        }
+        compile(handlerMethods);
+    }
+
+    /**
+     * Replace the table with rules for the given handlers, keyed by their request mapping
+     */
+    void compile(Map<?, HandlerMethod> handlerMethods) {
+        Map<Method, Rule> compiled = new HashMap<>();
+        for (Map.Entry<?, HandlerMethod> entry : handlerMethods.entrySet()) {
+            HandlerMethod handlerMethod = entry.getValue();
+            compiled.put(handlerMethod.getMethod(), compile(handlerMethod, String.valueOf(entry.getKey())));
+        }
+        rules = Map.copyOf(compiled);
+        lateRules.keySet().removeAll(compiled.keySet());
+    }
+
+    /**
+     * Rule for a handler, or null if it has no role requirement
+     */
+    public Rule lookup(HandlerMethod handlerMethod) {
+        Method method = handlerMethod.getMethod();
+        Rule rule = rules.get(method);
+        if (rule == null) {
+            rule = lateRules.get(method);
+        }
+        if (rule == null) {
+            // Not registered at startup (e.g. a handler built by hand)
+            Class<?> beanType = handlerMethod.getBeanType();
+            rule = compile(handlerMethod, (beanType == null ? "" : beanType.getSimpleName() + "#") + method.getName());
+            Rule existing = lateRules.putIfAbsent(method, rule);
+            if (existing != null) {
+                rule = existing;
+            }
+        }
+        return rule == UNRESTRICTED ? null : rule;
+    }
+
+    /**
+     * Counters of every restricted route, busiest first
+     */
+    public List<Map<String, Object>> snapshot() {
+        List<Rule> restricted = new ArrayList<>();
+        for (Map<Method, Rule> table : List.of(rules, lateRules)) {
+            for (Rule rule : table.values()) {
+                if (rule != UNRESTRICTED) {
+                    restricted.add(rule);
+                }
+            }
+        }
+        restricted.sort(Comparator.comparingLong((Rule rule) -> rule.getAllowed() + rule.getUnauthenticated() + rule.getForbidden())
+                .reversed()
+                .thenComparing(Rule::getRoute));
+
+        List<Map<String, Object>> routes = new ArrayList<>(restricted.size());
+        for (Rule rule : restricted) {
+            long checks = rule.getAllowed() + rule.getUnauthenticated() + rule.getForbidden();
+            Map<String, Object> route = new LinkedHashMap<>();
+            route.put("route", rule.route);
+            route.put("roles", List.of(rule.roles));
+            route.put("allowed", rule.getAllowed());
+            route.put("unauthenticated", rule.getUnauthenticated());
+            route.put("forbidden", rule.getForbidden());
+            route.put("averageCheckNanos", checks == 0 ? 0 : rule.checkNanos.sum() / checks);
+            routes.add(route);
+        }
+        return routes;
+    }
+
+    private static Rule compile(HandlerMethod handlerMethod, String route) {
+        RequiredRole requiredRole = handlerMethod.getMethod().getAnnotation(RequiredRole.class);
+        if (requiredRole == null && handlerMethod.getBeanType() != null) {
+            requiredRole = handlerMethod.getBeanType().getAnnotation(RequiredRole.class);
+        }
+        return requiredRole == null ? UNRESTRICTED : new Rule(route, requiredRole.value(), requiredRole.requireAuth());
+    }
+}
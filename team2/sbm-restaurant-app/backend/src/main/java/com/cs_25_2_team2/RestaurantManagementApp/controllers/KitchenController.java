@@ -7,7 +7,10 @@ import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,14 +19,22 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.cs_25_2_team2.RestaurantManagementApp.entities.OrderEntity;
 import com.cs_25_2_team2.RestaurantManagementApp.entities.OrderQueueEntity;
 import com.cs_25_2_team2.RestaurantManagementApp.entities.StaffEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.exceptions.InvalidOrderStateException;
+import com.cs_25_2_team2.RestaurantManagementApp.exceptions.OrderNotFoundException;
+import com.cs_25_2_team2.RestaurantManagementApp.repositories.KitchenQueueItem;
 import com.cs_25_2_team2.RestaurantManagementApp.repositories.OrderQueueRepository;
 import com.cs_25_2_team2.RestaurantManagementApp.repositories.OrderRepository;
 import com.cs_25_2_team2.RestaurantManagementApp.repositories.StaffRepository;
+import com.cs_25_2_team2.RestaurantManagementApp.services.KitchenOrderStream;
+import com.cs_25_2_team2.RestaurantManagementApp.services.OrderQueueChangedEvent;
+import com.cs_25_2_team2.RestaurantManagementApp.services.OrderStateMachine;
 
 /**
  * REST Controller for managing kitchen operations.
@@ -44,14 +55,23 @@ public class KitchenController {
     private final OrderRepository orderRepository;
     private final OrderQueueRepository orderQueueRepository;
     private final StaffRepository staffRepository;
+    private final KitchenOrderStream kitchenOrderStream;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OrderStateMachine orderStateMachine;
     
     @Autowired
     public KitchenController(OrderRepository orderRepository, 
                            OrderQueueRepository orderQueueRepository,
-                           StaffRepository staffRepository) {
+                           StaffRepository staffRepository,
+                           KitchenOrderStream kitchenOrderStream,
+                           ApplicationEventPublisher eventPublisher,
+                           OrderStateMachine orderStateMachine) {
         this.orderRepository = orderRepository;
         this.orderQueueRepository = orderQueueRepository;
         this.staffRepository = staffRepository;
+        this.kitchenOrderStream = kitchenOrderStream;
+        this.eventPublisher = eventPublisher;
+        this.orderStateMachine = orderStateMachine;
     }
     
     /**
@@ -80,22 +100,17 @@ public class KitchenController {
     }
     
     /**
-     * Start preparing an order - assigns to available chef
+     * Start preparing an order - assigns to available chef.
+     * Only one of several concurrent starts of the same order succeeds; the others get 409.
      */
     @PutMapping("/orders/{id}/start")
     public ResponseEntity<Map<String, Object>> startPreparingOrder(@PathVariable Long id) {
         try {
             // Find the order
-            Optional<OrderEntity> orderOpt = orderRepository.findById(id);
-            if (orderOpt.isEmpty()) {
-                Map<String, Object> response = new HashMap<>();
-                response.put("status", "error");
-                response.put("message", "Order not found");
+            if (orderRepository.findById(id).isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
             
-            OrderEntity order = orderOpt.get();
-            
             // Find available chef (Staff with Chef role)
             List<StaffEntity> availableChefs = staffRepository.findAll().stream()
                 .filter(staff -> staff.getRole() == StaffEntity.StaffRole.Chef)
@@ -110,17 +125,8 @@ public class KitchenController {
             
             // Assign to first available chef
             StaffEntity chef = availableChefs.get(0);
-            order.setAssignedChef(chef);
-            order.setStatus(OrderEntity.OrderStatus.Preparing);
-            orderRepository.save(order);
-            
-            // Update queue entry
-            Optional<OrderQueueEntity> queueOpt = orderQueueRepository.findByOrderOrderId(id);
-            if (queueOpt.isPresent()) {
-                OrderQueueEntity queueEntry = queueOpt.get();
-                queueEntry.setStartedPreparingAt(LocalDateTime.now());
-                orderQueueRepository.save(queueEntry);
-            }
+            orderStateMachine.transition(id, OrderEntity.OrderStatus.Preparing, chef);
+            // The queue entry is stamped in the same transaction
             
             Map<String, Object> response = new HashMap<>();
             response.put("status", "success");
@@ -129,6 +135,10 @@ public class KitchenController {
             response.put("assignedChef", mapStaffToResponse(chef));
             
             return ResponseEntity.ok(response);
+        } catch (OrderNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (InvalidOrderStateException | OptimisticLockingFailureException e) {
+            return conflict(e);
         } catch (Exception e) {
             Map<String, Object> error = new HashMap<>();
             error.put("status", "error");
@@ -143,25 +153,8 @@ public class KitchenController {
     @PutMapping("/orders/{id}/complete")
     public ResponseEntity<Map<String, Object>> completeOrder(@PathVariable Long id) {
         try {
-            Optional<OrderEntity> orderOpt = orderRepository.findById(id);
-            if (orderOpt.isEmpty()) {
-                Map<String, Object> response = new HashMap<>();
-                response.put("status", "error");
-                response.put("message", "Order not found");
-                return ResponseEntity.notFound().build();
-            }
-            
-            OrderEntity order = orderOpt.get();
-            order.setStatus(OrderEntity.OrderStatus.ReadyForDelivery);
-            orderRepository.save(order);
-            
-            // Update queue entry
-            Optional<OrderQueueEntity> queueOpt = orderQueueRepository.findByOrderOrderId(id);
-            if (queueOpt.isPresent()) {
-                OrderQueueEntity queueEntry = queueOpt.get();
-                queueEntry.setReadyForDeliveryAt(LocalDateTime.now());
-                orderQueueRepository.save(queueEntry);
-            }
+            orderStateMachine.transition(id, OrderEntity.OrderStatus.ReadyForDelivery);
+            // The queue entry is stamped in the same transaction
             
             Map<String, Object> response = new HashMap<>();
             response.put("status", "success");
@@ -169,6 +162,10 @@ public class KitchenController {
             response.put("orderId", id);
             
             return ResponseEntity.ok(response);
+        } catch (OrderNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (InvalidOrderStateException | OptimisticLockingFailureException e) {
+            return conflict(e);
         } catch (Exception e) {
             Map<String, Object> error = new HashMap<>();
             error.put("status", "error");
@@ -207,6 +204,65 @@ public class KitchenController {
         }
     }
     
+    /**
+     * Get one column of the kitchen board a page at a time, oldest first. Pass the
+     * nextCursor values of the previous page as afterAddedAt/afterQueueId to continue.
+     */
+    @GetMapping("/order-queue/{state}")
+    public ResponseEntity<Map<String, Object>> getOrderQueuePage(
+            @PathVariable String state,
+            @RequestParam(required = false) LocalDateTime afterAddedAt,
+            @RequestParam(required = false) Long afterQueueId,
+            @RequestParam(defaultValue = "50") int limit) {
+        OrderQueueEntity.QueueState queueState = null;
+        for (OrderQueueEntity.QueueState candidate : OrderQueueEntity.QueueState.values()) {
+            if (candidate.name().equalsIgnoreCase(state)) {
+                queueState = candidate;
+            }
+        }
+        if (queueState == null || limit <= 0 || limit > 500) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", queueState == null ? "Unknown queue state: " + state
+                                                    : "Limit must be between 1 and 500");
+            return ResponseEntity.badRequest().body(error);
+        }
+        
+        try {
+            List<KitchenQueueItem> items =
+                orderQueueRepository.findQueuePage(queueState, afterAddedAt, afterQueueId, limit);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "success");
+            response.put("queueState", queueState.toString());
+            response.put("orders", items);
+            response.put("count", items.size());
+            if (items.size() == limit) {
+                KitchenQueueItem last = items.get(items.size() - 1);
+                Map<String, Object> cursor = new HashMap<>();
+                cursor.put("afterAddedAt", last.addedToQueueAt().toString());
+                cursor.put("afterQueueId", last.queueId());
+                response.put("nextCursor", cursor);
+            }
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+    
+    /**
+     * Stream the kitchen order queue as Server-Sent Events: one "snapshot" event with the
+     * same shape as /order-queue, then "delta" events for the orders that changed
+     */
+    @GetMapping(value = "/order-queue/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderQueue() {
+        return kitchenOrderStream.subscribe();
+    }
+    
     /**
      * Get estimated preparation time based on current queue and available chefs
      */
@@ -337,18 +393,18 @@ public class KitchenController {
     @GetMapping("/statistics")
     public ResponseEntity<Map<String, Object>> getKitchenStatistics() {
         try {
-            List<OrderQueueEntity> pendingOrders = orderQueueRepository.findPendingOrders();
-            List<OrderQueueEntity> preparingOrders = orderQueueRepository.findOrdersInPreparation();
-            List<OrderQueueEntity> readyOrders = orderQueueRepository.findOrdersReadyForDelivery();
+            long pendingCount = orderQueueRepository.countByQueueState(OrderQueueEntity.QueueState.Pending);
+            long preparingCount = orderQueueRepository.countByQueueState(OrderQueueEntity.QueueState.Preparing);
+            long readyCount = orderQueueRepository.countByQueueState(OrderQueueEntity.QueueState.ReadyForDelivery);
             List<StaffEntity> chefs = staffRepository.findAll().stream()
                 .filter(staff -> staff.getRole() == StaffEntity.StaffRole.Chef)
                 .toList();
             
             Map<String, Object> stats = new HashMap<>();
             stats.put("status", "success");
-            stats.put("pendingOrdersCount", pendingOrders.size());
-            stats.put("preparingOrdersCount", preparingOrders.size());
-            stats.put("readyOrdersCount", readyOrders.size());
+            stats.put("pendingOrdersCount", (int) pendingCount);
+            stats.put("preparingOrdersCount", (int) preparingCount);
+            stats.put("readyOrdersCount", (int) readyCount);
             stats.put("totalChefsCount", chefs.size());
             stats.put("averagePreparationTime", "10 minutes"); // Placeholder
             
@@ -384,6 +440,7 @@ public class KitchenController {
             if (existingQueue.isEmpty()) {
                 OrderQueueEntity queueEntry = new OrderQueueEntity(order);
                 orderQueueRepository.save(queueEntry);
+                eventPublisher.publishEvent(new OrderQueueChangedEvent(orderId));
             }
             
             Map<String, Object> response = new HashMap<>();
@@ -402,6 +459,16 @@ public class KitchenController {
     
     // ============ Helper Methods ============
     
+    /**
+     * 409 response for a transition the order's current status no longer allows
+     */
+    private ResponseEntity<Map<String, Object>> conflict(RuntimeException e) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("status", "error");
+        error.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+    
     /**
      * Maps OrderEntity to frontend-compatible response format
      */
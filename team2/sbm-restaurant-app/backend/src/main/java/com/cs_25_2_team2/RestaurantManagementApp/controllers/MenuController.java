@@ -1,14 +1,20 @@
 package com.cs_25_2_team2.RestaurantManagementApp.controllers;
 
 import org.springframework.web.bind.annotation.*;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 import java.util.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+import com.cs_25_2_team2.RestaurantManagementApp.MenuItem;
 import com.cs_25_2_team2.RestaurantManagementApp.entities.MenuItemEntity;
 import com.cs_25_2_team2.RestaurantManagementApp.repositories.MenuItemRepository;
+import com.cs_25_2_team2.RestaurantManagementApp.services.MenuReadCache;
+import com.cs_25_2_team2.RestaurantManagementApp.services.MenuSearchIndex;
+import com.cs_25_2_team2.RestaurantManagementApp.services.MenuService;
 
 /**
  * REST Controller for managing restaurant menu items.
@@ -24,14 +30,80 @@ import com.cs_25_2_team2.RestaurantManagementApp.repositories.MenuItemRepository
 @CrossOrigin(origins = "http://localhost:3000")
 public class MenuController {
     
-    private MenuItemRepository menuItemRepository;
+    private static final int MAX_SEARCH_RESULTS = 100;
+    
+    private final MenuItemRepository menuItemRepository;
+    private final MenuReadCache menuReadCache;
+    private final MenuSearchIndex menuSearchIndex;
+    private final MenuService menuService;
+    
+    public MenuController(MenuItemRepository menuItemRepository, MenuReadCache menuReadCache,
+            MenuSearchIndex menuSearchIndex, MenuService menuService) {
+        this.menuItemRepository = menuItemRepository;
+        this.menuReadCache = menuReadCache;
+        this.menuSearchIndex = menuSearchIndex;
+        this.menuService = menuService;
+    }
     
     /**
-     * Get all menu items
+     * Get all menu items, optionally filtered, from the menu cache.
+     * Answers 304 without a body when If-None-Match carries the current ETag.
      */
     @GetMapping
-    public List<MenuItemEntity> getAllMenuItems() {
-        return (List<MenuItemEntity>) menuItemRepository.findAll();
+    public ResponseEntity<List<MenuItemEntity>> getAllMenuItems(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String cookedType,
+            @RequestParam(required = false) String potatoType,
+            @RequestParam(required = false) Boolean available,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        MenuReadCache.MenuQuery query;
+        try {
+            query = new MenuReadCache.MenuQuery(
+                category == null ? null : mapFrontendCategoryToEnum(category),
+                cookedType == null ? null : MenuItemEntity.CookedType.valueOf(cookedType),
+                potatoType == null ? null : MenuItemEntity.PotatoType.valueOf(potatoType),
+                available);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        MenuReadCache.CachedMenu menu = menuReadCache.get(query);
+        if (etagMatches(ifNoneMatch, menu.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(menu.etag())
+                .cacheControl(CacheControl.noCache())
+                .build();
+        }
+        return ResponseEntity.ok()
+            .eTag(menu.etag())
+            .cacheControl(CacheControl.noCache())
+            .body(menu.items());
+    }
+    
+    /**
+     * Search available menu items by name, ingredient or description, best match first.
+     * Tolerates typos and unfinished words, for the search-as-you-type box.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<MenuItemEntity>> searchMenuItems(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int limit) {
+        if (query == null || query.isBlank() || limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(menuSearchIndex.search(query, limit));
+    }
+    
+    /**
+     * Filter available menu items by diet and ingredients, e.g.
+     * /api/menu/filter?vegetarian=true&include=cheese&exclude=bacon,chicken
+     */
+    @GetMapping("/filter")
+    public ResponseEntity<List<MenuItem>> filterMenuItems(
+            @RequestParam(defaultValue = "false") boolean vegetarian,
+            @RequestParam(required = false) List<String> include,
+            @RequestParam(required = false) List<String> exclude) {
+        return ResponseEntity.ok(menuService.filterMenuItems(vegetarian, include, exclude));
     }
     
     /**
@@ -76,6 +148,8 @@ public class MenuController {
         newItem.setCreatedAt(LocalDateTime.now());
         
         MenuItemEntity savedItem = menuItemRepository.save(newItem);
+        menuReadCache.evict(null, savedItem);
+        menuSearchIndex.put(savedItem);
         return ResponseEntity.status(HttpStatus.CREATED).body(savedItem);
     }
     
@@ -90,6 +164,8 @@ public class MenuController {
         
         return menuItemRepository.findById(id)
             .map(existingItem -> {
+                MenuItemEntity before = MenuReadCache.detach(existingItem);
+                
                 // Update fields from the map
                 if (menuItemData.containsKey("dishName")) {
                     existingItem.setDishName(menuItemData.get("dishName").toString());
@@ -104,6 +180,8 @@ public class MenuController {
                 }
                 
                 MenuItemEntity savedItem = menuItemRepository.save(existingItem);
+                menuReadCache.evict(before, savedItem);
+                menuSearchIndex.put(savedItem);
                 return ResponseEntity.ok(savedItem);
             })
             .orElse(ResponseEntity.notFound().build());
@@ -114,8 +192,11 @@ public class MenuController {
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteMenuItem(@PathVariable Long id) {
-        if (menuItemRepository.existsById(id)) {
+        Optional<MenuItemEntity> existing = menuItemRepository.findById(id);
+        if (existing.isPresent()) {
             menuItemRepository.deleteById(id);
+            menuReadCache.evict(existing.get(), null);
+            menuSearchIndex.remove(id);
             return ResponseEntity.noContent().build();
         } else {
             return ResponseEntity.notFound().build();
@@ -138,16 +219,35 @@ public class MenuController {
     public ResponseEntity<List<MenuItemEntity>> getItemsByCategory(@PathVariable String category) {
         try {
             if ("All".equals(category)) {
-                return ResponseEntity.ok((List<MenuItemEntity>) menuItemRepository.findAll());
+                return ResponseEntity.ok(menuReadCache.get(MenuReadCache.MenuQuery.ALL).items());
             } else {
                 MenuItemEntity.Category cat = mapFrontendCategoryToEnum(category);
-                return ResponseEntity.ok(menuItemRepository.findByCategoryAndIsAvailableTrue(cat));
+                return ResponseEntity.ok(menuReadCache.get(new MenuReadCache.MenuQuery(cat, null, null, true)).items());
             }
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
         }
     }
     
+    /**
+     * Whether an If-None-Match header (one or more tags, or *) matches the current ETag
+     */
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2); // Weak comparison is enough for GET
+            }
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
     /**
      * Helper method to map frontend category strings to backend enum values
      */
@@ -2,9 +2,11 @@ package com.cs_25_2_team2.RestaurantManagementApp.controllers;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -18,11 +20,15 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.cs_25_2_team2.RestaurantManagementApp.entities.OrderEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.exceptions.InvalidOrderStateException;
+import com.cs_25_2_team2.RestaurantManagementApp.exceptions.OrderNotFoundException;
 import com.cs_25_2_team2.RestaurantManagementApp.repositories.OrderRepository;
+import com.cs_25_2_team2.RestaurantManagementApp.auth.AuthInterceptor;
 import com.cs_25_2_team2.RestaurantManagementApp.auth.RequiredRole;
+import com.cs_25_2_team2.RestaurantManagementApp.services.OrderStateMachine;
 import com.cs_25_2_team2.RestaurantManagementApp.services.RestaurantService;
 
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletRequest;
 
 /**
  * REST Controller for managing restaurant orders.
@@ -41,6 +47,7 @@ public class OrderController {
     
     private final OrderRepository orderRepository;
     private final RestaurantService restaurantService;
+    private final OrderStateMachine orderStateMachine;
     
     /**
      * Constructor for OrderController with dependency injection.
@@ -48,10 +55,13 @@ public class OrderController {
      * 
      * @param orderRepository Repository for order data persistence
      * @param restaurantService Service for business logic operations
+     * @param orderStateMachine Conditional, retrying order status transitions
      */
-    public OrderController(OrderRepository orderRepository, RestaurantService restaurantService) {
+    public OrderController(OrderRepository orderRepository, RestaurantService restaurantService,
+                           OrderStateMachine orderStateMachine) {
         this.orderRepository = orderRepository;
         this.restaurantService = restaurantService;
+        this.orderStateMachine = orderStateMachine;
     }
 
     // Endpoint to return all orders
@@ -75,16 +85,16 @@ public class OrderController {
     // Endpoint to create a new order
     @PostMapping
     @RequiredRole({"CUSTOMER", "ADMIN"})
-    public ResponseEntity<?> createOrder(@RequestBody Map<String, Object> orderData, HttpSession session) {
+    public ResponseEntity<?> createOrder(@RequestBody Map<String, Object> orderData, HttpServletRequest request) {
         try {
-            // Get user info from session
-            Long userId = (Long) session.getAttribute("userId");
-            String userType = (String) session.getAttribute("userType");
-            String username = (String) session.getAttribute("username");
+            // Get user info resolved by AuthInterceptor (from the session or a bearer token)
+            Long userId = (Long) request.getAttribute(AuthInterceptor.USER_ID_ATTRIBUTE);
+            String userType = (String) request.getAttribute(AuthInterceptor.USER_TYPE_ATTRIBUTE);
+            String username = (String) request.getAttribute(AuthInterceptor.USERNAME_ATTRIBUTE);
             
             if (userId == null || userType == null) {
                 return ResponseEntity.badRequest()
-                    .body(Map.of("error", "User information not found in session"));
+                    .body(Map.of("error", "User information not found for this request"));
             }
             
             // Create a simple order
@@ -109,14 +119,13 @@ public class OrderController {
             // Save the order
             OrderEntity savedOrder = orderRepository.save(newOrder);
             
-            // Return success response
-            Map<String, Object> response = Map.of(
-                "message", "Order created successfully",
-                "orderId", savedOrder.getOrderId(),
-                "status", savedOrder.getStatus().toString(),
-                "totalPrice", savedOrder.getTotalPrice(),
-                "orderBy", username
-            );
+            // Return success response; token callers have no username, so their user id is reported
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("message", "Order created successfully");
+            response.put("orderId", savedOrder.getOrderId());
+            response.put("status", savedOrder.getStatus().toString());
+            response.put("totalPrice", savedOrder.getTotalPrice());
+            response.put("orderBy", username != null ? username : userType + " #" + userId);
             
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
             
@@ -126,7 +135,7 @@ public class OrderController {
         }
     }
     
-    // Update order status
+    // Update order status; 409 if the order's current status does not allow the move (e.g. another user got there first)
     @PutMapping("/{id}")
     @RequiredRole({"CHEF", "DELIVERY", "ADMIN"})
     public ResponseEntity<OrderEntity> updateStatus(@PathVariable Long id, @RequestBody Map<String, Object> statusData) {
@@ -134,19 +143,20 @@ public class OrderController {
             return ResponseEntity.badRequest().build();
         }
         
-        return orderRepository.findById(id)
-            .map(order -> {
-                try {
-                    String statusStr = statusData.get("status").toString();
-                    OrderEntity.OrderStatus newStatus = OrderEntity.OrderStatus.valueOf(statusStr);
-                    order.setStatus(newStatus);
-                    OrderEntity savedOrder = orderRepository.save(order);
-                    return ResponseEntity.ok(savedOrder);
-                } catch (IllegalArgumentException e) {
-                    return ResponseEntity.badRequest().<OrderEntity>build();
-                }
-            })
-            .orElse(ResponseEntity.notFound().build());
+        OrderEntity.OrderStatus newStatus;
+        try {
+            newStatus = OrderEntity.OrderStatus.valueOf(statusData.get("status").toString());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        try {
+            return ResponseEntity.ok(orderStateMachine.transition(id, newStatus));
+        } catch (OrderNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (InvalidOrderStateException | OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
     
     // Cancel an order
@@ -2,9 +2,11 @@ package com.cs_25_2_team2.RestaurantManagementApp.controllers;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 import com.cs_25_2_team2.RestaurantManagementApp.services.RecipeService;
 
@@ -25,9 +27,12 @@ public class RecipeController {
         return "Spoonacular Key: " + spoonKey;
     }
 
-    // New endpoint to fetch potato recipes
+    // New endpoint to fetch potato recipes; number is clamped to what Spoonacular accepts
     @GetMapping("/api/recipes/potato")
     public Mono<String> getPotatoRecipes(@RequestParam(defaultValue = "5") int number) {
-        return recipeService.fetchPotatoRecipes(number);
+        int clamped = Math.max(1, Math.min(number, RecipeService.MAX_RECIPES));
+        return recipeService.fetchPotatoRecipes(clamped)
+                .onErrorMap(RecipeService.RecipesUnavailableException.class,
+                        e -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), e));
     }
 }
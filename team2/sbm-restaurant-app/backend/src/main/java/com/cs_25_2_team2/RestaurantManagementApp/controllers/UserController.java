@@ -1,15 +1,21 @@
 package com.cs_25_2_team2.RestaurantManagementApp.controllers;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 import java.util.*;
 import java.time.LocalDateTime;
 
+import com.cs_25_2_team2.RestaurantManagementApp.auth.LoginThrottle;
 import com.cs_25_2_team2.RestaurantManagementApp.entities.CustomerEntity;
 import com.cs_25_2_team2.RestaurantManagementApp.entities.StaffEntity;
 import com.cs_25_2_team2.RestaurantManagementApp.repositories.CustomerRepository;
 import com.cs_25_2_team2.RestaurantManagementApp.repositories.StaffRepository;
+import com.cs_25_2_team2.RestaurantManagementApp.services.PrincipalDirectory;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 /**
  * REST Controller for managing restaurant users (customers and staff).
@@ -30,6 +36,12 @@ public class UserController {
     private CustomerRepository customerRepository;
     private StaffRepository staffRepository;
 
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    @Autowired
+    private PrincipalDirectory principalDirectory;
+
     /**
      * Default constructor for UserController.
      */
@@ -56,27 +68,35 @@ public class UserController {
      * User login endpoint
      */
     @PostMapping("/login")
-    public ResponseEntity<Map<String, Object>> login(@RequestBody Map<String, Object> credentials) {
+    public ResponseEntity<Map<String, Object>> login(@RequestBody Map<String, Object> credentials,
+                                                     HttpServletRequest request) {
         String username = (String) credentials.get("username");
         String password = (String) credentials.get("password");
         
         if (username == null || password == null) {
             return ResponseEntity.badRequest().build();
         }
+
+        // Throttle before any lookup or password check
+        long retryAfter = loginThrottle.tryAcquire(username, request.getRemoteAddr());
+        if (retryAfter > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(LoginThrottle.retryAfterSeconds(retryAfter)))
+                    .body(Map.of("error", "Too many login attempts, try again later"));
+        }
         
-        // Try to find customer first
-        Optional<CustomerEntity> customer = customerRepository.findByUsername(username);
-        if (customer.isPresent() && checkPassword(customer.get().getPasswordHash(), password)) {
-            Map<String, Object> response = mapCustomerToResponse(customer.get());
+        // Customer or staff in one directory lookup; a cached username needs no query
+        Object user = principalDirectory.find(username).map(PrincipalDirectory.Principal::user).orElse(null);
+        if (user instanceof CustomerEntity customer && checkPassword(customer.getPasswordHash(), password)) {
+            Map<String, Object> response = mapCustomerToResponse(customer);
             response.put("role", "CUSTOMER");
+            loginThrottle.recordSuccess(username);
             return ResponseEntity.ok(response);
         }
-        
-        // Try to find staff
-        Optional<StaffEntity> staff = staffRepository.findByUsername(username);
-        if (staff.isPresent() && checkPassword(staff.get().getPasswordHash(), password)) {
-            Map<String, Object> response = mapStaffToResponse(staff.get());
-            response.put("role", staff.get().getRole().toString());
+        if (user instanceof StaffEntity staff && checkPassword(staff.getPasswordHash(), password)) {
+            Map<String, Object> response = mapStaffToResponse(staff);
+            response.put("role", staff.getRole().toString());
+            loginThrottle.recordSuccess(username);
             return ResponseEntity.ok(response);
         }
         
@@ -120,6 +140,7 @@ public class UserController {
         }
         
         CustomerEntity savedCustomer = customerRepository.save(newCustomer);
+        principalDirectory.invalidate(username);
         return ResponseEntity.status(HttpStatus.CREATED).body(savedCustomer);
     }
     
@@ -166,6 +187,7 @@ public class UserController {
                 
                 existingCustomer.setUpdatedAt(LocalDateTime.now());
                 CustomerEntity savedCustomer = customerRepository.save(existingCustomer);
+                principalDirectory.evict(PrincipalDirectory.Type.CUSTOMER, id);
                 return ResponseEntity.ok(savedCustomer);
             })
             .orElse(ResponseEntity.notFound().build());
@@ -188,6 +210,7 @@ public class UserController {
                 
                 existingStaff.setUpdatedAt(LocalDateTime.now());
                 StaffEntity savedStaff = staffRepository.save(existingStaff);
+                principalDirectory.evict(PrincipalDirectory.Type.STAFF, id);
                 return ResponseEntity.ok(savedStaff);
             })
             .orElse(ResponseEntity.notFound().build());
@@ -216,6 +239,7 @@ public class UserController {
     public ResponseEntity<Void> deleteCustomer(@PathVariable Long id) {
         if (customerRepository.existsById(id)) {
             customerRepository.deleteById(id);
+            principalDirectory.evict(PrincipalDirectory.Type.CUSTOMER, id);
             return ResponseEntity.noContent().build();
         } else {
             return ResponseEntity.notFound().build();
@@ -229,6 +253,7 @@ public class UserController {
     public ResponseEntity<Void> deleteStaff(@PathVariable Long id) {
         if (staffRepository.existsById(id)) {
             staffRepository.deleteById(id);
+            principalDirectory.evict(PrincipalDirectory.Type.STAFF, id);
             return ResponseEntity.noContent().build();
         } else {
             return ResponseEntity.notFound().build();
@@ -240,21 +265,17 @@ public class UserController {
      */
     @GetMapping("/search")
     public ResponseEntity<Map<String, Object>> findByUsername(@RequestParam String username) {
-        Optional<CustomerEntity> customer = customerRepository.findByUsername(username);
-        if (customer.isPresent()) {
-            Map<String, Object> response = mapCustomerToResponse(customer.get());
-            response.put("userType", "customer");
-            return ResponseEntity.ok(response);
-        }
-        
-        Optional<StaffEntity> staff = staffRepository.findByUsername(username);
-        if (staff.isPresent()) {
-            Map<String, Object> response = mapStaffToResponse(staff.get());
-            response.put("userType", "staff");
-            return ResponseEntity.ok(response);
+        // Unknown usernames are answered from the directory without touching the database
+        Optional<PrincipalDirectory.Principal> principal = principalDirectory.find(username);
+        if (principal.isEmpty()) {
+            return ResponseEntity.notFound().build();
         }
-        
-        return ResponseEntity.notFound().build();
+
+        Map<String, Object> response = principal.get().user() instanceof CustomerEntity customer
+            ? mapCustomerToResponse(customer)
+            : mapStaffToResponse((StaffEntity) principal.get().user());
+        response.put("userType", principal.get().type() == PrincipalDirectory.Type.CUSTOMER ? "customer" : "staff");
+        return ResponseEntity.ok(response);
     }
     
     // Helper methods
@@ -22,6 +22,7 @@ import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
 @Table(name = "orders")
@@ -78,6 +79,11 @@ public class OrderEntity {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Optimistic lock; bumped on every update so concurrent status changes cannot overwrite each other
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
     // One-to-Many relationship with order items
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<OrderItemEntity> orderItems;
@@ -142,6 +148,9 @@ public class OrderEntity {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
     
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    
     public List<OrderItemEntity> getOrderItems() { return orderItems; }
     public void setOrderItems(List<OrderItemEntity> orderItems) { this.orderItems = orderItems; }
     
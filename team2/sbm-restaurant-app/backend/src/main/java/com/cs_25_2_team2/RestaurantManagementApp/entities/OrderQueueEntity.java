@@ -6,20 +6,36 @@ import org.hibernate.annotations.CreationTimestamp;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "order_queue")
+@Table(name = "order_queue", indexes = {
+    @Index(name = "idx_order_queue_state_added", columnList = "queue_state, added_to_queue_at, queue_id")
+})
 public class OrderQueueEntity {
     
+    /**
+     * Stage of the queue entry, derived from the latest timestamp that is set
+     */
+    public enum QueueState {
+        Pending, Preparing, ReadyForDelivery, OutForDelivery, Delivered
+    }
+    
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_queue_seq")
+    @SequenceGenerator(name = "order_queue_seq", sequenceName = "order_queue_seq", allocationSize = 50)
     @Column(name = "queue_id")
     private Long queueId;
     
@@ -43,6 +59,11 @@ public class OrderQueueEntity {
     @Column(name = "delivered_at")
     private LocalDateTime deliveredAt;
     
+    // Denormalized from the timestamps so kitchen queries filter on one indexed column
+    @Enumerated(EnumType.STRING)
+    @Column(name = "queue_state", nullable = false, length = 20)
+    private QueueState queueState = QueueState.Pending;
+    
     // Constructors
     public OrderQueueEntity() {}
     
@@ -61,14 +82,48 @@ public class OrderQueueEntity {
     public void setAddedToQueueAt(LocalDateTime addedToQueueAt) { this.addedToQueueAt = addedToQueueAt; }
     
     public LocalDateTime getStartedPreparingAt() { return startedPreparingAt; }
-    public void setStartedPreparingAt(LocalDateTime startedPreparingAt) { this.startedPreparingAt = startedPreparingAt; }
+    public void setStartedPreparingAt(LocalDateTime startedPreparingAt) {
+        this.startedPreparingAt = startedPreparingAt;
+        refreshQueueState();
+    }
     
     public LocalDateTime getReadyForDeliveryAt() { return readyForDeliveryAt; }
-    public void setReadyForDeliveryAt(LocalDateTime readyForDeliveryAt) { this.readyForDeliveryAt = readyForDeliveryAt; }
+    public void setReadyForDeliveryAt(LocalDateTime readyForDeliveryAt) {
+        this.readyForDeliveryAt = readyForDeliveryAt;
+        refreshQueueState();
+    }
     
     public LocalDateTime getOutForDeliveryAt() { return outForDeliveryAt; }
-    public void setOutForDeliveryAt(LocalDateTime outForDeliveryAt) { this.outForDeliveryAt = outForDeliveryAt; }
+    public void setOutForDeliveryAt(LocalDateTime outForDeliveryAt) {
+        this.outForDeliveryAt = outForDeliveryAt;
+        refreshQueueState();
+    }
     
     public LocalDateTime getDeliveredAt() { return deliveredAt; }
-    public void setDeliveredAt(LocalDateTime deliveredAt) { this.deliveredAt = deliveredAt; }
+    public void setDeliveredAt(LocalDateTime deliveredAt) {
+        this.deliveredAt = deliveredAt;
+        refreshQueueState();
+    }
+    
+    public QueueState getQueueState() { return queueState; }
+    
+    /**
+     * Recompute queue_state from the timestamps; also runs before every insert and update so
+     * the column cannot drift from them
+     */
+    @PrePersist
+    @PreUpdate
+    void refreshQueueState() {
+        if (deliveredAt != null) {
+            queueState = QueueState.Delivered;
+        } else if (outForDeliveryAt != null) {
+            queueState = QueueState.OutForDelivery;
+        } else if (readyForDeliveryAt != null) {
+            queueState = QueueState.ReadyForDelivery;
+        } else if (startedPreparingAt != null) {
+            queueState = QueueState.Preparing;
+        } else {
+            queueState = QueueState.Pending;
+        }
+    }
 }
\ No newline at end of file
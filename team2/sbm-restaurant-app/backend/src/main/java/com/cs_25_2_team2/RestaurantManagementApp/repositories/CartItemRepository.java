@@ -3,6 +3,7 @@ package com.cs_25_2_team2.RestaurantManagementApp.repositories;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -23,6 +24,11 @@ public interface CartItemRepository extends JpaRepository<CartItemEntity, Long>
     // Delete all cart items for a specific cart
     void deleteByCart(CartEntity cart);
     
+    // Delete all cart items for a cart in a single bulk statement (no per-row load or delete)
+    @Modifying
+    @Query("DELETE FROM CartItemEntity ci WHERE ci.cart.cartId = :cartId")
+    int deleteAllByCartId(@Param("cartId") Long cartId);
+    
     // Count items in cart
     @Query("SELECT COUNT(ci) FROM CartItemEntity ci WHERE ci.cart.cartId = :cartId")
     Long countByCartId(@Param("cartId") Long cartId);
@@ -34,4 +34,9 @@ public interface CustomerRepository extends JpaRepository<CustomerEntity, Long>
     // Custom query to find customer with cart
     @Query("SELECT c FROM CustomerEntity c LEFT JOIN FETCH c.cart WHERE c.customerId = :customerId")
     Optional<CustomerEntity> findByIdWithCart(@Param("customerId") Long customerId);
+    
+    // Find customer with cart, cart items and their menu items in one query (for checkout)
+    @Query("SELECT c FROM CustomerEntity c LEFT JOIN FETCH c.cart ca LEFT JOIN FETCH ca.cartItems ci " +
+           "LEFT JOIN FETCH ci.menuItem WHERE c.customerId = :customerId")
+    Optional<CustomerEntity> findByIdWithCartItems(@Param("customerId") Long customerId);
 }
\ No newline at end of file
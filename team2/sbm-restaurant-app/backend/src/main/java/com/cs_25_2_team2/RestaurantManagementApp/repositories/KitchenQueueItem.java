@@ -0,0 +1,30 @@
+package com.cs_25_2_team2.RestaurantManagementApp.repositories;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.cs_25_2_team2.RestaurantManagementApp.entities.OrderEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.entities.OrderQueueEntity;
+
+/**
+ * Flat row for the kitchen board, selected in one query with the order, customer and chef
+ * instead of loading entities and walking their LAZY associations.
+ *
+ * @param queueId Queue entry ID, the keyset tie-breaker
+ * @param addedToQueueAt When the order joined the queue, the keyset sort column
+ * @param queueState Stage of the queue entry
+ * @param orderId ID of the order
+ * @param orderStatus Status of the order
+ * @param totalPrice Order total
+ * @param createdAt When the order was created
+ * @param customerId ID of the customer, or null
+ * @param customerName Name of the customer, or null
+ * @param assignedChefId ID of the assigned chef, or null
+ * @param assignedChefName Name of the assigned chef, or null
+ * @param itemCount Number of order lines
+ */
+public record KitchenQueueItem(Long queueId, LocalDateTime addedToQueueAt,
+        OrderQueueEntity.QueueState queueState, Long orderId, OrderEntity.OrderStatus orderStatus,
+        BigDecimal totalPrice, LocalDateTime createdAt, Long customerId, String customerName,
+        Long assignedChefId, String assignedChefName, Integer itemCount) {
+}
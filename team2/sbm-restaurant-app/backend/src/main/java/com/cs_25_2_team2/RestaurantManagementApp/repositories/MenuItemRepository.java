@@ -33,6 +33,10 @@ public interface MenuItemRepository extends JpaRepository<MenuItemEntity, Long>
     @Query("SELECT m FROM MenuItemEntity m WHERE LOWER(m.dishName) LIKE LOWER(CONCAT('%', :name, '%')) AND m.isAvailable = true")
     List<MenuItemEntity> findByDishNameContainingIgnoreCaseAndIsAvailableTrue(@Param("name") String name);
     
+    // Load every menu item with its ingredient names, for the in-process search index
+    @Query("SELECT DISTINCT m FROM MenuItemEntity m LEFT JOIN FETCH m.ingredients mi LEFT JOIN FETCH mi.ingredient")
+    List<MenuItemEntity> findAllWithIngredients();
+    
     // Find menu item with ingredients
     @Query("SELECT m FROM MenuItemEntity m LEFT JOIN FETCH m.ingredients WHERE m.dishId = :dishId")
     Optional<MenuItemEntity> findByIdWithIngredients(@Param("dishId") String dishId);
@@ -2,6 +2,8 @@ package com.cs_25_2_team2.RestaurantManagementApp.repositories;
 
 import java.util.List;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -24,12 +26,17 @@ public interface OrderItemRepository extends JpaRepository<OrderItemEntity, Long
     // Find order items by menu item
     List<OrderItemEntity> findByMenuItem(MenuItemEntity menuItem);
     
-    // Get popular menu items with order counts
+    // Get popular menu items with order counts; the page size caps the rows returned (LIMIT)
     @Query("SELECT oi.menuItem, COUNT(oi) " +
            "FROM OrderItemEntity oi " +
            "GROUP BY oi.menuItem " +
            "ORDER BY COUNT(oi) DESC")
-    List<Object[]> findPopularMenuItems(@Param("limit") int limit);
+    List<Object[]> findPopularMenuItems(Pageable pageable);
+    
+    // Get the top `limit` menu items with order counts
+    default List<Object[]> findPopularMenuItems(int limit) {
+        return findPopularMenuItems(PageRequest.of(0, limit));
+    }
     
     // Count order items for a specific menu item
     @Query("SELECT COUNT(oi) FROM OrderItemEntity oi WHERE oi.menuItem.dishId = :menuItemId")
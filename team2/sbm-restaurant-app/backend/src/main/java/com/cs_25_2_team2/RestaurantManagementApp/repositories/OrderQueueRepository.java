@@ -1,10 +1,16 @@
 package com.cs_25_2_team2.RestaurantManagementApp.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.cs_25_2_team2.RestaurantManagementApp.entities.OrderQueueEntity;
@@ -17,33 +23,118 @@ public interface OrderQueueRepository extends JpaRepository<OrderQueueEntity, Lo
      */
     Optional<OrderQueueEntity> findByOrderOrderId(Long orderId);
     
+    /**
+     * Find the entries in one queue state, oldest first, with the order, customer, chef and
+     * items fetched in the same query (served by idx_order_queue_state_added)
+     */
+    @Query("SELECT DISTINCT oq FROM OrderQueueEntity oq JOIN FETCH oq.order o LEFT JOIN FETCH o.customer " +
+           "LEFT JOIN FETCH o.assignedChef LEFT JOIN FETCH o.orderItems " +
+           "WHERE oq.queueState = :state ORDER BY oq.addedToQueueAt ASC")
+    List<OrderQueueEntity> findByQueueStateWithOrder(@Param("state") OrderQueueEntity.QueueState state);
+    
+    /**
+     * Count the entries in one queue state
+     */
+    long countByQueueState(OrderQueueEntity.QueueState queueState);
+    
     /**
      * Find all queue entries that are in preparation (started but not ready)
      */
-    @Query("SELECT oq FROM OrderQueueEntity oq WHERE oq.startedPreparingAt IS NOT NULL AND oq.readyForDeliveryAt IS NULL")
-    List<OrderQueueEntity> findOrdersInPreparation();
+    default List<OrderQueueEntity> findOrdersInPreparation() {
+        return findByQueueStateWithOrder(OrderQueueEntity.QueueState.Preparing);
+    }
     
     /**
      * Find all queue entries that are ready for delivery
      */
-    @Query("SELECT oq FROM OrderQueueEntity oq WHERE oq.readyForDeliveryAt IS NOT NULL AND oq.outForDeliveryAt IS NULL")
-    List<OrderQueueEntity> findOrdersReadyForDelivery();
+    default List<OrderQueueEntity> findOrdersReadyForDelivery() {
+        return findByQueueStateWithOrder(OrderQueueEntity.QueueState.ReadyForDelivery);
+    }
     
     /**
      * Find all pending orders (added to queue but not started preparing)
      */
-    @Query("SELECT oq FROM OrderQueueEntity oq WHERE oq.startedPreparingAt IS NULL ORDER BY oq.addedToQueueAt ASC")
-    List<OrderQueueEntity> findPendingOrders();
+    default List<OrderQueueEntity> findPendingOrders() {
+        return findByQueueStateWithOrder(OrderQueueEntity.QueueState.Pending);
+    }
     
     /**
      * Find all orders out for delivery
      */
-    @Query("SELECT oq FROM OrderQueueEntity oq WHERE oq.outForDeliveryAt IS NOT NULL AND oq.deliveredAt IS NULL")
-    List<OrderQueueEntity> findOrdersOutForDelivery();
+    default List<OrderQueueEntity> findOrdersOutForDelivery() {
+        return findByQueueStateWithOrder(OrderQueueEntity.QueueState.OutForDelivery);
+    }
+    
+    /**
+     * Find all completed/delivered orders. Loads the whole history; prefer
+     * {@link #findQueuePage} for anything user-facing.
+     */
+    default List<OrderQueueEntity> findCompletedOrders() {
+        return findByQueueStateWithOrder(OrderQueueEntity.QueueState.Delivered);
+    }
+    
+    /**
+     * First page of one queue state as board rows, oldest first
+     */
+    @Query("SELECT new com.cs_25_2_team2.RestaurantManagementApp.repositories.KitchenQueueItem(" +
+           "oq.queueId, oq.addedToQueueAt, oq.queueState, o.orderId, o.status, o.totalPrice, o.createdAt, " +
+           "c.customerId, c.name, ch.staffId, ch.name, SIZE(o.orderItems)) " +
+           "FROM OrderQueueEntity oq JOIN oq.order o LEFT JOIN o.customer c LEFT JOIN o.assignedChef ch " +
+           "WHERE oq.queueState = :state " +
+           "ORDER BY oq.addedToQueueAt ASC, oq.queueId ASC")
+    List<KitchenQueueItem> findQueueHead(@Param("state") OrderQueueEntity.QueueState state, Pageable page);
+    
+    /**
+     * Page of one queue state as board rows, starting right after the given (addedToQueueAt,
+     * queueId) position. Seeks the index instead of skipping rows, so every page costs the same.
+     */
+    @Query("SELECT new com.cs_25_2_team2.RestaurantManagementApp.repositories.KitchenQueueItem(" +
+           "oq.queueId, oq.addedToQueueAt, oq.queueState, o.orderId, o.status, o.totalPrice, o.createdAt, " +
+           "c.customerId, c.name, ch.staffId, ch.name, SIZE(o.orderItems)) " +
+           "FROM OrderQueueEntity oq JOIN oq.order o LEFT JOIN o.customer c LEFT JOIN o.assignedChef ch " +
+           "WHERE oq.queueState = :state AND (oq.addedToQueueAt > :afterAddedAt " +
+           "OR (oq.addedToQueueAt = :afterAddedAt AND oq.queueId > :afterQueueId)) " +
+           "ORDER BY oq.addedToQueueAt ASC, oq.queueId ASC")
+    List<KitchenQueueItem> findQueuePageAfter(@Param("state") OrderQueueEntity.QueueState state,
+                                              @Param("afterAddedAt") LocalDateTime afterAddedAt,
+                                              @Param("afterQueueId") Long afterQueueId,
+                                              Pageable page);
+    
+    /**
+     * Page of one queue state; pass the addedToQueueAt and queueId of the last row of the
+     * previous page to continue, or nulls for the first page
+     */
+    default List<KitchenQueueItem> findQueuePage(OrderQueueEntity.QueueState state, LocalDateTime afterAddedAt,
+                                                 Long afterQueueId, int limit) {
+        if (afterAddedAt == null || afterQueueId == null) {
+            return findQueueHead(state, PageRequest.of(0, limit));
+        }
+        return findQueuePageAfter(state, afterAddedAt, afterQueueId, PageRequest.of(0, limit));
+    }
+    
+    /**
+     * Find the entries in the given queue states with their order, customer, chef and items
+     * fetched in the same query
+     */
+    @Query("SELECT DISTINCT oq FROM OrderQueueEntity oq JOIN FETCH oq.order o LEFT JOIN FETCH o.customer " +
+           "LEFT JOIN FETCH o.assignedChef LEFT JOIN FETCH o.orderItems " +
+           "WHERE oq.queueState IN :states ORDER BY oq.addedToQueueAt ASC")
+    List<OrderQueueEntity> findByQueueStatesWithOrders(@Param("states") Collection<OrderQueueEntity.QueueState> states);
+    
+    /**
+     * Find every entry still on the kitchen display (not yet out for delivery)
+     */
+    default List<OrderQueueEntity> findActiveWithOrders() {
+        return findByQueueStatesWithOrders(EnumSet.of(OrderQueueEntity.QueueState.Pending,
+                OrderQueueEntity.QueueState.Preparing, OrderQueueEntity.QueueState.ReadyForDelivery));
+    }
     
     /**
-     * Find all completed/delivered orders
+     * Find the entries of the given orders with their order, customer, chef and items fetched
+     * in the same query
      */
-    @Query("SELECT oq FROM OrderQueueEntity oq WHERE oq.deliveredAt IS NOT NULL")
-    List<OrderQueueEntity> findCompletedOrders();
+    @Query("SELECT DISTINCT oq FROM OrderQueueEntity oq JOIN FETCH oq.order o LEFT JOIN FETCH o.customer " +
+           "LEFT JOIN FETCH o.assignedChef LEFT JOIN FETCH o.orderItems " +
+           "WHERE o.orderId IN :orderIds")
+    List<OrderQueueEntity> findByOrderIdsWithOrders(@Param("orderIds") Collection<Long> orderIds);
 }
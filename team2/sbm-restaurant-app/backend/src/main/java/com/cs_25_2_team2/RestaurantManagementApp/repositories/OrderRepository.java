@@ -6,9 +6,11 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.cs_25_2_team2.RestaurantManagementApp.entities.CustomerEntity;
 import com.cs_25_2_team2.RestaurantManagementApp.entities.OrderEntity;
@@ -48,6 +50,10 @@ public interface OrderRepository extends JpaRepository<OrderEntity, Long> {
     @Query("SELECT COUNT(o) FROM OrderEntity o WHERE o.status = :status")
     Long countByStatus(@Param("status") OrderEntity.OrderStatus status);
     
+    // Count orders for every status in one query (status, count)
+    @Query("SELECT o.status, COUNT(o) FROM OrderEntity o GROUP BY o.status")
+    List<Object[]> countGroupedByStatus();
+    
     // Find orders with queue information
     @Query("SELECT o FROM OrderEntity o LEFT JOIN FETCH o.orderQueue WHERE o.orderId = :orderId")
     Optional<OrderEntity> findByIdWithQueue(@Param("orderId") String orderId);
@@ -61,4 +67,26 @@ public interface OrderRepository extends JpaRepository<OrderEntity, Long> {
     // Sum total price of orders created after a specific date
     @Query("SELECT SUM(o.totalPrice) FROM OrderEntity o WHERE o.createdAt > :date")
     BigDecimal sumTotalPriceByCreatedAtAfter(@Param("date") LocalDateTime date);
-}
\ No newline at end of file
+    
+    // Move an order to a new status only if nobody changed it since it was read; returns rows updated (0 or 1)
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    @Query("UPDATE OrderEntity o SET o.status = :newStatus, o.version = o.version + 1, o.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE o.orderId = :orderId AND o.status = :expectedStatus AND o.version = :expectedVersion")
+    int transitionStatus(@Param("orderId") Long orderId,
+                         @Param("expectedStatus") OrderEntity.OrderStatus expectedStatus,
+                         @Param("expectedVersion") Long expectedVersion,
+                         @Param("newStatus") OrderEntity.OrderStatus newStatus);
+    
+    // Same as transitionStatus, assigning the chef in the same statement
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    @Query("UPDATE OrderEntity o SET o.status = :newStatus, o.assignedChef = :chef, o.version = o.version + 1, " +
+           "o.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE o.orderId = :orderId AND o.status = :expectedStatus AND o.version = :expectedVersion")
+    int transitionStatusAndAssignChef(@Param("orderId") Long orderId,
+                                      @Param("expectedStatus") OrderEntity.OrderStatus expectedStatus,
+                                      @Param("expectedVersion") Long expectedVersion,
+                                      @Param("newStatus") OrderEntity.OrderStatus newStatus,
+                                      @Param("chef") StaffEntity chef);
+}
@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.cs_25_2_team2.RestaurantManagementApp.entities.OrderEntity;
 import com.cs_25_2_team2.RestaurantManagementApp.entities.StaffEntity;
 
 @Repository
@@ -46,6 +47,12 @@ public interface StaffRepository extends JpaRepository<StaffEntity, Long> {
            "(SELECT DISTINCT o.assignedDelivery.staffId FROM OrderEntity o WHERE o.status = 'OutForDelivery' AND o.assignedDelivery IS NOT NULL)")
     List<StaffEntity> findAvailableDeliveryStaff();
     
+    // Count each chef's orders in one status with a single aggregate query.
+    // Returns [staffId, count] rows; the LEFT JOIN keeps idle chefs at 0.
+    @Query("SELECT s.staffId, COUNT(o) FROM StaffEntity s LEFT JOIN s.ordersAsChef o ON o.status = :status " +
+           "WHERE s.role = 'Chef' GROUP BY s.staffId")
+    List<Object[]> countOrdersPerChefByStatus(@Param("status") OrderEntity.OrderStatus status);
+    
     // Count staff by role
     @Query("SELECT COUNT(s) FROM StaffEntity s WHERE s.role = :role")
     Long countByRole(@Param("role") StaffEntity.StaffRole role);
@@ -0,0 +1,98 @@
+package com.cs_25_2_team2.RestaurantManagementApp.services;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.cs_25_2_team2.RestaurantManagementApp.entities.OrderEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.repositories.StaffRepository;
+
+/**
+ * In-memory count of Preparing orders per chef, used by the IN_MEMORY_COUNTER chef assignment
+ * strategy.
+ *
+ * Counters are seeded from the database on first use, then moved by {@link OrderStatusChangedEvent}
+ * once the publishing transaction commits, whichever path made the transition (RestaurantService,
+ * OrderStateMachine), so a rolled-back transition never touches them. A periodic reconciliation
+ * reloads them from the database to correct drift from writes that bypass the events.
+ *
+ * @author Team 2
+ * @version 1.0
+ */
+@Component
+public class ChefLoadCounters {
+
+    private final StaffRepository staffRepository;
+    private final Map<Long, AtomicLong> preparingOrdersByChef = new ConcurrentHashMap<>();
+    private volatile boolean seeded;
+
+    public ChefLoadCounters(StaffRepository staffRepository) {
+        this.staffRepository = staffRepository;
+    }
+
+    /**
+     * Preparing-order count per chef ID. Only the first call touches the database.
+     */
+    public Map<Long, Long> snapshot() {
+        if (!seeded) {
+            reload();
+        }
+        Map<Long, Long> counts = new HashMap<>();
+        preparingOrdersByChef.forEach((chefId, count) -> counts.put(chefId, count.get()));
+        return counts;
+    }
+
+    /**
+     * Move the chef's count when an order enters or leaves Preparing. Ignored until the counters
+     * have been seeded, since the seed query will include it.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if (!seeded || event.chefId() == null || event.oldStatus() == event.newStatus()) {
+            return;
+        }
+        if (event.oldStatus() == OrderEntity.OrderStatus.Preparing) {
+            adjust(event.chefId(), -1);
+        }
+        if (event.newStatus() == OrderEntity.OrderStatus.Preparing) {
+            adjust(event.chefId(), 1);
+        }
+    }
+
+    /**
+     * Reload the counters from the database once they are in use. Events that land while this
+     * runs may be overwritten; the next reconciliation picks them up.
+     */
+    @Scheduled(fixedDelayString = "${restaurant.chef-assignment.reconcile-interval-ms:30000}",
+            initialDelayString = "${restaurant.chef-assignment.reconcile-interval-ms:30000}")
+    public void reconcile() {
+        if (seeded) {
+            reload();
+        }
+    }
+
+    private synchronized void reload() {
+        Map<Long, Long> counts = queryPreparingOrderCounts();
+        preparingOrdersByChef.keySet().retainAll(counts.keySet());
+        counts.forEach((chefId, count) ->
+                preparingOrdersByChef.computeIfAbsent(chefId, id -> new AtomicLong()).set(count));
+        seeded = true;
+    }
+
+    private Map<Long, Long> queryPreparingOrderCounts() {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : staffRepository.countOrdersPerChefByStatus(OrderEntity.OrderStatus.Preparing)) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    private void adjust(Long chefId, long delta) {
+        preparingOrdersByChef.computeIfAbsent(chefId, id -> new AtomicLong()).addAndGet(delta);
+    }
+}
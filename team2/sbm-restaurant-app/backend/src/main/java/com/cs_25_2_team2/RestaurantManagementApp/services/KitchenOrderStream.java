@@ -0,0 +1,332 @@
+package com.cs_25_2_team2.RestaurantManagementApp.services;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.cs_25_2_team2.RestaurantManagementApp.entities.OrderEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.entities.OrderQueueEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.entities.StaffEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.repositories.OrderQueueRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Server-Sent Events feed of the kitchen order queue, replacing polling of /api/kitchen/order-queue.
+ *
+ * A new subscriber receives one "snapshot" event (same shape as /order-queue), then "delta"
+ * events listing only the orders whose queue entry or status changed. Changes arriving within
+ * the coalescing window are loaded together with one query and fanned out to every screen, so
+ * the database cost depends on the rate of changes, not the number of screens.
+ *
+ * Each subscriber is sent to from its own virtual thread. While a slow screen is still
+ * receiving, newer changes for the same order replace older ones in its pending set; if the
+ * set grows past {@link #MAX_PENDING_CHANGES} it is dropped and the screen gets a fresh
+ * snapshot instead.
+ *
+ * @author Team 2
+ * @version 1.0
+ */
+@Component
+public class KitchenOrderStream {
+
+    static final int MAX_PENDING_CHANGES = 500;
+
+    private final OrderQueueRepository orderQueueRepository;
+    private final long coalesceMillis;
+    private final long timeoutMillis;
+    private final ScheduledExecutorService scheduler;
+    private final Executor sender;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final Set<Long> changedOrderIds = new LinkedHashSet<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    @Autowired
+    public KitchenOrderStream(OrderQueueRepository orderQueueRepository,
+            @Value("${restaurant.kitchen.stream.coalesce-ms:100}") long coalesceMillis,
+            @Value("${restaurant.kitchen.stream.timeout-ms:1800000}") long timeoutMillis) {
+        this(orderQueueRepository, coalesceMillis, timeoutMillis,
+                Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon().name("kitchen-stream").factory()),
+                Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    KitchenOrderStream(OrderQueueRepository orderQueueRepository, long coalesceMillis, long timeoutMillis,
+            ScheduledExecutorService scheduler, Executor sender) {
+        this.orderQueueRepository = orderQueueRepository;
+        this.coalesceMillis = coalesceMillis;
+        this.timeoutMillis = timeoutMillis;
+        this.scheduler = scheduler;
+        this.sender = sender;
+    }
+
+    /**
+     * Open a stream for one kitchen screen
+     */
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        subscriber.resync();
+        return emitter;
+    }
+
+    /**
+     * Number of open streams
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        orderChanged(event.orderId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        orderChanged(event.orderId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderQueueChanged(OrderQueueChangedEvent event) {
+        orderChanged(event.orderId());
+    }
+
+    /**
+     * Remember a changed order and schedule a flush unless one is already pending
+     */
+    void orderChanged(Long orderId) {
+        if (orderId == null) {
+            return;
+        }
+        synchronized (changedOrderIds) {
+            changedOrderIds.add(orderId);
+        }
+        if (flushScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::flush, coalesceMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Load every order changed since the last flush in one query and queue the deltas on each
+     * subscriber
+     */
+    void flush() {
+        flushScheduled.set(false);
+        List<Long> orderIds;
+        synchronized (changedOrderIds) {
+            orderIds = new ArrayList<>(changedOrderIds);
+            changedOrderIds.clear();
+        }
+        if (orderIds.isEmpty() || subscribers.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Map<String, Object>> changes = new LinkedHashMap<>();
+        for (Long orderId : orderIds) {
+            changes.put(orderId, removedChange(orderId));
+        }
+        try {
+            for (OrderQueueEntity entry : orderQueueRepository.findByOrderIdsWithOrders(orderIds)) {
+                Long orderId = entry.getOrder().getOrderId();
+                String queue = queueOf(entry);
+                if (queue != null) {
+                    Map<String, Object> change = new HashMap<>();
+                    change.put("orderId", orderId);
+                    change.put("queue", queue);
+                    change.put("order", mapOrder(entry.getOrder()));
+                    changes.put(orderId, change);
+                }
+            }
+        } catch (RuntimeException e) {
+            // Could not load the changes; let every screen start over from a snapshot
+            subscribers.forEach(Subscriber::resync);
+            return;
+        }
+
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(changes);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        if (sender instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    /**
+     * Full queue in the same shape as GET /api/kitchen/order-queue
+     */
+    Map<String, Object> snapshot() {
+        List<Map<String, Object>> pending = new ArrayList<>();
+        List<Map<String, Object>> preparing = new ArrayList<>();
+        List<Map<String, Object>> ready = new ArrayList<>();
+        for (OrderQueueEntity entry : orderQueueRepository.findActiveWithOrders()) {
+            String queue = queueOf(entry);
+            if ("pending".equals(queue)) {
+                pending.add(mapOrder(entry.getOrder()));
+            } else if ("preparing".equals(queue)) {
+                preparing.add(mapOrder(entry.getOrder()));
+            } else if ("ready".equals(queue)) {
+                ready.add(mapOrder(entry.getOrder()));
+            }
+        }
+
+        Map<String, Object> snapshot = new HashMap<>();
+        snapshot.put("status", "success");
+        snapshot.put("pending", pending);
+        snapshot.put("preparing", preparing);
+        snapshot.put("ready", ready);
+        snapshot.put("totalOrders", pending.size() + preparing.size() + ready.size());
+        return snapshot;
+    }
+
+    /**
+     * Kitchen column of a queue entry, or null once it has left the kitchen display
+     */
+    static String queueOf(OrderQueueEntity entry) {
+        switch (entry.getQueueState()) {
+            case Pending:
+                return "pending";
+            case Preparing:
+                return "preparing";
+            case ReadyForDelivery:
+                return "ready";
+            default:
+                return null;
+        }
+    }
+
+    private static Map<String, Object> removedChange(Long orderId) {
+        Map<String, Object> change = new HashMap<>();
+        change.put("orderId", orderId);
+        change.put("queue", "removed");
+        return change;
+    }
+
+    private static Map<String, Object> mapOrder(OrderEntity order) {
+        Map<String, Object> orderMap = new HashMap<>();
+        orderMap.put("id", order.getOrderId());
+        if (order.getCustomer() != null) {
+            orderMap.put("customerId", order.getCustomer().getCustomerId());
+            orderMap.put("customerName", order.getCustomer().getName());
+        }
+        orderMap.put("totalPrice", order.getTotalPrice());
+        orderMap.put("status", order.getStatus().toString());
+        if (order.getCreatedAt() != null) {
+            orderMap.put("createdAt", order.getCreatedAt().toString());
+        }
+        if (order.getAssignedChef() != null) {
+            StaffEntity chef = order.getAssignedChef();
+            Map<String, Object> chefMap = new HashMap<>();
+            chefMap.put("id", chef.getStaffId());
+            chefMap.put("name", chef.getName());
+            chefMap.put("username", chef.getUsername());
+            chefMap.put("phoneNumber", chef.getPhoneNumber());
+            chefMap.put("role", chef.getRole().toString());
+            orderMap.put("assignedChef", chefMap);
+        }
+        if (order.getOrderItems() != null) {
+            orderMap.put("itemCount", order.getOrderItems().size());
+        }
+        return orderMap;
+    }
+
+    /**
+     * One open stream with its own pending changes, coalesced per order
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Map<Long, Map<String, Object>> pending = new LinkedHashMap<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private boolean needsSnapshot;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Map<Long, Map<String, Object>> changes) {
+            synchronized (this) {
+                if (!needsSnapshot) {
+                    pending.putAll(changes);
+                    if (pending.size() > MAX_PENDING_CHANGES) {
+                        pending.clear();
+                        needsSnapshot = true;
+                    }
+                }
+            }
+            startSending();
+        }
+
+        void resync() {
+            synchronized (this) {
+                pending.clear();
+                needsSnapshot = true;
+            }
+            startSending();
+        }
+
+        private void startSending() {
+            if (sending.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                while (true) {
+                    boolean snapshot;
+                    List<Map<String, Object>> changes;
+                    synchronized (this) {
+                        snapshot = needsSnapshot;
+                        changes = new ArrayList<>(pending.values());
+                        needsSnapshot = false;
+                        pending.clear();
+                        if (!snapshot && changes.isEmpty()) {
+                            sending.set(false);
+                            return;
+                        }
+                    }
+                    if (snapshot) {
+                        emitter.send(SseEmitter.event().name("snapshot").data(snapshot()));
+                    } else {
+                        emitter.send(SseEmitter.event().name("delta").data(Map.of("changes", changes)));
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                // Client went away or the snapshot could not be loaded; close this stream only
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
@@ -1,26 +1,37 @@
 package com.cs_25_2_team2.RestaurantManagementApp.services;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.cs_25_2_team2.RestaurantManagementApp.Chef;
+import com.cs_25_2_team2.RestaurantManagementApp.ConcurrentOrderQueue;
+import com.cs_25_2_team2.RestaurantManagementApp.KitchenWorkerPool;
 import com.cs_25_2_team2.RestaurantManagementApp.Order;
-import com.cs_25_2_team2.RestaurantManagementApp.OrderQueue;
+import com.cs_25_2_team2.RestaurantManagementApp.OrderStatusIndex;
 import com.cs_25_2_team2.RestaurantManagementApp.Staff;
+import com.cs_25_2_team2.RestaurantManagementApp.exceptions.OrderNotFoundException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 
 /**
  * Service class for Kitchen management using the existing OrderQueue, Chef, and Staff backend classes.
  * Handles order assignment, kitchen workflow, and chef management.
  * 
  * Uses the existing backend architecture:
- * - OrderQueue class for order management
+ * - ConcurrentOrderQueue for order management (this singleton is shared by all request threads)
+ * - OrderStatusIndex for status lookups and counts without scanning the queue
  * - Chef class for chef operations (extends Staff)
  * - Staff class hierarchy for kitchen staff
  * - Order class with status management
+ * - KitchenWorkerPool to drain the queue automatically when restaurant.kitchen.workers.enabled is set
  * 
  * @author Team 2
  * @version 1.0
@@ -28,17 +39,30 @@ import com.cs_25_2_team2.RestaurantManagementApp.Staff;
 @Service
 public class KitchenService {
     
-    private final OrderQueue orderQueue;
-    private final Map<String, Chef> chefs = new HashMap<>();
+    private final ConcurrentOrderQueue orderQueue;
+    private final OrderStatusIndex statusIndex;
+    // Read and written by concurrent request threads
+    private final Map<String, Chef> chefs = new ConcurrentHashMap<>();
     // Use Long for chef keys for consistency
-    private final Map<Long, Chef> chefsById = new HashMap<>();
-    private final Map<String, Staff> kitchenStaff = new HashMap<>();
+    private final Map<Long, Chef> chefsById = new ConcurrentHashMap<>();
+    private final Map<String, Staff> kitchenStaff = new ConcurrentHashMap<>();
+    private volatile KitchenWorkerPool workerPool;
+    
+    @Value("${restaurant.kitchen.workers.enabled:false}")
+    private boolean workersEnabled;
+    
+    @Value("${restaurant.kitchen.workers.prep-time-ms:600000}")
+    private long prepTimeMillis;
+    
+    @Value("${restaurant.kitchen.workers.prep-time-per-item-ms:0}")
+    private long prepTimePerItemMillis;
     
     /**
      * Constructor initializes kitchen with sample staff
      */
     public KitchenService() {
-        this.orderQueue = new OrderQueue();
+        this.orderQueue = new ConcurrentOrderQueue();
+        this.statusIndex = new OrderStatusIndex();
         initializeSampleKitchenStaff();
     }
     
@@ -46,37 +70,35 @@ public class KitchenService {
      * Get all pending orders for kitchen preparation
      */
     public List<Order> getPendingOrders() {
-        // Return orders with status Pending
-        return orderQueue.getAll().stream()
-            .filter(order -> order.getStatus() == Order.Status.Pending)
-            .toList();
+        return statusIndex.getByStatus(Order.Status.Pending);
     }
     
     /**
      * Get orders currently being prepared
      */
     public List<Order> getOrdersInPreparation() {
-        // Return orders with status Preparing
-        return orderQueue.getAll().stream()
-            .filter(order -> order.getStatus() == Order.Status.Preparing)
-            .toList();
+        return statusIndex.getByStatus(Order.Status.Preparing);
     }
     
     /**
      * Get completed orders ready for delivery
      */
     public List<Order> getReadyOrders() {
-        // Return orders with status ReadyForDelivery
-        return orderQueue.getAll().stream()
-            .filter(order -> order.getStatus() == Order.Status.ReadyForDelivery)
-            .toList();
+        return statusIndex.getByStatus(Order.Status.ReadyForDelivery);
     }
     
     /**
      * Add order to kitchen queue
      */
     public void addOrderToQueue(Order order) {
-    orderQueue.add(order);
+    // Track first: a worker may claim the order and change its status as soon as it is queued
+    statusIndex.track(order);
+    KitchenWorkerPool pool = workerPool;
+    if (pool != null) {
+        pool.submit(order); // Also starts the queue-wait clock
+    } else {
+        orderQueue.add(order);
+    }
     System.out.println("Order queued: " + order.toString());
     }
     
@@ -89,24 +111,34 @@ public class KitchenService {
             return false;
         }
         
-        // Find available chef
-        Chef availableChef = findAvailableChef();
-        if (availableChef != null) {
+        // Claim the order under its own lock (the one Order.updateStatus takes), so concurrent
+        // requests for the same order cannot both assign it
+        synchronized (order) {
+            if (order.getStatus() != Order.Status.Placed) {
+                return false; // Not ready yet, or already claimed
+            }
+            // Find available chef
+            Chef availableChef = findAvailableChef();
+            if (availableChef == null) {
+                return false; // No available chef
+            }
+            // Take it out of the queue so a kitchen worker does not pick it up as well; if it
+            // is no longer queued, a worker has already claimed it
+            if (!claimFromQueue(order.getId())) {
+                return false;
+            }
             try {
+                order.updateStatus(Order.Status.Preparing);
+                
                 // Use existing Chef.assignOrder() method
                 availableChef.assignOrder(order);
                 
-                // Update order status using existing Order.updateStatus() method
-                order.updateStatus(Order.Status.Preparing);
-                
                 return true;
             } catch (Exception e) {
                 System.err.println("Error starting order preparation: " + e.getMessage());
                 return false;
             }
         }
-        
-        return false; // No available chef
     }
     
     /**
@@ -122,11 +154,12 @@ public class KitchenService {
             // Update order status using existing Order.updateStatus() method
             order.updateStatus(Order.Status.ReadyForDelivery);
             
-            // Find the chef who was preparing this order and mark them as available
-            Chef chef = findChefByOrder(order);
-            if (chef != null) {
-                // The chef's assigned orders will be automatically updated
-                // since we're using the existing backend architecture
+            // The order has left the kitchen; drop it from its chef so chefs do not accumulate
+            // finished orders
+            for (Chef chef : chefsById.values()) {
+                if (chef.releaseOrder(order.getId()) != null) {
+                    break;
+                }
             }
             
             return true;
@@ -139,7 +172,7 @@ public class KitchenService {
     /**
      * Get the complete order queue status
      */
-    public OrderQueue getOrderQueue() {
+    public ConcurrentOrderQueue getOrderQueue() {
         return orderQueue;
     }
     
@@ -193,8 +226,8 @@ public class KitchenService {
      * Estimate preparation time for current queue
      */
     public int estimatePreparationTime() {
-        int pendingOrders = getPendingOrders().size();
-        int preparingOrders = getOrdersInPreparation().size();
+        int pendingOrders = statusIndex.count(Order.Status.Pending);
+        int preparingOrders = statusIndex.count(Order.Status.Preparing);
         int availableChefs = getAvailableChefs().size();
         
         if (availableChefs == 0) {
@@ -207,31 +240,17 @@ public class KitchenService {
     }
     
     /**
-     * Find order by ID across all queue statuses
+     * Find order by ID among pending, placed, preparing and ready orders
      */
     private Order findOrderById(Long orderId) {
-        // Check pending orders
-        for (Order order : getPendingOrders()) {
-            if (order.getId() == orderId.intValue()) {
-                return order;
-            }
-        }
-        
-        // Check orders in preparation
-        for (Order order : getOrdersInPreparation()) {
-            if (order.getId() == orderId.intValue()) {
-                return order;
-            }
-        }
-        
-        // Check ready orders
-        for (Order order : getReadyOrders()) {
-            if (order.getId() == orderId.intValue()) {
-                return order;
-            }
+        Order order = statusIndex.find(orderId.intValue());
+        if (order == null) {
+            return null;
         }
-        
-        return null;
+        return switch (order.getStatus()) {
+            case Pending, Placed, Preparing, ReadyForDelivery -> order;
+            default -> null;
+        };
     }
     
     /**
@@ -245,13 +264,21 @@ public class KitchenService {
     }
     
     /**
-     * Find chef assigned to a specific order
+     * Remove an order from the kitchen queue (through the worker pool when it is running)
+     *
+     * @return false if the order is no longer queued
      */
-    private Chef findChefByOrder(Order order) {
-        return chefsById.values().stream()
-            .filter(chef -> chef.getAssignedOrders().contains(order))
-            .findFirst()
-            .orElse(null);
+    private boolean claimFromQueue(int orderId) {
+        KitchenWorkerPool pool = workerPool;
+        if (pool != null) {
+            return pool.withdraw(orderId) != null;
+        }
+        try {
+            orderQueue.remove(orderId);
+            return true;
+        } catch (OrderNotFoundException e) {
+            return false;
+        }
     }
     
     /**
@@ -270,6 +297,54 @@ public class KitchenService {
     System.out.println("Initialized kitchen with " + chefsById.size() + " chefs");
     }
     
+    /**
+     * Start the worker pool at startup when enabled in configuration
+     */
+    @PostConstruct
+    void startConfiguredWorkers() {
+        if (workersEnabled) {
+            startKitchenWorkers(Duration.ofMillis(prepTimeMillis), Duration.ofMillis(prepTimePerItemMillis));
+        }
+    }
+    
+    /**
+     * Put every chef on shift: each one takes orders from the queue on its own virtual thread
+     * and prepares them for basePrepTime plus perItem per unit ordered.
+     *
+     * The kitchen has no delivery staff of its own, so prepared orders stay ReadyForDelivery
+     * (listed by {@link #getReadyOrders()}) for the delivery workflow to pick up; the pool counts
+     * them in {@link KitchenWorkerPool.Metrics#ordersAwaitingDelivery()}.
+     */
+    public synchronized void startKitchenWorkers(Duration basePrepTime, Duration perItem) {
+        if (workerPool != null) {
+            throw new IllegalStateException("Kitchen workers are already running");
+        }
+        // No delivery staff: the pool leaves finished orders ReadyForDelivery instead of dispatching
+        KitchenWorkerPool pool = new KitchenWorkerPool(orderQueue, List.of(), order -> basePrepTime.plus(
+                perItem.multipliedBy(order.getItems().stream().mapToInt(item -> item.getQuantity()).sum())));
+        chefsById.values().forEach(pool::startShift);
+        workerPool = pool;
+    }
+    
+    /**
+     * End every chef's shift once the orders in hand are finished
+     */
+    @PreDestroy
+    public synchronized void stopKitchenWorkers() throws InterruptedException {
+        if (workerPool != null) {
+            workerPool.shutdown(Duration.ofSeconds(30));
+            workerPool = null;
+        }
+    }
+    
+    /**
+     * Queue wait, prep time and chef utilization of the worker pool, or null when it is not running
+     */
+    public KitchenWorkerPool.Metrics getWorkerMetrics() {
+        KitchenWorkerPool pool = workerPool;
+        return pool != null ? pool.getMetrics() : null;
+    }
+    
     /**
      * Get kitchen statistics for admin dashboard
      */
@@ -277,9 +352,9 @@ public class KitchenService {
         Map<String, Object> stats = new HashMap<>();
     stats.put("totalChefs", chefsById.size());
         stats.put("availableChefs", getAvailableChefs().size());
-        stats.put("pendingOrders", getPendingOrders().size());
-        stats.put("preparingOrders", getOrdersInPreparation().size());
-        stats.put("readyOrders", getReadyOrders().size());
+        stats.put("pendingOrders", statusIndex.count(Order.Status.Pending));
+        stats.put("preparingOrders", statusIndex.count(Order.Status.Preparing));
+        stats.put("readyOrders", statusIndex.count(Order.Status.ReadyForDelivery));
         stats.put("estimatedWaitTime", estimatePreparationTime());
         return stats;
     }
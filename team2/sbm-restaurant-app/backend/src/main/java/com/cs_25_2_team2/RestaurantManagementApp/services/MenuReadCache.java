@@ -0,0 +1,166 @@
+package com.cs_25_2_team2.RestaurantManagementApp.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.cs_25_2_team2.RestaurantManagementApp.entities.MenuItemEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.repositories.MenuItemRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * In-process cache of the menu read path (GET /api/menu and /api/menu/category/{category}).
+ *
+ * Each distinct filter combination is cached as a list of detached menu items (scalar fields
+ * only, no lazy collections) together with an ETag over their contents. Entries are bounded by
+ * size and expire after a TTL as a safety net; menu writes evict exactly the entries whose
+ * filters match the changed item before or after the change. Availability comes from those
+ * database writes only; the menu service's availability toggle acts on the in-memory sample menu,
+ * not the menu_items table.
+ *
+ * A write bumps a generation counter before evicting, and a read that loaded while the counter
+ * moved does not keep its result, so a load that raced with a write cannot leave stale rows behind.
+ *
+ * @author Team 2
+ * @version 1.0
+ */
+@Component
+public class MenuReadCache {
+
+    /**
+     * Filter combination of a menu read; null means "any"
+     */
+    public record MenuQuery(MenuItemEntity.Category category, MenuItemEntity.CookedType cookedType,
+            MenuItemEntity.PotatoType potatoType, Boolean available) {
+
+        public static final MenuQuery ALL = new MenuQuery(null, null, null, null);
+
+        boolean matches(MenuItemEntity item) {
+            return (category == null || category == item.getCategory())
+                    && (cookedType == null || cookedType == item.getCookedType())
+                    && (potatoType == null || potatoType == item.getPotatoType())
+                    && (available == null || available.equals(item.getIsAvailable()));
+        }
+    }
+
+    /**
+     * Cached result of one query
+     *
+     * @param items Matching items, ordered by ID
+     * @param etag Strong ETag (quoted) over the items' contents
+     */
+    public record CachedMenu(List<MenuItemEntity> items, String etag) {
+    }
+
+    private final MenuItemRepository menuItemRepository;
+    private final Cache<MenuQuery, CachedMenu> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public MenuReadCache(MenuItemRepository menuItemRepository,
+            @Value("${restaurant.menu.cache.max-entries:256}") long maxEntries,
+            @Value("${restaurant.menu.cache.ttl-seconds:600}") long ttlSeconds) {
+        this.menuItemRepository = menuItemRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Menu items matching the query, loaded from the database on a miss
+     */
+    public CachedMenu get(MenuQuery query) {
+        long before = generation.get();
+        CachedMenu menu = cache.get(query, this::load);
+        if (generation.get() != before) {
+            // A write landed while this was loading; serve it once but do not keep it
+            cache.asMap().remove(query, menu);
+        }
+        return menu;
+    }
+
+    /**
+     * Evict every entry that could list the item before or after a change; either may be null
+     * (create / delete)
+     */
+    public void evict(MenuItemEntity before, MenuItemEntity after) {
+        generation.incrementAndGet();
+        cache.asMap().keySet().removeIf(query ->
+                (before != null && query.matches(before)) || (after != null && query.matches(after)));
+    }
+
+    /**
+     * Drop every entry
+     */
+    public void evictAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    /**
+     * Number of cached filter combinations
+     */
+    public long size() {
+        return cache.asMap().size();
+    }
+
+    /**
+     * Copy of an item without its lazy collections, safe to serialize outside a session
+     */
+    public static MenuItemEntity detach(MenuItemEntity item) {
+        MenuItemEntity copy = new MenuItemEntity();
+        copy.setDishId(item.getDishId());
+        copy.setRestaurantId(item.getRestaurantId());
+        copy.setDishName(item.getDishName());
+        copy.setCategory(item.getCategory());
+        copy.setPrice(item.getPrice());
+        copy.setCookedType(item.getCookedType());
+        copy.setPotatoType(item.getPotatoType());
+        copy.setIsAvailable(item.getIsAvailable());
+        copy.setDescription(item.getDescription());
+        copy.setCreatedAt(item.getCreatedAt());
+        copy.setUpdatedAt(item.getUpdatedAt());
+        return copy;
+    }
+
+    private CachedMenu load(MenuQuery query) {
+        List<MenuItemEntity> items = menuItemRepository.findAll().stream()
+                .filter(query::matches)
+                .map(MenuReadCache::detach)
+                .sorted(Comparator.comparing(MenuItemEntity::getDishId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+        return new CachedMenu(items, etagOf(items));
+    }
+
+    private static String etagOf(List<MenuItemEntity> items) {
+        StringBuilder content = new StringBuilder();
+        for (MenuItemEntity item : items) {
+            content.append(item.getDishId()).append('|')
+                    .append(item.getDishName()).append('|')
+                    .append(item.getCategory()).append('|')
+                    .append(item.getPrice()).append('|')
+                    .append(item.getCookedType()).append('|')
+                    .append(item.getPotatoType()).append('|')
+                    .append(item.getIsAvailable()).append('|')
+                    .append(item.getDescription()).append('|')
+                    .append(item.getUpdatedAt()).append('\n');
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.toString().getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.cs_25_2_team2.RestaurantManagementApp.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.cs_25_2_team2.RestaurantManagementApp.TrigramIndex;
+import com.cs_25_2_team2.RestaurantManagementApp.entities.IngredientEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.entities.MenuItemEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.entities.MenuItemIngredientEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.repositories.MenuItemRepository;
+
+/**
+ * Search box backend for GET /api/menu/search.
+ *
+ * Keeps a {@link TrigramIndex} over every menu item's name, linked ingredient names and
+ * description (weighted in that order), so a search never runs a LIKE '%term%' scan. The index is
+ * loaded from the database on the first search and then kept current by the menu write path: each
+ * create, update or delete re-indexes only the affected item. Results are detached copies of the
+ * available items, best match first. Availability comes from those database writes only; the menu
+ * service's availability toggle acts on the in-memory sample menu, not the menu_items table.
+ *
+ * @author Team 2
+ * @version 1.0
+ */
+@Component
+public class MenuSearchIndex {
+
+    static final int NAME_WEIGHT = 3;
+    static final int INGREDIENT_WEIGHT = 2;
+    static final int DESCRIPTION_WEIGHT = 1;
+
+    /** Detached item plus the ingredient text it was indexed with */
+    private record Entry(MenuItemEntity item, String ingredients) {}
+
+    private final MenuItemRepository menuItemRepository;
+    private final TrigramIndex<Long> index = new TrigramIndex<>(NAME_WEIGHT, INGREDIENT_WEIGHT, DESCRIPTION_WEIGHT);
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean loaded;
+
+    @Autowired
+    public MenuSearchIndex(MenuItemRepository menuItemRepository) {
+        this.menuItemRepository = menuItemRepository;
+    }
+
+    /**
+     * Available menu items matching the query, best match first; typos and unfinished words still
+     * match
+     */
+    public List<MenuItemEntity> search(String query, int limit) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            List<TrigramIndex.Hit<Long>> hits = index.search(query, limit,
+                    dishId -> Boolean.TRUE.equals(entries.get(dishId).item().getIsAvailable()));
+            List<MenuItemEntity> items = new ArrayList<>(hits.size());
+            for (TrigramIndex.Hit<Long> hit : hits) {
+                items.add(entries.get(hit.key()).item());
+            }
+            return items;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Index a created or updated item. If its ingredients are not loaded (null), the ingredient
+     * names it was last indexed with are kept.
+     */
+    public void put(MenuItemEntity item) {
+        if (item == null || item.getDishId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return; // The initial load will read it from the database
+            }
+            Entry previous = entries.get(item.getDishId());
+            String ingredients = item.getIngredients() != null || previous == null
+                    ? ingredientText(item)
+                    : previous.ingredients();
+            index(item, ingredients);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drop a deleted item
+     */
+    public void remove(Long dishId) {
+        lock.writeLock().lock();
+        try {
+            if (dishId != null && entries.remove(dishId) != null) {
+                index.remove(dishId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Number of indexed items (0 before the first search)
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                for (MenuItemEntity item : menuItemRepository.findAllWithIngredients()) {
+                    index(item, ingredientText(item));
+                }
+                loaded = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void index(MenuItemEntity item, String ingredients) {
+        MenuItemEntity copy = MenuReadCache.detach(item);
+        entries.put(copy.getDishId(), new Entry(copy, ingredients));
+        index.put(copy.getDishId(), copy.getDishName(), ingredients, copy.getDescription());
+    }
+
+    private static String ingredientText(MenuItemEntity item) {
+        if (item.getIngredients() == null) {
+            return "";
+        }
+        return item.getIngredients().stream()
+                .map(MenuItemIngredientEntity::getIngredient)
+                .filter(Objects::nonNull)
+                .map(IngredientEntity::getName)
+                .filter(Objects::nonNull)
+                .collect(Collectors.joining(" "));
+    }
+}
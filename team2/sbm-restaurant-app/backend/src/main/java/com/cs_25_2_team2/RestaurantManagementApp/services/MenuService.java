@@ -91,6 +91,15 @@ public class MenuService {
         return restaurantMenu.getItemsByPotatoType(potatoType);
     }
     
+    /**
+     * Get available menu items matching a dietary filter, e.g. vegetarian, without bacon, with
+     * cheese; ingredient terms match by name or word prefix, case-insensitively
+     */
+    public List<MenuItem> filterMenuItems(boolean vegetarianOnly, Collection<String> withIngredients,
+            Collection<String> withoutIngredients) {
+        return restaurantMenu.filterItems(vegetarianOnly, withIngredients, withoutIngredients);
+    }
+    
     /**
      * Get menu availability status
      */
@@ -0,0 +1,18 @@
+package com.cs_25_2_team2.RestaurantManagementApp.services;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import com.cs_25_2_team2.RestaurantManagementApp.entities.OrderEntity;
+
+/**
+ * Published after a new order has been saved.
+ *
+ * @param orderId ID of the saved order
+ * @param status Status the order was created with
+ * @param totalPrice Order total, counted towards today's revenue
+ * @param menuItemIds Menu item ID of each order line
+ */
+public record OrderCreatedEvent(Long orderId, OrderEntity.OrderStatus status, BigDecimal totalPrice,
+        List<Long> menuItemIds) {
+}
@@ -0,0 +1,9 @@
+package com.cs_25_2_team2.RestaurantManagementApp.services;
+
+/**
+ * Published after an order's kitchen queue entry is created or one of its timestamps changes.
+ *
+ * @param orderId ID of the order the queue entry belongs to
+ */
+public record OrderQueueChangedEvent(Long orderId) {
+}
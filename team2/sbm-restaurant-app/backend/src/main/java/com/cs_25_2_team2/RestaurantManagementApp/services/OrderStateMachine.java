@@ -0,0 +1,208 @@
+package com.cs_25_2_team2.RestaurantManagementApp.services;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cs_25_2_team2.RestaurantManagementApp.entities.OrderEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.entities.OrderQueueEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.entities.StaffEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.exceptions.InvalidOrderStateException;
+import com.cs_25_2_team2.RestaurantManagementApp.exceptions.OrderNotFoundException;
+import com.cs_25_2_team2.RestaurantManagementApp.repositories.OrderQueueRepository;
+import com.cs_25_2_team2.RestaurantManagementApp.repositories.OrderRepository;
+
+/**
+ * Order status transitions shared by every endpoint that moves an order along its lifecycle.
+ *
+ * A transition reads the order, checks the move against {@link #isValidTransition}, and writes it
+ * with one conditional UPDATE that only matches while the order still has the status and version
+ * that were read. Of several callers racing on the same order exactly one update matches; the
+ * others re-read the order and either find the move no longer valid (another caller already made
+ * it) or, if only the version moved, retry after a short randomized backoff.
+ *
+ * Each attempt runs in a transaction of its own and the backoff sleeps between transactions, so a
+ * retrying caller holds no connection or row lock while it waits and re-reads through a fresh
+ * persistence context. Callers should not wrap a transition in their own transaction, which the
+ * attempts would join.
+ *
+ * The order's kitchen queue entry, if it has one, is stamped with the time of the move in the same
+ * transaction, so the after-commit {@link OrderStatusChangedEvent} always sees the status and the
+ * queue column agree, and a failure leaves neither written.
+ *
+ * @author Team 2
+ * @version 1.0
+ */
+@Service
+public class OrderStateMachine {
+
+    private final OrderRepository orderRepository;
+    private final OrderQueueRepository orderQueueRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionOperations transactions;
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    @Autowired
+    public OrderStateMachine(OrderRepository orderRepository, OrderQueueRepository orderQueueRepository,
+            ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+            @Value("${restaurant.orders.transition.max-attempts:5}") int maxAttempts,
+            @Value("${restaurant.orders.transition.backoff-ms:10}") long backoffMillis) {
+        this(orderRepository, orderQueueRepository, eventPublisher, new TransactionTemplate(transactionManager),
+                maxAttempts, backoffMillis);
+    }
+
+    /**
+     * State machine whose attempts run without a transaction of their own, for repositories that
+     * are not backed by a database (unit tests)
+     */
+    public OrderStateMachine(OrderRepository orderRepository, OrderQueueRepository orderQueueRepository,
+            ApplicationEventPublisher eventPublisher, int maxAttempts, long backoffMillis) {
+        this(orderRepository, orderQueueRepository, eventPublisher, TransactionOperations.withoutTransaction(),
+                maxAttempts, backoffMillis);
+    }
+
+    OrderStateMachine(OrderRepository orderRepository, OrderQueueRepository orderQueueRepository,
+            ApplicationEventPublisher eventPublisher, TransactionOperations transactions,
+            int maxAttempts, long backoffMillis) {
+        if (maxAttempts < 1 || backoffMillis < 0) {
+            throw new IllegalArgumentException("Transition attempts must be positive and backoff non-negative");
+        }
+        this.orderRepository = orderRepository;
+        this.orderQueueRepository = orderQueueRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactions = transactions;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+    }
+
+    /**
+     * Whether an order may move directly from one status to another
+     */
+    public static boolean isValidTransition(OrderEntity.OrderStatus from, OrderEntity.OrderStatus to) {
+        if (from == null || to == null) {
+            return false;
+        }
+        switch (from) {
+            case Pending:
+                return to == OrderEntity.OrderStatus.Placed;
+            case Placed:
+                return to == OrderEntity.OrderStatus.Preparing;
+            case Preparing:
+                return to == OrderEntity.OrderStatus.ReadyForDelivery;
+            case ReadyForDelivery:
+                return to == OrderEntity.OrderStatus.OutForDelivery;
+            case OutForDelivery:
+                return to == OrderEntity.OrderStatus.Delivered;
+            case Delivered:
+                return false; // No transitions from delivered
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Move an order to a new status
+     *
+     * @throws OrderNotFoundException if the order does not exist
+     * @throws InvalidOrderStateException if the order's current status does not allow the move
+     * @throws OptimisticLockingFailureException if the order kept changing for every attempt
+     */
+    public OrderEntity transition(Long orderId, OrderEntity.OrderStatus newStatus) {
+        return transition(orderId, newStatus, null);
+    }
+
+    /**
+     * Move an order to a new status and, unless chef is null, assign it to that chef in the same
+     * update
+     *
+     * @throws OrderNotFoundException if the order does not exist
+     * @throws InvalidOrderStateException if the order's current status does not allow the move
+     * @throws OptimisticLockingFailureException if the order kept changing for every attempt
+     */
+    public OrderEntity transition(Long orderId, OrderEntity.OrderStatus newStatus, StaffEntity chef) {
+        for (int attempt = 1; ; attempt++) {
+            OrderEntity moved = transactions.execute(status -> attemptTransition(orderId, newStatus, chef));
+            if (moved != null) {
+                return moved;
+            }
+            if (attempt >= maxAttempts) {
+                throw new OptimisticLockingFailureException(
+                        "Order #" + orderId + " changed concurrently " + attempt + " times; giving up");
+            }
+            backOff(orderId, attempt);
+        }
+    }
+
+    /**
+     * One read-check-update attempt, run inside its own transaction
+     *
+     * @return The moved order, or null if it changed between the read and the conditional update
+     */
+    private OrderEntity attemptTransition(Long orderId, OrderEntity.OrderStatus newStatus, StaffEntity chef) {
+        OrderEntity order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new OrderNotFoundException("Order #" + orderId + " not found in the system."));
+        OrderEntity.OrderStatus currentStatus = order.getStatus();
+        if (!isValidTransition(currentStatus, newStatus)) {
+            throw new InvalidOrderStateException(String.format(
+                    "Cannot move Order #%d from '%s' to '%s'", orderId, currentStatus, newStatus));
+        }
+
+        int updated = chef == null
+                ? orderRepository.transitionStatus(orderId, currentStatus, order.getVersion(), newStatus)
+                : orderRepository.transitionStatusAndAssignChef(orderId, currentStatus, order.getVersion(),
+                        newStatus, chef);
+        if (updated != 1) {
+            return null;
+        }
+        stampQueueEntry(orderId, newStatus);
+        StaffEntity assignedChef = chef != null ? chef : order.getAssignedChef();
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(orderId, currentStatus, newStatus,
+                assignedChef == null ? null : assignedChef.getStaffId()));
+        return orderRepository.findById(orderId).orElse(order);
+    }
+
+    /**
+     * Record when the order reached its new status on its kitchen queue entry
+     */
+    private void stampQueueEntry(Long orderId, OrderEntity.OrderStatus newStatus) {
+        orderQueueRepository.findByOrderOrderId(orderId).ifPresent(queueEntry -> {
+            LocalDateTime now = LocalDateTime.now();
+            switch (newStatus) {
+                case Preparing -> queueEntry.setStartedPreparingAt(now);
+                case ReadyForDelivery -> queueEntry.setReadyForDeliveryAt(now);
+                case OutForDelivery -> queueEntry.setOutForDeliveryAt(now);
+                case Delivered -> queueEntry.setDeliveredAt(now);
+                default -> {
+                    return;
+                }
+            }
+            orderQueueRepository.save(queueEntry);
+        });
+    }
+
+    /**
+     * Sleep for a random time up to backoff * 2^(attempt - 1) so retrying callers spread out
+     */
+    private void backOff(Long orderId, int attempt) {
+        long ceiling = backoffMillis << Math.min(attempt - 1, 10);
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OptimisticLockingFailureException("Interrupted while retrying Order #" + orderId);
+        }
+    }
+}
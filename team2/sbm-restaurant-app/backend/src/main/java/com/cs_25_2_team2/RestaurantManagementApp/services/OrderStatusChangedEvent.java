@@ -0,0 +1,15 @@
+package com.cs_25_2_team2.RestaurantManagementApp.services;
+
+import com.cs_25_2_team2.RestaurantManagementApp.entities.OrderEntity;
+
+/**
+ * Published after an order moves from one status to another.
+ *
+ * @param orderId ID of the order
+ * @param oldStatus Status before the transition
+ * @param newStatus Status after the transition
+ * @param chefId ID of the chef assigned to the order after the transition, if any
+ */
+public record OrderStatusChangedEvent(Long orderId, OrderEntity.OrderStatus oldStatus,
+        OrderEntity.OrderStatus newStatus, Long chefId) {
+}
@@ -0,0 +1,111 @@
+package com.cs_25_2_team2.RestaurantManagementApp.services;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.cs_25_2_team2.RestaurantManagementApp.SpaceSavingSketch;
+
+/**
+ * Rolling "most ordered in the last hour/day" tracker.
+ *
+ * Order lines are counted into one {@link SpaceSavingSketch} per 5 minute slot, in a ring that
+ * covers the last 24 hours. A top-N query merges the slots inside the requested window, so it
+ * never touches the database and costs the same regardless of how much order history exists.
+ * Counts are approximate (never under the true count) once more distinct items are ordered in a
+ * slot than the sketch monitors.
+ *
+ * @author Team 2
+ * @version 1.0
+ */
+@Component
+public class PopularMenuItemTracker {
+
+    static final Duration SLOT_WIDTH = Duration.ofMinutes(5);
+    static final Duration MAX_WINDOW = Duration.ofDays(1);
+    static final int ITEMS_PER_SLOT = 64;
+
+    private static final int SLOT_COUNT = (int) (MAX_WINDOW.toMillis() / SLOT_WIDTH.toMillis());
+
+    private final Clock clock;
+    private final long[] slotIds = new long[SLOT_COUNT];
+    private final SpaceSavingSketch<Long>[] slots;
+
+    @Autowired
+    public PopularMenuItemTracker() {
+        this(Clock.systemUTC());
+    }
+
+    @SuppressWarnings("unchecked")
+    PopularMenuItemTracker(Clock clock) {
+        this.clock = clock;
+        this.slots = new SpaceSavingSketch[SLOT_COUNT];
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            slots[i] = new SpaceSavingSketch<>(ITEMS_PER_SLOT);
+            slotIds[i] = -1;
+        }
+    }
+
+    /**
+     * Count the lines of a newly created order
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        if (event.menuItemIds() != null) {
+            record(event.menuItemIds());
+        }
+    }
+
+    /**
+     * Count one order line per menu item ID in the current slot
+     */
+    public synchronized void record(List<Long> menuItemIds) {
+        SpaceSavingSketch<Long> slot = currentSlot();
+        for (Long menuItemId : menuItemIds) {
+            if (menuItemId != null) {
+                slot.offer(menuItemId);
+            }
+        }
+    }
+
+    /**
+     * Most ordered menu items within the given window (at most 24 hours), highest count first
+     */
+    public synchronized List<SpaceSavingSketch.Entry<Long>> top(int limit, Duration window) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        if (window == null || window.isNegative() || window.isZero() || window.compareTo(MAX_WINDOW) > 0) {
+            throw new IllegalArgumentException("Window must be between 0 and " + MAX_WINDOW);
+        }
+
+        long current = slotId();
+        long oldest = current - (window.toMillis() + SLOT_WIDTH.toMillis() - 1) / SLOT_WIDTH.toMillis() + 1;
+        SpaceSavingSketch<Long> merged = new SpaceSavingSketch<>(Math.max(ITEMS_PER_SLOT, limit));
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            if (slotIds[i] >= oldest && slotIds[i] <= current) {
+                merged.merge(slots[i]);
+            }
+        }
+        return merged.top(limit);
+    }
+
+    private SpaceSavingSketch<Long> currentSlot() {
+        long id = slotId();
+        int index = (int) (id % SLOT_COUNT);
+        if (slotIds[index] != id) {
+            // Slot last held data from a day ago (or never used); recycle it
+            slots[index].clear();
+            slotIds[index] = id;
+        }
+        return slots[index];
+    }
+
+    private long slotId() {
+        return clock.millis() / SLOT_WIDTH.toMillis();
+    }
+}
@@ -0,0 +1,11 @@
+package com.cs_25_2_team2.RestaurantManagementApp.services;
+
+/**
+ * Published after a customer or staff member is created, updated or deleted.
+ *
+ * @param username Username of the principal, if known
+ * @param type Customer or staff
+ * @param id Customer or staff ID, if known
+ */
+public record PrincipalChangedEvent(String username, PrincipalDirectory.Type type, Long id) {
+}
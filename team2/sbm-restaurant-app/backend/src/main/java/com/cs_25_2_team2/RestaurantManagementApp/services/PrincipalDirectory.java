@@ -0,0 +1,198 @@
+package com.cs_25_2_team2.RestaurantManagementApp.services;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.cs_25_2_team2.RestaurantManagementApp.entities.CustomerEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.entities.StaffEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.repositories.CustomerRepository;
+import com.cs_25_2_team2.RestaurantManagementApp.repositories.StaffRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+/**
+ * In-process directory of usernames: which table a username lives in, its ID and its role.
+ *
+ * Resolving a username used to mean querying customers and then staff, two round trips for every
+ * staff member and every unknown name. Here it is one cache lookup; only a miss queries the
+ * database, customers first as before. Unknown usernames are cached too, for a shorter TTL, so
+ * repeated guesses do not reach the database. Entries are bounded by size. An entry keeps the
+ * entity it was loaded from, so a login for a cached username needs no query at all.
+ *
+ * Writes invalidate through {@link PrincipalChangedEvent} once their transaction commits (or
+ * directly through {@link #invalidate} and {@link #evict}). As in {@link MenuReadCache}, a load
+ * that raced with an invalidation is served once but not kept. A reverse index from customer or
+ * staff ID to cached usernames makes eviction by ID a direct lookup instead of a cache scan.
+ *
+ * @author Team 2
+ * @version 1.0
+ */
+@Component
+public class PrincipalDirectory {
+
+    public enum Type { CUSTOMER, STAFF }
+
+    /**
+     * Where a username lives
+     *
+     * @param type Customer or staff table
+     * @param id Customer or staff ID
+     * @param role CUSTOMER, or the staff role in upper case (as used for the session userType)
+     * @param user The {@link CustomerEntity} or {@link StaffEntity} as loaded; shared, so read-only
+     */
+    public record Principal(Type type, Long id, String role, Object user) {
+    }
+
+    private final CustomerRepository customerRepository;
+    private final StaffRepository staffRepository;
+    private final Cache<String, Optional<Principal>> cache;
+    private final Map<PrincipalId, Set<String>> usernamesById = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    private record PrincipalId(Type type, Long id) {
+    }
+
+    @Autowired
+    public PrincipalDirectory(CustomerRepository customerRepository, StaffRepository staffRepository,
+            @Value("${restaurant.users.directory.max-entries:10000}") long maxEntries,
+            @Value("${restaurant.users.directory.ttl-seconds:600}") long ttlSeconds,
+            @Value("${restaurant.users.directory.negative-ttl-seconds:30}") long negativeTtlSeconds) {
+        this.customerRepository = customerRepository;
+        this.staffRepository = staffRepository;
+        long ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        long negativeTtlNanos = Duration.ofSeconds(negativeTtlSeconds).toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<String, Optional<Principal>>() {
+                    @Override
+                    public long expireAfterCreate(String username, Optional<Principal> principal, long currentTime) {
+                        return principal.isPresent() ? ttlNanos : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String username, Optional<Principal> principal, long currentTime,
+                            long currentDuration) {
+                        return expireAfterCreate(username, principal, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String username, Optional<Principal> principal, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                // Runs atomically with the size or TTL eviction of that username
+                .evictionListener((String username, Optional<Principal> principal, RemovalCause cause) ->
+                        untrack(username, principal))
+                .build();
+    }
+
+    /**
+     * Principal for a username, loaded from the database on a miss
+     */
+    public Optional<Principal> find(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        long before = generation.get();
+        Optional<Principal> principal = cache.get(username, this::load);
+        if (generation.get() != before) {
+            // A write landed while this was loading; serve it once but do not keep it
+            if (cache.asMap().remove(username, principal)) {
+                untrack(username, principal);
+            }
+        }
+        return principal;
+    }
+
+    /**
+     * Forget a username (e.g. it was just registered, so a cached "unknown" is wrong)
+     */
+    public void invalidate(String username) {
+        generation.incrementAndGet();
+        if (username != null) {
+            untrack(username, cache.asMap().remove(username));
+        }
+    }
+
+    /**
+     * Forget whatever username maps to a customer or staff ID (updated or deleted)
+     */
+    public void evict(Type type, Long id) {
+        generation.incrementAndGet();
+        PrincipalId key = new PrincipalId(type, id);
+        Set<String> usernames = usernamesById.remove(key);
+        if (usernames != null) {
+            // Only drop names that still map to this ID; one may have been reused since
+            usernames.forEach(username -> cache.asMap().computeIfPresent(username, (name, principal) ->
+                    principal.map(found -> key.equals(new PrincipalId(found.type(), found.id()))).orElse(false)
+                            ? null : principal));
+        }
+    }
+
+    /**
+     * A customer or staff member was created, updated or deleted
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPrincipalChanged(PrincipalChangedEvent event) {
+        invalidate(event.username());
+        if (event.id() != null) {
+            evict(event.type(), event.id());
+        }
+    }
+
+    /**
+     * Number of cached usernames, known and unknown
+     */
+    public long size() {
+        return cache.asMap().size();
+    }
+
+    /**
+     * Number of customer and staff IDs in the reverse index
+     */
+    int indexedIds() {
+        return usernamesById.size();
+    }
+
+    private Optional<Principal> load(String username) {
+        Optional<Principal> principal = lookUp(username);
+        principal.filter(found -> found.id() != null).ifPresent(found -> usernamesById
+                .computeIfAbsent(new PrincipalId(found.type(), found.id()), key -> ConcurrentHashMap.newKeySet())
+                .add(username));
+        return principal;
+    }
+
+    private Optional<Principal> lookUp(String username) {
+        Optional<CustomerEntity> customer = customerRepository.findByUsername(username);
+        if (customer.isPresent()) {
+            return Optional.of(new Principal(Type.CUSTOMER, customer.get().getCustomerId(), "CUSTOMER",
+                    customer.get()));
+        }
+        Optional<StaffEntity> staff = staffRepository.findByUsername(username);
+        return staff.map(found -> new Principal(Type.STAFF, found.getStaffId(),
+                found.getRole() == null ? null : found.getRole().name().toUpperCase(), found));
+    }
+
+    private void untrack(String username, Optional<Principal> principal) {
+        if (principal == null || principal.isEmpty() || principal.get().id() == null) {
+            return;
+        }
+        usernamesById.computeIfPresent(new PrincipalId(principal.get().type(), principal.get().id()),
+                (key, usernames) -> {
+                    usernames.remove(username);
+                    return usernames.isEmpty() ? null : usernames;
+                });
+    }
+}
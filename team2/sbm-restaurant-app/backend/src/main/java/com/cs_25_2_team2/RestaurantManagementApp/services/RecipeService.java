@@ -1,14 +1,78 @@
 package com.cs_25_2_team2.RestaurantManagementApp.services;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.util.retry.Retry;
 
+/**
+ * Spoonacular recipe search.
+ *
+ * One WebClient with its own bounded connection pool is shared by every call, with connect and
+ * response timeouts; the API key travels in the x-api-key header rather than the query string.
+ * Results are cached per page size for a TTL, and concurrent requests for the same page size share
+ * one upstream call. Page sizes are limited to Spoonacular's 1..100 and the cache keeps at most a
+ * few of them, least recently used first out. A consecutive-failure circuit breaker stops calling Spoonacular while it is
+ * failing or slow; in the meantime, and whenever a call fails, the last good payload for that page
+ * size is served if there is one.
+ *
+ * @author Team 2
+ * @version 1.0
+ */
 @Service
 public class RecipeService {
-    private final WebClient.Builder webClientBuilder;
+
+    private static final String SEARCH_PATH = "/recipes/complexSearch";
+    private static final Duration RETRY_BACKOFF = Duration.ofMillis(100);
+    private static final int MAX_CACHED_PAGE_SIZES = 16;
+
+    /** Largest page size Spoonacular's complex search accepts */
+    public static final int MAX_RECIPES = 100;
+
+    /**
+     * Spoonacular could not be reached (or its circuit is open) and nothing is cached to fall back on
+     */
+    public static class RecipesUnavailableException extends RuntimeException {
+        public RecipesUnavailableException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /** Last good payload for one page size */
+    private record CachedRecipes(String body, Instant fetchedAt) {}
+
+    private final WebClient webClient;
+    private final ConnectionProvider connectionProvider;
+    private final Duration timeout;
+    private final Duration cacheTtl;
+    private final CircuitBreaker breaker;
+    private final Clock clock;
+    // Entries outlive the TTL on purpose: a stale payload is the fallback while Spoonacular fails
+    private final Cache<Integer, CachedRecipes> cache = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_PAGE_SIZES)
+            .build();
+    private final Map<Integer, Mono<String>> inFlight = new ConcurrentHashMap<>();
 
     @Value("${Spoonacular_API_Key}")
         private String spoonKey;
@@ -18,21 +82,196 @@ public class RecipeService {
             this.spoonKey = spoonKey;
         }
 
-    public RecipeService(WebClient.Builder webClientBuilder) {
-        this.webClientBuilder = webClientBuilder;
+    @Autowired
+    public RecipeService(WebClient.Builder webClientBuilder,
+            @Value("${restaurant.recipes.base-url:https://api.spoonacular.com}") String baseUrl,
+            @Value("${restaurant.recipes.timeout-ms:3000}") long timeoutMillis,
+            @Value("${restaurant.recipes.cache-ttl-seconds:600}") long cacheTtlSeconds,
+            @Value("${restaurant.recipes.breaker.failure-threshold:3}") int failureThreshold,
+            @Value("${restaurant.recipes.breaker.open-ms:30000}") long openMillis,
+            @Value("${restaurant.recipes.max-connections:16}") int maxConnections) {
+        this(webClientBuilder, baseUrl, Duration.ofMillis(timeoutMillis), Duration.ofSeconds(cacheTtlSeconds),
+                failureThreshold, Duration.ofMillis(openMillis), maxConnections, Clock.systemUTC());
+    }
+
+    RecipeService(WebClient.Builder webClientBuilder, String baseUrl, Duration timeout, Duration cacheTtl,
+            int failureThreshold, Duration openDuration, int maxConnections, Clock clock) {
+        if (timeout.isNegative() || timeout.isZero() || failureThreshold < 1 || maxConnections < 1) {
+            throw new IllegalArgumentException("Timeout, failure threshold and connections must be positive");
+        }
+        this.timeout = timeout;
+        this.cacheTtl = cacheTtl;
+        this.clock = clock;
+        this.breaker = new CircuitBreaker(failureThreshold, openDuration, clock);
+        this.connectionProvider = ConnectionProvider.builder("spoonacular")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(timeout)
+                .maxIdleTime(Duration.ofSeconds(30))
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) Math.min(timeout.toMillis(), Integer.MAX_VALUE))
+                .responseTimeout(timeout);
+        // The builder bean is shared; configure a copy
+        this.webClient = webClientBuilder.clone()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
     }
 
+    /**
+     * Potato recipes from Spoonacular's complex search, as the raw JSON payload
+     *
+     * @param number Number of recipes to return, 1 to {@link #MAX_RECIPES}; also the cache key
+     * @return The payload; a cached one while fresh, or the last good one if Spoonacular fails
+     */
     public Mono<String> fetchPotatoRecipes(int number) {
-        String url = "https://api.spoonacular.com/recipes/complexSearch";
-        return webClientBuilder.build()
-            .get()
-            .uri(uriBuilder -> uriBuilder
-                .path(url)
-                .queryParam("query", "potato")
-                .queryParam("number", number)
-                .queryParam("apiKey", spoonKey)
-                .build())
-            .retrieve()
-            .bodyToMono(String.class);
+        if (number < 1 || number > MAX_RECIPES) {
+            return Mono.error(new IllegalArgumentException("number must be between 1 and " + MAX_RECIPES));
+        }
+        return Mono.defer(() -> {
+            CachedRecipes cached = cache.getIfPresent(number);
+            if (cached != null && cached.fetchedAt().plus(cacheTtl).isAfter(clock.instant())) {
+                return Mono.just(cached.body());
+            }
+            Mono<String> call = inFlight.get(number);
+            if (call == null) {
+                if (!breaker.allowRequest()) {
+                    return fallback(number, new RecipesUnavailableException(
+                            "Spoonacular circuit is open after repeated failures", null));
+                }
+                call = inFlight.computeIfAbsent(number, this::newCall);
+            }
+            return call.onErrorResume(e -> fallback(number, e));
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        connectionProvider.dispose();
+    }
+
+    CircuitBreaker.State breakerState() {
+        return breaker.state();
+    }
+
+    /**
+     * One upstream call, shared by every caller asking for the same page size until it completes
+     */
+    private Mono<String> newCall(int number) {
+        AtomicReference<Mono<String>> self = new AtomicReference<>();
+        Mono<String> call = webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                    .path(SEARCH_PATH)
+                    .queryParam("query", "potato")
+                    .queryParam("number", number)
+                    .build())
+                .header("x-api-key", spoonKey)
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(timeout)
+                .retryWhen(Retry.backoff(1, RETRY_BACKOFF)
+                        .filter(RecipeService::isRetryable)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .doOnNext(body -> cache.put(number, new CachedRecipes(body, clock.instant())))
+                .doOnSuccess(body -> breaker.recordSuccess())
+                .doOnError(e -> {
+                    if (isUpstreamFailure(e)) {
+                        breaker.recordFailure();
+                    } else {
+                        breaker.recordSuccess(); // Spoonacular answered; the request itself was rejected
+                    }
+                })
+                .doFinally(signal -> inFlight.remove(number, self.get()))
+                .cache();
+        self.set(call);
+        return call;
+    }
+
+    private Mono<String> fallback(int number, Throwable error) {
+        CachedRecipes stale = cache.getIfPresent(number);
+        if (stale != null) {
+            return Mono.just(stale.body());
+        }
+        if (error instanceof RecipesUnavailableException || !isUpstreamFailure(error)) {
+            return Mono.error(error);
+        }
+        return Mono.error(new RecipesUnavailableException("Spoonacular is unavailable: " + error.getMessage(), error));
+    }
+
+    /** Connection failures and gateway errors are worth one quick retry; timeouts are not */
+    private static boolean isRetryable(Throwable e) {
+        if (e instanceof WebClientRequestException) {
+            return true;
+        }
+        if (e instanceof WebClientResponseException response) {
+            int status = response.getStatusCode().value();
+            return status == 502 || status == 503 || status == 504;
+        }
+        return false;
+    }
+
+    /** Failures that say Spoonacular is down, slow or throttling us, as opposed to a rejected request */
+    private static boolean isUpstreamFailure(Throwable e) {
+        if (e instanceof TimeoutException || e instanceof WebClientRequestException) {
+            return true;
+        }
+        if (e instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError() || response.getStatusCode().value() == 429;
+        }
+        return false;
+    }
+
+    /**
+     * Opens after a number of consecutive upstream failures; once the open period has passed, lets a
+     * single trial call through, which closes it on success or reopens it on failure
+     */
+    static final class CircuitBreaker {
+
+        enum State { CLOSED, OPEN, HALF_OPEN }
+
+        private final int failureThreshold;
+        private final Duration openDuration;
+        private final Clock clock;
+        private State state = State.CLOSED;
+        private int consecutiveFailures;
+        private Instant openedAt;
+
+        CircuitBreaker(int failureThreshold, Duration openDuration, Clock clock) {
+            this.failureThreshold = failureThreshold;
+            this.openDuration = openDuration;
+            this.clock = clock;
+        }
+
+        synchronized boolean allowRequest() {
+            switch (state) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (clock.instant().isBefore(openedAt.plus(openDuration))) {
+                        return false;
+                    }
+                    state = State.HALF_OPEN;
+                    return true;
+                default:
+                    return false; // The trial call is still in flight
+            }
+        }
+
+        synchronized void recordSuccess() {
+            consecutiveFailures = 0;
+            state = State.CLOSED;
+        }
+
+        synchronized void recordFailure() {
+            consecutiveFailures++;
+            if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+                state = State.OPEN;
+                openedAt = clock.instant();
+            }
+        }
+
+        synchronized State state() {
+            return state;
+        }
     }
 }
@@ -0,0 +1,132 @@
+package com.cs_25_2_team2.RestaurantManagementApp.services;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.cs_25_2_team2.RestaurantManagementApp.entities.OrderEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.entities.StaffEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.repositories.OrderRepository;
+import com.cs_25_2_team2.RestaurantManagementApp.repositories.StaffRepository;
+
+/**
+ * Incrementally maintained restaurant metrics.
+ *
+ * Counters are updated from {@link OrderCreatedEvent} and {@link OrderStatusChangedEvent}
+ * once the publishing transaction commits, so reading the metrics is a lock-free read of
+ * a few atomics instead of six aggregate queries. A periodic reconciliation reloads every
+ * counter from the database, which corrects drift from writes that bypass the events
+ * (e.g. controllers saving orders directly) and ages orders out of the 24 hour window.
+ *
+ * @author Team 2
+ * @version 1.0
+ */
+@Component
+public class RestaurantMetricsStore {
+
+    private final OrderRepository orderRepository;
+    private final StaffRepository staffRepository;
+
+    private final AtomicLong totalOrders = new AtomicLong();
+    private final AtomicLong ordersToday = new AtomicLong();
+    private final AtomicReference<BigDecimal> revenueToday = new AtomicReference<>(BigDecimal.ZERO);
+    private final Map<OrderEntity.OrderStatus, AtomicLong> ordersByStatus =
+            new EnumMap<>(OrderEntity.OrderStatus.class);
+    private final AtomicLong totalChefs = new AtomicLong();
+    private final AtomicLong totalDelivery = new AtomicLong();
+    private volatile boolean reconciled;
+
+    public RestaurantMetricsStore(OrderRepository orderRepository, StaffRepository staffRepository) {
+        this.orderRepository = orderRepository;
+        this.staffRepository = staffRepository;
+        for (OrderEntity.OrderStatus status : OrderEntity.OrderStatus.values()) {
+            ordersByStatus.put(status, new AtomicLong());
+        }
+    }
+
+    /**
+     * Current metrics. Only the first call (before any reconciliation) touches the database.
+     */
+    public RestaurantService.RestaurantMetrics snapshot() {
+        if (!reconciled) {
+            reconcile();
+        }
+
+        RestaurantService.RestaurantMetrics metrics = new RestaurantService.RestaurantMetrics();
+        metrics.totalOrders = totalOrders.get();
+        metrics.ordersToday = ordersToday.get();
+        metrics.pendingOrders = ordersByStatus.get(OrderEntity.OrderStatus.Placed).get();
+        metrics.preparingOrders = ordersByStatus.get(OrderEntity.OrderStatus.Preparing).get();
+        metrics.totalChefs = totalChefs.get();
+        metrics.availableChefs = metrics.totalChefs; // Simplified - assume all available
+        metrics.totalDelivery = totalDelivery.get();
+        metrics.availableDelivery = metrics.totalDelivery; // Simplified - assume all available
+        metrics.revenueToday = revenueToday.get();
+        return metrics;
+    }
+
+    /**
+     * Count a newly created order
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        totalOrders.incrementAndGet();
+        ordersToday.incrementAndGet();
+        if (event.status() != null) {
+            ordersByStatus.get(event.status()).incrementAndGet();
+        }
+        if (event.totalPrice() != null) {
+            revenueToday.accumulateAndGet(event.totalPrice(), BigDecimal::add);
+        }
+    }
+
+    /**
+     * Move an order between status counters
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if (event.oldStatus() == event.newStatus()) {
+            return;
+        }
+        if (event.oldStatus() != null) {
+            ordersByStatus.get(event.oldStatus()).decrementAndGet();
+        }
+        if (event.newStatus() != null) {
+            ordersByStatus.get(event.newStatus()).incrementAndGet();
+        }
+    }
+
+    /**
+     * Reload every counter from the database. Events that land while this runs may be
+     * overwritten; the next reconciliation picks them up.
+     */
+    @Scheduled(fixedDelayString = "${restaurant.metrics.reconcile-interval-ms:30000}",
+            initialDelayString = "${restaurant.metrics.reconcile-interval-ms:30000}")
+    public synchronized void reconcile() {
+        LocalDateTime since = LocalDateTime.now().minusDays(1);
+
+        totalOrders.set(orderRepository.count());
+        ordersToday.set(orderRepository.countByCreatedAtAfter(since));
+        Map<OrderEntity.OrderStatus, Long> statusCounts = new EnumMap<>(OrderEntity.OrderStatus.class);
+        for (Object[] row : orderRepository.countGroupedByStatus()) {
+            statusCounts.put((OrderEntity.OrderStatus) row[0], (Long) row[1]);
+        }
+        for (OrderEntity.OrderStatus status : OrderEntity.OrderStatus.values()) {
+            ordersByStatus.get(status).set(statusCounts.getOrDefault(status, 0L));
+        }
+        totalChefs.set(staffRepository.countByRole(StaffEntity.StaffRole.Chef));
+        totalDelivery.set(staffRepository.countByRole(StaffEntity.StaffRole.Delivery));
+
+        BigDecimal revenue = orderRepository.sumTotalPriceByCreatedAtAfter(since);
+        revenueToday.set(revenue == null ? BigDecimal.ZERO : revenue);
+
+        reconciled = true;
+    }
+}
@@ -1,12 +1,18 @@
 package com.cs_25_2_team2.RestaurantManagementApp.services;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.cs_25_2_team2.RestaurantManagementApp.entities.CartEntity;
@@ -68,6 +74,34 @@ public class RestaurantService {
     @Autowired
     private StaffRepository staffRepository;
 
+    @Autowired
+    private RestaurantMetricsStore metricsStore;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PopularMenuItemTracker popularMenuItemTracker;
+
+    @Autowired
+    private ChefLoadCounters chefLoadCounters;
+
+    @Autowired
+    private OrderStateMachine orderStateMachine;
+
+    /**
+     * How chef workload (orders in Preparing) is measured when assigning a new order
+     */
+    public enum ChefAssignmentStrategy {
+        /** One aggregate query returning every chef's preparing count */
+        AGGREGATE_QUERY,
+        /** In-memory per-chef counters ({@link ChefLoadCounters}), kept in sync by committed status transitions */
+        IN_MEMORY_COUNTER
+    }
+
+    @Value("${restaurant.chef-assignment.strategy:AGGREGATE_QUERY}")
+    private ChefAssignmentStrategy chefAssignmentStrategy = ChefAssignmentStrategy.AGGREGATE_QUERY;
+
     // ===== ADVANCED CART MANAGEMENT =====
 
     /**
@@ -145,23 +179,32 @@ public class RestaurantService {
         CustomerEntity customer = customerRepository.findById(customerId)
                 .orElseThrow(() -> new RuntimeException("Customer not found"));
         
-        CartEntity cart = customer.getCart();
+        clearCartItems(customer.getCart());
+    }
+
+    /**
+     * Remove every item from an already-loaded cart with one bulk delete
+     */
+    private void clearCartItems(CartEntity cart) {
         if (cart != null && !cart.getCartItems().isEmpty()) {
-            cartItemRepository.deleteAll(cart.getCartItems());
+            cartItemRepository.deleteAllByCartId(cart.getCartId());
             cart.getCartItems().clear();
-            cartRepository.save(cart);
         }
     }
 
     // ===== ADVANCED ORDER PROCESSING =====
 
     /**
-     * Complete order checkout with full business logic
+     * Complete order checkout with full business logic.
+     * The customer is loaded with its cart lines and their menu items in one query, order
+     * items are written with one batched saveAll, the cart is cleared with one bulk delete,
+     * and the loaded customer/order are reused, so the number of round trips does not grow
+     * with the number of cart lines.
      */
     @Transactional
     public OrderEntity processOrderCheckout(Long customerId, String cardNumber, String cardholderName, 
                                           int expiryMonth, int expiryYear, String cvv) {
-        CustomerEntity customer = customerRepository.findById(customerId)
+        CustomerEntity customer = customerRepository.findByIdWithCartItems(customerId)
                 .orElseThrow(() -> new RuntimeException("Customer not found"));
         
         CartEntity cart = customer.getCart();
@@ -188,26 +231,31 @@ public class RestaurantService {
         order = orderRepository.save(order);
         
         // Create order items from cart items
+        List<OrderItemEntity> orderItems = new ArrayList<>(cart.getCartItems().size());
+        List<Long> menuItemIds = new ArrayList<>(cart.getCartItems().size());
         for (CartItemEntity cartItem : cart.getCartItems()) {
+            menuItemIds.add(cartItem.getMenuItem().getDishId());
             BigDecimal unitPrice = cartItem.getMenuItem().getPrice();
             BigDecimal subtotal = unitPrice.multiply(BigDecimal.valueOf(cartItem.getQuantity()));
             
-            OrderItemEntity orderItem = new OrderItemEntity(order, cartItem.getMenuItem(), 
-                                                           cartItem.getQuantity(), unitPrice, subtotal);
-            orderItemRepository.save(orderItem);
+            orderItems.add(new OrderItemEntity(order, cartItem.getMenuItem(), 
+                                               cartItem.getQuantity(), unitPrice, subtotal));
         }
+        orderItemRepository.saveAll(orderItems);
+        order.setOrderItems(orderItems);
+        eventPublisher.publishEvent(new OrderCreatedEvent(order.getOrderId(), order.getStatus(),
+                order.getTotalPrice(), menuItemIds));
         
         // Create order queue entry
         OrderQueueEntity queueEntry = new OrderQueueEntity(order);
         orderQueueRepository.save(queueEntry);
+        order.setOrderQueue(queueEntry);
         
         // Clear cart after successful order
-        clearCart(customerId);
+        clearCartItems(cart);
         
         // Assign chef if available
-        assignChefToOrder(order.getOrderId());
-        
-        return order;
+        return assignChef(order);
     }
 
     /**
@@ -216,26 +264,19 @@ public class RestaurantService {
     public OrderEntity assignChefToOrder(Long orderId) {
         OrderEntity order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
-        
+        return assignChef(order);
+    }
+
+    /**
+     * Assign available chef to an already-loaded order
+     */
+    private OrderEntity assignChef(OrderEntity order) {
         if (order.getAssignedChef() != null) {
             return order; // Already assigned
         }
         
-        // Find chefs and assign to one with least current orders
-        List<StaffEntity> availableChefs = staffRepository.findByRole(StaffEntity.StaffRole.Chef);
-        
-        if (!availableChefs.isEmpty()) {
-            // Simple load balancing - assign to chef with fewest current orders
-            StaffEntity selectedChef = availableChefs.stream()
-                    .min((chef1, chef2) -> {
-                        long count1 = orderRepository.countByAssignedChefAndStatus(
-                                chef1, OrderEntity.OrderStatus.Preparing);
-                        long count2 = orderRepository.countByAssignedChefAndStatus(
-                                chef2, OrderEntity.OrderStatus.Preparing);
-                        return Long.compare(count1, count2);
-                    })
-                    .orElse(availableChefs.get(0));
-            
+        StaffEntity selectedChef = selectLeastLoadedChef();
+        if (selectedChef != null) {
             order.setAssignedChef(selectedChef);
             orderRepository.save(order);
         }
@@ -244,126 +285,129 @@ public class RestaurantService {
     }
 
     /**
-     * Update order status with business logic
+     * Chef with the fewest current orders (first one wins ties), or null if there are no chefs
      */
-    public OrderEntity updateOrderStatus(Long orderId, OrderEntity.OrderStatus newStatus) {
-        OrderEntity order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
-        
-        OrderEntity.OrderStatus currentStatus = order.getStatus();
-        
-        // Validate status transition
-        if (!isValidStatusTransition(currentStatus, newStatus)) {
-            throw new RuntimeException("Invalid status transition from " + currentStatus + " to " + newStatus);
+    private StaffEntity selectLeastLoadedChef() {
+        List<StaffEntity> availableChefs = staffRepository.findByRole(StaffEntity.StaffRole.Chef);
+        if (availableChefs.isEmpty()) {
+            return null;
         }
         
-        order.setStatus(newStatus);
-        
-        // Handle status-specific logic
-        switch (newStatus) {
-            case Pending:
-                // Pending is the initial state, no special handling needed
-                break;
-            case Placed:
-                // Placed after Pending, no special handling needed
-                break;
-            case Preparing:
-                if (order.getAssignedChef() == null) {
-                    assignChefToOrder(orderId);
-                }
-                break;
-            case ReadyForDelivery:
-                assignDeliveryToOrder(orderId);
-                break;
-            case OutForDelivery:
-                // Update delivery timestamp
-                break;
-            case Delivered:
-                // Complete order - in full implementation, could track completion metrics
-                break;
+        // Simple load balancing
+        Map<Long, Long> preparingCounts = getPreparingOrderCounts();
+        StaffEntity selectedChef = availableChefs.get(0);
+        long lowestCount = Long.MAX_VALUE;
+        for (StaffEntity chef : availableChefs) {
+            long count = preparingCounts.getOrDefault(chef.getStaffId(), 0L);
+            if (count < lowestCount) {
+                lowestCount = count;
+                selectedChef = chef;
+            }
+        }
+        return selectedChef;
+    }
+
+    /**
+     * Get the strategy used to measure chef workload
+     */
+    public ChefAssignmentStrategy getChefAssignmentStrategy() {
+        return chefAssignmentStrategy;
+    }
+
+    /**
+     * Switch the chef workload strategy at runtime (e.g. to benchmark both)
+     */
+    public void setChefAssignmentStrategy(ChefAssignmentStrategy chefAssignmentStrategy) {
+        if (chefAssignmentStrategy == null) {
+            throw new IllegalArgumentException("Chef assignment strategy cannot be null");
+        }
+        this.chefAssignmentStrategy = chefAssignmentStrategy;
+    }
+
+    /**
+     * Preparing-order count per chef ID, according to the configured strategy
+     */
+    private Map<Long, Long> getPreparingOrderCounts() {
+        if (chefAssignmentStrategy == ChefAssignmentStrategy.IN_MEMORY_COUNTER) {
+            return chefLoadCounters.snapshot();
+        }
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : staffRepository.countOrdersPerChefByStatus(OrderEntity.OrderStatus.Preparing)) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    /**
+     * Update order status with business logic.
+     * The move is made by {@link OrderStateMachine}'s conditional update, which also assigns a
+     * chef in the same statement when an unassigned order starts preparing. It runs outside this
+     * service's transaction so each retry commits on its own and backs off holding no connection.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public OrderEntity updateOrderStatus(Long orderId, OrderEntity.OrderStatus newStatus) {
+        StaffEntity chef = null;
+        if (newStatus == OrderEntity.OrderStatus.Preparing) {
+            OrderEntity order = orderRepository.findById(orderId)
+                    .orElseThrow(() -> new RuntimeException("Order not found"));
+            if (order.getAssignedChef() == null) {
+                chef = selectLeastLoadedChef();
+            }
         }
         
-        return orderRepository.save(order);
+        OrderEntity updated = orderStateMachine.transition(orderId, newStatus, chef);
+        if (newStatus == OrderEntity.OrderStatus.ReadyForDelivery) {
+            return assignDeliveryToOrder(updated);
+        }
+        return updated;
     }
 
     /**
      * Assign delivery staff to order
      */
-    private void assignDeliveryToOrder(Long orderId) {
-        OrderEntity order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
-        
+    private OrderEntity assignDeliveryToOrder(OrderEntity order) {
         List<StaffEntity> availableDelivery = staffRepository.findByRole(StaffEntity.StaffRole.Delivery);
         
         if (!availableDelivery.isEmpty()) {
             StaffEntity selectedDelivery = availableDelivery.get(0);
             order.setAssignedDelivery(selectedDelivery);
-            orderRepository.save(order);
-        }
-    }
-
-    /**
-     * Validate order status transitions
-     */
-    private boolean isValidStatusTransition(OrderEntity.OrderStatus from, OrderEntity.OrderStatus to) {
-        switch (from) {
-            case Pending:
-                return to == OrderEntity.OrderStatus.Placed;
-            case Placed:
-                return to == OrderEntity.OrderStatus.Preparing;
-            case Preparing:
-                return to == OrderEntity.OrderStatus.ReadyForDelivery;
-            case ReadyForDelivery:
-                return to == OrderEntity.OrderStatus.OutForDelivery;
-            case OutForDelivery:
-                return to == OrderEntity.OrderStatus.Delivered;
-            case Delivered:
-                return false; // No transitions from delivered
-            default:
-                return false;
+            return orderRepository.save(order);
         }
+        return order;
     }
 
     // ===== RESTAURANT ANALYTICS =====
 
     /**
-     * Get restaurant performance metrics
+     * Get restaurant performance metrics (served from incrementally maintained counters)
      */
     public RestaurantMetrics getRestaurantMetrics() {
-        RestaurantMetrics metrics = new RestaurantMetrics();
-        
-        // Order statistics
-        metrics.totalOrders = orderRepository.count();
-        metrics.ordersToday = orderRepository.countByCreatedAtAfter(LocalDateTime.now().minusDays(1));
-        metrics.pendingOrders = orderRepository.countByStatus(OrderEntity.OrderStatus.Placed);
-        metrics.preparingOrders = orderRepository.countByStatus(OrderEntity.OrderStatus.Preparing);
-        
-        // Staff statistics  
-        metrics.totalChefs = staffRepository.countByRole(StaffEntity.StaffRole.Chef);
-        metrics.availableChefs = metrics.totalChefs; // Simplified - assume all available
-        metrics.totalDelivery = staffRepository.countByRole(StaffEntity.StaffRole.Delivery);
-        metrics.availableDelivery = metrics.totalDelivery; // Simplified - assume all available
-        
-        // Revenue statistics (today)
-        metrics.revenueToday = orderRepository.sumTotalPriceByCreatedAtAfter(
-                LocalDateTime.now().minusDays(1));
-        if (metrics.revenueToday == null) {
-            metrics.revenueToday = BigDecimal.ZERO;
-        }
-        
-        return metrics;
+        return metricsStore.snapshot();
     }
 
     /**
-     * Get popular menu items
+     * Get the most ordered menu items of all time (top `limit` only)
      */
     public List<MenuItemPopularity> getPopularMenuItems(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
         List<Object[]> results = orderItemRepository.findPopularMenuItems(limit);
         return results.stream()
             .map(result -> new MenuItemPopularity((MenuItemEntity) result[0], (Long) result[1]))
             .toList();
     }
 
+    /**
+     * Get the most ordered menu items in a recent window (e.g. last hour or day, at most 24h).
+     * Answered from the in-memory tracker fed at checkout, without querying the database.
+     */
+    public List<MenuItemTrend> getTrendingMenuItems(int limit, Duration window) {
+        return popularMenuItemTracker.top(limit, window).stream()
+            .map(entry -> new MenuItemTrend(entry.key(), entry.count(), entry.error()))
+            .toList();
+    }
+
     // ===== DATA TRANSFER OBJECTS =====
 
     /**
@@ -393,4 +437,19 @@ public class RestaurantService {
             this.orderCount = orderCount;
         }
     }
+
+    /**
+     * Recent menu item popularity DTO (approximate: orderCount may overcount by at most maxError)
+     */
+    public static class MenuItemTrend {
+        public Long menuItemId;
+        public Long orderCount;
+        public Long maxError;
+
+        public MenuItemTrend(Long menuItemId, Long orderCount, Long maxError) {
+            this.menuItemId = menuItemId;
+            this.orderCount = orderCount;
+            this.maxError = maxError;
+        }
+    }
 }
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -43,31 +44,29 @@ public class UserService {
     
     @Autowired
     private CartRepository cartRepository;
+
+    @Autowired
+    private PrincipalDirectory principalDirectory;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
     
     /**
      * Authenticate user (Customer or Staff) by username and password
      */
     public Object authenticateUser(String username, String password) {
-        // First try to find customer
-        Optional<CustomerEntity> customer = customerRepository.findByUsername(username);
-        if (customer.isPresent()) {
-            // In a real app, you'd hash and compare passwords
-            // For now, we'll do a simple comparison (NOT SECURE - just for demo)
-            if (password.equals("password")) { // Demo password
-                return customer.get();
-            }
+        // Resolve the username from the directory; unknown users never reach the database
+        Optional<PrincipalDirectory.Principal> principal = principalDirectory.find(username);
+        if (principal.isEmpty()) {
+            return null; // Authentication failed
         }
-        
-        // Then try to find staff
-        Optional<StaffEntity> staff = staffRepository.findByUsername(username);
-        if (staff.isPresent()) {
-            // Same simple password check (NOT SECURE - just for demo)
-            if (password.equals("password")) { // Demo password
-                return staff.get();
-            }
+
+        // In a real app, you'd hash and compare passwords
+        // For now, we'll do a simple comparison (NOT SECURE - just for demo)
+        if (!password.equals("password")) { // Demo password
+            return null; // Authentication failed
         }
-        
-        return null; // Authentication failed
+        return principal.get().user();
     }
     
     /**
@@ -89,7 +88,8 @@ public class UserService {
         // Create cart for customer
         CartEntity cart = new CartEntity(savedCustomer);
         cartRepository.save(cart);
-        
+
+        publishChanged(username, PrincipalDirectory.Type.CUSTOMER, savedCustomer.getCustomerId());
         return savedCustomer;
     }
     
@@ -109,22 +109,19 @@ public class UserService {
         staff.setPasswordHash("hashedPassword"); // In real app, hash the password
         
         // Save staff to database
-        return staffRepository.save(staff);
+        StaffEntity savedStaff = staffRepository.save(staff);
+        publishChanged(username, PrincipalDirectory.Type.STAFF, savedStaff.getStaffId());
+        return savedStaff;
     }
     
     /**
      * Get user by username (Customer or Staff)
      */
     public Object getUserByUsername(String username) {
-        // Try customer first
-        Optional<CustomerEntity> customer = customerRepository.findByUsername(username);
-        if (customer.isPresent()) {
-            return customer.get();
-        }
-        
-        // Try staff
-        Optional<StaffEntity> staff = staffRepository.findByUsername(username);
-        return staff.orElse(null);
+        // Customer or staff, from the directory
+        return principalDirectory.find(username)
+                .map(PrincipalDirectory.Principal::user)
+                .orElse(null);
     }
     
     /**
@@ -151,7 +148,9 @@ public class UserService {
             customer.setName(name);
             customer.setAddress(address);
             customer.setPhoneNumber(phoneNumber);
-            return customerRepository.save(customer);
+            CustomerEntity savedCustomer = customerRepository.save(customer);
+            publishChanged(customer.getUsername(), PrincipalDirectory.Type.CUSTOMER, customerId);
+            return savedCustomer;
         }
         return null;
     }
@@ -227,33 +226,47 @@ public class UserService {
     }
     
     /**
-     * Get CustomerEntity by username
+     * Get CustomerEntity by username, from the directory
      */
     public CustomerEntity getCustomerByUsername(String username) {
-        Optional<CustomerEntity> customer = customerRepository.findByUsername(username);
-        return customer.orElse(null);
+        return getUserByUsername(username) instanceof CustomerEntity customer ? customer : null;
     }
 
     /**
-     * Get StaffEntity by username
+     * Get StaffEntity by username, from the directory
      */
     public StaffEntity getStaffByUsername(String username) {
-        Optional<StaffEntity> staff = staffRepository.findByUsername(username);
-        return staff.orElse(null);
+        Object user = getUserByUsername(username);
+        if (user instanceof CustomerEntity) {
+            // The directory resolves customers first; a staff member may share the name
+            return staffRepository.findByUsername(username).orElse(null);
+        }
+        return (StaffEntity) user;
     }
 
     /**
      * Save/update CustomerEntity
      */
     public CustomerEntity saveCustomer(CustomerEntity customer) {
-        return customerRepository.save(customer);
+        CustomerEntity savedCustomer = customerRepository.save(customer);
+        publishChanged(customer.getUsername(), PrincipalDirectory.Type.CUSTOMER, savedCustomer.getCustomerId());
+        return savedCustomer;
     }
 
     /**
      * Save/update StaffEntity
      */
     public StaffEntity saveStaff(StaffEntity staff) {
-        return staffRepository.save(staff);
+        StaffEntity savedStaff = staffRepository.save(staff);
+        publishChanged(staff.getUsername(), PrincipalDirectory.Type.STAFF, savedStaff.getStaffId());
+        return savedStaff;
+    }
+
+    /**
+     * Invalidate the principal directory once the current transaction commits
+     */
+    private void publishChanged(String username, PrincipalDirectory.Type type, Long id) {
+        eventPublisher.publishEvent(new PrincipalChangedEvent(username, type, id));
     }
 
     // ===== ENTITY-BASED OPERATIONS COMPLETE =====
@@ -100,6 +100,7 @@ CREATE TABLE orders (
     
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    version BIGINT NOT NULL DEFAULT 0,
     
     -- Constraints to ensure staff roles are correct
     CONSTRAINT check_chef_role 
@@ -111,8 +112,12 @@ CREATE TABLE orders (
 );
 
 -- 8. ORDER ITEMS TABLE (Items in each order)
+-- Ids come from a sequence stepped by 50 to match the pooled optimizer on OrderItemEntity,
+-- so Hibernate can batch the inserts made at checkout
+CREATE SEQUENCE order_items_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE order_items (
-    order_item_id BIGSERIAL PRIMARY KEY,
+    order_item_id BIGINT PRIMARY KEY,
     order_id BIGINT REFERENCES orders(order_id) ON DELETE CASCADE,
     menu_item_id BIGINT REFERENCES menu_items(dish_id),
     quantity INTEGER NOT NULL CHECK (quantity > 0),
@@ -158,14 +163,19 @@ CREATE TABLE cart_items (
 );
 
 -- 12. ORDER QUEUE TABLE (First Come First Serve - stays until delivered)
+CREATE SEQUENCE order_queue_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE order_queue (
-    queue_id BIGSERIAL PRIMARY KEY,
+    queue_id BIGINT PRIMARY KEY,
     order_id BIGINT REFERENCES orders(order_id) ON DELETE CASCADE,
     added_to_queue_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     started_preparing_at TIMESTAMP NULL,
     ready_for_delivery_at TIMESTAMP NULL,
     out_for_delivery_at TIMESTAMP NULL,
     delivered_at TIMESTAMP NULL,
+    -- Latest stage reached, kept in sync with the timestamps above by the application
+    queue_state VARCHAR(20) NOT NULL DEFAULT 'Pending'
+        CHECK (queue_state IN ('Pending', 'Preparing', 'ReadyForDelivery', 'OutForDelivery', 'Delivered')),
     
     -- Each order can only be in queue once
     CONSTRAINT unique_order_in_queue UNIQUE (order_id)
@@ -193,10 +203,12 @@ CREATE INDEX idx_orders_customer_id ON orders(customer_id);
 CREATE INDEX idx_orders_status ON orders(status);
 CREATE INDEX idx_orders_created_at ON orders(created_at);
 CREATE INDEX idx_order_items_order_id ON order_items(order_id);
+CREATE INDEX idx_order_items_menu_item_id ON order_items(menu_item_id);
 CREATE INDEX idx_cart_items_cart_id ON cart_items(cart_id);
 CREATE INDEX idx_staff_role ON staff(role);
 CREATE INDEX idx_menu_items_available ON menu_items(is_available);
 CREATE INDEX idx_order_queue_priority_time ON order_queue(added_to_queue_at);
+CREATE INDEX idx_order_queue_state_added ON order_queue(queue_state, added_to_queue_at, queue_id);
 
 --TRIGGERS FOR AUTOMATIC UPDATES
 
@@ -8,17 +8,19 @@ import org.springframework.http.ResponseEntity;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class OpenAiChatControllerTest {
     @Test
-    void testPostMessageFallbackOnIllegalStateException() throws IOException, InterruptedException {
-        when(service.sendMessage(anyString(), anyBoolean())).thenThrow(new IllegalStateException("No API key"));
+    void testPostMessageFallbackOnIllegalStateException() {
+        when(service.sendMessageAsync(anyString(), anyBoolean()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("No API key")));
         when(service.simulateOrderReply(anyString())).thenReturn("Simulated fallback");
         Map<String, Object> requestBody = Map.of("message", "Hello", "simulate", false);
-        ResponseEntity<?> response = controller.postMessage(requestBody);
+        ResponseEntity<?> response = controller.postMessage(requestBody).join();
         assertEquals(200, response.getStatusCode().value());
         assertNotNull(response.getBody());
     assertNotNull(response.getBody());
@@ -29,11 +31,12 @@ class OpenAiChatControllerTest {
     }
 
     @Test
-    void testPostMessageFallbackOnIOException() throws IOException, InterruptedException {
-        when(service.sendMessage(anyString(), anyBoolean())).thenThrow(new IOException("Upstream error"));
+    void testPostMessageFallbackOnIOException() {
+        when(service.sendMessageAsync(anyString(), anyBoolean()))
+                .thenReturn(CompletableFuture.failedFuture(new IOException("Upstream error")));
         when(service.simulateOrderReply(anyString())).thenReturn("Simulated fallback");
         Map<String, Object> requestBody = Map.of("message", "Hello", "simulate", false);
-        ResponseEntity<?> response = controller.postMessage(requestBody);
+        ResponseEntity<?> response = controller.postMessage(requestBody).join();
         assertEquals(200, response.getStatusCode().value());
         assertNotNull(response.getBody());
     assertNotNull(response.getBody());
@@ -64,12 +67,12 @@ class OpenAiChatControllerTest {
     }
 
     @Test
-    void testPostMessageValid() throws IOException, InterruptedException {
+    void testPostMessageValid() {
         Map<String, Object> mockResponse = Map.of("id", 1, "reply", "Hi there!", "simulated", true);
-        when(service.sendMessage("Hello", true)).thenReturn(mockResponse);
+        when(service.sendMessageAsync("Hello", true)).thenReturn(CompletableFuture.completedFuture(mockResponse));
 
         Map<String, Object> requestBody = Map.of("message", "Hello", "simulate", true);
-        ResponseEntity<?> response = controller.postMessage(requestBody);
+        ResponseEntity<?> response = controller.postMessage(requestBody).join();
 
         assertEquals(200, response.getStatusCode().value());
         assertNotNull(response.getBody());
@@ -79,7 +82,7 @@ class OpenAiChatControllerTest {
     @Test
     void testPostMessageMissingMessage() {
         Map<String, Object> requestBody = Map.of("simulate", true);
-        ResponseEntity<?> response = controller.postMessage(requestBody);
+        ResponseEntity<?> response = controller.postMessage(requestBody).join();
 
         assertEquals(400, response.getStatusCode().value());
         assertNotNull(response.getBody(), "Response body should not be null");
@@ -95,6 +98,16 @@ class OpenAiChatControllerTest {
         assertEquals("message is required", responseBody.get("error"));
     }
 
+    @Test
+    void testPostMessageBusy() {
+        when(service.sendMessageAsync(anyString(), anyBoolean()))
+                .thenReturn(CompletableFuture.failedFuture(new OpenAiService.ChatbotBusyException("busy")));
+        Map<String, Object> requestBody = Map.of("message", "Hello");
+        ResponseEntity<?> response = controller.postMessage(requestBody).join();
+        assertEquals(429, response.getStatusCode().value());
+        verify(service, never()).simulateOrderReply(anyString());
+    }
+
     @Test
     void testDeleteSuccess() {
         when(service.deleteConversation(1L)).thenReturn(1L);
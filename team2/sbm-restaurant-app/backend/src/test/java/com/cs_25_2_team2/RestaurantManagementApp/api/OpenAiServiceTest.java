@@ -1,11 +1,119 @@
 package com.cs_25_2_team2.RestaurantManagementApp.api;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
 import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 class OpenAiServiceTest {
+
+    /**
+     * Local stand-in for the chat completions endpoint
+     */
+    private HttpServer server;
+    private volatile int status = 200;
+    private volatile String contentType = "application/json";
+    private volatile String responseBody = "{\"choices\":[{\"message\":{\"content\":\"Hi there!\"}}]}";
+    private volatile CountDownLatch release = new CountDownLatch(0);
+    // When set, responseBody is flushed first and this is written only once tailRelease opens
+    private volatile String tail;
+    private volatile CountDownLatch tailRelease = new CountDownLatch(0);
+    private volatile String lastRequestBody;
+    private volatile String lastAuthorization;
+
+    private final OpenAiConfig keyedConfig = new OpenAiConfig() {
+        @Override
+        public String getApiKey() {
+            return "test-key";
+        }
+    };
+
+    /**
+     * Emitter that records sent events and waits for completion instead of writing to a response
+     */
+    static class RecordingEmitter extends SseEmitter {
+        final List<String> names = new ArrayList<>();
+        final List<Object> payloads = new ArrayList<>();
+        final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public synchronized void send(SseEventBuilder builder) {
+            List<DataWithMediaType> parts = new ArrayList<>(builder.build());
+            String header = parts.get(0).getData().toString();
+            names.add(header.substring("event:".length(), header.indexOf('\n')));
+            payloads.add(parts.get(1).getData());
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        void await() throws InterruptedException {
+            assertTrue(completed.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/v1/chat/completions", exchange -> {
+            lastRequestBody = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            lastAuthorization = exchange.getRequestHeaders().getFirst("Authorization");
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] bytes = responseBody.getBytes(StandardCharsets.UTF_8);
+            String held = tail;
+            exchange.getResponseHeaders().add("Content-Type", contentType);
+            exchange.sendResponseHeaders(status, held == null ? bytes.length : 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+                if (held != null) {
+                    out.flush();
+                    try {
+                        tailRelease.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    out.write(held.getBytes(StandardCharsets.UTF_8));
+                }
+            } catch (IOException e) {
+                // The client went away
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private OpenAiService stubbedService(int maxConcurrent) {
+        return new OpenAiService(keyedConfig, "http://localhost:" + server.getAddress().getPort(), 5000, maxConcurrent);
+    }
     @Test
     void testListConversationsEmpty() {
         OpenAiService service = new OpenAiService(new OpenAiConfig());
@@ -61,4 +169,126 @@ class OpenAiServiceTest {
         assertNotNull(reply);
         assertTrue(reply.contains("Order #42"));
     }
+
+    @Test
+    void testSendMessageAsyncAgainstCompletionServer() throws Exception {
+        OpenAiService service = stubbedService(4);
+
+        Map<String, Object> result = service.sendMessageAsync("Hello", false).get(5, TimeUnit.SECONDS);
+
+        assertEquals("Hi there!", result.get("reply"));
+        assertEquals(false, result.get("simulated"));
+        assertEquals("Bearer test-key", lastAuthorization);
+        assertEquals(1, service.listConversations().size());
+    }
+
+    @Test
+    void testSendMessageAsyncFailsOnUpstreamError() {
+        OpenAiService service = stubbedService(4);
+        status = 500;
+
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> service.sendMessageAsync("Hello", false).join());
+        assertTrue(e.getCause() instanceof IOException);
+    }
+
+    @Test
+    void testConcurrencyLimitRejectsExcessCalls() throws Exception {
+        OpenAiService service = stubbedService(1);
+        release = new CountDownLatch(1);
+
+        CompletableFuture<Map<String, Object>> first = service.sendMessageAsync("Hello", false);
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> service.sendMessageAsync("Hello again", false).join());
+        assertTrue(e.getCause() instanceof OpenAiService.ChatbotBusyException);
+
+        release.countDown();
+        assertEquals("Hi there!", first.get(5, TimeUnit.SECONDS).get("reply"));
+        // The permit is back once the first call completed
+        assertEquals("Hi there!", service.sendMessageAsync("Hello", false).get(5, TimeUnit.SECONDS).get("reply"));
+    }
+
+    @Test
+    void testMenuSystemPromptIsBuiltOnce() throws Exception {
+        OpenAiService service = stubbedService(4);
+        String prompt = service.menuSystemPrompt();
+        assertSame(prompt, service.menuSystemPrompt());
+        assertTrue(prompt.contains("Texas Loaded Baked Potato"));
+
+        assertEquals("Hi there!", service.generateChatbotResponse("Anything vegetarian?"));
+        JsonNode messages = new ObjectMapper().readTree(lastRequestBody).path("messages");
+        assertEquals("system", messages.path(0).path("role").asText());
+        assertEquals(prompt, messages.path(0).path("content").asText());
+        assertEquals("Anything vegetarian?", messages.path(1).path("content").asText());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStreamMessageForwardsTokens() throws Exception {
+        OpenAiService service = stubbedService(4);
+        contentType = "text/event-stream";
+        responseBody = "data: {\"choices\":[{\"delta\":{\"role\":\"assistant\"}}]}\n\n"
+                + "data: {\"choices\":[{\"delta\":{\"content\":\"Hel\"}}]}\n\n"
+                + "data: {\"choices\":[{\"delta\":{\"content\":\"lo!\"}}]}\n\n"
+                + "data: [DONE]\n\n";
+
+        RecordingEmitter emitter = new RecordingEmitter();
+        service.streamMessage("Hello", false, emitter);
+        emitter.await();
+
+        assertEquals(List.of("token", "token", "done"), emitter.names);
+        assertEquals("Hel", emitter.payloads.get(0));
+        assertEquals("lo!", emitter.payloads.get(1));
+        Map<String, Object> done = (Map<String, Object>) emitter.payloads.get(2);
+        assertEquals("Hello!", done.get("reply"));
+        assertEquals(false, done.get("simulated"));
+        assertTrue(new ObjectMapper().readTree(lastRequestBody).path("stream").asBoolean());
+    }
+
+    @Test
+    void testStreamMessageReleasesPermitWhenBrowserDisconnects() throws Exception {
+        OpenAiService service = stubbedService(1);
+        contentType = "text/event-stream";
+        responseBody = "data: {\"choices\":[{\"delta\":{\"content\":\"Hel\"}}]}\n\n";
+        tail = "data: [DONE]\n\n";
+        tailRelease = new CountDownLatch(1);
+
+        // Writing the first token fails, as it does once the browser has closed the connection
+        CountDownLatch sendFailed = new CountDownLatch(1);
+        SseEmitter disconnected = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                sendFailed.countDown();
+                throw new IOException("Broken pipe");
+            }
+        };
+        service.streamMessage("Hello", false, disconnected);
+        assertTrue(sendFailed.await(5, TimeUnit.SECONDS));
+
+        // The upstream response is still open, but the permit is already back
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (service.availablePermits() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, service.availablePermits());
+
+        // Completion after the cancel must not release it a second time
+        tailRelease.countDown();
+        Thread.sleep(200);
+        assertEquals(1, service.availablePermits());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStreamMessageFallsBackWhenUpstreamFails() throws Exception {
+        OpenAiService service = stubbedService(4);
+        status = 503;
+
+        RecordingEmitter emitter = new RecordingEmitter();
+        service.streamMessage("Hello", false, emitter);
+        emitter.await();
+
+        assertEquals(List.of("token", "done"), emitter.names);
+        assertEquals(true, ((Map<String, Object>) emitter.payloads.get(1)).get("simulated"));
+    }
 }
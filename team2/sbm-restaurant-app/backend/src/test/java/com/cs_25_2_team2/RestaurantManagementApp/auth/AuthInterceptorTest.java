@@ -7,7 +7,10 @@ import org.springframework.web.method.HandlerMethod;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
+import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.lang.reflect.Method;
+import java.time.Duration;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -18,10 +21,12 @@ class AuthInterceptorTest {
     private HttpServletRequest request;
     private HttpServletResponse response;
     private HandlerMethod handlerMethod;
+    private AuthTokenService tokenService;
 
     @BeforeEach
     void setUp() {
-        authInterceptor = new AuthInterceptor();
+        tokenService = new AuthTokenService("", Duration.ofHours(1), java.time.Clock.systemUTC());
+        authInterceptor = new AuthInterceptor(tokenService, new RouteAuthorizationTable());
         request = mock(HttpServletRequest.class);
         response = mock(HttpServletResponse.class);
         handlerMethod = mock(HandlerMethod.class);
@@ -61,5 +66,73 @@ class AuthInterceptorTest {
         assertTrue(result, "Should allow access when valid session attributes are present");
     }
 
-    // Additional tests for other scenarios...
-}
\ No newline at end of file
+    private void requireRoles(String... roles) throws Exception {
+        Method mockMethod = mock(Method.class);
+        RequiredRole mockRequiredRole = mock(RequiredRole.class);
+        when(mockRequiredRole.requireAuth()).thenReturn(true);
+        when(mockRequiredRole.value()).thenReturn(roles);
+        when(handlerMethod.getMethod()).thenReturn(mockMethod);
+        when(mockMethod.getAnnotation(RequiredRole.class)).thenReturn(mockRequiredRole);
+        when(response.getWriter()).thenReturn(new PrintWriter(new StringWriter()));
+    }
+
+    @Test
+    void testValidTokenAllowedWithoutSession() throws Exception {
+        requireRoles("CHEF", "ADMIN");
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + tokenService.issue(7L, Role.CHEF));
+
+        boolean result = authInterceptor.preHandle(request, response, handlerMethod);
+        assertTrue(result, "Should allow access with a valid token for an allowed role");
+        verify(request, never()).getSession(false);
+        verify(request).setAttribute(AuthInterceptor.USER_ID_ATTRIBUTE, 7L);
+        verify(request).setAttribute(AuthInterceptor.USER_TYPE_ATTRIBUTE, "CHEF");
+    }
+
+    @Test
+    void testTokenWithWrongRoleForbidden() throws Exception {
+        requireRoles("CHEF", "ADMIN");
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + tokenService.issue(7L, Role.CUSTOMER));
+
+        assertFalse(authInterceptor.preHandle(request, response, handlerMethod));
+        verify(response).setStatus(HttpServletResponse.SC_FORBIDDEN);
+    }
+
+    @Test
+    void testInvalidTokenUnauthorized() throws Exception {
+        requireRoles("CHEF");
+        String token = tokenService.issue(7L, Role.CHEF);
+        String tampered = token.substring(0, 10) + (token.charAt(10) == 'A' ? 'B' : 'A') + token.substring(11);
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + tampered);
+
+        assertFalse(authInterceptor.preHandle(request, response, handlerMethod));
+        verify(response).setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+    }
+
+    @RequiredRole({"CHEF"})
+    static class ChefOnlyHandlers {
+        public void prepare() {
+        }
+    }
+
+    @Test
+    void testClassLevelRoleEnforcedAndCounted() throws Exception {
+        RouteAuthorizationTable routeTable = new RouteAuthorizationTable();
+        authInterceptor = new AuthInterceptor(tokenService, routeTable);
+        HandlerMethod chefHandler = new HandlerMethod(new ChefOnlyHandlers(), ChefOnlyHandlers.class.getMethod("prepare"));
+        when(response.getWriter()).thenReturn(new PrintWriter(new StringWriter()));
+
+        HttpSession session = mock(HttpSession.class);
+        when(request.getSession(false)).thenReturn(session);
+        when(session.getAttribute("username")).thenReturn("alice");
+        when(session.getAttribute("userType")).thenReturn("CUSTOMER");
+        assertFalse(authInterceptor.preHandle(request, response, chefHandler));
+        verify(response).setStatus(HttpServletResponse.SC_FORBIDDEN);
+
+        when(session.getAttribute("userType")).thenReturn("CHEF");
+        assertTrue(authInterceptor.preHandle(request, response, chefHandler));
+
+        RouteAuthorizationTable.Rule rule = routeTable.lookup(chefHandler);
+        assertNotNull(rule);
+        assertEquals(1, rule.getForbidden());
+    }
+}
@@ -0,0 +1,131 @@
+package com.cs_25_2_team2.RestaurantManagementApp.auth;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthTokenServiceTest {
+
+    private static final String KEY_1 = "1:" + secret('a');
+    private static final String KEY_2 = "2:" + secret('b');
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T12:00:00Z"));
+
+    private static String secret(char fill) {
+        return Base64.getEncoder().encodeToString(String.valueOf(fill).repeat(32).getBytes());
+    }
+
+    private AuthTokenService service(String keyRing) {
+        return new AuthTokenService(keyRing, Duration.ofHours(8), clock);
+    }
+
+    @Test
+    void testIssueAndVerify() {
+        AuthTokenService tokens = service(KEY_1);
+        String token = tokens.issue(42L, Role.CHEF.bit() | Role.ADMIN.bit());
+
+        assertEquals(48, token.length());
+        AuthTokenService.Claims claims = tokens.verify(token);
+        assertNotNull(claims);
+        assertEquals(42L, claims.userId());
+        assertEquals(Role.CHEF, claims.role());
+        assertTrue(claims.hasAnyRole(Role.maskOf("ADMIN")));
+        assertFalse(claims.hasAnyRole(Role.maskOf("CUSTOMER", "DELIVERY")));
+        assertEquals(clock.instant().plus(Duration.ofHours(8)).getEpochSecond(), claims.expiresAt());
+    }
+
+    @Test
+    void testTamperedAndMalformedTokensRejected() {
+        AuthTokenService tokens = service(KEY_1);
+        String token = tokens.issue(42L, Role.CUSTOMER);
+        byte[] raw = Base64.getUrlDecoder().decode(token);
+
+        // Claim someone else's user id
+        raw[9] ^= 1;
+        assertNull(tokens.verify(Base64.getUrlEncoder().withoutPadding().encodeToString(raw)));
+        raw[9] ^= 1;
+        // Claim extra roles
+        raw[11] |= (byte) Role.ADMIN.bit();
+        assertNull(tokens.verify(Base64.getUrlEncoder().withoutPadding().encodeToString(raw)));
+
+        assertNull(tokens.verify(null));
+        assertNull(tokens.verify(""));
+        assertNull(tokens.verify(token.substring(1)));
+        assertNull(tokens.verify("*".repeat(48)));
+    }
+
+    @Test
+    void testExpiredTokenRejected() {
+        AuthTokenService tokens = service(KEY_1);
+        String token = tokens.issue(42L, Role.CUSTOMER);
+
+        clock.advance(Duration.ofHours(8).minusSeconds(1));
+        assertNotNull(tokens.verify(token));
+        clock.advance(Duration.ofSeconds(1));
+        assertNull(tokens.verify(token));
+    }
+
+    @Test
+    void testKeyRotation() {
+        String oldToken = service(KEY_1).issue(42L, Role.CUSTOMER);
+
+        // New key signs, old key still verifies
+        AuthTokenService rotated = service(KEY_2 + "," + KEY_1);
+        assertNotNull(rotated.verify(oldToken));
+        String newToken = rotated.issue(42L, Role.CUSTOMER);
+        assertNotNull(service(KEY_2).verify(newToken));
+        assertNull(service(KEY_1).verify(newToken));
+
+        // Old key retired
+        assertNull(service(KEY_2).verify(oldToken));
+    }
+
+    @Test
+    void testTokensFromAnotherRandomKeyRejected() {
+        String token = service("").issue(42L, Role.CUSTOMER);
+        assertNull(service("").verify(token));
+    }
+
+    @Test
+    void testInvalidKeyRingRejected() {
+        assertThrows(IllegalArgumentException.class, () -> service("1:" + Base64.getEncoder().encodeToString(new byte[16])));
+        assertThrows(IllegalArgumentException.class, () -> service(KEY_1 + "," + KEY_1));
+        assertThrows(IllegalArgumentException.class, () -> service("no-separator"));
+        assertThrows(IllegalArgumentException.class, () -> service("300:" + secret('c')));
+        assertThrows(IllegalArgumentException.class, () -> service(KEY_1).issue(1L, 0));
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
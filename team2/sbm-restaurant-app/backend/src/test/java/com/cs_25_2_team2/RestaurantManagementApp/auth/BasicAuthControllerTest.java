@@ -7,7 +7,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.http.ResponseEntity;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import static org.junit.jupiter.api.Assertions.*;
@@ -17,6 +20,7 @@ class BasicAuthControllerTest {
     private UserService userService;
     private PasswordEncoder passwordEncoder;
     private HttpSession session;
+    private HttpServletRequest httpRequest;
 
     @BeforeEach
     void setup() {
@@ -31,8 +35,25 @@ class BasicAuthControllerTest {
             var passField = BasicAuthController.class.getDeclaredField("passwordEncoder");
             passField.setAccessible(true);
             passField.set(controller, passwordEncoder);
+            var throttleField = BasicAuthController.class.getDeclaredField("loginThrottle");
+            throttleField.setAccessible(true);
+            throttleField.set(controller, new LoginThrottle(3, 1, 100, 100, 1000));
         } catch (Exception e) { throw new RuntimeException(e); }
         session = Mockito.mock(HttpSession.class);
+        httpRequest = Mockito.mock(HttpServletRequest.class);
+        Mockito.when(httpRequest.getSession()).thenReturn(session);
+        Mockito.when(httpRequest.getSession(false)).thenReturn(session);
+    }
+
+    private AuthTokenService enableTokenMode() throws Exception {
+        AuthTokenService tokenService = new AuthTokenService("", Duration.ofHours(1), Clock.systemUTC());
+        var tokenField = BasicAuthController.class.getDeclaredField("tokenService");
+        tokenField.setAccessible(true);
+        tokenField.set(controller, tokenService);
+        var modeField = BasicAuthController.class.getDeclaredField("authMode");
+        modeField.setAccessible(true);
+        modeField.set(controller, "token");
+        return tokenService;
     }
 
     @Test
@@ -43,7 +64,7 @@ class BasicAuthControllerTest {
         cust.setCustomerId(1L); cust.setUsername("cust"); cust.setPasswordHash("hash"); cust.setName("Cust Name");
         Mockito.when(userService.getCustomerByUsername("cust")).thenReturn(cust);
         Mockito.when(passwordEncoder.matches("pass", "hash")).thenReturn(true);
-        ResponseEntity<?> resp = controller.login(req, session);
+        ResponseEntity<?> resp = controller.login(req, httpRequest);
     assertEquals(200, resp.getStatusCode().value());
     }
 
@@ -55,16 +76,102 @@ class BasicAuthControllerTest {
         staff.setStaffId(2L); staff.setUsername("staff"); staff.setPasswordHash("hash"); staff.setName("Staff Name"); staff.setRole(StaffEntity.StaffRole.Chef);
         Mockito.when(userService.getStaffByUsername("staff")).thenReturn(staff);
         Mockito.when(passwordEncoder.matches("pass", "hash")).thenReturn(true);
-        ResponseEntity<?> resp = controller.login(req, session);
+        ResponseEntity<?> resp = controller.login(req, httpRequest);
     assertEquals(200, resp.getStatusCode().value());
     }
 
+    @Test
+    void testLoginRehashesOutdatedHash() {
+        BasicAuthController.LoginRequest req = new BasicAuthController.LoginRequest();
+        req.setUsername("cust"); req.setPassword("pass"); req.setUserType("customer");
+        CustomerEntity cust = new CustomerEntity();
+        cust.setCustomerId(1L); cust.setUsername("cust"); cust.setPasswordHash("hash");
+        Mockito.when(userService.getCustomerByUsername("cust")).thenReturn(cust);
+        Mockito.when(userService.getCustomerById(1L)).thenReturn(cust);
+        Mockito.when(passwordEncoder.matches("pass", "hash")).thenReturn(true);
+        Mockito.when(passwordEncoder.needsRehash("hash")).thenReturn(true);
+        Mockito.when(passwordEncoder.encodeAsync("pass")).thenReturn(java.util.concurrent.CompletableFuture.completedFuture("newHash"));
+        ResponseEntity<?> resp = controller.login(req, httpRequest);
+        assertEquals(200, resp.getStatusCode().value());
+        assertEquals("newHash", cust.getPasswordHash());
+        Mockito.verify(userService).saveCustomer(cust);
+    }
+
+    @Test
+    void testLoginDefersRehashWhileHashingIsBusy() {
+        BasicAuthController.LoginRequest req = new BasicAuthController.LoginRequest();
+        req.setUsername("cust"); req.setPassword("pass"); req.setUserType("customer");
+        CustomerEntity cust = new CustomerEntity();
+        cust.setCustomerId(1L); cust.setUsername("cust"); cust.setPasswordHash("hash");
+        Mockito.when(userService.getCustomerByUsername("cust")).thenReturn(cust);
+        Mockito.when(passwordEncoder.matches("pass", "hash")).thenReturn(true);
+        Mockito.when(passwordEncoder.needsRehash("hash")).thenReturn(true);
+        Mockito.when(passwordEncoder.isBusy()).thenReturn(true);
+        ResponseEntity<?> resp = controller.login(req, httpRequest);
+        assertEquals(200, resp.getStatusCode().value());
+        assertEquals("hash", cust.getPasswordHash());
+        Mockito.verify(passwordEncoder, Mockito.never()).encodeAsync(Mockito.anyString());
+    }
+
+    @Test
+    void testLoginStoresRehashOnApplicationExecutor() throws Exception {
+        BasicAuthController.LoginRequest req = new BasicAuthController.LoginRequest();
+        req.setUsername("cust"); req.setPassword("pass"); req.setUserType("customer");
+        CustomerEntity cust = new CustomerEntity();
+        cust.setCustomerId(1L); cust.setUsername("cust"); cust.setPasswordHash("hash");
+        Mockito.when(userService.getCustomerByUsername("cust")).thenReturn(cust);
+        Mockito.when(userService.getCustomerById(1L)).thenReturn(cust);
+        Mockito.when(passwordEncoder.matches("pass", "hash")).thenReturn(true);
+        Mockito.when(passwordEncoder.needsRehash("hash")).thenReturn(true);
+        Mockito.when(passwordEncoder.encodeAsync("pass")).thenReturn(java.util.concurrent.CompletableFuture.completedFuture("newHash"));
+        java.util.List<Runnable> stores = new java.util.ArrayList<>();
+        var executorField = BasicAuthController.class.getDeclaredField("rehashStoreExecutor");
+        executorField.setAccessible(true);
+        executorField.set(controller, (java.util.concurrent.Executor) stores::add);
+
+        assertEquals(200, controller.login(req, httpRequest).getStatusCode().value());
+        assertEquals("hash", cust.getPasswordHash(), "The save is handed to the executor");
+        assertEquals(1, stores.size());
+
+        stores.get(0).run();
+        assertEquals("newHash", cust.getPasswordHash());
+        Mockito.verify(userService).saveCustomer(cust);
+    }
+
+    @Test
+    void testLoginWhenHashingSaturated() {
+        BasicAuthController.LoginRequest req = new BasicAuthController.LoginRequest();
+        req.setUsername("cust"); req.setPassword("pass"); req.setUserType("customer");
+        CustomerEntity cust = new CustomerEntity();
+        cust.setCustomerId(1L); cust.setUsername("cust"); cust.setPasswordHash("hash");
+        Mockito.when(userService.getCustomerByUsername("cust")).thenReturn(cust);
+        Mockito.when(passwordEncoder.matches("pass", "hash")).thenThrow(new PasswordEncoder.HashingBusyException("busy"));
+        ResponseEntity<?> resp = controller.login(req, httpRequest);
+        assertEquals(503, resp.getStatusCode().value());
+        assertEquals("1", resp.getHeaders().getFirst("Retry-After"));
+    }
+
+    @Test
+    void testLoginThrottledBeforeLookup() {
+        BasicAuthController.LoginRequest req = new BasicAuthController.LoginRequest();
+        req.setUsername("cust"); req.setPassword("wrong"); req.setUserType("customer");
+        Mockito.when(httpRequest.getRemoteAddr()).thenReturn("10.0.0.1");
+        for (int i = 0; i < 3; i++) {
+            assertEquals(401, controller.login(req, httpRequest).getStatusCode().value());
+        }
+        ResponseEntity<?> resp = controller.login(req, httpRequest);
+        assertEquals(429, resp.getStatusCode().value());
+        assertNotNull(resp.getHeaders().getFirst("Retry-After"));
+        Mockito.verify(userService, Mockito.times(3)).getCustomerByUsername("cust");
+        Mockito.verifyNoInteractions(passwordEncoder);
+    }
+
     @Test
     void testLoginFailure() {
         BasicAuthController.LoginRequest req = new BasicAuthController.LoginRequest();
         req.setUsername("bad"); req.setPassword("bad"); req.setUserType("customer");
         Mockito.when(userService.getCustomerByUsername("bad")).thenReturn(null);
-        ResponseEntity<?> resp = controller.login(req, session);
+        ResponseEntity<?> resp = controller.login(req, httpRequest);
     assertEquals(401, resp.getStatusCode().value());
     }
 
@@ -107,7 +214,7 @@ class BasicAuthControllerTest {
 
     @Test
     void testLogoutSuccess() {
-        ResponseEntity<?> resp = controller.logout(session);
+        ResponseEntity<?> resp = controller.logout(httpRequest);
     assertEquals(200, resp.getStatusCode().value());
     }
 
@@ -115,7 +222,7 @@ class BasicAuthControllerTest {
     void testGetProfileUnauthenticated() {
         Mockito.when(session.getAttribute("username")).thenReturn(null);
         Mockito.when(session.getAttribute("userType")).thenReturn(null);
-        ResponseEntity<?> resp = controller.getProfile(session);
+        ResponseEntity<?> resp = controller.getProfile(httpRequest);
     assertEquals(401, resp.getStatusCode().value());
     }
 
@@ -123,7 +230,7 @@ class BasicAuthControllerTest {
     void testGetAuthStatusAuthenticated() {
         Mockito.when(session.getAttribute("username")).thenReturn("user");
         Mockito.when(session.getAttribute("userType")).thenReturn("CUSTOMER");
-        ResponseEntity<?> resp = controller.getAuthStatus(session);
+        ResponseEntity<?> resp = controller.getAuthStatus(httpRequest);
     assertEquals(200, resp.getStatusCode().value());
     }
 
@@ -131,7 +238,41 @@ class BasicAuthControllerTest {
     void testGetAuthStatusUnauthenticated() {
         Mockito.when(session.getAttribute("username")).thenReturn(null);
         Mockito.when(session.getAttribute("userType")).thenReturn(null);
-        ResponseEntity<?> resp = controller.getAuthStatus(session);
+        ResponseEntity<?> resp = controller.getAuthStatus(httpRequest);
     assertEquals(200, resp.getStatusCode().value());
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testLoginTokenModeIssuesTokenWithoutSession() throws Exception {
+        AuthTokenService tokenService = enableTokenMode();
+        BasicAuthController.LoginRequest req = new BasicAuthController.LoginRequest();
+        req.setUsername("staff"); req.setPassword("pass"); req.setUserType("staff");
+        StaffEntity staff = new StaffEntity();
+        staff.setStaffId(2L); staff.setUsername("staff"); staff.setPasswordHash("hash"); staff.setName("Staff Name"); staff.setRole(StaffEntity.StaffRole.Chef);
+        Mockito.when(userService.getStaffByUsername("staff")).thenReturn(staff);
+        Mockito.when(passwordEncoder.matches("pass", "hash")).thenReturn(true);
+
+        ResponseEntity<?> resp = controller.login(req, httpRequest);
+        assertEquals(200, resp.getStatusCode().value());
+        String token = (String) ((Map<String, Object>) resp.getBody()).get("token");
+        AuthTokenService.Claims claims = tokenService.verify(token);
+        assertNotNull(claims);
+        assertEquals(2L, claims.userId());
+        assertEquals(Role.CHEF, claims.role());
+        Mockito.verify(httpRequest, Mockito.never()).getSession();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetAuthStatusFromToken() throws Exception {
+        AuthTokenService tokenService = enableTokenMode();
+        Mockito.when(httpRequest.getHeader("Authorization")).thenReturn("Bearer " + tokenService.issue(1L, Role.CUSTOMER));
+
+        ResponseEntity<?> resp = controller.getAuthStatus(httpRequest);
+        Map<String, Object> status = (Map<String, Object>) resp.getBody();
+        assertEquals(true, status.get("authenticated"));
+        assertEquals("CUSTOMER", status.get("userType"));
+        assertEquals(1L, status.get("userId"));
+    }
 }
@@ -0,0 +1,180 @@
+package com.cs_25_2_team2.RestaurantManagementApp.auth;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginThrottleTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T12:00:00Z"));
+
+    @Test
+    void testUsernameBucketEmptiesAndRefills() {
+        // 3 attempts per username, one more every 20 seconds
+        LoginThrottle throttle = new LoginThrottle(3, 3, 100, 100, 1000, clock);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, throttle.tryAcquire("alice", "10.0.0." + i));
+        }
+        long wait = throttle.tryAcquire("Alice ", "10.0.0.9");
+        assertEquals(20_000, wait, "Usernames should be matched case-insensitively");
+        assertEquals(20, LoginThrottle.retryAfterSeconds(wait));
+
+        // Other users are unaffected
+        assertEquals(0, throttle.tryAcquire("bob", "10.0.0.9"));
+
+        clock.advance(Duration.ofSeconds(20));
+        assertEquals(0, throttle.tryAcquire("alice", "10.0.0.9"));
+        assertTrue(throttle.tryAcquire("alice", "10.0.0.9") > 0);
+    }
+
+    @Test
+    void testAddressBucketStopsUsernameSpraying() {
+        LoginThrottle throttle = new LoginThrottle(5, 5, 2, 2, 1000, clock);
+
+        assertEquals(0, throttle.tryAcquire("user1", "10.0.0.1"));
+        assertEquals(0, throttle.tryAcquire("user2", "10.0.0.1"));
+        assertTrue(throttle.tryAcquire("user3", "10.0.0.1") > 0);
+        assertEquals(0, throttle.tryAcquire("user3", "10.0.0.2"));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> byAddress = (Map<String, Object>) throttle.snapshot().get("byAddress");
+        assertEquals(1L, byAddress.get("rejected"));
+        assertEquals(3L, throttle.snapshot().get("allowed"));
+    }
+
+    @Test
+    void testSuccessClearsUsernameBucket() {
+        LoginThrottle throttle = new LoginThrottle(2, 1, 100, 100, 1000, clock);
+
+        throttle.tryAcquire("alice", "10.0.0.1");
+        throttle.tryAcquire("alice", "10.0.0.1");
+        assertTrue(throttle.tryAcquire("alice", "10.0.0.1") > 0);
+
+        throttle.recordSuccess("alice");
+        assertEquals(0, throttle.tryAcquire("alice", "10.0.0.1"));
+    }
+
+    @Test
+    void testMapStaysBounded() {
+        LoginThrottle throttle = new LoginThrottle(5, 5, 100, 100, 2, clock);
+
+        throttle.tryAcquire("user1", "10.0.0.1");
+        throttle.tryAcquire("user2", "10.0.0.2");
+        // Full and nothing has refilled yet: new keys are let through untracked
+        assertEquals(0, throttle.tryAcquire("user3", "10.0.0.3"));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> byUsername = (Map<String, Object>) throttle.snapshot().get("byUsername");
+        assertEquals(2, byUsername.get("tracked"));
+        assertEquals(1L, byUsername.get("untracked"));
+
+        // Once buckets have refilled they are swept to make room
+        clock.advance(Duration.ofMinutes(1));
+        assertEquals(0, throttle.tryAcquire("user4", "10.0.0.4"));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> afterSweep = (Map<String, Object>) throttle.snapshot().get("byUsername");
+        assertEquals(1, afterSweep.get("tracked"));
+    }
+
+    @Test
+    void testConcurrentAttemptsNeverExceedCapacity() throws Exception {
+        LoginThrottle throttle = new LoginThrottle(10, 1, 1000, 1, 1000, clock);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger allowed = new AtomicInteger();
+        try {
+            for (int i = 0; i < 200; i++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    if (throttle.tryAcquire("alice", "10.0.0.1") == 0) {
+                        allowed.incrementAndGet();
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+        assertEquals(10, allowed.get());
+    }
+
+    @Test
+    void testSweepRacingAttemptsNeverHandsOutAnExtraToken() throws Exception {
+        // One attempt per key; a fresh bucket is full, so the sweep may drop it at any moment
+        LoginThrottle.Buckets buckets = new LoginThrottle.Buckets(1, 1, 100_000);
+        long now = clock.millis();
+        int keys = 20_000;
+        AtomicIntegerArray allowed = new AtomicIntegerArray(keys);
+        CountDownLatch done = new CountDownLatch(2);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            for (int t = 0; t < 2; t++) {
+                executor.execute(() -> {
+                    for (int i = 0; i < keys; i++) {
+                        if (buckets.tryAcquire("user" + i, now) == 0) {
+                            allowed.incrementAndGet(i);
+                        }
+                    }
+                    done.countDown();
+                });
+            }
+            executor.execute(() -> {
+                while (done.getCount() > 0) {
+                    buckets.sweep(now);
+                }
+            });
+            assertTrue(done.await(30, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+        for (int i = 0; i < keys; i++) {
+            assertEquals(1, allowed.get(i), "user" + i);
+        }
+    }
+
+    private static class MutableClock extends Clock {
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -3,6 +3,14 @@ package com.cs_25_2_team2.RestaurantManagementApp.auth;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class PasswordEncoderTest {
@@ -36,4 +44,115 @@ class PasswordEncoderTest {
         assertFalse(passwordEncoder.isValidPassword("NOLOWERCASE1"), "Password should be invalid if missing lowercase letters");
         assertFalse(passwordEncoder.isValidPassword("NoDigits"), "Password should be invalid if missing digits");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testVersionedFormatAndCostChange() {
+        PasswordEncoder cheap = new PasswordEncoder(1000, 1, 4, 10000);
+        String encoded = cheap.encode("TestPassword123");
+
+        assertTrue(encoded.startsWith("$pbkdf2-sha256$1000$"), "Hash should record its scheme and cost");
+        assertTrue(cheap.matches("TestPassword123", encoded));
+        assertFalse(cheap.matches("WrongPassword123", encoded));
+        assertFalse(cheap.needsRehash(encoded));
+
+        // A higher cost still verifies old hashes, but asks for them to be replaced
+        PasswordEncoder stronger = new PasswordEncoder(2000, 1, 4, 10000);
+        assertTrue(stronger.matches("TestPassword123", encoded));
+        assertTrue(stronger.needsRehash(encoded));
+        assertFalse(stronger.needsRehash(stronger.encode("TestPassword123")));
+    }
+
+    @Test
+    void testLegacyHashStillMatchesAndNeedsRehash() throws Exception {
+        byte[] salt = new byte[16];
+        MessageDigest md = MessageDigest.getInstance("SHA-256");
+        md.update(salt);
+        byte[] hash = md.digest("OldPassword1".getBytes());
+        for (int i = 0; i < 10000; i++) {
+            md.reset();
+            md.update(salt);
+            hash = md.digest(hash);
+        }
+        byte[] combined = new byte[salt.length + hash.length];
+        System.arraycopy(hash, 0, combined, salt.length, hash.length);
+        String legacy = Base64.getEncoder().encodeToString(combined);
+
+        assertTrue(passwordEncoder.matches("OldPassword1", legacy));
+        assertFalse(passwordEncoder.matches("OldPassword2", legacy));
+        assertTrue(passwordEncoder.needsRehash(legacy));
+        assertFalse(passwordEncoder.matches("OldPassword1", "not a hash"));
+    }
+
+    @Test
+    void testFailsFastWhenSaturated() throws Exception {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1));
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            PasswordEncoder encoder = new PasswordEncoder(1000, executor, Duration.ofMillis(200));
+            executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            var queued = encoder.encodeAsync("Queued123");
+
+            assertThrows(PasswordEncoder.HashingBusyException.class, () -> encoder.encode("Full123"),
+                    "A full queue should reject immediately");
+
+            release.countDown();
+            assertTrue(encoder.matches("Queued123", queued.get(5, TimeUnit.SECONDS)));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testBusyWhileHashesAreQueued() throws Exception {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS, new ArrayBlockingQueue<>(4));
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            PasswordEncoder encoder = new PasswordEncoder(1000, executor, Duration.ofSeconds(5));
+            executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            assertFalse(encoder.isBusy(), "A running hash with nothing queued is not busy");
+
+            var queued = encoder.encodeAsync("Queued123");
+            assertTrue(encoder.isBusy());
+
+            release.countDown();
+            queued.get(5, TimeUnit.SECONDS);
+            assertFalse(encoder.isBusy());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testTimesOutWhenHashingStalls() throws Exception {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS, new ArrayBlockingQueue<>(4));
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            PasswordEncoder encoder = new PasswordEncoder(1000, executor, Duration.ofMillis(100));
+            executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            assertThrows(PasswordEncoder.HashingBusyException.class, () -> encoder.encode("Stalled123"));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+}
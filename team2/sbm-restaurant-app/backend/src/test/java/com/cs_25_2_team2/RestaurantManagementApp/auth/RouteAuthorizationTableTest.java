@@ -0,0 +1,102 @@
+package com.cs_25_2_team2.RestaurantManagementApp.auth;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteAuthorizationTableTest {
+
+    @RequiredRole({"CHEF", "ADMIN"})
+    static class KitchenHandlers {
+        public void inherited() {
+        }
+
+        @RequiredRole({"CUSTOMER"})
+        public void overridden() {
+        }
+    }
+
+    static class PublicHandlers {
+        public void open() {
+        }
+
+        @RequiredRole(value = {"ADMIN", "AUDITOR"}, requireAuth = false)
+        public void audit() {
+        }
+    }
+
+    private static HandlerMethod handler(Object bean, String name) throws Exception {
+        return new HandlerMethod(bean, bean.getClass().getMethod(name));
+    }
+
+    @Test
+    void testClassAndMethodLevelRules() throws Exception {
+        RouteAuthorizationTable table = new RouteAuthorizationTable();
+
+        RouteAuthorizationTable.Rule inherited = table.lookup(handler(new KitchenHandlers(), "inherited"));
+        assertNotNull(inherited, "Class-level @RequiredRole should apply to its methods");
+        assertEquals(Role.CHEF.bit() | Role.ADMIN.bit(), inherited.getMask());
+        assertTrue(inherited.requiresAuth());
+
+        RouteAuthorizationTable.Rule overridden = table.lookup(handler(new KitchenHandlers(), "overridden"));
+        assertEquals(Role.CUSTOMER.bit(), overridden.getMask(), "Method-level @RequiredRole should win");
+
+        assertNull(table.lookup(handler(new PublicHandlers(), "open")));
+    }
+
+    @Test
+    void testPermits() throws Exception {
+        RouteAuthorizationTable table = new RouteAuthorizationTable();
+        RouteAuthorizationTable.Rule kitchen = table.lookup(handler(new KitchenHandlers(), "inherited"));
+
+        assertTrue(kitchen.permits(Role.CHEF.bit() | Role.CUSTOMER.bit()));
+        assertFalse(kitchen.permits(Role.CUSTOMER.bit()));
+        assertTrue(kitchen.permits("chef"));
+        assertFalse(kitchen.permits("DELIVERY"));
+        assertFalse(kitchen.permits((String) null));
+        assertEquals("{\"error\": \"Access denied. Required roles: [CHEF, ADMIN], your role: DELIVERY\"}",
+                kitchen.deniedMessage("DELIVERY"));
+
+        // Role names outside the enum still match as strings
+        RouteAuthorizationTable.Rule audit = table.lookup(handler(new PublicHandlers(), "audit"));
+        assertFalse(audit.requiresAuth());
+        assertEquals(Role.ADMIN.bit(), audit.getMask());
+        assertTrue(audit.permits("auditor"));
+        assertTrue(audit.permits("admin"));
+    }
+
+    @Test
+    void testCompiledRulesAreSharedAndCounted() throws Exception {
+        RouteAuthorizationTable table = new RouteAuthorizationTable();
+        Map<Object, HandlerMethod> mappings = new LinkedHashMap<>();
+        mappings.put("{GET [/api/kitchen]}", handler(new KitchenHandlers(), "inherited"));
+        mappings.put("{PUT [/api/kitchen/order]}", handler(new KitchenHandlers(), "overridden"));
+        mappings.put("{GET [/api/public]}", handler(new PublicHandlers(), "open"));
+        table.compile(mappings);
+
+        RouteAuthorizationTable.Rule rule = table.lookup(handler(new KitchenHandlers(), "inherited"));
+        assertSame(rule, table.lookup(handler(new KitchenHandlers(), "inherited")));
+        assertEquals("{GET [/api/kitchen]}", rule.getRoute());
+
+        rule.recordAllowed(100);
+        rule.recordAllowed(300);
+        rule.recordForbidden(200);
+        table.lookup(handler(new KitchenHandlers(), "overridden")).recordUnauthenticated(50);
+
+        List<Map<String, Object>> snapshot = table.snapshot();
+        assertEquals(2, snapshot.size(), "Unrestricted routes are not reported");
+        Map<String, Object> busiest = snapshot.get(0);
+        assertEquals("{GET [/api/kitchen]}", busiest.get("route"));
+        assertEquals(List.of("CHEF", "ADMIN"), busiest.get("roles"));
+        assertEquals(2L, busiest.get("allowed"));
+        assertEquals(0L, busiest.get("unauthenticated"));
+        assertEquals(1L, busiest.get("forbidden"));
+        assertEquals(200L, busiest.get("averageCheckNanos"));
+        assertEquals(1L, snapshot.get(1).get("unauthenticated"));
+    }
+}
@@ -9,9 +9,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
@@ -29,9 +32,12 @@ public class ChatbotControllerTest {
     @Test
     void testChatbotSimulatedReply() throws Exception {
         String json = "{\"message\": \"status of order #42\", \"simulate\": true}";
-        mockMvc.perform(post("/api/chatbot")
+        MvcResult result = mockMvc.perform(post("/api/chatbot")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(json))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.reply").value(org.hamcrest.Matchers.containsString("Order #42")))
                 .andExpect(jsonPath("$.simulated").value(true));
@@ -40,9 +46,12 @@ public class ChatbotControllerTest {
     @Test
     void testChatbotMissingMessageError() throws Exception {
         String json = "{\"simulate\": true}";
-        mockMvc.perform(post("/api/chatbot")
+        MvcResult result = mockMvc.perform(post("/api/chatbot")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(json))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error").value("message is required"));
     }
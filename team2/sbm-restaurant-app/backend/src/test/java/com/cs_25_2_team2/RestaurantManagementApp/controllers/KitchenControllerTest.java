@@ -8,10 +8,12 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -22,9 +24,12 @@ import com.cs_25_2_team2.RestaurantManagementApp.entities.CustomerEntity;
 import com.cs_25_2_team2.RestaurantManagementApp.entities.OrderEntity;
 import com.cs_25_2_team2.RestaurantManagementApp.entities.OrderQueueEntity;
 import com.cs_25_2_team2.RestaurantManagementApp.entities.StaffEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.repositories.KitchenQueueItem;
 import com.cs_25_2_team2.RestaurantManagementApp.repositories.OrderQueueRepository;
 import com.cs_25_2_team2.RestaurantManagementApp.repositories.OrderRepository;
 import com.cs_25_2_team2.RestaurantManagementApp.repositories.StaffRepository;
+import com.cs_25_2_team2.RestaurantManagementApp.services.OrderStateMachine;
+import com.cs_25_2_team2.RestaurantManagementApp.services.OrderStatusChangedEvent;
 
 public class KitchenControllerTest {
 
@@ -40,6 +45,7 @@ public class KitchenControllerTest {
     private long nextOrderId = 1L;
     private long nextQueueId = 1L;
     private long nextStaffId = 1L;
+    private final List<Object> publishedEvents = new ArrayList<>();
 
     @BeforeEach
     public void setUp() {
@@ -47,12 +53,14 @@ public class KitchenControllerTest {
         orderStorage.clear();
         queueStorage.clear();
         staffStorage.clear();
+        publishedEvents.clear();
         nextOrderId = 1L;
         nextQueueId = 1L;
         nextStaffId = 1L;
         
         setupMockRepositories();
-        kitchenController = new KitchenController(mockOrderRepository, mockOrderQueueRepository, mockStaffRepository);
+        kitchenController = new KitchenController(mockOrderRepository, mockOrderQueueRepository, mockStaffRepository,
+                null, publishedEvents::add, new OrderStateMachine(mockOrderRepository, mockOrderQueueRepository, publishedEvents::add, 5, 0));
     }
 
     private void setupMockRepositories() {
@@ -86,6 +94,21 @@ public class KitchenControllerTest {
                             Long orderIdToCheck = (Long) args[0];
                             return orderStorage.containsKey(orderIdToCheck);
                             
+                        case "transitionStatus":
+                        case "transitionStatusAndAssignChef":
+                            // Conditional update: only matches the expected status and version
+                            OrderEntity current = orderStorage.get((Long) args[0]);
+                            if (current == null || current.getStatus() != args[1]
+                                    || !Objects.equals(current.getVersion(), args[2])) {
+                                return 0;
+                            }
+                            current.setStatus((OrderEntity.OrderStatus) args[3]);
+                            current.setVersion(current.getVersion() == null ? 1L : current.getVersion() + 1);
+                            if (args.length > 4) {
+                                current.setAssignedChef((StaffEntity) args[4]);
+                            }
+                            return 1;
+                            
                         default:
                             throw new UnsupportedOperationException("Mock method not implemented: " + method.getName());
                     }
@@ -135,6 +158,30 @@ public class KitchenControllerTest {
                                     .filter(q -> q.getReadyForDeliveryAt() != null && q.getOutForDeliveryAt() == null)
                                     .toList();
                                     
+                        case "findQueuePage":
+                            // Keyset page: rows after (afterAddedAt, afterQueueId), oldest first
+                            LocalDateTime afterAddedAt = (LocalDateTime) args[1];
+                            Long afterQueueId = (Long) args[2];
+                            return queueStorage.values().stream()
+                                    .filter(q -> q.getQueueState() == args[0])
+                                    .filter(q -> afterAddedAt == null
+                                            || q.getAddedToQueueAt().isAfter(afterAddedAt)
+                                            || (q.getAddedToQueueAt().isEqual(afterAddedAt)
+                                                    && q.getQueueId() > afterQueueId))
+                                    .sorted(Comparator.comparing(OrderQueueEntity::getAddedToQueueAt)
+                                            .thenComparing(OrderQueueEntity::getQueueId))
+                                    .limit((Integer) args[3])
+                                    .map(q -> new KitchenQueueItem(q.getQueueId(), q.getAddedToQueueAt(),
+                                            q.getQueueState(), q.getOrder().getOrderId(), q.getOrder().getStatus(),
+                                            q.getOrder().getTotalPrice(), q.getOrder().getCreatedAt(), null, null,
+                                            null, null, 0))
+                                    .toList();
+                                    
+                        case "countByQueueState":
+                            return queueStorage.values().stream()
+                                    .filter(q -> q.getQueueState() == args[0])
+                                    .count();
+                                    
                         default:
                             throw new UnsupportedOperationException("Mock method not implemented: " + method.getName());
                     }
@@ -226,6 +273,12 @@ public class KitchenControllerTest {
         OrderEntity updatedOrder = orderStorage.get(order.getOrderId());
         assertEquals(OrderEntity.OrderStatus.Preparing, updatedOrder.getStatus());
         assertNotNull(updatedOrder.getAssignedChef());
+        assertEquals(OrderQueueEntity.QueueState.Preparing,
+                mockOrderQueueRepository.findByOrderOrderId(order.getOrderId()).orElseThrow().getQueueState());
+        
+        // Kitchen screens are notified of the transition
+        assertEquals(List.of(new OrderStatusChangedEvent(order.getOrderId(),
+                OrderEntity.OrderStatus.Placed, OrderEntity.OrderStatus.Preparing, chef.getStaffId())), publishedEvents);
     }
 
     @Test
@@ -270,6 +323,22 @@ public class KitchenControllerTest {
         // Verify order status was updated
         OrderEntity updatedOrder = orderStorage.get(order.getOrderId());
         assertEquals(OrderEntity.OrderStatus.ReadyForDelivery, updatedOrder.getStatus());
+        assertEquals(OrderQueueEntity.QueueState.ReadyForDelivery,
+                mockOrderQueueRepository.findByOrderOrderId(order.getOrderId()).orElseThrow().getQueueState());
+    }
+
+    @Test
+    public void testStartPreparingOrderTwiceConflicts() {
+        OrderEntity order = createTestOrder("Test Order", OrderEntity.OrderStatus.Placed);
+        createTestChef("Chef Mario", StaffEntity.StaffRole.Chef);
+        createTestQueueEntry(order, null, null);
+        
+        assertEquals(HttpStatus.OK, kitchenController.startPreparingOrder(order.getOrderId()).getStatusCode());
+        ResponseEntity<Map<String, Object>> second = kitchenController.startPreparingOrder(order.getOrderId());
+        
+        // The second tablet is told the order already moved on instead of silently re-assigning it
+        assertEquals(HttpStatus.CONFLICT, second.getStatusCode());
+        assertEquals(1, publishedEvents.size());
     }
 
     @Test
@@ -311,6 +380,32 @@ public class KitchenControllerTest {
         assertEquals(1, ready.size());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testGetOrderQueuePageFollowsCursor() {
+        for (int i = 0; i < 3; i++) {
+            createTestQueueEntry(createTestOrder("Pending " + i, OrderEntity.OrderStatus.Placed), null, null);
+        }
+        createTestQueueEntry(createTestOrder("Preparing", OrderEntity.OrderStatus.Preparing),
+                LocalDateTime.now(), null);
+        
+        ResponseEntity<Map<String, Object>> first = kitchenController.getOrderQueuePage("pending", null, null, 2);
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals(2, first.getBody().get("count"));
+        Map<String, Object> cursor = (Map<String, Object>) first.getBody().get("nextCursor");
+        assertNotNull(cursor);
+        
+        ResponseEntity<Map<String, Object>> second = kitchenController.getOrderQueuePage("pending",
+                LocalDateTime.parse((String) cursor.get("afterAddedAt")), (Long) cursor.get("afterQueueId"), 2);
+        assertEquals(1, second.getBody().get("count"));
+        assertNull(second.getBody().get("nextCursor"));
+        List<KitchenQueueItem> orders = (List<KitchenQueueItem>) second.getBody().get("orders");
+        assertEquals(3L, orders.get(0).orderId());
+        
+        assertEquals(HttpStatus.BAD_REQUEST,
+                kitchenController.getOrderQueuePage("cooking", null, null, 10).getStatusCode());
+    }
+
     // ============ Chef Management Tests ============
     
     @Test
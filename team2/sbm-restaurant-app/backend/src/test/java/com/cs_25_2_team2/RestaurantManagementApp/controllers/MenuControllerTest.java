@@ -18,8 +18,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.ResponseEntity;
 
+import com.cs_25_2_team2.RestaurantManagementApp.MenuItem;
 import com.cs_25_2_team2.RestaurantManagementApp.entities.MenuItemEntity;
 import com.cs_25_2_team2.RestaurantManagementApp.repositories.MenuItemRepository;
+import com.cs_25_2_team2.RestaurantManagementApp.services.MenuReadCache;
+import com.cs_25_2_team2.RestaurantManagementApp.services.MenuSearchIndex;
+import com.cs_25_2_team2.RestaurantManagementApp.services.MenuService;
 
 public class MenuControllerTest {
 
@@ -29,8 +33,6 @@ public class MenuControllerTest {
 
     @BeforeEach
     void setup() throws Exception {
-        controller = new MenuController();
-
         // Create dynamic proxy repository backed by in-memory handler
         handler = new InMemoryHandler();
         proxyRepo = (MenuItemRepository) Proxy.newProxyInstance(
@@ -39,6 +41,9 @@ public class MenuControllerTest {
             handler
         );
 
+        controller = new MenuController(proxyRepo, new MenuReadCache(proxyRepo, 100, 600),
+            new MenuSearchIndex(proxyRepo), new MenuService());
+
         // Inject proxyRepo into controller via reflection
         Field repoField = MenuController.class.getDeclaredField("menuItemRepository");
         repoField.setAccessible(true);
@@ -92,7 +97,7 @@ public class MenuControllerTest {
         controller.createMenuItem(a);
         controller.createMenuItem(b);
 
-        List<MenuItemEntity> all = controller.getAllMenuItems();
+        List<MenuItemEntity> all = controller.getAllMenuItems(null, null, null, null, null).getBody();
         assertNotNull(all);
         assertEquals(2, all.size(), "Should have 2 menu items");
         
@@ -177,6 +182,123 @@ public class MenuControllerTest {
         assertEquals(404, second.getStatusCode().value());
     }
 
+    @Test
+    void getAllMenuItems_is_cached_and_answers_304_for_current_etag() {
+        Map<String, Object> body = new HashMap<>();
+        body.put("dishName", "Burger");
+        body.put("price", "12.00");
+        body.put("category", "Main");
+        controller.createMenuItem(body);
+
+        ResponseEntity<List<MenuItemEntity>> first = controller.getAllMenuItems(null, null, null, null, null);
+        assertEquals(200, first.getStatusCode().value());
+        String etag = first.getHeaders().getETag();
+        assertNotNull(etag, "ETag header should be set");
+
+        ResponseEntity<List<MenuItemEntity>> revalidated = controller.getAllMenuItems(null, null, null, null, etag);
+        assertEquals(304, revalidated.getStatusCode().value());
+        assertTrue(revalidated.getBody() == null, "304 must not carry a body");
+        assertEquals(etag, revalidated.getHeaders().getETag());
+        assertEquals(1, handler.findAllCalls, "Second read should be served from the cache");
+    }
+
+    @Test
+    void getAllMenuItems_filters_and_sees_updates() {
+        Map<String, Object> burger = new HashMap<>();
+        burger.put("dishName", "Burger");
+        burger.put("price", "12.00");
+        burger.put("category", "Main");
+        Map<String, Object> fries = new HashMap<>();
+        fries.put("dishName", "Fries");
+        fries.put("price", "5.50");
+        fries.put("category", "Side");
+        controller.createMenuItem(burger);
+        Long friesId = handler.getIdFromEntity(controller.createMenuItem(fries).getBody());
+
+        List<MenuItemEntity> sides = controller.getAllMenuItems("Side", null, null, null, null).getBody();
+        assertEquals(1, sides.size());
+        assertEquals("Fries", sides.get(0).getDishName());
+
+        ResponseEntity<List<MenuItemEntity>> available = controller.getAllMenuItems(null, null, null, true, null);
+        assertEquals(2, available.getBody().size());
+        String etag = available.getHeaders().getETag();
+
+        Map<String, Object> soldOut = new HashMap<>();
+        soldOut.put("isAvailable", "false");
+        controller.updateMenuItem(friesId, soldOut);
+
+        // The update evicted the cached lists, so the old ETag no longer matches
+        ResponseEntity<List<MenuItemEntity>> afterUpdate = controller.getAllMenuItems(null, null, null, true, etag);
+        assertEquals(200, afterUpdate.getStatusCode().value());
+        assertEquals(1, afterUpdate.getBody().size());
+        assertEquals("Burger", afterUpdate.getBody().get(0).getDishName());
+    }
+
+    @Test
+    void getAllMenuItems_rejects_unknown_filter() {
+        assertEquals(400, controller.getAllMenuItems(null, "Microwaved", null, null, null).getStatusCode().value());
+    }
+
+    @Test
+    void searchMenuItems_ranks_prefix_and_typo_matches_and_follows_writes() {
+        Map<String, Object> baked = new HashMap<>();
+        baked.put("dishName", "Texas Loaded Baked Potato");
+        baked.put("price", "7.99");
+        baked.put("category", "Main");
+        Map<String, Object> soup = new HashMap<>();
+        soup.put("dishName", "Potato Soup");
+        soup.put("price", "5.99");
+        soup.put("category", "Soup");
+        Map<String, Object> fries = new HashMap<>();
+        fries.put("dishName", "Fries");
+        fries.put("price", "3.99");
+        fries.put("category", "Side");
+        controller.createMenuItem(baked);
+        Long soupId = handler.getIdFromEntity(controller.createMenuItem(soup).getBody());
+
+        // Unfinished word: shorter name ranks first among equal matches
+        List<MenuItemEntity> potatoes = controller.searchMenuItems("pota", 20).getBody();
+        assertEquals(2, potatoes.size());
+        assertEquals("Potato Soup", potatoes.get(0).getDishName());
+        assertEquals("Texas Loaded Baked Potato", potatoes.get(1).getDishName());
+
+        // Misspelled, and created after the index was loaded
+        controller.createMenuItem(fries);
+        assertEquals("Fries", controller.searchMenuItems("friez", 20).getBody().get(0).getDishName());
+
+        // Unavailable and deleted items drop out
+        Map<String, Object> soldOut = new HashMap<>();
+        soldOut.put("isAvailable", "false");
+        controller.updateMenuItem(soupId, soldOut);
+        List<MenuItemEntity> stillAvailable = controller.searchMenuItems("potato", 20).getBody();
+        assertEquals(1, stillAvailable.size());
+        assertEquals("Texas Loaded Baked Potato", stillAvailable.get(0).getDishName());
+        controller.deleteMenuItem(soupId);
+        assertTrue(controller.searchMenuItems("soup", 20).getBody().isEmpty());
+    }
+
+    @Test
+    void searchMenuItems_rejects_blank_query_and_bad_limit() {
+        assertEquals(400, controller.searchMenuItems("  ", 20).getStatusCode().value());
+        assertEquals(400, controller.searchMenuItems("fries", 0).getStatusCode().value());
+        assertEquals(400, controller.searchMenuItems("fries", 1000).getStatusCode().value());
+    }
+
+    @Test
+    void filterMenuItems_combines_diet_and_ingredient_terms() {
+        ResponseEntity<List<MenuItem>> resp =
+            controller.filterMenuItems(true, List.of("cheese"), List.of("bacon"));
+        assertEquals(200, resp.getStatusCode().value());
+        List<MenuItem> items = resp.getBody();
+        assertNotNull(items);
+        assertTrue(!items.isEmpty());
+        for (MenuItem item : items) {
+            assertTrue(item.isVegetarian(), item.getDishName() + " should be vegetarian");
+            assertTrue(item.containsIngredient("Cheese"), item.getDishName() + " should contain cheese");
+        }
+        assertTrue(controller.filterMenuItems(false, List.of("unicorn"), null).getBody().isEmpty());
+    }
+
     @Test
     void getCategories_returns_available_categories() {
         ResponseEntity<List<String>> resp = controller.getCategories();
@@ -224,12 +346,18 @@ public class MenuControllerTest {
     private static class InMemoryHandler implements InvocationHandler {
         private final Map<Long, MenuItemEntity> store = new LinkedHashMap<>();
         private final AtomicLong counter = new AtomicLong(1);
+        int findAllCalls;
 
         @Override
         public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
             String name = method.getName();
 
+            if ("findAllWithIngredients".equals(name)) {
+                return new ArrayList<>(store.values());
+            }
+
             if ("findAll".equals(name) && (args == null || args.length == 0)) {
+                findAllCalls++;
                 return new ArrayList<>(store.values());
             }
 
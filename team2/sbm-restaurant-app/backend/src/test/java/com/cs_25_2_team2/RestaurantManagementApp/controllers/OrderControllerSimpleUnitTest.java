@@ -1,7 +1,9 @@
 package com.cs_25_2_team2.RestaurantManagementApp.controllers;
 
 import com.cs_25_2_team2.RestaurantManagementApp.entities.OrderEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.repositories.OrderQueueRepository;
 import com.cs_25_2_team2.RestaurantManagementApp.repositories.OrderRepository;
+import com.cs_25_2_team2.RestaurantManagementApp.services.OrderStateMachine;
 import com.cs_25_2_team2.RestaurantManagementApp.services.RestaurantService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,21 +12,22 @@ import java.util.HashMap;
 import java.util.Map;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletRequest;
 
 class OrderControllerSimpleUnitTest {
     private OrderRepository orderRepository;
     private RestaurantService restaurantService;
     private OrderController orderController;
-    private HttpSession session;
+    private HttpServletRequest request;
 
     @BeforeEach
     void setUp() {
         orderRepository = mock(OrderRepository.class);
         restaurantService = mock(RestaurantService.class);
-        orderController = new OrderController(orderRepository, restaurantService);
-        session = mock(HttpSession.class);
-        when(session.getAttribute("userId")).thenReturn(1L);
+        orderController = new OrderController(orderRepository, restaurantService,
+                new OrderStateMachine(orderRepository, mock(OrderQueueRepository.class), event -> {}, 5, 0));
+        request = mock(HttpServletRequest.class);
+        when(request.getAttribute("userId")).thenReturn(1L);
     }
 
     @Test
@@ -51,10 +54,10 @@ class OrderControllerSimpleUnitTest {
     }
 
     @Test
-    void testCreateOrderHandlesSession() {
+    void testCreateOrderHandlesRequestUser() {
         Map<String, Object> orderData = new HashMap<>();
         orderData.put("totalPrice", 10.0);
-        ResponseEntity<?> response = orderController.createOrder(orderData, session);
+        ResponseEntity<?> response = orderController.createOrder(orderData, request);
     int code = response.getStatusCode().value();
     assertTrue(code == 200 || code == 400);
     }
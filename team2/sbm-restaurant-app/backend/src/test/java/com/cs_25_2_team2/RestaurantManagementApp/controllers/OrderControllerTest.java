@@ -21,10 +21,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.http.ResponseEntity;
 
 import com.cs_25_2_team2.RestaurantManagementApp.entities.OrderEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.repositories.OrderQueueRepository;
 import com.cs_25_2_team2.RestaurantManagementApp.repositories.OrderRepository;
+import com.cs_25_2_team2.RestaurantManagementApp.services.OrderStateMachine;
 import com.cs_25_2_team2.RestaurantManagementApp.services.RestaurantService;
 
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletRequest;
 
 public class OrderControllerTest {
 
@@ -32,12 +34,10 @@ public class OrderControllerTest {
     private OrderRepository proxyRepo;
     private InMemoryHandler handler;
     private RestaurantService restaurantService; 
-    private HttpSession session;
+    private HttpServletRequest request;
 
     @BeforeEach
     void setup() throws Exception {
-        controller = new OrderController(proxyRepo, restaurantService);
-
         // Create dynamic proxy repository backed by in-memory handler
         handler = new InMemoryHandler();
         proxyRepo = (OrderRepository) Proxy.newProxyInstance(
@@ -46,33 +46,45 @@ public class OrderControllerTest {
             handler
         );
 
+        // No order in these tests has a kitchen queue entry
+        OrderQueueRepository queueRepo = (OrderQueueRepository) Proxy.newProxyInstance(
+            OrderQueueRepository.class.getClassLoader(),
+            new Class<?>[]{OrderQueueRepository.class},
+            (proxy, method, args) -> Optional.empty()
+        );
+
+        controller = new OrderController(proxyRepo, restaurantService,
+            new OrderStateMachine(proxyRepo, queueRepo, event -> {}, 5, 0));
+
         // Inject proxyRepo into controller via reflection
         Field repoField = OrderController.class.getDeclaredField("orderRepository");
         repoField.setAccessible(true);
         repoField.set(controller, proxyRepo);
 
-        // Mock HttpSession with basic attributes
-            session = new jakarta.servlet.http.HttpSession() {
-            private int maxInactiveInterval = 0;
-            @Override public int getMaxInactiveInterval() { return maxInactiveInterval; }
-            @Override public void setMaxInactiveInterval(int interval) { maxInactiveInterval = interval; }
-            @Override public jakarta.servlet.ServletContext getServletContext() { return null; }
-            private final Map<String, Object> attributes = new HashMap<>();
-            {
-                attributes.put("userId", 1L);
-                attributes.put("userType", "CUSTOMER");
-                attributes.put("username", "testuser");
+        // Request carrying the user attributes AuthInterceptor resolves
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("userId", 1L);
+        attributes.put("userType", "CUSTOMER");
+        attributes.put("username", "testuser");
+        request = requestWith(attributes);
+    }
+
+    /**
+     * Request proxy that only supports attributes
+     */
+    private static HttpServletRequest requestWith(Map<String, Object> attributes) {
+        return (HttpServletRequest) Proxy.newProxyInstance(
+            HttpServletRequest.class.getClassLoader(),
+            new Class<?>[]{HttpServletRequest.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getAttribute": return attributes.get(args[0]);
+                    case "setAttribute": attributes.put((String) args[0], args[1]); return null;
+                    case "removeAttribute": attributes.remove(args[0]); return null;
+                    default: return null;
+                }
             }
-            @Override public Object getAttribute(String name) { return attributes.get(name); }
-            @Override public void setAttribute(String name, Object value) { attributes.put(name, value); }
-            @Override public void removeAttribute(String name) { attributes.remove(name); }
-            @Override public java.util.Enumeration<String> getAttributeNames() { return java.util.Collections.enumeration(attributes.keySet()); }
-            @Override public long getCreationTime() { return 0; }
-            @Override public String getId() { return "mockSession"; }
-            @Override public long getLastAccessedTime() { return 0; }
-            @Override public void invalidate() {}
-            @Override public boolean isNew() { return false; }
-        };
+        );
     }
 
     @Test
@@ -80,7 +92,7 @@ public class OrderControllerTest {
         Map<String, Object> body = new HashMap<>();
         body.put("totalPrice", "12.50");
 
-    ResponseEntity<?> resp = controller.createOrder(body, session);
+    ResponseEntity<?> resp = controller.createOrder(body, request);
     Assertions.assertEquals(201, resp.getStatusCodeValue(), "Should return 201 Created");
     Object respBody = resp.getBody();
     assertNotNull(respBody, "Created order body should not be null");
@@ -100,8 +112,8 @@ public class OrderControllerTest {
         Map<String, Object> b = new HashMap<>();
         b.put("totalPrice", "4.50");
 
-    controller.createOrder(a, session);
-    controller.createOrder(b, session);
+    controller.createOrder(a, request);
+    controller.createOrder(b, request);
 
         List<OrderEntity> all = controller.getAllOrders();
         assertNotNull(all);
@@ -123,7 +135,7 @@ public class OrderControllerTest {
         Map<String, Object> body = new HashMap<>();
         body.put("totalPrice", "7.25");
 
-    ResponseEntity<?> createdResp = controller.createOrder(body, session);
+    ResponseEntity<?> createdResp = controller.createOrder(body, request);
     Object respBody = createdResp.getBody();
     assertNotNull(respBody);
     assertTrue(respBody instanceof Map, "Response body should be a Map");
@@ -147,7 +159,7 @@ public class OrderControllerTest {
         Map<String, Object> body = new HashMap<>();
         body.put("totalPrice", "2.00");
 
-        ResponseEntity<?> createdResp = controller.createOrder(body, session);
+        ResponseEntity<?> createdResp = controller.createOrder(body, request);
         Object respBody = createdResp.getBody();
         assertNotNull(respBody);
     assertTrue(respBody instanceof Map, "Response body should be a Map");
@@ -186,7 +198,7 @@ public class OrderControllerTest {
         Map<String, Object> body = new HashMap<>();
         body.put("totalPrice", "9.99");
 
-    ResponseEntity<?> createdResp = controller.createOrder(body, session);
+    ResponseEntity<?> createdResp = controller.createOrder(body, request);
     Object respBody = createdResp.getBody();
     assertNotNull(respBody);
     assertTrue(respBody instanceof Map, "Response body should be a Map");
@@ -246,6 +258,18 @@ public class OrderControllerTest {
                 return null;
             }
 
+            // conditional status update: only matches the expected status and version
+            if ("transitionStatus".equals(name) && args != null && args.length == 4) {
+                OrderEntity current = store.get(toLong(args[0]));
+                if (current == null || current.getStatus() != args[1]
+                        || !java.util.Objects.equals(current.getVersion(), args[2])) {
+                    return 0;
+                }
+                current.setStatus((OrderEntity.OrderStatus) args[3]);
+                current.setVersion(current.getVersion() == null ? 1L : current.getVersion() + 1);
+                return 1;
+            }
+
             // fallback for other methods used implicitly by JPA interfaces
             // Provide reasonable defaults to avoid failing reflective calls in tests
             if ("getOne".equals(name) || "getById".equals(name)) {
@@ -364,31 +388,17 @@ public class OrderControllerTest {
 void createOrder_missingTotalPrice_returnsBadRequest() {
     Map<String, Object> body = new HashMap<>();
     // No totalPrice
-    ResponseEntity<?> resp = controller.createOrder(body, session);
+    ResponseEntity<?> resp = controller.createOrder(body, request);
     assertEquals(400, resp.getStatusCode().value());
 }
 
 @Test
-void createOrder_missingSessionAttributes_returnsBadRequest() {
+void createOrder_missingUserAttributes_returnsBadRequest() {
     Map<String, Object> body = new HashMap<>();
     body.put("totalPrice", "10.00");
-    // Session missing userId and userType
-    HttpSession badSession = new jakarta.servlet.http.HttpSession() {
-        private final Map<String, Object> attributes = new HashMap<>();
-        @Override public Object getAttribute(String name) { return attributes.get(name); }
-        @Override public void setAttribute(String name, Object value) { attributes.put(name, value); }
-        @Override public void removeAttribute(String name) { attributes.remove(name); }
-        @Override public java.util.Enumeration<String> getAttributeNames() { return java.util.Collections.enumeration(attributes.keySet()); }
-        @Override public long getCreationTime() { return 0; }
-        @Override public String getId() { return "badSession"; }
-        @Override public long getLastAccessedTime() { return 0; }
-        @Override public int getMaxInactiveInterval() { return 0; }
-        @Override public void setMaxInactiveInterval(int interval) {}
-        @Override public jakarta.servlet.ServletContext getServletContext() { return null; }
-        @Override public void invalidate() {}
-        @Override public boolean isNew() { return false; }
-    };
-    ResponseEntity<?> resp = controller.createOrder(body, badSession);
+    // Request missing userId and userType
+    HttpServletRequest badRequest = requestWith(new HashMap<>());
+    ResponseEntity<?> resp = controller.createOrder(body, badRequest);
     assertEquals(400, resp.getStatusCode().value());
 }
 
@@ -396,7 +406,7 @@ void createOrder_missingSessionAttributes_returnsBadRequest() {
 void updateStatus_invalidStatus_returnsBadRequest() {
     Map<String, Object> body = new HashMap<>();
     body.put("totalPrice", "5.00");
-    ResponseEntity<?> createdResp = controller.createOrder(body, session);
+    ResponseEntity<?> createdResp = controller.createOrder(body, request);
     Object respBody = createdResp.getBody();
     assertNotNull(respBody);
     @SuppressWarnings("unchecked")
@@ -412,7 +422,7 @@ void updateStatus_invalidStatus_returnsBadRequest() {
 void updateStatus_missingStatus_returnsBadRequest() {
     Map<String, Object> body = new HashMap<>();
     body.put("totalPrice", "5.00");
-    ResponseEntity<?> createdResp = controller.createOrder(body, session);
+    ResponseEntity<?> createdResp = controller.createOrder(body, request);
     Object respBody = createdResp.getBody();
     assertNotNull(respBody);
     @SuppressWarnings("unchecked")
@@ -1,7 +1,17 @@
 package com.cs_25_2_team2.RestaurantManagementApp.controllers;
 
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.cs_25_2_team2.RestaurantManagementApp.services.RecipeService;
+
+import reactor.core.publisher.Mono;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class RecipeControllerTest {
@@ -24,4 +34,29 @@ class RecipeControllerTest {
             assertTrue(e instanceof Exception);
         }
     }
+
+    @Test
+    void testGetPotatoRecipesClampsNumber() throws Exception {
+        List<Integer> requested = new ArrayList<>();
+        RecipeService recordingService = new RecipeService(WebClient.builder(), "http://localhost", 1000, 600, 3,
+                30000, 1) {
+            @Override
+            public Mono<String> fetchPotatoRecipes(int number) {
+                requested.add(number);
+                return Mono.just("{}");
+            }
+        };
+        RecipeController controller = new RecipeController();
+        Field field = RecipeController.class.getDeclaredField("recipeService");
+        field.setAccessible(true);
+        field.set(controller, recordingService);
+
+        controller.getPotatoRecipes(0).block();
+        controller.getPotatoRecipes(-5).block();
+        controller.getPotatoRecipes(7).block();
+        controller.getPotatoRecipes(100000).block();
+
+        assertEquals(List.of(1, 1, 7, RecipeService.MAX_RECIPES), requested);
+        recordingService.close();
+    }
 }
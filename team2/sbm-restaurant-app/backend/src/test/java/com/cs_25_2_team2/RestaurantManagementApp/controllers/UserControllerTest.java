@@ -1,15 +1,19 @@
 package com.cs_25_2_team2.RestaurantManagementApp.controllers;
 
+import com.cs_25_2_team2.RestaurantManagementApp.auth.LoginThrottle;
 import com.cs_25_2_team2.RestaurantManagementApp.entities.CustomerEntity;
 import com.cs_25_2_team2.RestaurantManagementApp.entities.StaffEntity;
 import com.cs_25_2_team2.RestaurantManagementApp.repositories.CustomerRepository;
 import com.cs_25_2_team2.RestaurantManagementApp.repositories.StaffRepository;
+import com.cs_25_2_team2.RestaurantManagementApp.services.PrincipalDirectory;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import jakarta.servlet.http.HttpServletRequest;
+
 import java.lang.reflect.Proxy;
 import java.lang.reflect.Field;
 import java.util.*;
@@ -27,6 +31,7 @@ public class UserControllerTest {
     private final Map<Long, StaffEntity> staffStorage = new HashMap<>();
     private long nextCustomerId = 1L;
     private long nextStaffId = 1L;
+    private int repositoryCalls;
 
     @BeforeEach
     public void setUp() throws Exception {
@@ -52,6 +57,22 @@ public class UserControllerTest {
         Field staffRepoField = UserController.class.getDeclaredField("staffRepository");
         staffRepoField.setAccessible(true);
         staffRepoField.set(userController, mockStaffRepository);
+
+        Field throttleField = UserController.class.getDeclaredField("loginThrottle");
+        throttleField.setAccessible(true);
+        throttleField.set(userController, new LoginThrottle(3, 1, 100, 100, 1000));
+
+        Field directoryField = UserController.class.getDeclaredField("principalDirectory");
+        directoryField.setAccessible(true);
+        directoryField.set(userController,
+                new PrincipalDirectory(mockCustomerRepository, mockStaffRepository, 100, 600, 30));
+    }
+
+    private static HttpServletRequest requestFrom(String remoteAddr) {
+        return (HttpServletRequest) Proxy.newProxyInstance(
+                HttpServletRequest.class.getClassLoader(),
+                new Class[]{HttpServletRequest.class},
+                (proxy, method, args) -> "getRemoteAddr".equals(method.getName()) ? remoteAddr : null);
     }
 
     private void setupMockRepositories() {
@@ -60,6 +81,7 @@ public class UserControllerTest {
                 CustomerRepository.class.getClassLoader(),
                 new Class[]{CustomerRepository.class},
                 (proxy, method, args) -> {
+                    repositoryCalls++;
                     switch (method.getName()) {
                         case "save":
                             CustomerEntity customerToSave = (CustomerEntity) args[0];
@@ -110,6 +132,7 @@ public class UserControllerTest {
                 StaffRepository.class.getClassLoader(),
                 new Class[]{StaffRepository.class},
                 (proxy, method, args) -> {
+                    repositoryCalls++;
                     switch (method.getName()) {
                         case "save":
                             StaffEntity staffToSave = (StaffEntity) args[0];
@@ -176,7 +199,7 @@ public class UserControllerTest {
                 "password", "testpass"
         );
         
-        ResponseEntity<Map<String, Object>> response = userController.login(loginRequest);
+        ResponseEntity<Map<String, Object>> response = userController.login(loginRequest, requestFrom("127.0.0.1"));
         
         assertEquals(HttpStatus.OK, response.getStatusCode());
         Map<String, Object> responseBody = response.getBody();
@@ -201,7 +224,7 @@ public class UserControllerTest {
                 "password", "staffpass"
         );
         
-        ResponseEntity<Map<String, Object>> response = userController.login(loginRequest);
+        ResponseEntity<Map<String, Object>> response = userController.login(loginRequest, requestFrom("127.0.0.1"));
         
         assertEquals(HttpStatus.OK, response.getStatusCode());
         Map<String, Object> responseBody = response.getBody();
@@ -209,6 +232,28 @@ public class UserControllerTest {
         assertNotNull(responseBody.get("role"));
     }
 
+    @Test
+    public void testSecondLoginMakesNoRepositoryCall() {
+        StaffEntity staff = new StaffEntity();
+        staff.setStaffId(nextStaffId++);
+        staff.setUsername("staffuser");
+        staff.setPasswordHash("hashed_staffpass");
+        staff.setRole(StaffEntity.StaffRole.Delivery);
+        staffStorage.put(staff.getStaffId(), staff);
+        Map<String, Object> loginRequest = Map.of(
+                "username", "staffuser",
+                "password", "staffpass"
+        );
+
+        assertEquals(HttpStatus.OK, userController.login(loginRequest, requestFrom("127.0.0.1")).getStatusCode());
+        repositoryCalls = 0;
+        ResponseEntity<Map<String, Object>> response = userController.login(loginRequest, requestFrom("127.0.0.1"));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("Delivery", response.getBody().get("role"));
+        assertEquals(0, repositoryCalls);
+    }
+
     @Test
     public void testLoginInvalidCredentials() {
         Map<String, Object> loginRequest = Map.of(
@@ -216,11 +261,31 @@ public class UserControllerTest {
                 "password", "wrongpass"
         );
         
-        ResponseEntity<Map<String, Object>> response = userController.login(loginRequest);
+        ResponseEntity<Map<String, Object>> response = userController.login(loginRequest, requestFrom("127.0.0.1"));
         
         assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
     }
 
+    @Test
+    public void testLoginThrottledBeforeLookup() throws Exception {
+        Map<String, Object> loginRequest = Map.of(
+                "username", "nonexistent",
+                "password", "wrongpass"
+        );
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(HttpStatus.UNAUTHORIZED, userController.login(loginRequest, requestFrom("127.0.0.1")).getStatusCode());
+        }
+        // Throttled without touching the repositories
+        Field customerRepoField = UserController.class.getDeclaredField("customerRepository");
+        customerRepoField.setAccessible(true);
+        customerRepoField.set(userController, null);
+        ResponseEntity<Map<String, Object>> response = userController.login(loginRequest, requestFrom("127.0.0.2"));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertNotNull(response.getHeaders().getFirst("Retry-After"));
+    }
+
     // ============ Customer CRUD Tests ============
     
     @Test
@@ -392,6 +457,19 @@ public class UserControllerTest {
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
 
+    @Test
+    public void testFindByUsernameFollowsRegisterAndDelete() {
+        // A cached miss must not hide a user registered afterwards
+        assertEquals(HttpStatus.NOT_FOUND, userController.findByUsername("newcustomer").getStatusCode());
+        userController.registerCustomer(Map.of("username", "newcustomer", "password", "newpass"));
+        ResponseEntity<Map<String, Object>> found = userController.findByUsername("newcustomer");
+        assertEquals(HttpStatus.OK, found.getStatusCode());
+
+        // Nor a cached hit a user deleted afterwards
+        userController.deleteCustomer((Long) found.getBody().get("id"));
+        assertEquals(HttpStatus.NOT_FOUND, userController.findByUsername("newcustomer").getStatusCode());
+    }
+
     // ============ Helper Methods ============
     
     private CustomerEntity createTestCustomer(String username, String name) {
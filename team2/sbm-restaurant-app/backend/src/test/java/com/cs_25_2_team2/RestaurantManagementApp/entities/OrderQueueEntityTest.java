@@ -24,4 +24,21 @@ class OrderQueueEntityTest {
         assertEquals(now, queue.getOutForDeliveryAt());
         assertEquals(now, queue.getDeliveredAt());
     }
+
+    @Test
+    void testQueueStateFollowsTimestamps() {
+        OrderQueueEntity queue = new OrderQueueEntity(new OrderEntity());
+        java.time.LocalDateTime now = java.time.LocalDateTime.now();
+        assertEquals(OrderQueueEntity.QueueState.Pending, queue.getQueueState());
+        queue.setStartedPreparingAt(now);
+        assertEquals(OrderQueueEntity.QueueState.Preparing, queue.getQueueState());
+        queue.setReadyForDeliveryAt(now);
+        assertEquals(OrderQueueEntity.QueueState.ReadyForDelivery, queue.getQueueState());
+        queue.setOutForDeliveryAt(now);
+        assertEquals(OrderQueueEntity.QueueState.OutForDelivery, queue.getQueueState());
+        queue.setDeliveredAt(now);
+        assertEquals(OrderQueueEntity.QueueState.Delivered, queue.getQueueState());
+        queue.setDeliveredAt(null);
+        assertEquals(OrderQueueEntity.QueueState.OutForDelivery, queue.getQueueState());
+    }
 }
@@ -3,6 +3,7 @@ package com.cs_25_2_team2.RestaurantManagementApp.legacy_tests;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -226,6 +227,21 @@ class ChefTest {
     Delivery deliveryStaff = new Delivery("Bob", "789 Delivery St", "555-9999", 456L);
     chef.sendToDelivery(testOrder.getId(), deliveryStaff);
     assertEquals(Order.Status.OutForDelivery, testOrder.getStatus());
+    assertEquals(0, chef.getOrderCount());
+  }
+
+  @Test
+  @DisplayName("Test releasing an order drops it from the chef")
+  void testReleaseOrder() {
+    chef.receiveOrder(testOrder);
+    testOrder.updateStatus(Order.Status.Placed);
+    chef.startPreparingOrder(testOrder.getId());
+
+    assertEquals(testOrder, chef.releaseOrder(testOrder.getId()));
+    assertEquals(0, chef.getOrderCount());
+    assertEquals(0, chef.getActiveOrderCount());
+    assertFalse(chef.isBusy());
+    assertNull(chef.releaseOrder(testOrder.getId()));
   }
 
   @Test
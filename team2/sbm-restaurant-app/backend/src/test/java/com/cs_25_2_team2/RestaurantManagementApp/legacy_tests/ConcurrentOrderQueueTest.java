@@ -0,0 +1,271 @@
+package com.cs_25_2_team2.RestaurantManagementApp.legacy_tests;
+
+import com.cs_25_2_team2.RestaurantManagementApp.CartItem;
+import com.cs_25_2_team2.RestaurantManagementApp.ConcurrentOrderQueue;
+import com.cs_25_2_team2.RestaurantManagementApp.Customer;
+import com.cs_25_2_team2.RestaurantManagementApp.MenuItem;
+import com.cs_25_2_team2.RestaurantManagementApp.Order;
+import com.cs_25_2_team2.RestaurantManagementApp.exceptions.OrderNotFoundException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ConcurrentOrderQueueTest {
+  private ConcurrentOrderQueue orderQueue;
+  private Customer customer;
+  private MenuItem fries;
+
+  @BeforeEach
+  void setUp() {
+    orderQueue = new ConcurrentOrderQueue();
+    customer = new Customer(1L, "John Doe", "123 Main St", "555-1234");
+    fries =
+        new MenuItem(1, "Fries", 3.99, MenuItem.CookedType.Fried, MenuItem.PotatoType.Russet, true);
+  }
+
+  private Order createOrder(int id) {
+    List<CartItem> items = new ArrayList<>();
+    items.add(new CartItem(fries, 1));
+    return new Order(id, customer, items, new Date(System.currentTimeMillis()));
+  }
+
+  @Test
+  @DisplayName("Test priority then FIFO ordering")
+  void testPriorityOrdering() {
+    orderQueue.add(createOrder(1), 3);
+    orderQueue.add(createOrder(2), 1);
+    orderQueue.add(createOrder(3), 3);
+    orderQueue.add(createOrder(4), 5);
+
+    assertEquals(2, orderQueue.peek().getId());
+    assertEquals(2, orderQueue.remove().getId());
+    assertEquals(1, orderQueue.remove().getId());
+    assertEquals(3, orderQueue.remove().getId());
+    assertEquals(4, orderQueue.remove().getId());
+    assertTrue(orderQueue.isEmpty());
+    assertThrows(NoSuchElementException.class, () -> orderQueue.remove());
+  }
+
+  @Test
+  @DisplayName("Test lookup, update priority and remove by ID")
+  void testIndexedOperations() {
+    orderQueue.add(createOrder(1), 2);
+    orderQueue.add(createOrder(2), 2);
+
+    assertTrue(orderQueue.contains(1));
+    assertEquals(1, orderQueue.get(1).getId());
+
+    orderQueue.updatePriority(1, 4);
+    assertEquals(4, orderQueue.getPriority(1));
+    assertEquals(2, orderQueue.peek().getId());
+    assertEquals(1, orderQueue.getByPriority(4).size());
+
+    assertEquals(1, orderQueue.remove(1).getId());
+    assertFalse(orderQueue.contains(1));
+    assertThrows(OrderNotFoundException.class, () -> orderQueue.get(1));
+    assertThrows(OrderNotFoundException.class, () -> orderQueue.remove(1));
+    assertThrows(IllegalArgumentException.class, () -> orderQueue.add(createOrder(2)));
+    assertThrows(IllegalArgumentException.class, () -> orderQueue.updatePriority(2, 0));
+  }
+
+  @Test
+  @DisplayName("Test iterator is a weakly consistent view")
+  void testIterator() {
+    orderQueue.add(createOrder(1), 2);
+    orderQueue.add(createOrder(2), 1);
+
+    Iterator<Order> iterator = orderQueue.iterator();
+    assertEquals(2, iterator.next().getId());
+    orderQueue.add(createOrder(3), 5); // concurrent modification is tolerated
+    iterator.remove();
+
+    assertFalse(orderQueue.contains(2));
+    assertEquals(1, iterator.next().getId());
+    assertTrue(iterator.hasNext());
+    assertEquals(3, iterator.next().getId());
+    assertEquals(2, orderQueue.size());
+  }
+
+  @Test
+  @DisplayName("Test timed poll returns null when nothing arrives")
+  void testPollTimeout() throws InterruptedException {
+    assertNull(orderQueue.poll());
+    assertNull(orderQueue.poll(10, TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  @DisplayName("Test take blocks until an order is added")
+  void testTakeBlocksUntilAdd() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<Order> taken = executor.submit(() -> orderQueue.take());
+      Thread.sleep(50);
+      assertFalse(taken.isDone());
+
+      orderQueue.add(createOrder(7));
+      assertEquals(7, taken.get(5, TimeUnit.SECONDS).getId());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  @DisplayName("Test concurrent producers and consumers see every order exactly once")
+  void testConcurrentProducersAndConsumers() throws Exception {
+    int producers = 4;
+    int consumers = 4;
+    int perProducer = 500;
+    ExecutorService executor = Executors.newFixedThreadPool(producers + consumers);
+    Set<Integer> consumed = ConcurrentHashMap.newKeySet();
+    CountDownLatch done = new CountDownLatch(producers * perProducer);
+
+    try {
+      for (int c = 0; c < consumers; c++) {
+        executor.submit(
+            () -> {
+              while (!Thread.currentThread().isInterrupted()) {
+                Order order = orderQueue.poll(100, TimeUnit.MILLISECONDS);
+                if (order != null) {
+                  assertTrue(consumed.add(order.getId()));
+                  done.countDown();
+                }
+              }
+              return null;
+            });
+      }
+      for (int p = 0; p < producers; p++) {
+        int base = p * perProducer;
+        executor.submit(
+            () -> {
+              for (int i = 1; i <= perProducer; i++) {
+                orderQueue.add(createOrder(base + i), 1 + (i % 5));
+              }
+            });
+      }
+
+      assertTrue(done.await(30, TimeUnit.SECONDS));
+      assertEquals(producers * perProducer, consumed.size());
+      assertTrue(orderQueue.isEmpty());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  @DisplayName("Test lookups never miss an order while it is being moved")
+  void testLookupsDuringUpdates() throws Exception {
+    int orders = 50;
+    for (int i = 1; i <= orders; i++) {
+      orderQueue.add(createOrder(i), 1 + (i % 5));
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    CountDownLatch stop = new CountDownLatch(1);
+
+    try {
+      Future<?> updater =
+          executor.submit(
+              () -> {
+                for (int round = 0; round < 20000; round++) {
+                  int id = 1 + (round % orders);
+                  if (round % 2 == 0) {
+                    orderQueue.updatePriority(id, 1 + (round % 5));
+                  } else {
+                    orderQueue.update(id, createOrder(id));
+                  }
+                }
+                stop.countDown();
+              });
+      List<Future<?>> readers = new ArrayList<>();
+      for (int r = 0; r < 3; r++) {
+        readers.add(
+            executor.submit(
+                () -> {
+                  while (stop.getCount() > 0) {
+                    for (int id = 1; id <= orders; id++) {
+                      assertTrue(orderQueue.contains(id));
+                      assertEquals(id, orderQueue.get(id).getId());
+                    }
+                    assertEquals(orders, orderQueue.size());
+                  }
+                  return null;
+                }));
+      }
+
+      updater.get(30, TimeUnit.SECONDS);
+      for (Future<?> reader : readers) {
+        reader.get(30, TimeUnit.SECONDS);
+      }
+      assertEquals(orders, orderQueue.getAll().size());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  @DisplayName("Test polls racing updates take every order exactly once")
+  void testPollsDuringUpdates() throws Exception {
+    int orders = 2000;
+    for (int i = 1; i <= orders; i++) {
+      orderQueue.add(createOrder(i), 1 + (i % 5));
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    Set<Integer> consumed = ConcurrentHashMap.newKeySet();
+    CountDownLatch done = new CountDownLatch(orders);
+
+    try {
+      for (int u = 0; u < 2; u++) {
+        executor.submit(
+            () -> {
+              int round = 0;
+              while (done.getCount() > 0) {
+                int id = 1 + (round++ % orders);
+                try {
+                  orderQueue.updatePriority(id, 1 + (round % 5));
+                } catch (OrderNotFoundException alreadyPolled) {
+                  // Expected once a poller has taken the order
+                }
+              }
+            });
+      }
+      for (int c = 0; c < 2; c++) {
+        executor.submit(
+            () -> {
+              Order order;
+              while ((order = orderQueue.poll()) != null) {
+                assertTrue(consumed.add(order.getId()));
+                done.countDown();
+              }
+            });
+      }
+
+      assertTrue(done.await(30, TimeUnit.SECONDS));
+      assertEquals(orders, consumed.size());
+      assertTrue(orderQueue.isEmpty());
+      for (int id = 1; id <= orders; id++) {
+        assertFalse(orderQueue.contains(id));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package com.cs_25_2_team2.RestaurantManagementApp.legacy_tests;
+
+import com.cs_25_2_team2.RestaurantManagementApp.DietaryIndex;
+import com.cs_25_2_team2.RestaurantManagementApp.Ingredient;
+import com.cs_25_2_team2.RestaurantManagementApp.Menu;
+import com.cs_25_2_team2.RestaurantManagementApp.MenuItem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class DietaryIndexTest {
+
+  private MenuItem texas;
+  private MenuItem ranch;
+  private MenuItem pollo;
+  private MenuItem hashBrowns;
+
+  @BeforeEach
+  void setUp() {
+    texas = item(1, "Texas Style Baked Potato", "Cheese", "Bacon", "Sour Cream");
+    ranch = item(2, "CB Ranch Baked Potato", "Cheddar Cheese", "Green Onions", "Ranch");
+    pollo = item(3, "Pollo Mexicano Baked Potato", "Cheese", "Chicken", "Pico de Gallo");
+    hashBrowns = item(4, "Hash Browns", "Salt", "Pepper");
+  }
+
+  private static MenuItem item(int id, String name, String... ingredients) {
+    MenuItem item =
+        new MenuItem(id, name, 9.99, MenuItem.CookedType.Baked, MenuItem.PotatoType.Russet, true);
+    for (String ingredient : ingredients) {
+      item.addIngredient(new Ingredient(ingredient, true, true, 0.0));
+    }
+    return item;
+  }
+
+  @Test
+  @DisplayName("Test vegetarian, without and with ingredient filters combine")
+  void testCombinedFilter() {
+    DietaryIndex index = DietaryIndex.of(List.of(texas, ranch, pollo, hashBrowns));
+
+    assertEquals(List.of(ranch, hashBrowns), index.filter(true, null, null));
+    assertEquals(List.of(texas, ranch, pollo), index.filter(false, List.of("cheese"), null));
+    assertEquals(List.of(ranch), index.filter(true, List.of("cheese"), List.of("bacon")));
+    assertEquals(List.of(ranch), index.filter(false, List.of("CHEESE", "onion"), List.of()));
+    assertEquals(List.of(texas, ranch, hashBrowns), index.filter(false, null, List.of("chicken")));
+  }
+
+  @Test
+  @DisplayName("Test unknown and blank terms")
+  void testUnknownTerms() {
+    DietaryIndex index = DietaryIndex.of(List.of(texas, ranch, pollo, hashBrowns));
+
+    assertTrue(index.filter(false, List.of("truffle"), null).isEmpty());
+    assertEquals(4, index.filter(false, null, List.of("truffle")).size());
+    assertEquals(4, index.filter(false, List.of(" "), null).size());
+  }
+
+  @Test
+  @DisplayName("Test ingredient dictionary holds each name once")
+  void testDictionary() {
+    DietaryIndex index = DietaryIndex.of(List.of(texas, pollo));
+
+    assertEquals(
+        Set.of("cheese", "bacon", "sour cream", "chicken", "pico de gallo"),
+        index.getIngredientNames());
+    assertThrows(IllegalArgumentException.class, () -> DietaryIndex.of(null));
+  }
+
+  @Test
+  @DisplayName("Test menu filter follows availability and ingredient changes")
+  void testMenuFilterFollowsChanges() {
+    Menu menu = new Menu();
+    menu.addMenuItem(texas);
+    menu.addMenuItem(ranch);
+    menu.addMenuItem(hashBrowns);
+    assertEquals(List.of(ranch, hashBrowns), menu.filterItems(true, null, null));
+
+    ranch.setAvailability(false);
+    assertEquals(List.of(hashBrowns), menu.filterItems(true, null, null));
+
+    hashBrowns.addIngredient(new Ingredient("Bacon Bits", true, true, 0.5));
+    assertTrue(menu.filterItems(true, null, null).isEmpty());
+    assertEquals(List.of(texas, hashBrowns), menu.filterItems(false, List.of("bacon"), null));
+  }
+}
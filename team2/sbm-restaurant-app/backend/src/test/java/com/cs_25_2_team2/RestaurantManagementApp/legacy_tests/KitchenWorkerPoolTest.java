@@ -0,0 +1,186 @@
+package com.cs_25_2_team2.RestaurantManagementApp.legacy_tests;
+
+import com.cs_25_2_team2.RestaurantManagementApp.CartItem;
+import com.cs_25_2_team2.RestaurantManagementApp.Chef;
+import com.cs_25_2_team2.RestaurantManagementApp.ConcurrentOrderQueue;
+import com.cs_25_2_team2.RestaurantManagementApp.Customer;
+import com.cs_25_2_team2.RestaurantManagementApp.Delivery;
+import com.cs_25_2_team2.RestaurantManagementApp.KitchenWorkerPool;
+import com.cs_25_2_team2.RestaurantManagementApp.MenuItem;
+import com.cs_25_2_team2.RestaurantManagementApp.Order;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class KitchenWorkerPoolTest {
+  // Delivery tracks assigned order IDs globally, so every test uses fresh IDs
+  private static final AtomicInteger nextOrderId = new AtomicInteger(700_000);
+
+  private ConcurrentOrderQueue queue;
+  private Customer customer;
+  private List<CartItem> items;
+  private KitchenWorkerPool pool;
+
+  @BeforeEach
+  void setUp() {
+    queue = new ConcurrentOrderQueue();
+    customer = new Customer(1L, "John Doe", "123 Main St", "555-1234");
+    items =
+        List.of(
+            new CartItem(
+                new MenuItem(
+                    1, "Fries", 3.99, MenuItem.CookedType.Fried, MenuItem.PotatoType.Russet, true),
+                1));
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    if (pool != null) {
+      pool.shutdown(Duration.ofSeconds(5));
+    }
+  }
+
+  private Order newOrder() {
+    return new Order(nextOrderId.getAndIncrement(), customer, items, new Date(System.currentTimeMillis()));
+  }
+
+  private void awaitCompleted(long expected) throws InterruptedException {
+    long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+    while (pool.getMetrics().ordersCompleted() + pool.getMetrics().ordersFailed() < expected) {
+      assertTrue(System.nanoTime() < deadline, "Kitchen did not drain the queue in time");
+      Thread.sleep(5);
+    }
+  }
+
+  @Test
+  @DisplayName("Test a chef claims queued orders by priority and hands them to delivery")
+  void testDrainsByPriorityAndHandsOff() throws InterruptedException {
+    Delivery delivery = new Delivery("Dan Driver", "1 Road", "555-0001", 10L);
+    pool = new KitchenWorkerPool(queue, List.of(delivery), Duration.ZERO);
+
+    List<Integer> started = Collections.synchronizedList(new ArrayList<>());
+    Order low = newOrder();
+    Order urgent = newOrder();
+    Order normal = newOrder();
+    for (Order order : List.of(low, urgent, normal)) {
+      order.addStatusListener(
+          (o, oldStatus, newStatus) -> {
+            if (newStatus == Order.Status.Preparing) {
+              started.add(o.getId());
+            }
+          });
+    }
+    pool.submit(low, 5);
+    pool.submit(urgent, 1);
+    pool.submit(normal, 3);
+
+    pool.startShift(new Chef("Gordon Ramsay", "456 Kitchen Ave", "987-654-3210", 1L));
+    awaitCompleted(3);
+
+    assertEquals(List.of(urgent.getId(), normal.getId(), low.getId()), started);
+    assertEquals(Order.Status.OutForDelivery, low.getStatus());
+    assertEquals(3, delivery.getAssignedOrderCount());
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  @DisplayName("Test several chefs drain the queue concurrently without losing orders")
+  void testConcurrentChefs() throws InterruptedException {
+    List<Delivery> drivers =
+        List.of(
+            new Delivery("Dan Driver", "1 Road", "555-0001", 10L),
+            new Delivery("Dee Driver", "2 Road", "555-0002", 11L));
+    pool = new KitchenWorkerPool(queue, drivers, Duration.ofMillis(1));
+    for (long id = 1; id <= 4; id++) {
+      pool.startShift(new Chef("Chef " + id, "Kitchen", "555-000" + id, id));
+    }
+
+    for (int i = 0; i < 100; i++) {
+      pool.submit(newOrder(), 1 + i % 5);
+    }
+    awaitCompleted(100);
+
+    KitchenWorkerPool.Metrics metrics = pool.getMetrics();
+    assertEquals(100, metrics.ordersCompleted());
+    assertEquals(0, metrics.ordersFailed());
+    assertEquals(0, metrics.ordersAwaitingDelivery());
+    assertEquals(100, drivers.get(0).getAssignedOrderCount() + drivers.get(1).getAssignedOrderCount());
+    assertEquals(4, metrics.utilizationByChef().size());
+  }
+
+  @Test
+  @DisplayName("Test metrics report prep time, queue wait and utilization")
+  void testMetrics() throws InterruptedException {
+    pool = new KitchenWorkerPool(queue, List.of(), Duration.ofMillis(20));
+    pool.submit(newOrder(), 3);
+    pool.submit(newOrder(), 3);
+    pool.startShift(new Chef("Julia Child", "789 Culinary St", "555-987-6543", 2L));
+    awaitCompleted(2);
+
+    KitchenWorkerPool.Metrics metrics = pool.getMetrics();
+    assertEquals(2, metrics.ordersCompleted());
+    assertEquals(2, metrics.ordersAwaitingDelivery());
+    assertTrue(metrics.meanPrepTime().compareTo(Duration.ofMillis(20)) >= 0);
+    assertTrue(metrics.maxQueueWait().compareTo(Duration.ofMillis(20)) >= 0); // Second order waited
+    double utilization = metrics.utilizationByChef().get(2L);
+    assertTrue(utilization > 0.0 && utilization <= 1.0);
+  }
+
+  @Test
+  @DisplayName("Test withdrawn orders are skipped and chefs drop finished orders")
+  void testWithdrawAndRelease() throws InterruptedException {
+    Chef chef = new Chef("Paul Bocuse", "5 Lyon St", "555-0005", 4L);
+    pool = new KitchenWorkerPool(queue, List.of(), Duration.ZERO);
+    Order withdrawn = newOrder();
+    Order prepared = newOrder();
+    pool.submit(withdrawn, 1);
+    pool.submit(prepared, 3);
+
+    assertSame(withdrawn, pool.withdraw(withdrawn.getId()));
+    assertNull(pool.withdraw(withdrawn.getId()));
+
+    pool.startShift(chef);
+    awaitCompleted(1);
+
+    assertEquals(Order.Status.Pending, withdrawn.getStatus());
+    assertEquals(Order.Status.ReadyForDelivery, prepared.getStatus());
+    assertEquals(1, pool.getMetrics().ordersCompleted());
+    assertEquals(1, pool.getMetrics().ordersAwaitingDelivery());
+    assertEquals(0, chef.getOrderCount());
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  @DisplayName("Test ending a shift stops an idle chef and the chef can start again")
+  void testEndShift() throws InterruptedException {
+    Chef chef = new Chef("Anthony Bourdain", "321 Food Blvd", "444-555-6666", 3L);
+    pool = new KitchenWorkerPool(queue, List.of(), Duration.ZERO);
+    pool.startShift(chef);
+    assertThrows(IllegalArgumentException.class, () -> pool.startShift(chef));
+
+    assertTrue(pool.shutdown(Duration.ofSeconds(5)));
+    assertEquals(0, pool.getChefsOnShift());
+    assertFalse(pool.endShift(null));
+
+    pool.startShift(chef);
+    pool.submit(newOrder(), 3);
+    awaitCompleted(1);
+    assertEquals(1, pool.getChefsOnShift());
+  }
+}
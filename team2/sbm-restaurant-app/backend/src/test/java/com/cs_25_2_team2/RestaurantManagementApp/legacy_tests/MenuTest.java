@@ -7,10 +7,18 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.cs_25_2_team2.RestaurantManagementApp.Ingredient;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -239,4 +247,93 @@ public class MenuTest {
     menu.setAvailability(true);
     assertTrue(menu.isAvailable(), "Menu should be available after setting to true");
   }
+
+  @Test
+  void testReadsShareImmutableSnapshotUntilMutation() {
+    menu.addMenuItem(frenchFries);
+    menu.addMenuItem(bakedPotato);
+
+    // Repeated reads return the same prebuilt lists
+    List<MenuItem> available = menu.getAvailableItems();
+    assertSame(available, menu.getAvailableItems());
+    assertSame(menu.getItemsByPotatoType(MenuItem.PotatoType.Russet),
+        menu.getItemsByPotatoType(MenuItem.PotatoType.Russet));
+    assertSame(menu.getDisplayText(), menu.getDisplayText());
+    assertThrows(UnsupportedOperationException.class, () -> available.add(frenchFries));
+    assertThrows(UnsupportedOperationException.class, () -> menu.getItems().clear());
+
+    // A mutation publishes a new snapshot and leaves the old lists untouched
+    menu.removeMenuItem(1);
+    assertEquals(2, available.size());
+    assertEquals(List.of(bakedPotato), menu.getAvailableItems());
+    assertTrue(menu.getItemsByCookingType(MenuItem.CookedType.Fried).isEmpty());
+    assertTrue(menu.getItemsByCookingType(null).isEmpty());
+  }
+
+  @Test
+  void testItemChangesRebuildSnapshot() {
+    menu.addMenuItem(frenchFries);
+    menu.addMenuItem(bakedPotato);
+
+    bakedPotato.setAvailability(false);
+    assertEquals(List.of(frenchFries), menu.getAvailableItems());
+    assertFalse(menu.getDisplayText().contains("Loaded Baked Potato"));
+
+    frenchFries.addIngredient(new Ingredient("Cheese", true, true, 1.00));
+    assertTrue(menu.getDisplayText().contains("1. French Fries (Fried, Russet) - $4.99"));
+
+    // Removed items no longer affect the menu
+    menu.removeMenuItem(1);
+    frenchFries.setAvailability(false);
+    frenchFries.setAvailability(true);
+    assertEquals(0, menu.getAvailableItems().size());
+    assertEquals("No items available", menu.getDisplayText());
+
+    menu.setAvailability(false);
+    assertEquals("Menu is currently unavailable.", menu.getDisplayText());
+  }
+
+  @Test
+  void testReadersNeverSeeTornSnapshot() throws Exception {
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    try {
+      Future<?> writer =
+          pool.submit(
+              () -> {
+                for (int i = 0; i < 2_000; i++) {
+                  frenchFries.setAvailability(i % 2 == 0);
+                  if (i % 3 == 0) {
+                    menu.addMenuItem(bakedPotato);
+                  } else {
+                    menu.removeMenuItem(2);
+                  }
+                  menu.addMenuItem(frenchFries);
+                }
+              });
+      List<Future<?>> readers = new ArrayList<>();
+      for (int r = 0; r < 3; r++) {
+        readers.add(
+            pool.submit(
+                () -> {
+                  while (!writer.isDone()) {
+                    List<MenuItem> all = menu.getItems();
+                    List<MenuItem> available = menu.getAvailableItems();
+                    assertTrue(all.size() <= 2);
+                    assertTrue(available.size() <= 2);
+                    for (int i = 1; i < all.size(); i++) {
+                      assertTrue(all.get(i - 1).getDishId() < all.get(i).getDishId());
+                    }
+                  }
+                  return null;
+                }));
+      }
+      writer.get(10, TimeUnit.SECONDS);
+      for (Future<?> reader : readers) {
+        reader.get(10, TimeUnit.SECONDS);
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+    assertTrue(menu.getItems().contains(frenchFries));
+  }
 }
@@ -255,6 +255,50 @@ public class OrderQueueTest {
     assertEquals(1, orderQueue.size());
   }
 
+  @Test
+  @DisplayName("Test iterator remove keeps queue indexed")
+  void testIteratorRemoveMiddle() {
+    orderQueue.add(order1, 1);
+    orderQueue.add(order2, 1);
+    orderQueue.add(order3, 2);
+
+    Iterator<Order> iterator = orderQueue.iterator();
+    iterator.next();
+    iterator.next();
+    iterator.remove();
+    assertThrows(IllegalStateException.class, iterator::remove);
+
+    assertEquals(order3.getId(), iterator.next().getId());
+    assertFalse(orderQueue.contains(order2.getId()));
+    assertEquals(List.of(order1, order3), orderQueue.getAll());
+  }
+
+  @Test
+  @DisplayName("Test duplicate order IDs are rejected")
+  void testDuplicateOrderRejected() {
+    orderQueue.add(order1, 2);
+
+    assertThrows(IllegalArgumentException.class, () -> orderQueue.add(order1, 4));
+    assertEquals(1, orderQueue.size());
+    assertEquals(2, orderQueue.getPriority(order1.getId()));
+  }
+
+  @Test
+  @DisplayName("Test update priority moves order to back of new level")
+  void testUpdatePriorityFifo() {
+    orderQueue.add(order1, 1);
+    orderQueue.add(order2, 2);
+    orderQueue.add(order3, 2);
+
+    orderQueue.updatePriority(order1.getId(), 2);
+
+    assertEquals(2, orderQueue.getPriority(order1.getId()));
+    assertEquals(order2.getId(), orderQueue.remove().getId());
+    assertEquals(order3.getId(), orderQueue.remove().getId());
+    assertEquals(order1.getId(), orderQueue.remove().getId());
+    assertThrows(OrderNotFoundException.class, () -> orderQueue.getPriority(order1.getId()));
+  }
+
   @Test
   @DisplayName("Test enhanced for loop")
   void testEnhancedForLoop() {
@@ -0,0 +1,119 @@
+package com.cs_25_2_team2.RestaurantManagementApp.legacy_tests;
+
+import com.cs_25_2_team2.RestaurantManagementApp.CartItem;
+import com.cs_25_2_team2.RestaurantManagementApp.Customer;
+import com.cs_25_2_team2.RestaurantManagementApp.MenuItem;
+import com.cs_25_2_team2.RestaurantManagementApp.Order;
+import com.cs_25_2_team2.RestaurantManagementApp.OrderStatusIndex;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class OrderStatusIndexTest {
+  private OrderStatusIndex index;
+  private Order order1, order2;
+
+  @BeforeEach
+  void setUp() {
+    index = new OrderStatusIndex();
+    Customer customer = new Customer(1L, "John Doe", "123 Main St", "555-1234");
+    List<CartItem> items =
+        List.of(
+            new CartItem(
+                new MenuItem(
+                    1, "Fries", 3.99, MenuItem.CookedType.Fried, MenuItem.PotatoType.Russet, true),
+                1));
+    order1 = new Order(1, customer, items, new Date(System.currentTimeMillis()));
+    order2 = new Order(2, customer, items, new Date(System.currentTimeMillis()));
+  }
+
+  @Test
+  @DisplayName("Test tracked orders are partitioned by status")
+  void testTrackAndCount() {
+    index.track(order1);
+    index.track(order2);
+
+    assertEquals(2, index.size());
+    assertEquals(2, index.count(Order.Status.Pending));
+    assertEquals(List.of(order1, order2), index.getByStatus(Order.Status.Pending));
+    assertSame(order2, index.find(2));
+    assertNull(index.find(999));
+    assertThrows(IllegalArgumentException.class, () -> index.track(null));
+  }
+
+  @Test
+  @DisplayName("Test status changes move orders between partitions")
+  void testStatusChangeMovesOrder() {
+    index.track(order1);
+    index.track(order2);
+
+    order1.updateStatus(Order.Status.Placed);
+    order1.updateStatus(Order.Status.Preparing);
+
+    assertEquals(1, index.count(Order.Status.Pending));
+    assertEquals(0, index.count(Order.Status.Placed));
+    assertEquals(List.of(order1), index.getByStatus(Order.Status.Preparing));
+
+    order2.cancelOrder();
+    assertEquals(0, index.count(Order.Status.Pending));
+    assertEquals(0, index.count(Order.Status.Delivered));
+  }
+
+  @Test
+  @DisplayName("Test delivered orders are dropped from the index")
+  void testDeliveredOrdersAreUntracked() {
+    index.track(order1);
+    order1.updateStatus(Order.Status.Placed);
+    order1.updateStatus(Order.Status.Preparing);
+    order1.updateStatus(Order.Status.ReadyForDelivery);
+    order1.updateStatus(Order.Status.OutForDelivery);
+    order1.updateStatus(Order.Status.Delivered);
+
+    assertEquals(0, index.size());
+    assertNull(index.find(1));
+    assertEquals(0, index.count(Order.Status.Delivered));
+
+    // Already delivered orders are not tracked at all
+    order2.cancelOrder();
+    index.track(order2);
+    assertEquals(0, index.size());
+  }
+
+  @Test
+  @DisplayName("Test status changes racing with track are not lost")
+  void testTrackRacingStatusChange() throws InterruptedException {
+    for (int i = 0; i < 200; i++) {
+      OrderStatusIndex raced = new OrderStatusIndex();
+      Order order = new Order(100 + i, order1.getCustomer(), order1.getItems(), new Date(System.currentTimeMillis()));
+      Thread updater = new Thread(() -> order.updateStatus(Order.Status.Placed));
+      updater.start();
+      raced.track(order);
+      updater.join();
+
+      assertEquals(1, raced.count(Order.Status.Placed), "iteration " + i);
+      assertEquals(0, raced.count(Order.Status.Pending), "iteration " + i);
+    }
+  }
+
+  @Test
+  @DisplayName("Test untracked orders are no longer indexed")
+  void testUntrack() {
+    index.track(order1);
+
+    assertSame(order1, index.untrack(1));
+    assertNull(index.untrack(1));
+
+    order1.updateStatus(Order.Status.Placed);
+    assertEquals(0, index.size());
+    assertEquals(0, index.count(Order.Status.Placed));
+  }
+}
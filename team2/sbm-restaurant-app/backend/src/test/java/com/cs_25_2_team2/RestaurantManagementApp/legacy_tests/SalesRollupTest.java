@@ -0,0 +1,153 @@
+package com.cs_25_2_team2.RestaurantManagementApp.legacy_tests;
+
+import com.cs_25_2_team2.RestaurantManagementApp.CartItem;
+import com.cs_25_2_team2.RestaurantManagementApp.Customer;
+import com.cs_25_2_team2.RestaurantManagementApp.MenuItem;
+import com.cs_25_2_team2.RestaurantManagementApp.Order;
+import com.cs_25_2_team2.RestaurantManagementApp.SalesRollup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Date;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SalesRollupTest {
+  private MutableClock clock;
+  private SalesRollup rollup;
+  private Customer customer;
+  private MenuItem fries;
+  private MenuItem mash;
+
+  @BeforeEach
+  void setUp() {
+    clock = new MutableClock(Instant.parse("2025-01-01T12:00:30Z"));
+    rollup = new SalesRollup(clock);
+    customer = new Customer(1L, "John Doe", "123 Main St", "555-1234");
+    fries =
+        new MenuItem(1, "Fries", 3.99, MenuItem.CookedType.Fried, MenuItem.PotatoType.Russet, true);
+    mash =
+        new MenuItem(2, "Mash", 4.50, MenuItem.CookedType.Mashed, MenuItem.PotatoType.Russet, true);
+  }
+
+  private Order order(int id, CartItem... items) {
+    return new Order(id, customer, List.of(items), new Date(System.currentTimeMillis()));
+  }
+
+  @Test
+  @DisplayName("Test windows only include recent minutes")
+  void testWindows() {
+    rollup.record(order(1, new CartItem(fries, 2)));
+    clock.advance(Duration.ofMinutes(30));
+    rollup.record(order(2, new CartItem(mash, 1), new CartItem(fries, 1)));
+
+    SalesRollup.Summary lastFifteen = rollup.summarize(Duration.ofMinutes(15));
+    assertEquals(1, lastFifteen.orders());
+    assertEquals(849, lastFifteen.revenueCents());
+    assertEquals(Map.of(1, 1L, 2, 1L), lastFifteen.unitsByDish());
+
+    SalesRollup.Summary lastHour = rollup.summarize(Duration.ofHours(1));
+    assertEquals(2, lastHour.orders());
+    assertEquals(16.47, lastHour.revenue(), 0.001);
+    assertEquals(Map.entry(1, 3L), lastHour.topDishes(1).get(0));
+
+    clock.advance(Duration.ofDays(1));
+    assertEquals(0, rollup.summarize(SalesRollup.MAX_WINDOW).orders());
+    assertEquals(2, rollup.getTotalOrders());
+    assertEquals("Mash", rollup.getDishName(2));
+  }
+
+  @Test
+  @DisplayName("Test buckets are recycled after a day")
+  void testBucketRecycled() {
+    rollup.record(order(1, new CartItem(fries, 1)));
+    clock.advance(Duration.ofDays(1));
+    rollup.record(order(2, new CartItem(mash, 1)));
+
+    SalesRollup.Summary day = rollup.summarize(SalesRollup.MAX_WINDOW);
+    assertEquals(1, day.orders());
+    assertEquals(Map.of(2, 1L), day.unitsByDish());
+    assertEquals(Map.of(1, 1L, 2, 1L), rollup.summarizeAllTime().unitsByDish());
+  }
+
+  @Test
+  @DisplayName("Test concurrent recording loses no updates")
+  void testConcurrentRecord() throws InterruptedException {
+    int threads = 8;
+    int perThread = 1000;
+    Order order = order(1, new CartItem(fries, 1));
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      for (int t = 0; t < threads; t++) {
+        executor.submit(
+            () -> {
+              start.await();
+              for (int i = 0; i < perThread; i++) {
+                rollup.record(order);
+              }
+              return null;
+            });
+      }
+      start.countDown();
+      executor.shutdown();
+      executor.awaitTermination(30, TimeUnit.SECONDS);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    SalesRollup.Summary lastMinute = rollup.summarize(Duration.ofMinutes(1));
+    assertEquals(threads * perThread, lastMinute.orders());
+    assertEquals(threads * perThread * 399L, lastMinute.revenueCents());
+    assertEquals(Long.valueOf(threads * perThread), lastMinute.unitsByDish().get(1));
+  }
+
+  @Test
+  @DisplayName("Test invalid windows are rejected")
+  void testInvalidWindow() {
+    assertThrows(IllegalArgumentException.class, () -> rollup.summarize(Duration.ZERO));
+    assertThrows(IllegalArgumentException.class, () -> rollup.summarize(Duration.ofDays(2)));
+    assertThrows(IllegalArgumentException.class, () -> rollup.record(null));
+  }
+
+  private static class MutableClock extends Clock {
+    private Instant now;
+
+    MutableClock(Instant now) {
+      this.now = now;
+    }
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package com.cs_25_2_team2.RestaurantManagementApp.legacy_tests;
+
+import com.cs_25_2_team2.RestaurantManagementApp.SpaceSavingSketch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SpaceSavingSketchTest {
+
+  @Test
+  @DisplayName("Test exact counts while under capacity")
+  void testExactUnderCapacity() {
+    SpaceSavingSketch<String> sketch = new SpaceSavingSketch<>(3);
+    sketch.offer("fries");
+    sketch.offer("mash", 4);
+    sketch.offer("fries");
+
+    List<SpaceSavingSketch.Entry<String>> top = sketch.top(5);
+    assertEquals(2, top.size());
+    assertEquals(new SpaceSavingSketch.Entry<>("mash", 4, 0), top.get(0));
+    assertEquals(new SpaceSavingSketch.Entry<>("fries", 2, 0), top.get(1));
+    assertEquals(6, sketch.getTotalWeight());
+    assertEquals(0, sketch.estimate("wedges"));
+  }
+
+  @Test
+  @DisplayName("Test heavy hitters survive eviction of rare keys")
+  void testHeavyHittersSurvive() {
+    // 1250 offers over 20 counters: any key above 1250 / 20 = 62 is guaranteed to be kept
+    SpaceSavingSketch<Integer> sketch = new SpaceSavingSketch<>(20);
+    for (int i = 0; i < 1000; i++) {
+      sketch.offer(i % 10 == 0 ? 1 : 100 + i); // key 1 is 10% of the stream, the rest unique
+      if (i % 4 == 0) {
+        sketch.offer(2);
+      }
+    }
+
+    List<SpaceSavingSketch.Entry<Integer>> top = sketch.top(2);
+    assertEquals(20, sketch.size());
+    assertTrue(top.stream().anyMatch(e -> e.key() == 1));
+    assertTrue(top.stream().anyMatch(e -> e.key() == 2));
+    for (SpaceSavingSketch.Entry<Integer> entry : top) {
+      long trueCount = entry.key() == 1 ? 100 : 250;
+      assertTrue(entry.count() >= trueCount); // never undercounts
+      assertTrue(entry.count() - entry.error() <= trueCount);
+    }
+  }
+
+  @Test
+  @DisplayName("Test merging adds counts from both sketches")
+  void testMerge() {
+    SpaceSavingSketch<String> first = new SpaceSavingSketch<>(4);
+    SpaceSavingSketch<String> second = new SpaceSavingSketch<>(4);
+    first.offer("fries", 3);
+    second.offer("fries", 2);
+    second.offer("mash");
+
+    first.merge(second);
+    assertEquals(5, first.estimate("fries"));
+    assertEquals(1, first.estimate("mash"));
+    assertEquals(6, first.getTotalWeight());
+
+    first.clear();
+    assertEquals(0, first.size());
+  }
+
+  @Test
+  @DisplayName("Test invalid arguments are rejected")
+  void testInvalidArguments() {
+    assertThrows(IllegalArgumentException.class, () -> new SpaceSavingSketch<String>(0));
+    SpaceSavingSketch<String> sketch = new SpaceSavingSketch<>(2);
+    assertThrows(IllegalArgumentException.class, () -> sketch.offer(null));
+    assertThrows(IllegalArgumentException.class, () -> sketch.offer("fries", 0));
+  }
+}
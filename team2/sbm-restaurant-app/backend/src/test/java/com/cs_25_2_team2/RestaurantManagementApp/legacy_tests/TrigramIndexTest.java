@@ -0,0 +1,103 @@
+package com.cs_25_2_team2.RestaurantManagementApp.legacy_tests;
+
+import com.cs_25_2_team2.RestaurantManagementApp.TrigramIndex;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class TrigramIndexTest {
+
+  private TrigramIndex<Integer> index;
+
+  @BeforeEach
+  void setUp() {
+    // Name, ingredients, description
+    index = new TrigramIndex<>(3, 2, 1);
+    index.put(1, "Classic French Fries", "Russet potato, Salt", "Crispy golden fries");
+    index.put(2, "Loaded Baked Potato", "Russet potato, Cheddar, Bacon", "Baked and loaded");
+    index.put(3, "Potato Soup", "Yukon Gold potato, Cream, Chives", null);
+    index.put(4, "Sweet Potato Wedges", "Japanese sweet potato", "Roasted with cinnamon");
+  }
+
+  private List<Integer> keys(String query) {
+    return index.search(query, 10, null).stream()
+        .map(TrigramIndex.Hit::key)
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  @DisplayName("Test prefix of an unfinished word matches")
+  void testPrefixMatch() {
+    assertEquals(List.of(1), keys("fr"));
+    assertEquals(List.of(1), keys("French Fr"));
+    assertTrue(keys("chedd").contains(2));
+  }
+
+  @Test
+  @DisplayName("Test misspelled words still match")
+  void testTypoTolerance() {
+    assertEquals(List.of(1), keys("frys"));
+    assertEquals(List.of(2), keys("chedar"));
+    assertTrue(keys("pizza").isEmpty());
+  }
+
+  @Test
+  @DisplayName("Test name matches rank above ingredient and description matches")
+  void testRanking() {
+    index.put(5, "Garden Salad", "Lettuce, Bacon bits", null);
+    index.put(6, "Bacon Cheeseburger", "Beef, Bacon", "With bacon");
+
+    List<TrigramIndex.Hit<Integer>> hits = index.search("bacon", 10, null);
+    assertEquals(6, hits.get(0).key());
+    assertEquals(List.of(6, 2, 5), hits.stream().map(TrigramIndex.Hit::key).collect(Collectors.toList()));
+    assertTrue(hits.get(0).score() > hits.get(1).score());
+
+    // Equal scores: the shorter name first
+    assertEquals(List.of(3, 2, 4), keys("potato").subList(0, 3));
+  }
+
+  @Test
+  @DisplayName("Test replace and remove only affect that document")
+  void testIncrementalUpdates() {
+    index.put(1, "Curly Fries", "Russet potato", null);
+    assertTrue(keys("french").isEmpty());
+    assertEquals(List.of(1), keys("curly"));
+
+    assertTrue(index.remove(3));
+    assertTrue(!index.remove(3));
+    assertEquals(3, index.size());
+    assertTrue(keys("soup").isEmpty());
+
+    // A freed slot is reused without leaking the old document's trigrams
+    index.put(7, "Hash Browns", null, null);
+    assertEquals(List.of(7), keys("hash"));
+    assertTrue(keys("soup").isEmpty());
+  }
+
+  @Test
+  @DisplayName("Test limit and filter")
+  void testLimitAndFilter() {
+    assertEquals(2, index.search("potato", 2, null).size());
+    assertEquals(List.of(4), index.search("potato", 10, key -> key == 4).stream()
+        .map(TrigramIndex.Hit::key).collect(Collectors.toList()));
+    assertTrue(keys("  --  ").isEmpty());
+  }
+
+  @Test
+  @DisplayName("Test invalid arguments are rejected")
+  void testInvalidArguments() {
+    assertThrows(IllegalArgumentException.class, () -> new TrigramIndex<Integer>());
+    assertThrows(IllegalArgumentException.class, () -> new TrigramIndex<Integer>(1, 0));
+    assertThrows(IllegalArgumentException.class, () -> index.put(null, "a", "b", "c"));
+    assertThrows(IllegalArgumentException.class, () -> index.put(9, "only one field"));
+    assertThrows(IllegalArgumentException.class, () -> index.search("fries", 0, null));
+  }
+}
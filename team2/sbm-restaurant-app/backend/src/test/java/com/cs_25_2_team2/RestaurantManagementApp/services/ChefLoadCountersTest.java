@@ -0,0 +1,79 @@
+package com.cs_25_2_team2.RestaurantManagementApp.services;
+
+import com.cs_25_2_team2.RestaurantManagementApp.entities.OrderEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.repositories.StaffRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChefLoadCountersTest {
+
+    /** Rows returned by the preparing-orders-per-chef aggregate query */
+    private final List<Object[]> preparingRows = new ArrayList<>();
+    private int queries;
+    private ChefLoadCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        StaffRepository staffRepository = (StaffRepository) Proxy.newProxyInstance(
+                StaffRepository.class.getClassLoader(),
+                new Class<?>[]{StaffRepository.class},
+                (proxy, method, args) -> {
+                    if ("countOrdersPerChefByStatus".equals(method.getName())) {
+                        queries++;
+                        return new ArrayList<>(preparingRows);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        counters = new ChefLoadCounters(staffRepository);
+        preparingRows.add(new Object[] {1L, 2L});
+        preparingRows.add(new Object[] {2L, 0L});
+    }
+
+    private static OrderStatusChangedEvent changed(OrderEntity.OrderStatus from, OrderEntity.OrderStatus to, Long chefId) {
+        return new OrderStatusChangedEvent(10L, from, to, chefId);
+    }
+
+    @Test
+    void testCommittedTransitionsMoveTheCounters() {
+        assertEquals(Map.of(1L, 2L, 2L, 0L), counters.snapshot());
+
+        counters.onOrderStatusChanged(changed(OrderEntity.OrderStatus.Placed, OrderEntity.OrderStatus.Preparing, 2L));
+        counters.onOrderStatusChanged(changed(OrderEntity.OrderStatus.Preparing, OrderEntity.OrderStatus.ReadyForDelivery, 1L));
+        // Transitions that neither enter nor leave Preparing, or have no chef, change nothing
+        counters.onOrderStatusChanged(changed(OrderEntity.OrderStatus.ReadyForDelivery, OrderEntity.OrderStatus.OutForDelivery, 1L));
+        counters.onOrderStatusChanged(changed(OrderEntity.OrderStatus.Placed, OrderEntity.OrderStatus.Preparing, null));
+
+        assertEquals(Map.of(1L, 1L, 2L, 1L), counters.snapshot());
+        assertEquals(1, queries);
+    }
+
+    @Test
+    void testEventsBeforeSeedingAreLeftToTheSeedQuery() {
+        counters.onOrderStatusChanged(changed(OrderEntity.OrderStatus.Placed, OrderEntity.OrderStatus.Preparing, 1L));
+        counters.reconcile();
+        assertEquals(0, queries);
+
+        assertEquals(Map.of(1L, 2L, 2L, 0L), counters.snapshot());
+    }
+
+    @Test
+    void testReconcileReloadsFromTheDatabase() {
+        counters.snapshot();
+        counters.onOrderStatusChanged(changed(OrderEntity.OrderStatus.Placed, OrderEntity.OrderStatus.Preparing, 2L));
+
+        // A write that bypassed the events finished chef 1's orders and the chef 2 event was lost
+        preparingRows.clear();
+        preparingRows.add(new Object[] {2L, 3L});
+        counters.reconcile();
+
+        assertEquals(Map.of(2L, 3L), counters.snapshot());
+        assertEquals(2, queries);
+    }
+}
@@ -0,0 +1,144 @@
+package com.cs_25_2_team2.RestaurantManagementApp.services;
+
+import com.cs_25_2_team2.RestaurantManagementApp.entities.OrderEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.entities.OrderQueueEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.repositories.OrderQueueRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class KitchenOrderStreamTest {
+
+    @Mock
+    private OrderQueueRepository orderQueueRepository;
+
+    @Mock
+    private ScheduledExecutorService scheduler;
+
+    private KitchenOrderStream stream;
+
+    /**
+     * Emitter that records sent events instead of writing to a response
+     */
+    static class RecordingEmitter extends SseEmitter {
+        final List<String> names = new ArrayList<>();
+        final List<Object> payloads = new ArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            for (DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof String text) {
+                    if (text.startsWith("event:")) {
+                        names.add(text.substring("event:".length(), text.indexOf('\n')));
+                    }
+                } else {
+                    payloads.add(part.getData());
+                }
+            }
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        // Senders run inline; flushes are triggered by the test instead of the scheduler
+        stream = new KitchenOrderStream(orderQueueRepository, 100, 0, scheduler, Runnable::run);
+    }
+
+    private OrderQueueEntity queueEntry(long orderId, LocalDateTime started, LocalDateTime ready) {
+        OrderEntity order = new OrderEntity();
+        order.setOrderId(orderId);
+        order.setTotalPrice(new BigDecimal("9.99"));
+        order.setStatus(started == null ? OrderEntity.OrderStatus.Placed : OrderEntity.OrderStatus.Preparing);
+        OrderQueueEntity entry = new OrderQueueEntity(order);
+        entry.setStartedPreparingAt(started);
+        entry.setReadyForDeliveryAt(ready);
+        return entry;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSubscribeSendsSnapshot() {
+        LocalDateTime now = LocalDateTime.now();
+        when(orderQueueRepository.findActiveWithOrders()).thenReturn(List.of(
+                queueEntry(1L, null, null),
+                queueEntry(2L, now, null),
+                queueEntry(3L, now, now)));
+
+        RecordingEmitter emitter = new RecordingEmitter();
+        stream.subscribe(emitter);
+
+        assertEquals(List.of("snapshot"), emitter.names);
+        Map<String, Object> snapshot = (Map<String, Object>) emitter.payloads.get(0);
+        assertEquals(3, snapshot.get("totalOrders"));
+        assertEquals(1, ((List<?>) snapshot.get("pending")).size());
+        assertEquals(1, ((List<?>) snapshot.get("preparing")).size());
+        assertEquals(1, ((List<?>) snapshot.get("ready")).size());
+        assertEquals(1, stream.getSubscriberCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBurstOfChangesIsOneQueryForAllSubscribers() {
+        when(orderQueueRepository.findActiveWithOrders()).thenReturn(List.of());
+        when(orderQueueRepository.findByOrderIdsWithOrders(anyCollection()))
+                .thenReturn(List.of(queueEntry(1L, LocalDateTime.now(), null)));
+        RecordingEmitter first = new RecordingEmitter();
+        RecordingEmitter second = new RecordingEmitter();
+        stream.subscribe(first);
+        stream.subscribe(second);
+
+        stream.onOrderCreated(new OrderCreatedEvent(1L, OrderEntity.OrderStatus.Placed, BigDecimal.TEN, List.of()));
+        stream.onOrderStatusChanged(new OrderStatusChangedEvent(1L,
+                OrderEntity.OrderStatus.Placed, OrderEntity.OrderStatus.Preparing, 1L));
+        stream.onOrderQueueChanged(new OrderQueueChangedEvent(2L));
+        stream.flush();
+
+        verify(scheduler, times(1)).schedule(any(Runnable.class), anyLong(), any());
+        verify(orderQueueRepository, times(1)).findByOrderIdsWithOrders(List.of(1L, 2L));
+        for (RecordingEmitter emitter : List.of(first, second)) {
+            assertEquals(List.of("snapshot", "delta"), emitter.names);
+            List<Map<String, Object>> changes =
+                    (List<Map<String, Object>>) ((Map<String, Object>) emitter.payloads.get(1)).get("changes");
+            assertEquals(2, changes.size());
+            assertEquals("preparing", changes.get(0).get("queue"));
+            assertEquals(2L, changes.get(1).get("orderId"));
+            assertEquals("removed", changes.get(1).get("queue"));
+        }
+    }
+
+    @Test
+    void testFlushWithoutSubscribersSkipsQuery() {
+        stream.onOrderQueueChanged(new OrderQueueChangedEvent(1L));
+        stream.flush();
+
+        verify(orderQueueRepository, never()).findByOrderIdsWithOrders(anyCollection());
+    }
+
+    @Test
+    void testQueueOf() {
+        LocalDateTime now = LocalDateTime.now();
+        OrderQueueEntity outForDelivery = queueEntry(4L, now, now);
+        outForDelivery.setOutForDeliveryAt(now);
+
+        assertEquals("pending", KitchenOrderStream.queueOf(queueEntry(1L, null, null)));
+        assertEquals("preparing", KitchenOrderStream.queueOf(queueEntry(2L, now, null)));
+        assertEquals("ready", KitchenOrderStream.queueOf(queueEntry(3L, now, now)));
+        assertNull(KitchenOrderStream.queueOf(outForDelivery));
+    }
+}
@@ -95,4 +95,78 @@ class KitchenServiceTest {
         assertEquals(3, stats.get("totalChefs"));
         assertTrue((int) stats.get("estimatedWaitTime") >= 0);
     }
+
+    @Test
+    void testKitchenStatisticsFollowStatusChanges() {
+        Customer customer = new Customer(1L, "Test Customer", "123 Test St", "555-1234");
+        MenuItem menuItem = new MenuItem(1, "Fries", 2.99, MenuItem.CookedType.Fried, MenuItem.PotatoType.Russet, true);
+        Order order = new Order(customer, List.of(new CartItem(menuItem, 1)), new java.sql.Date(System.currentTimeMillis()));
+        kitchenService.addOrderToQueue(order);
+
+        assertEquals(1, kitchenService.getKitchenStatistics().get("pendingOrders"));
+
+        order.updateStatus(Order.Status.Placed);
+        order.updateStatus(Order.Status.Preparing);
+
+        Map<String, Object> stats = kitchenService.getKitchenStatistics();
+        assertEquals(0, stats.get("pendingOrders"));
+        assertEquals(1, stats.get("preparingOrders"));
+        assertEquals(List.of(order), kitchenService.getOrdersInPreparation());
+        assertTrue(kitchenService.completeOrder((long) order.getId()));
+        assertEquals(1, kitchenService.getReadyOrders().size());
+    }
+
+    @Test
+    void testConcurrentStartsClaimAnOrderOnce() throws Exception {
+        Customer customer = new Customer(1L, "Test Customer", "123 Test St", "555-1234");
+        MenuItem menuItem = new MenuItem(1, "Fries", 2.99, MenuItem.CookedType.Fried, MenuItem.PotatoType.Russet, true);
+        Order order = new Order(customer, List.of(new CartItem(menuItem, 1)), new java.sql.Date(System.currentTimeMillis()));
+        kitchenService.addOrderToQueue(order);
+        order.updateStatus(Order.Status.Placed);
+
+        int threads = 8;
+        java.util.concurrent.CountDownLatch start = new java.util.concurrent.CountDownLatch(1);
+        java.util.concurrent.ExecutorService executor = java.util.concurrent.Executors.newFixedThreadPool(threads);
+        List<java.util.concurrent.Future<Boolean>> results = new java.util.ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return kitchenService.startPreparingOrder((long) order.getId());
+            }));
+        }
+        start.countDown();
+        int claimed = 0;
+        for (java.util.concurrent.Future<Boolean> result : results) {
+            if (result.get(5, java.util.concurrent.TimeUnit.SECONDS)) {
+                claimed++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, claimed);
+        assertEquals(Order.Status.Preparing, order.getStatus());
+        long assignedTo = kitchenService.getAllChefs().stream()
+                .filter(chef -> chef.getAllOrders().contains(order))
+                .count();
+        assertEquals(1, assignedTo);
+    }
+
+    @Test
+    void testStartTakesOrderOutOfQueueAndCompleteReleasesIt() {
+        Customer customer = new Customer(1L, "Test Customer", "123 Test St", "555-1234");
+        MenuItem menuItem = new MenuItem(1, "Fries", 2.99, MenuItem.CookedType.Fried, MenuItem.PotatoType.Russet, true);
+        Order order = new Order(customer, List.of(new CartItem(menuItem, 1)), new java.sql.Date(System.currentTimeMillis()));
+        kitchenService.addOrderToQueue(order);
+
+        // Pending orders cannot be started yet, and stay queued
+        assertFalse(kitchenService.startPreparingOrder((long) order.getId()));
+        assertTrue(kitchenService.getOrderQueue().contains(order.getId()));
+
+        order.updateStatus(Order.Status.Placed);
+        assertTrue(kitchenService.startPreparingOrder((long) order.getId()));
+        assertFalse(kitchenService.getOrderQueue().contains(order.getId()));
+
+        assertTrue(kitchenService.completeOrder((long) order.getId()));
+        assertTrue(kitchenService.getAllChefs().stream().noneMatch(chef -> chef.getAllOrders().contains(order)));
+    }
 }
@@ -0,0 +1,106 @@
+package com.cs_25_2_team2.RestaurantManagementApp.services;
+
+import com.cs_25_2_team2.RestaurantManagementApp.entities.MenuItemEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.repositories.MenuItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MenuReadCacheTest {
+
+    private final List<MenuItemEntity> rows = new ArrayList<>();
+    private int findAllCalls;
+    private MenuReadCache cache;
+
+    private final MenuReadCache.MenuQuery sides =
+            new MenuReadCache.MenuQuery(MenuItemEntity.Category.SIDE, null, null, null);
+    private final MenuReadCache.MenuQuery mains =
+            new MenuReadCache.MenuQuery(MenuItemEntity.Category.MAIN_DISH, null, null, null);
+    private final MenuReadCache.MenuQuery availableOnly =
+            new MenuReadCache.MenuQuery(null, null, null, true);
+
+    @BeforeEach
+    void setUp() {
+        MenuItemRepository repository = (MenuItemRepository) Proxy.newProxyInstance(
+                MenuItemRepository.class.getClassLoader(),
+                new Class<?>[]{MenuItemRepository.class},
+                (proxy, method, args) -> {
+                    if ("findAll".equals(method.getName())) {
+                        findAllCalls++;
+                        return new ArrayList<>(rows);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        cache = new MenuReadCache(repository, 100, 600);
+        rows.add(item(1L, "Texas Style Baked Potato", MenuItemEntity.Category.MAIN_DISH));
+        rows.add(item(2L, "Fries", MenuItemEntity.Category.SIDE));
+    }
+
+    private static MenuItemEntity item(Long id, String name, MenuItemEntity.Category category) {
+        MenuItemEntity item = new MenuItemEntity(name, category, new BigDecimal("9.99"),
+                MenuItemEntity.CookedType.Baked, MenuItemEntity.PotatoType.Russet);
+        item.setDishId(id);
+        return item;
+    }
+
+    @Test
+    void testEvictRemovesOnlyMatchingEntries() {
+        cache.get(sides);
+        cache.get(mains);
+        cache.get(MenuReadCache.MenuQuery.ALL);
+        assertEquals(3, findAllCalls);
+
+        // A price change on the fries affects the side list and the full menu, not the mains
+        MenuItemEntity before = MenuReadCache.detach(rows.get(1));
+        rows.get(1).setPrice(new BigDecimal("4.99"));
+        cache.evict(before, rows.get(1));
+        assertEquals(1, cache.size());
+
+        cache.get(sides);
+        cache.get(mains);
+        assertEquals(4, findAllCalls);
+        assertEquals(0, new BigDecimal("4.99").compareTo(cache.get(sides).items().get(0).getPrice()));
+    }
+
+    @Test
+    void testEtagChangesWithContent() {
+        String etag = cache.get(MenuReadCache.MenuQuery.ALL).etag();
+        assertEquals(etag, cache.get(MenuReadCache.MenuQuery.ALL).etag());
+
+        MenuItemEntity before = MenuReadCache.detach(rows.get(0));
+        rows.get(0).setDishName("Texas Loaded Baked Potato");
+        cache.evict(before, rows.get(0));
+
+        assertNotEquals(etag, cache.get(MenuReadCache.MenuQuery.ALL).etag());
+    }
+
+    @Test
+    void testAvailabilityWriteEvictsAvailabilityFilter() {
+        cache.get(availableOnly);
+        cache.get(mains);
+
+        // Switching the fries off through the database write path
+        MenuItemEntity before = MenuReadCache.detach(rows.get(1));
+        rows.get(1).setIsAvailable(false);
+        cache.evict(before, rows.get(1));
+
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.get(availableOnly).items().size());
+        assertEquals(3, findAllCalls);
+    }
+
+    @Test
+    void testDetachedItemsHaveNoLazyCollections() {
+        rows.get(0).setIngredients(new ArrayList<>());
+        MenuItemEntity cached = cache.get(mains).items().get(0);
+        assertNull(cached.getIngredients());
+        assertNull(cached.getOrderItems());
+        assertEquals("Texas Style Baked Potato", cached.getDishName());
+    }
+}
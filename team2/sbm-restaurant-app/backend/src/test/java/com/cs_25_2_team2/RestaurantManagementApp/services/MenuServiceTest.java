@@ -64,4 +64,19 @@ class MenuServiceTest {
         Date lastUpdated = menuService.getMenuLastUpdated();
         assertNotNull(lastUpdated);
     }
+
+    @Test
+    void testFilterMenuItems() {
+        List<MenuItem> items = menuService.filterMenuItems(true, List.of("cheese"), List.of("bacon"));
+        assertFalse(items.isEmpty());
+        for (MenuItem item : items) {
+            assertTrue(item.isVegetarian());
+            assertTrue(item.containsIngredient("Cheese"));
+            assertFalse(item.containsIngredient("Bacon"));
+        }
+
+        menuService.updateMenuItemAvailability(3L, false);
+        assertTrue(menuService.filterMenuItems(true, List.of("cheese"), List.of("bacon")).stream()
+                .noneMatch(item -> item.getDishId() == 3));
+    }
 }
@@ -0,0 +1,117 @@
+package com.cs_25_2_team2.RestaurantManagementApp.services;
+
+import com.cs_25_2_team2.RestaurantManagementApp.entities.OrderEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.exceptions.InvalidOrderStateException;
+import com.cs_25_2_team2.RestaurantManagementApp.repositories.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Races OrderStateMachine against the real OrderRepository conditional update and @Version column.
+ * Runs outside a test transaction so every caller commits on its own connection.
+ */
+@DataJpaTest
+@Import(OrderStateMachine.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderStateMachineJpaTest {
+
+    private static final int CALLERS = 16;
+
+    @Autowired
+    private OrderStateMachine stateMachine;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+    }
+
+    private OrderEntity savePlacedOrder() {
+        OrderEntity order = new OrderEntity();
+        order.setTotalPrice(new BigDecimal("12.97"));
+        order.setStatus(OrderEntity.OrderStatus.Placed);
+        order.setCreditCardLastFour("4242");
+        order.setCreditCardToken("tok_race");
+        order.setCardExpiryMonth(12);
+        order.setCardExpiryYear(2030);
+        order.setCardholderName("Race Test");
+        return orderRepository.save(order);
+    }
+
+    @Test
+    void testConcurrentTransitionsCommitExactlyOnce() throws Exception {
+        OrderEntity placed = savePlacedOrder();
+        Long orderId = placed.getOrderId();
+        Long versionBefore = placed.getVersion();
+
+        ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<OrderEntity>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return stateMachine.transition(orderId, OrderEntity.OrderStatus.Preparing);
+                }));
+            }
+            start.countDown();
+
+            int succeeded = 0;
+            for (Future<OrderEntity> result : results) {
+                try {
+                    assertEquals(OrderEntity.OrderStatus.Preparing, result.get(30, TimeUnit.SECONDS).getStatus());
+                    succeeded++;
+                } catch (ExecutionException e) {
+                    // Every loser re-reads the order and finds the move already made
+                    assertInstanceOf(InvalidOrderStateException.class, e.getCause());
+                }
+            }
+            assertEquals(1, succeeded);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        OrderEntity committed = orderRepository.findById(orderId).orElseThrow();
+        assertEquals(OrderEntity.OrderStatus.Preparing, committed.getStatus());
+        assertEquals(versionBefore + 1, committed.getVersion());
+    }
+
+    @Test
+    void testConditionalUpdateRejectsStaleVersion() {
+        OrderEntity placed = savePlacedOrder();
+        Long staleVersion = placed.getVersion();
+
+        // An ordinary save in between (e.g. a delivery assignment) bumps the @Version column
+        placed.setCardholderName("Renamed");
+        OrderEntity saved = orderRepository.save(placed);
+        assertEquals(staleVersion + 1, saved.getVersion());
+
+        assertEquals(0, orderRepository.transitionStatus(saved.getOrderId(), OrderEntity.OrderStatus.Placed,
+                staleVersion, OrderEntity.OrderStatus.Preparing));
+        assertEquals(1, orderRepository.transitionStatus(saved.getOrderId(), OrderEntity.OrderStatus.Placed,
+                saved.getVersion(), OrderEntity.OrderStatus.Preparing));
+
+        OrderEntity committed = orderRepository.findById(saved.getOrderId()).orElseThrow();
+        assertEquals(OrderEntity.OrderStatus.Preparing, committed.getStatus());
+        assertEquals(staleVersion + 2, committed.getVersion());
+    }
+}
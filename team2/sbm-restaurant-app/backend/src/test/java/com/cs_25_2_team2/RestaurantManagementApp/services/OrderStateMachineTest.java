@@ -0,0 +1,298 @@
+package com.cs_25_2_team2.RestaurantManagementApp.services;
+
+import com.cs_25_2_team2.RestaurantManagementApp.entities.OrderEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.entities.OrderQueueEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.entities.StaffEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.exceptions.InvalidOrderStateException;
+import com.cs_25_2_team2.RestaurantManagementApp.exceptions.OrderNotFoundException;
+import com.cs_25_2_team2.RestaurantManagementApp.repositories.OrderQueueRepository;
+import com.cs_25_2_team2.RestaurantManagementApp.repositories.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderStateMachineTest {
+
+    private static final int CALLERS = 64;
+
+    /** Committed rows; findById hands out copies, as separate transactions would see */
+    private final Map<Long, OrderEntity> rows = new HashMap<>();
+    private final Map<Long, OrderQueueEntity> queueEntries = new HashMap<>();
+    private final List<Object> publishedEvents = new CopyOnWriteArrayList<>();
+    private final AtomicInteger conditionalUpdates = new AtomicInteger();
+    private volatile int concurrentBumps;
+
+    private OrderRepository repository;
+    private OrderQueueRepository queueRepository;
+    private OrderStateMachine stateMachine;
+
+    @BeforeEach
+    void setUp() {
+        repository = (OrderRepository) Proxy.newProxyInstance(
+                OrderRepository.class.getClassLoader(),
+                new Class<?>[]{OrderRepository.class},
+                (proxy, method, args) -> {
+                    synchronized (rows) {
+                        switch (method.getName()) {
+                            case "findById":
+                                OrderEntity row = rows.get((Long) args[0]);
+                                return Optional.ofNullable(row == null ? null : copy(row));
+                            case "transitionStatus":
+                            case "transitionStatusAndAssignChef":
+                                conditionalUpdates.incrementAndGet();
+                                OrderEntity current = rows.get((Long) args[0]);
+                                if (concurrentBumps > 0) {
+                                    // Someone else saved the order (e.g. assigned delivery) since it was read
+                                    concurrentBumps--;
+                                    current.setVersion(current.getVersion() + 1);
+                                }
+                                if (current.getStatus() != args[1] || !Objects.equals(current.getVersion(), args[2])) {
+                                    return 0;
+                                }
+                                current.setStatus((OrderEntity.OrderStatus) args[3]);
+                                current.setVersion(current.getVersion() + 1);
+                                if (args.length > 4) {
+                                    current.setAssignedChef((StaffEntity) args[4]);
+                                }
+                                return 1;
+                            default:
+                                throw new UnsupportedOperationException(method.getName());
+                        }
+                    }
+                });
+        queueRepository = (OrderQueueRepository) Proxy.newProxyInstance(
+                OrderQueueRepository.class.getClassLoader(),
+                new Class<?>[]{OrderQueueRepository.class},
+                (proxy, method, args) -> {
+                    synchronized (queueEntries) {
+                        switch (method.getName()) {
+                            case "findByOrderOrderId":
+                                return Optional.ofNullable(queueEntries.get((Long) args[0]));
+                            case "save":
+                                OrderQueueEntity entry = (OrderQueueEntity) args[0];
+                                queueEntries.put(entry.getOrder().getOrderId(), entry);
+                                return entry;
+                            default:
+                                throw new UnsupportedOperationException(method.getName());
+                        }
+                    }
+                });
+        stateMachine = new OrderStateMachine(repository, queueRepository, publishedEvents::add, 5, 1);
+    }
+
+    private OrderEntity insert(long orderId, OrderEntity.OrderStatus status) {
+        OrderEntity order = new OrderEntity();
+        order.setOrderId(orderId);
+        order.setTotalPrice(new BigDecimal("12.50"));
+        order.setStatus(status);
+        order.setVersion(0L);
+        rows.put(orderId, order);
+        return order;
+    }
+
+    private static OrderEntity copy(OrderEntity row) {
+        OrderEntity copy = new OrderEntity();
+        copy.setOrderId(row.getOrderId());
+        copy.setTotalPrice(row.getTotalPrice());
+        copy.setStatus(row.getStatus());
+        copy.setVersion(row.getVersion());
+        copy.setAssignedChef(row.getAssignedChef());
+        return copy;
+    }
+
+    private static StaffEntity chef(long staffId) {
+        StaffEntity chef = new StaffEntity();
+        chef.setStaffId(staffId);
+        chef.setName("Chef " + staffId);
+        chef.setRole(StaffEntity.StaffRole.Chef);
+        return chef;
+    }
+
+    @Test
+    void testParallelStartsAssignExactlyOneChef() throws Exception {
+        OrderEntity order = insert(1L, OrderEntity.OrderStatus.Placed);
+        ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<OrderEntity>> results = new ArrayList<>();
+        try {
+            for (long i = 1; i <= CALLERS; i++) {
+                StaffEntity chef = chef(i);
+                results.add(pool.submit(() -> {
+                    go.await();
+                    return stateMachine.transition(order.getOrderId(), OrderEntity.OrderStatus.Preparing, chef);
+                }));
+            }
+            go.countDown();
+
+            List<OrderEntity> winners = new ArrayList<>();
+            int rejected = 0;
+            for (Future<OrderEntity> result : results) {
+                try {
+                    winners.add(result.get(10, TimeUnit.SECONDS));
+                } catch (java.util.concurrent.ExecutionException e) {
+                    assertInstanceOf(InvalidOrderStateException.class, e.getCause());
+                    rejected++;
+                }
+            }
+
+            assertEquals(1, winners.size());
+            assertEquals(CALLERS - 1, rejected);
+            OrderEntity stored = rows.get(order.getOrderId());
+            assertEquals(OrderEntity.OrderStatus.Preparing, stored.getStatus());
+            assertEquals(1L, stored.getVersion());
+            assertEquals(winners.get(0).getAssignedChef().getStaffId(), stored.getAssignedChef().getStaffId());
+            assertEquals(List.of(new OrderStatusChangedEvent(order.getOrderId(),
+                    OrderEntity.OrderStatus.Placed, OrderEntity.OrderStatus.Preparing, stored.getAssignedChef().getStaffId())),
+                    publishedEvents);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testParallelCallersWalkOrderThroughEachStatusOnce() throws Exception {
+        insert(2L, OrderEntity.OrderStatus.Pending);
+        List<OrderEntity.OrderStatus> steps = List.of(OrderEntity.OrderStatus.Placed,
+                OrderEntity.OrderStatus.Preparing, OrderEntity.OrderStatus.ReadyForDelivery);
+        ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+        try {
+            for (OrderEntity.OrderStatus step : steps) {
+                CountDownLatch go = new CountDownLatch(1);
+                List<Future<?>> results = new ArrayList<>();
+                for (int i = 0; i < CALLERS; i++) {
+                    results.add(pool.submit(() -> {
+                        go.await();
+                        try {
+                            stateMachine.transition(2L, step);
+                        } catch (InvalidOrderStateException e) {
+                            // Lost the race; the order already moved on
+                        }
+                        return null;
+                    }));
+                }
+                go.countDown();
+                for (Future<?> result : results) {
+                    result.get(10, TimeUnit.SECONDS);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(OrderEntity.OrderStatus.ReadyForDelivery, rows.get(2L).getStatus());
+        assertEquals(3L, rows.get(2L).getVersion());
+        assertEquals(steps.size(), publishedEvents.size());
+    }
+
+    @Test
+    void testRetriesWhenOnlyTheVersionMoved() {
+        insert(3L, OrderEntity.OrderStatus.Preparing);
+        concurrentBumps = 2;
+
+        OrderEntity updated = stateMachine.transition(3L, OrderEntity.OrderStatus.ReadyForDelivery);
+
+        assertEquals(OrderEntity.OrderStatus.ReadyForDelivery, updated.getStatus());
+        assertEquals(3, conditionalUpdates.get());
+        assertEquals(1, publishedEvents.size());
+    }
+
+    @Test
+    void testEachAttemptRunsInItsOwnTransaction() {
+        AtomicInteger transactions = new AtomicInteger();
+        AtomicInteger open = new AtomicInteger();
+        TransactionOperations tracking = new TransactionOperations() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                transactions.incrementAndGet();
+                assertEquals(1, open.incrementAndGet(), "attempts must not nest");
+                try {
+                    return action.doInTransaction(null);
+                } finally {
+                    open.decrementAndGet();
+                }
+            }
+        };
+        OrderStateMachine tracked = new OrderStateMachine(repository, queueRepository, publishedEvents::add,
+                tracking, 5, 1);
+        insert(7L, OrderEntity.OrderStatus.Preparing);
+        concurrentBumps = 2;
+
+        tracked.transition(7L, OrderEntity.OrderStatus.ReadyForDelivery);
+
+        // Two lost attempts and the winning one, each committed (or rolled back) before backing off
+        assertEquals(3, transactions.get());
+        assertEquals(3, conditionalUpdates.get());
+    }
+
+    @Test
+    void testGivesUpAfterMaxAttempts() {
+        insert(4L, OrderEntity.OrderStatus.Preparing);
+        concurrentBumps = Integer.MAX_VALUE;
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> stateMachine.transition(4L, OrderEntity.OrderStatus.ReadyForDelivery));
+        assertEquals(5, conditionalUpdates.get());
+        assertTrue(publishedEvents.isEmpty());
+    }
+
+    @Test
+    void testRejectsInvalidTransitionAndMissingOrder() {
+        insert(5L, OrderEntity.OrderStatus.Placed);
+
+        assertThrows(InvalidOrderStateException.class,
+                () -> stateMachine.transition(5L, OrderEntity.OrderStatus.Delivered));
+        assertThrows(OrderNotFoundException.class,
+                () -> stateMachine.transition(99L, OrderEntity.OrderStatus.Placed));
+        assertEquals(0, conditionalUpdates.get());
+    }
+
+    @Test
+    void testStampsQueueEntryOnlyWhenTheTransitionIsMade() {
+        OrderEntity order = insert(6L, OrderEntity.OrderStatus.Placed);
+        OrderQueueEntity queueEntry = new OrderQueueEntity(order);
+        queueEntries.put(6L, queueEntry);
+
+        stateMachine.transition(6L, OrderEntity.OrderStatus.Preparing, chef(1L));
+        assertEquals(OrderQueueEntity.QueueState.Preparing, queueEntry.getQueueState());
+        assertNotNull(queueEntry.getStartedPreparingAt());
+
+        // A rejected move leaves the queue entry alone
+        assertThrows(InvalidOrderStateException.class,
+                () -> stateMachine.transition(6L, OrderEntity.OrderStatus.Delivered));
+        assertEquals(OrderQueueEntity.QueueState.Preparing, queueEntry.getQueueState());
+
+        stateMachine.transition(6L, OrderEntity.OrderStatus.ReadyForDelivery);
+        stateMachine.transition(6L, OrderEntity.OrderStatus.OutForDelivery);
+        stateMachine.transition(6L, OrderEntity.OrderStatus.Delivered);
+        assertEquals(OrderQueueEntity.QueueState.Delivered, queueEntry.getQueueState());
+    }
+
+    @Test
+    void testIsValidTransition() {
+        assertTrue(OrderStateMachine.isValidTransition(OrderEntity.OrderStatus.Pending, OrderEntity.OrderStatus.Placed));
+        assertTrue(OrderStateMachine.isValidTransition(OrderEntity.OrderStatus.Placed, OrderEntity.OrderStatus.Preparing));
+        assertFalse(OrderStateMachine.isValidTransition(OrderEntity.OrderStatus.Placed, OrderEntity.OrderStatus.Placed));
+        assertFalse(OrderStateMachine.isValidTransition(OrderEntity.OrderStatus.Delivered, OrderEntity.OrderStatus.Pending));
+        assertFalse(OrderStateMachine.isValidTransition(null, OrderEntity.OrderStatus.Placed));
+    }
+}
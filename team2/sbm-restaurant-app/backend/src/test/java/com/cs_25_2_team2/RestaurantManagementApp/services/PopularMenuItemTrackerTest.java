@@ -0,0 +1,98 @@
+package com.cs_25_2_team2.RestaurantManagementApp.services;
+
+import com.cs_25_2_team2.RestaurantManagementApp.SpaceSavingSketch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PopularMenuItemTrackerTest {
+
+    private MutableClock clock;
+    private PopularMenuItemTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-01-01T12:00:00Z"));
+        tracker = new PopularMenuItemTracker(clock);
+    }
+
+    @Test
+    void testTopHonorsLimitAndOrdering() {
+        tracker.record(List.of(1L, 2L, 2L, 3L, 3L, 3L));
+
+        List<SpaceSavingSketch.Entry<Long>> top = tracker.top(2, Duration.ofHours(1));
+
+        assertEquals(2, top.size());
+        assertEquals(3L, top.get(0).key());
+        assertEquals(3L, top.get(0).count());
+        assertEquals(2L, top.get(1).key());
+    }
+
+    @Test
+    void testWindowExcludesOlderSlots() {
+        tracker.record(List.of(1L, 1L, 1L));
+        clock.advance(Duration.ofHours(2));
+        tracker.record(List.of(2L));
+
+        assertEquals(List.of(2L), keys(tracker.top(5, Duration.ofHours(1))));
+        assertEquals(List.of(1L, 2L), keys(tracker.top(5, Duration.ofDays(1))));
+
+        // After a full day the first slot is recycled
+        clock.advance(Duration.ofDays(1));
+        tracker.record(List.of(4L));
+        assertEquals(List.of(4L), keys(tracker.top(5, Duration.ofDays(1))));
+    }
+
+    @Test
+    void testOrderCreatedEventFeedsTracker() {
+        tracker.onOrderCreated(new OrderCreatedEvent(1L, null, null, List.of(7L, 7L)));
+
+        assertEquals(2L, tracker.top(1, Duration.ofMinutes(5)).get(0).count());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> tracker.top(0, Duration.ofHours(1)));
+        assertThrows(IllegalArgumentException.class, () -> tracker.top(5, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> tracker.top(5, Duration.ofDays(2)));
+    }
+
+    private static List<Long> keys(List<SpaceSavingSketch.Entry<Long>> entries) {
+        return entries.stream().map(SpaceSavingSketch.Entry::key).toList();
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
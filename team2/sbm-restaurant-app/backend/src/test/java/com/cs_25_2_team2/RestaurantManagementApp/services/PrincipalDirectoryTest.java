@@ -0,0 +1,152 @@
+package com.cs_25_2_team2.RestaurantManagementApp.services;
+
+import com.cs_25_2_team2.RestaurantManagementApp.entities.CustomerEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.entities.StaffEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.repositories.CustomerRepository;
+import com.cs_25_2_team2.RestaurantManagementApp.repositories.StaffRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrincipalDirectoryTest {
+
+    private final Map<String, CustomerEntity> customers = new HashMap<>();
+    private final Map<String, StaffEntity> staff = new HashMap<>();
+    private int customerLookups;
+    private int staffLookups;
+    private PrincipalDirectory directory;
+
+    @BeforeEach
+    void setUp() {
+        CustomerRepository customerRepository = (CustomerRepository) Proxy.newProxyInstance(
+                CustomerRepository.class.getClassLoader(),
+                new Class<?>[]{CustomerRepository.class},
+                (proxy, method, args) -> {
+                    if ("findByUsername".equals(method.getName())) {
+                        customerLookups++;
+                        return Optional.ofNullable(customers.get((String) args[0]));
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        StaffRepository staffRepository = (StaffRepository) Proxy.newProxyInstance(
+                StaffRepository.class.getClassLoader(),
+                new Class<?>[]{StaffRepository.class},
+                (proxy, method, args) -> {
+                    if ("findByUsername".equals(method.getName())) {
+                        staffLookups++;
+                        return Optional.ofNullable(staff.get((String) args[0]));
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        directory = new PrincipalDirectory(customerRepository, staffRepository, 100, 600, 30);
+
+        CustomerEntity customer = new CustomerEntity();
+        customer.setCustomerId(1L);
+        customer.setUsername("alice");
+        customers.put("alice", customer);
+        StaffEntity chef = new StaffEntity();
+        chef.setStaffId(7L);
+        chef.setUsername("gordon");
+        chef.setRole(StaffEntity.StaffRole.Chef);
+        staff.put("gordon", chef);
+    }
+
+    @Test
+    void testStaffResolvedOnceThenFromMemory() {
+        PrincipalDirectory.Principal principal = directory.find("gordon").orElseThrow();
+        assertEquals(PrincipalDirectory.Type.STAFF, principal.type());
+        assertEquals(7L, principal.id());
+        assertEquals("CHEF", principal.role());
+
+        directory.find("gordon");
+        directory.find("gordon");
+        assertEquals(1, customerLookups);
+        assertEquals(1, staffLookups);
+    }
+
+    @Test
+    void testCustomerTakesPrecedence() {
+        StaffEntity sameName = new StaffEntity();
+        sameName.setStaffId(8L);
+        sameName.setUsername("alice");
+        staff.put("alice", sameName);
+
+        PrincipalDirectory.Principal principal = directory.find("alice").orElseThrow();
+        assertEquals(PrincipalDirectory.Type.CUSTOMER, principal.type());
+        assertEquals("CUSTOMER", principal.role());
+        assertEquals(0, staffLookups);
+    }
+
+    @Test
+    void testUnknownUsernamesAreCached() {
+        assertTrue(directory.find("mallory").isEmpty());
+        assertTrue(directory.find("mallory").isEmpty());
+        assertEquals(1, customerLookups);
+        assertEquals(1, staffLookups);
+        assertEquals(1, directory.size());
+
+        // Registering the name clears the cached miss
+        CustomerEntity registered = new CustomerEntity();
+        registered.setCustomerId(2L);
+        registered.setUsername("mallory");
+        customers.put("mallory", registered);
+        directory.onPrincipalChanged(new PrincipalChangedEvent("mallory", PrincipalDirectory.Type.CUSTOMER, 2L));
+        assertEquals(2L, directory.find("mallory").orElseThrow().id());
+    }
+
+    @Test
+    void testEvictByIdRemovesOnlyThatPrincipal() {
+        directory.find("alice");
+        directory.find("gordon");
+        assertEquals(2, directory.size());
+
+        directory.evict(PrincipalDirectory.Type.STAFF, 7L);
+        assertEquals(1, directory.size());
+        directory.evict(PrincipalDirectory.Type.STAFF, 1L);
+        assertEquals(1, directory.size(), "A staff ID must not evict the customer with the same number");
+
+        staff.remove("gordon");
+        assertTrue(directory.find("gordon").isEmpty());
+    }
+
+    @Test
+    void testEvictByIdFindsEveryNameForThatId() {
+        directory.find("gordon");
+        // Renamed while the old name is still cached
+        StaffEntity renamed = staff.remove("gordon");
+        renamed.setUsername("chef_gordon");
+        staff.put("chef_gordon", renamed);
+        directory.find("chef_gordon");
+        directory.find("alice");
+        assertEquals(2, directory.indexedIds());
+
+        directory.evict(PrincipalDirectory.Type.STAFF, 7L);
+        assertEquals(1, directory.size());
+        assertEquals(1, directory.indexedIds());
+        assertTrue(directory.find("gordon").isEmpty());
+    }
+
+    @Test
+    void testReverseIndexFollowsInvalidation() {
+        directory.find("alice");
+        assertEquals(1, directory.indexedIds());
+
+        directory.invalidate("alice");
+        assertEquals(0, directory.indexedIds());
+        // Unknown names are never indexed
+        directory.find("mallory");
+        assertEquals(0, directory.indexedIds());
+    }
+
+    @Test
+    void testNullUsernameIsNotLookedUp() {
+        assertTrue(directory.find(null).isEmpty());
+        assertEquals(0, customerLookups);
+    }
+}
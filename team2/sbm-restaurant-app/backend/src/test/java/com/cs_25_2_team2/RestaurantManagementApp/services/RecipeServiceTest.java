@@ -1,52 +1,204 @@
 package com.cs_25_2_team2.RestaurantManagementApp.services;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.Mock;
-import org.mockito.InjectMocks;
-import org.mockito.MockitoAnnotations;
 import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClient.RequestHeadersUriSpec;
-import org.springframework.web.reactive.function.client.WebClient.RequestHeadersSpec;
-import reactor.core.publisher.Mono;
-import java.util.function.Function;
+
+import com.sun.net.httpserver.HttpServer;
+
+import reactor.core.publisher.Flux;
+
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.*;
 
+/**
+ * Runs RecipeService against a local stub of the Spoonacular search endpoint
+ */
 class RecipeServiceTest {
-    @Mock
-    private WebClient.Builder webClientBuilder;
-    @Mock
-    private WebClient webClient;
-    @Mock
-    @SuppressWarnings("rawtypes")
-    private WebClient.RequestHeadersUriSpec uriSpec;
-    @Mock
-    private WebClient.ResponseSpec responseSpec;
-
-    @InjectMocks
+
+    private static final Duration TIMEOUT = Duration.ofMillis(500);
+    private static final Duration CACHE_TTL = Duration.ofMinutes(10);
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(30);
+
+    private HttpServer server;
+    private final AtomicInteger hits = new AtomicInteger();
+    private volatile int status = 200;
+    private volatile String body = "{\"results\":[]}";
+    private volatile long delayMillis;
+    private volatile String lastQuery;
+    private volatile String lastApiKey;
+
+    private MutableClock clock;
     private RecipeService recipeService;
 
     @BeforeEach
-    void setUp() {
-        MockitoAnnotations.openMocks(this);
-        recipeService = new RecipeService(webClientBuilder);
-    recipeService.setSpoonKey("test-key");
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/recipes/complexSearch", exchange -> {
+            hits.incrementAndGet();
+            lastQuery = exchange.getRequestURI().getQuery();
+            lastApiKey = exchange.getRequestHeaders().getFirst("x-api-key");
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        clock = new MutableClock(Instant.parse("2025-01-01T12:00:00Z"));
+        recipeService = new RecipeService(WebClient.builder(),
+                "http://localhost:" + server.getAddress().getPort(),
+                TIMEOUT, CACHE_TTL, 2, OPEN_DURATION, 4, clock);
+        recipeService.setSpoonKey("test-key");
+    }
+
+    @AfterEach
+    void tearDown() {
+        recipeService.close();
+        server.stop(0);
     }
 
-    @SuppressWarnings("unchecked")
     @Test
     void testFetchPotatoRecipes() {
-    when(webClientBuilder.build()).thenReturn(webClient);
-    when(webClient.get()).thenReturn(uriSpec);
-    when(uriSpec.uri(any(Function.class))).thenReturn(uriSpec);
-    when(uriSpec.retrieve()).thenReturn(responseSpec);
-    when(responseSpec.bodyToMono(String.class)).thenReturn(Mono.just("{\"results\":[]}"));
-
-        Mono<String> resultMono = recipeService.fetchPotatoRecipes(1);
-        String result = resultMono.block();
+        String result = recipeService.fetchPotatoRecipes(3).block();
+
         assertNotNull(result);
         assertTrue(result.contains("results"));
+        assertTrue(lastQuery.contains("query=potato"));
+        assertTrue(lastQuery.contains("number=3"));
+        assertFalse(lastQuery.contains("apiKey"));
+        assertEquals("test-key", lastApiKey);
+    }
+
+    @Test
+    void testOutOfRangeNumberIsRejectedWithoutCallingUpstream() {
+        assertThrows(IllegalArgumentException.class, () -> recipeService.fetchPotatoRecipes(0).block());
+        assertThrows(IllegalArgumentException.class,
+                () -> recipeService.fetchPotatoRecipes(RecipeService.MAX_RECIPES + 1).block());
+        assertEquals(0, hits.get());
+    }
+
+    @Test
+    void testResultsAreCachedPerNumberUntilTtl() {
+        recipeService.fetchPotatoRecipes(3).block();
+        recipeService.fetchPotatoRecipes(3).block();
+        assertEquals(1, hits.get());
+
+        recipeService.fetchPotatoRecipes(5).block();
+        assertEquals(2, hits.get());
+
+        body = "{\"results\":[{\"id\":1}]}";
+        clock.advance(CACHE_TTL.plusSeconds(1));
+        assertEquals(body, recipeService.fetchPotatoRecipes(3).block());
+        assertEquals(3, hits.get());
+    }
+
+    @Test
+    void testConcurrentIdenticalQueriesShareOneCall() {
+        delayMillis = 300;
+
+        List<String> results = Flux.range(0, 8)
+                .flatMap(i -> recipeService.fetchPotatoRecipes(3))
+                .collectList()
+                .block();
+
+        assertEquals(8, results.size());
+        assertEquals(1, hits.get());
+    }
+
+    @Test
+    void testSlowUpstreamServesLastGoodPayload() {
+        String good = recipeService.fetchPotatoRecipes(3).block();
+
+        clock.advance(CACHE_TTL.plusSeconds(1));
+        body = "{\"results\":[{\"id\":2}]}";
+        delayMillis = TIMEOUT.toMillis() * 3;
+
+        long start = System.nanoTime();
+        assertEquals(good, recipeService.fetchPotatoRecipes(3).block());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofMillis(delayMillis)) < 0);
+    }
+
+    @Test
+    void testCircuitOpensAfterRepeatedFailures() {
+        status = 500;
+
+        assertThrows(RecipeService.RecipesUnavailableException.class,
+                () -> recipeService.fetchPotatoRecipes(3).block());
+        assertThrows(RecipeService.RecipesUnavailableException.class,
+                () -> recipeService.fetchPotatoRecipes(3).block());
+        assertEquals(RecipeService.CircuitBreaker.State.OPEN, recipeService.breakerState());
+        assertEquals(2, hits.get());
+
+        // Open: fails fast without calling upstream
+        assertThrows(RecipeService.RecipesUnavailableException.class,
+                () -> recipeService.fetchPotatoRecipes(3).block());
+        assertEquals(2, hits.get());
+
+        // After the open period one trial call goes through and closes the circuit
+        status = 200;
+        clock.advance(OPEN_DURATION);
+        assertNotNull(recipeService.fetchPotatoRecipes(3).block());
+        assertEquals(3, hits.get());
+        assertEquals(RecipeService.CircuitBreaker.State.CLOSED, recipeService.breakerState());
+    }
+
+    @Test
+    void testRejectedRequestIsNotCountedAsUpstreamFailure() {
+        status = 401;
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(RuntimeException.class, () -> recipeService.fetchPotatoRecipes(3).block());
+        }
+        assertEquals(RecipeService.CircuitBreaker.State.CLOSED, recipeService.breakerState());
+        assertEquals(3, hits.get());
+    }
+
+    private static class MutableClock extends Clock {
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,88 @@
+package com.cs_25_2_team2.RestaurantManagementApp.services;
+
+import com.cs_25_2_team2.RestaurantManagementApp.entities.OrderEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.entities.StaffEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.repositories.OrderRepository;
+import com.cs_25_2_team2.RestaurantManagementApp.repositories.StaffRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RestaurantMetricsStoreTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private StaffRepository staffRepository;
+
+    private RestaurantMetricsStore metricsStore;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(orderRepository.count()).thenReturn(10L);
+        when(orderRepository.countByCreatedAtAfter(any())).thenReturn(4L);
+        when(orderRepository.sumTotalPriceByCreatedAtAfter(any())).thenReturn(new BigDecimal("40.00"));
+        when(orderRepository.countGroupedByStatus()).thenReturn(List.of(
+                new Object[] {OrderEntity.OrderStatus.Placed, 2L},
+                new Object[] {OrderEntity.OrderStatus.Preparing, 1L}));
+        when(staffRepository.countByRole(StaffEntity.StaffRole.Chef)).thenReturn(3L);
+        when(staffRepository.countByRole(StaffEntity.StaffRole.Delivery)).thenReturn(2L);
+        metricsStore = new RestaurantMetricsStore(orderRepository, staffRepository);
+    }
+
+    @Test
+    void testSnapshotReconcilesOnceThenReadsCounters() {
+        RestaurantService.RestaurantMetrics first = metricsStore.snapshot();
+        RestaurantService.RestaurantMetrics second = metricsStore.snapshot();
+
+        assertEquals(10L, second.totalOrders);
+        assertEquals(4L, second.ordersToday);
+        assertEquals(2L, second.pendingOrders);
+        assertEquals(1L, second.preparingOrders);
+        assertEquals(3L, second.totalChefs);
+        assertEquals(2L, second.totalDelivery);
+        assertEquals(new BigDecimal("40.00"), first.revenueToday);
+        verify(orderRepository, times(1)).count();
+        verify(orderRepository, times(1)).countGroupedByStatus();
+    }
+
+    @Test
+    void testEventsUpdateCountersWithoutQueries() {
+        metricsStore.snapshot();
+
+        metricsStore.onOrderCreated(new OrderCreatedEvent(11L, OrderEntity.OrderStatus.Placed, new BigDecimal("12.50"), List.of(1L)));
+        metricsStore.onOrderStatusChanged(new OrderStatusChangedEvent(11L,
+                OrderEntity.OrderStatus.Placed, OrderEntity.OrderStatus.Preparing, 1L));
+        RestaurantService.RestaurantMetrics metrics = metricsStore.snapshot();
+
+        assertEquals(11L, metrics.totalOrders);
+        assertEquals(5L, metrics.ordersToday);
+        assertEquals(2L, metrics.pendingOrders);
+        assertEquals(2L, metrics.preparingOrders);
+        assertEquals(new BigDecimal("52.50"), metrics.revenueToday);
+        verify(orderRepository, times(1)).count();
+    }
+
+    @Test
+    void testReconcileCorrectsDrift() {
+        metricsStore.snapshot();
+        metricsStore.onOrderCreated(new OrderCreatedEvent(11L, OrderEntity.OrderStatus.Pending, BigDecimal.ONE, List.of()));
+
+        when(orderRepository.sumTotalPriceByCreatedAtAfter(any())).thenReturn(null);
+        metricsStore.reconcile();
+        RestaurantService.RestaurantMetrics metrics = metricsStore.snapshot();
+
+        assertEquals(10L, metrics.totalOrders);
+        assertEquals(BigDecimal.ZERO, metrics.revenueToday);
+    }
+}
@@ -0,0 +1,123 @@
+package com.cs_25_2_team2.RestaurantManagementApp.services;
+
+import com.cs_25_2_team2.RestaurantManagementApp.entities.CartEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.entities.CartItemEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.entities.CustomerEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.entities.MenuItemEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.entities.OrderEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.entities.StaffEntity;
+import com.cs_25_2_team2.RestaurantManagementApp.repositories.CartItemRepository;
+import com.cs_25_2_team2.RestaurantManagementApp.repositories.CartRepository;
+import com.cs_25_2_team2.RestaurantManagementApp.repositories.CustomerRepository;
+import com.cs_25_2_team2.RestaurantManagementApp.repositories.MenuItemRepository;
+import com.cs_25_2_team2.RestaurantManagementApp.repositories.StaffRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the JDBC statements checkout prepares against the real repositories, so an N+1 on the
+ * cart lines fails here even though the Mockito test sees one repository call per step.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class RestaurantServiceJpaTest {
+
+    private static final int LARGE_CART = 20;
+
+    @Autowired
+    private RestaurantService restaurantService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private StaffRepository staffRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private final List<MenuItemEntity> menuItems = new ArrayList<>();
+    private int customers;
+    private Long lastCartId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (int i = 1; i <= LARGE_CART; i++) {
+            menuItems.add(menuItemRepository.save(new MenuItemEntity("Stats Dish " + i,
+                    MenuItemEntity.Category.SIDE, new BigDecimal("2.50"),
+                    MenuItemEntity.CookedType.Fried, MenuItemEntity.PotatoType.Russet)));
+        }
+        StaffEntity chef = new StaffEntity("statschef", "Stats Chef", "555-0100", StaffEntity.StaffRole.Chef);
+        chef.setPasswordHash("unused");
+        staffRepository.save(chef);
+    }
+
+    /**
+     * Save a customer whose cart has one line per distinct menu item
+     */
+    private Long customerWithCart(int lines) {
+        customers++;
+        CustomerEntity customer = new CustomerEntity("stats" + customers, "Stats Customer", "1 Main St", "555-0101");
+        customer.setPasswordHash("unused");
+        customer = customerRepository.save(customer);
+        CartEntity cart = cartRepository.save(new CartEntity(customer));
+        lastCartId = cart.getCartId();
+        List<CartItemEntity> cartItems = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            cartItems.add(new CartItemEntity(cart, menuItems.get(i), 2));
+        }
+        cartItemRepository.saveAll(cartItems);
+        return customer.getCustomerId();
+    }
+
+    /**
+     * Statements prepared by one checkout of a cart with the given number of lines
+     */
+    private long checkoutStatements(int lines) {
+        Long customerId = customerWithCart(lines);
+        statistics.clear();
+        OrderEntity order = restaurantService.processOrderCheckout(
+                customerId, "4111111111111111", "Stats Customer", 12, 2030, "123");
+        long prepared = statistics.getPrepareStatementCount();
+
+        assertEquals(lines, order.getOrderItems().size());
+        assertEquals(new BigDecimal("5.00").multiply(BigDecimal.valueOf(lines)), order.getTotalPrice());
+        assertNotNull(order.getAssignedChef());
+        assertEquals(0L, cartItemRepository.countByCartId(lastCartId));
+        return prepared;
+    }
+
+    @Test
+    void testProcessOrderCheckout_StatementCountIndependentOfCartSize() {
+        // The first checkout primes the ID sequences, which later checkouts draw from their pools
+        checkoutStatements(1);
+
+        long singleLine = checkoutStatements(1);
+        long largeCart = checkoutStatements(LARGE_CART);
+
+        assertEquals(singleLine, largeCart,
+                "checkout of a " + LARGE_CART + "-line cart prepared " + largeCart + " statements vs "
+                        + singleLine + " for one line");
+    }
+}
@@ -7,12 +7,17 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import java.lang.reflect.Field;
 import static org.junit.jupiter.api.Assertions.*;
+import java.math.BigDecimal;
 import java.util.Optional;
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 class RestaurantServiceTest {
@@ -29,6 +34,21 @@ class RestaurantServiceTest {
     @Mock
     private CartItemRepository cartItemRepository;
 
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private OrderQueueRepository orderQueueRepository;
+
+    @Mock
+    private StaffRepository staffRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private RestaurantService restaurantService;
 
@@ -136,7 +156,159 @@ class RestaurantServiceTest {
         restaurantService.clearCart(customerId);
 
         // Assert
-        verify(cartItemRepository, times(1)).deleteAll(cart.getCartItems());
+        verify(cartItemRepository, times(1)).deleteAllByCartId(cart.getCartId());
+        verify(cartItemRepository, never()).deleteAll(any());
         assertTrue(cart.getCartItems().isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testProcessOrderCheckout_RoundTripsConstantForLargeCart() {
+        // Arrange: a 20-line cart
+        Long customerId = 1L;
+        CustomerEntity customer = new CustomerEntity();
+        customer.setCustomerId(customerId);
+        CartEntity cart = new CartEntity(customer);
+        cart.setCartId(5L);
+        cart.setCartItems(new ArrayList<>());
+        customer.setCart(cart);
+        for (long i = 1; i <= 20; i++) {
+            MenuItemEntity menuItem = new MenuItemEntity();
+            menuItem.setDishId(i);
+            menuItem.setPrice(new BigDecimal("2.50"));
+            cart.getCartItems().add(new CartItemEntity(cart, menuItem, 2));
+        }
+
+        when(customerRepository.findByIdWithCartItems(customerId)).thenReturn(Optional.of(customer));
+        when(orderRepository.save(any(OrderEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(staffRepository.findByRole(StaffEntity.StaffRole.Chef)).thenReturn(List.of());
+
+        // Act
+        OrderEntity order = restaurantService.processOrderCheckout(
+                customerId, "4111111111111111", "Test User", 12, 2030, "123");
+
+        // Assert: one call per step, independent of the number of cart lines
+        assertEquals(new BigDecimal("100.00"), order.getTotalPrice());
+        assertEquals(20, order.getOrderItems().size());
+        assertNotNull(order.getOrderQueue());
+        assertTrue(cart.getCartItems().isEmpty());
+        verify(customerRepository, times(1)).findByIdWithCartItems(customerId);
+        verify(customerRepository, never()).findById(anyLong());
+        verify(orderRepository, times(1)).save(any(OrderEntity.class));
+        verify(orderRepository, never()).findById(anyLong());
+        verify(orderItemRepository, times(1)).saveAll(argThat(items -> ((List<?>) items).size() == 20));
+        verify(orderItemRepository, never()).save(any(OrderItemEntity.class));
+        verify(orderQueueRepository, times(1)).save(any(OrderQueueEntity.class));
+        verify(cartItemRepository, times(1)).deleteAllByCartId(5L);
+        verify(cartItemRepository, never()).delete(any(CartItemEntity.class));
+    }
+
+    private StaffEntity chef(long id) {
+        StaffEntity chef = new StaffEntity("chef" + id, "Chef " + id, "555-000" + id, StaffEntity.StaffRole.Chef);
+        chef.setStaffId(id);
+        return chef;
+    }
+
+    /**
+     * Route status changes through a real state machine whose conditional updates always match
+     */
+    private void useStateMachine() throws Exception {
+        Field stateMachineField = RestaurantService.class.getDeclaredField("orderStateMachine");
+        stateMachineField.setAccessible(true);
+        stateMachineField.set(restaurantService,
+                new OrderStateMachine(orderRepository, orderQueueRepository, eventPublisher, 1, 0));
+        when(orderRepository.transitionStatus(anyLong(), any(), any(), any())).thenAnswer(invocation -> {
+            OrderEntity order = orderRepository.findById(invocation.getArgument(0)).orElseThrow();
+            order.setStatus(invocation.getArgument(3));
+            return 1;
+        });
+        when(orderRepository.transitionStatusAndAssignChef(anyLong(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            OrderEntity order = orderRepository.findById(invocation.getArgument(0)).orElseThrow();
+            order.setStatus(invocation.getArgument(3));
+            order.setAssignedChef(invocation.getArgument(4));
+            return 1;
+        });
+    }
+
+    private OrderEntity placedOrder(long id) {
+        OrderEntity order = new OrderEntity(new CustomerEntity(), BigDecimal.TEN);
+        order.setOrderId(id);
+        order.setStatus(OrderEntity.OrderStatus.Placed);
+        when(orderRepository.findById(id)).thenReturn(Optional.of(order));
+        return order;
+    }
+
+    @Test
+    void testAssignChefToOrder_AggregateQueryPicksLeastLoadedChef() {
+        StaffEntity busyChef = chef(1L);
+        StaffEntity idleChef = chef(2L);
+        when(staffRepository.findByRole(StaffEntity.StaffRole.Chef)).thenReturn(List.of(busyChef, idleChef));
+        // idle chef has no preparing orders, so the LEFT JOIN reports 0 for it
+        when(staffRepository.countOrdersPerChefByStatus(OrderEntity.OrderStatus.Preparing))
+                .thenReturn(List.of(new Object[] {1L, 3L}, new Object[] {2L, 0L}));
+        placedOrder(10L);
+
+        OrderEntity result = restaurantService.assignChefToOrder(10L);
+
+        assertSame(idleChef, result.getAssignedChef());
+        verify(staffRepository, times(1)).countOrdersPerChefByStatus(OrderEntity.OrderStatus.Preparing);
+        verify(orderRepository, never()).countByAssignedChefAndStatus(any(), any());
+    }
+
+    @Test
+    void testAssignChefToOrder_InMemoryCounterTracksStatusTransitions() throws Exception {
+        // Counters move on published status changes, as they would once each transaction commits
+        ChefLoadCounters counters = new ChefLoadCounters(staffRepository);
+        Field countersField = RestaurantService.class.getDeclaredField("chefLoadCounters");
+        countersField.setAccessible(true);
+        countersField.set(restaurantService, counters);
+        doAnswer(invocation -> {
+            if (invocation.getArgument(0) instanceof OrderStatusChangedEvent event) {
+                counters.onOrderStatusChanged(event);
+            }
+            return null;
+        }).when(eventPublisher).publishEvent(any(Object.class));
+        restaurantService.setChefAssignmentStrategy(RestaurantService.ChefAssignmentStrategy.IN_MEMORY_COUNTER);
+        useStateMachine();
+        StaffEntity firstChef = chef(1L);
+        StaffEntity secondChef = chef(2L);
+        when(staffRepository.findByRole(StaffEntity.StaffRole.Chef)).thenReturn(List.of(firstChef, secondChef));
+        when(staffRepository.countOrdersPerChefByStatus(OrderEntity.OrderStatus.Preparing))
+                .thenReturn(List.of(new Object[] {1L, 0L}, new Object[] {2L, 0L}));
+        when(orderRepository.save(any(OrderEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        placedOrder(10L);
+        placedOrder(11L);
+        placedOrder(12L);
+
+        assertSame(firstChef, restaurantService.assignChefToOrder(10L).getAssignedChef());
+        restaurantService.updateOrderStatus(10L, OrderEntity.OrderStatus.Preparing);
+        assertSame(secondChef, restaurantService.assignChefToOrder(11L).getAssignedChef());
+
+        // once the first chef's order leaves Preparing they are the least loaded again
+        restaurantService.updateOrderStatus(10L, OrderEntity.OrderStatus.ReadyForDelivery);
+        restaurantService.updateOrderStatus(11L, OrderEntity.OrderStatus.Preparing);
+        assertSame(firstChef, restaurantService.assignChefToOrder(12L).getAssignedChef());
+
+        // counters were seeded from the database once and then maintained in memory
+        verify(staffRepository, times(1)).countOrdersPerChefByStatus(OrderEntity.OrderStatus.Preparing);
+        assertThrows(IllegalArgumentException.class, () -> restaurantService.setChefAssignmentStrategy(null));
+    }
+
+    @Test
+    void testUpdateOrderStatus_ConditionalUpdateAssignsChef() throws Exception {
+        useStateMachine();
+        StaffEntity chef = chef(1L);
+        when(staffRepository.findByRole(StaffEntity.StaffRole.Chef)).thenReturn(List.of(chef));
+        when(staffRepository.countOrdersPerChefByStatus(OrderEntity.OrderStatus.Preparing)).thenReturn(List.of());
+        OrderEntity order = placedOrder(10L);
+
+        OrderEntity result = restaurantService.updateOrderStatus(10L, OrderEntity.OrderStatus.Preparing);
+
+        assertEquals(OrderEntity.OrderStatus.Preparing, result.getStatus());
+        assertSame(chef, order.getAssignedChef());
+        verify(orderRepository, times(1)).transitionStatusAndAssignChef(
+                10L, OrderEntity.OrderStatus.Placed, null, OrderEntity.OrderStatus.Preparing, chef);
+        verify(orderRepository, never()).save(any(OrderEntity.class));
+        assertThrows(RuntimeException.class,
+                () -> restaurantService.updateOrderStatus(10L, OrderEntity.OrderStatus.Delivered));
+    }
+}
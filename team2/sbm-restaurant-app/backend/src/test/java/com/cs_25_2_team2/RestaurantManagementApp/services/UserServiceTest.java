@@ -7,7 +7,9 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.lang.reflect.Field;
 import java.util.Optional;
 import java.util.List;
 import java.util.Collections;
@@ -83,19 +85,29 @@ class UserServiceTest {
     private OrderRepository orderRepository;
     @Mock
     private CartRepository cartRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private UserService userService;
 
+    private PrincipalDirectory principalDirectory;
+
     @BeforeEach
-    void setUp() {
+    void setUp() throws Exception {
         MockitoAnnotations.openMocks(this);
+        principalDirectory = new PrincipalDirectory(customerRepository, staffRepository, 100, 600, 30);
+        Field directoryField = UserService.class.getDeclaredField("principalDirectory");
+        directoryField.setAccessible(true);
+        directoryField.set(userService, principalDirectory);
     }
 
     @Test
     void testAuthenticateUser_CustomerSuccess() {
         CustomerEntity customer = new CustomerEntity();
+        customer.setCustomerId(1L);
         when(customerRepository.findByUsername("user")).thenReturn(Optional.of(customer));
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
         Object result = userService.authenticateUser("user", "password");
         assertEquals(customer, result);
     }
@@ -104,11 +116,54 @@ class UserServiceTest {
     void testAuthenticateUser_StaffSuccess() {
         when(customerRepository.findByUsername("user")).thenReturn(Optional.empty());
         StaffEntity staff = new StaffEntity();
+        staff.setStaffId(2L);
         when(staffRepository.findByUsername("user")).thenReturn(Optional.of(staff));
+        when(staffRepository.findById(2L)).thenReturn(Optional.of(staff));
         Object result = userService.authenticateUser("user", "password");
         assertEquals(staff, result);
     }
 
+    @Test
+    void testAuthenticateUser_ResolvesUsernameOnce() {
+        when(customerRepository.findByUsername("user")).thenReturn(Optional.empty());
+        StaffEntity staff = new StaffEntity();
+        staff.setStaffId(2L);
+        when(staffRepository.findByUsername("user")).thenReturn(Optional.of(staff));
+        when(staffRepository.findById(2L)).thenReturn(Optional.of(staff));
+
+        assertEquals(staff, userService.authenticateUser("user", "password"));
+        assertEquals(staff, userService.getUserByUsername("user"));
+        assertNull(userService.authenticateUser("nobody", "password"));
+        assertNull(userService.authenticateUser("nobody", "password"));
+
+        verify(customerRepository, times(1)).findByUsername("user");
+        verify(staffRepository, times(1)).findByUsername("user");
+        verify(staffRepository, times(1)).findByUsername("nobody");
+    }
+
+    @Test
+    void testGetCustomerByUsername_SecondLookupMakesNoRepositoryCall() {
+        CustomerEntity customer = new CustomerEntity();
+        customer.setCustomerId(1L);
+        when(customerRepository.findByUsername("cust")).thenReturn(Optional.of(customer));
+
+        assertEquals(customer, userService.getCustomerByUsername("cust"));
+        clearInvocations(customerRepository, staffRepository);
+        assertEquals(customer, userService.getCustomerByUsername("cust"));
+
+        verifyNoInteractions(customerRepository, staffRepository);
+    }
+
+    @Test
+    void testSaveStaff_PublishesPrincipalChanged() {
+        StaffEntity staff = new StaffEntity();
+        staff.setStaffId(2L);
+        staff.setUsername("chef");
+        when(staffRepository.save(staff)).thenReturn(staff);
+        userService.saveStaff(staff);
+        verify(eventPublisher).publishEvent(new PrincipalChangedEvent("chef", PrincipalDirectory.Type.STAFF, 2L));
+    }
+
     @Test
     void testAuthenticateUser_Failure() {
         when(customerRepository.findByUsername("user")).thenReturn(Optional.empty());